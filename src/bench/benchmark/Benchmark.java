@@ -0,0 +1,66 @@
+package benchmark;
+
+import java.util.Collections;
+import java.util.List;
+
+// Represents a benchmark: an operation that is timed once for each value of a single parameter (such as the number of
+// files in a folder). For each value, the state the operation works on is built by a Setup before any timing starts
+public class Benchmark {
+    private final String name;
+    private final String paramName;
+    private final List<String> paramValues;
+    private final Setup setup;
+
+    // Represents the untimed building of the state a benchmark's operation works on
+    public interface Setup {
+        // EFFECTS: builds the state for the parameter value paramValue and returns the operation to time on it
+        // throws Exception if the state could not be built
+        Operation setUp(String paramValue) throws Exception;
+    }
+
+    // Represents the operation a benchmark times
+    public interface Operation {
+        // MODIFIES: the state the operation works on
+        // EFFECTS: does the operation for the invocation-th time (counting from 0) and returns what it computed, so
+        // that the work is not optimized away
+        // throws Exception if the operation failed, which ends the benchmark
+        Object run(long invocation) throws Exception;
+    }
+
+    // Represents an operation that changes its state in a way that has to be put back before it is run again (such as
+    // removing every label from a file). Only run is timed; each invocation is timed on its own
+    public interface PreparedOperation extends Operation {
+        // MODIFIES: the state the operation works on
+        // EFFECTS: puts the state back so that the invocation-th run does the same work as the first
+        // throws Exception if the state could not be put back
+        void prepare(long invocation) throws Exception;
+    }
+
+    // REQUIRES: paramValues is not empty
+    // EFFECTS: constructs a benchmark named name timing the operations setup builds for each of paramValues (the values
+    // of the parameter named paramName)
+    public Benchmark(String name, String paramName, List<String> paramValues, Setup setup) {
+        this.name = name;
+        this.paramName = paramName;
+        this.paramValues = paramValues;
+        this.setup = setup;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getParamName() {
+        return paramName;
+    }
+
+    public List<String> getParamValues() {
+        return Collections.unmodifiableList(paramValues);
+    }
+
+    // EFFECTS: builds the state for paramValue and returns the operation to time on it
+    // throws Exception if the state could not be built
+    public Operation setUp(String paramValue) throws Exception {
+        return setup.setUp(paramValue);
+    }
+}
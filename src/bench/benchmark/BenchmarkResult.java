@@ -0,0 +1,107 @@
+package benchmark;
+
+import java.util.Arrays;
+
+// Represents the result of timing one benchmark for one value of its parameter: the average time per operation, in
+// nanoseconds, measured in each of a number of iterations. Like JMH's average time mode, its score is the mean of those
+// and its error is the half-width of the 99.9% confidence interval around the mean
+public class BenchmarkResult {
+    public static final String UNIT = "ns/op";
+
+    // two-sided 99.9% quantiles of Student's t distribution with 1, 2, ..., 30 degrees of freedom
+    private static final double[] T_QUANTILES = {
+        636.619, 31.599, 12.924, 8.610, 6.869, 5.959, 5.408, 5.041, 4.781, 4.587,
+        4.437, 4.318, 4.221, 4.140, 4.073, 4.015, 3.965, 3.922, 3.883, 3.850,
+        3.819, 3.792, 3.768, 3.745, 3.725, 3.707, 3.690, 3.674, 3.659, 3.646
+    };
+    private static final double NORMAL_QUANTILE = 3.291;
+
+    private final String benchmark;
+    private final String paramName;
+    private final String paramValue;
+    private final double[] nanosPerOp;
+    private final double score;
+    private final double error;
+
+    // REQUIRES: nanosPerOp is not empty
+    // EFFECTS: constructs the result of timing benchmark with the parameter named paramName set to paramValue, which
+    // averaged nanosPerOp[i] nanoseconds per operation in iteration i
+    public BenchmarkResult(String benchmark, String paramName, String paramValue, double[] nanosPerOp) {
+        this.benchmark = benchmark;
+        this.paramName = paramName;
+        this.paramValue = paramValue;
+        this.nanosPerOp = Arrays.copyOf(nanosPerOp, nanosPerOp.length);
+        score = mean(nanosPerOp);
+        error = confidenceHalfWidth(nanosPerOp, score);
+    }
+
+    // REQUIRES: score >= 0, error >= 0
+    // EFFECTS: constructs a result read back from a results file, with the given score and error and no iterations
+    public BenchmarkResult(String benchmark, String paramName, String paramValue, double score, double error) {
+        this.benchmark = benchmark;
+        this.paramName = paramName;
+        this.paramValue = paramValue;
+        this.nanosPerOp = new double[0];
+        this.score = score;
+        this.error = error;
+    }
+
+    public String getBenchmark() {
+        return benchmark;
+    }
+
+    public String getParamName() {
+        return paramName;
+    }
+
+    public String getParamValue() {
+        return paramValue;
+    }
+
+    // EFFECTS: returns the average nanoseconds per operation in each iteration
+    public double[] getNanosPerOp() {
+        return Arrays.copyOf(nanosPerOp, nanosPerOp.length);
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public double getError() {
+        return error;
+    }
+
+    // EFFECTS: returns a key that identifies the benchmark and parameter value this is the result of, for matching it
+    // with the result of the same benchmark in another run
+    public String getKey() {
+        return benchmark + " " + paramName + "=" + paramValue;
+    }
+
+
+    // Helper Methods:
+
+    // EFFECTS: returns the mean of values
+    private static double mean(double[] values) {
+        double sum = 0;
+        for (double value : values) {
+            sum += value;
+        }
+        return sum / values.length;
+    }
+
+    // EFFECTS: returns the half-width of the 99.9% confidence interval around mean, the mean of values, or 0 if there
+    // are too few values to estimate it
+    private static double confidenceHalfWidth(double[] values, double mean) {
+        int n = values.length;
+        if (n < 2) {
+            return 0;
+        }
+        double sumOfSquares = 0;
+        for (double value : values) {
+            sumOfSquares += (value - mean) * (value - mean);
+        }
+        double standardDeviation = Math.sqrt(sumOfSquares / (n - 1));
+        double quantile = n - 1 <= T_QUANTILES.length ? T_QUANTILES[n - 2] : NORMAL_QUANTILE;
+        return quantile * standardDeviation / Math.sqrt(n);
+    }
+}
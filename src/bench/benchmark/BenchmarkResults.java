@@ -0,0 +1,180 @@
+package benchmark;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import persistence.AtomicFileWriter;
+import persistence.exceptions.InvalidJsonException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Represents the results of a benchmark run, as saved to a JSON file. The file is laid out to be diffed between
+// releases: a header describing the run, then one line per result, in the order they were run, with its score and error
+// in nanoseconds per operation to three decimal places. compareTo lines each result up with the same one in an earlier
+// run and reports the ones that have become slower
+public class BenchmarkResults {
+    public static final int FORMAT_VERSION = 1;
+    public static final double DEFAULT_REGRESSION_THRESHOLD = 0.10;
+
+    private final String javaVersion;
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final long iterationMillis;
+    private final List<BenchmarkResult> results;
+
+    // EFFECTS: constructs an empty set of results of a run on javaVersion with the given run settings
+    public BenchmarkResults(String javaVersion, int warmupIterations, int measurementIterations,
+                            long iterationMillis) {
+        this.javaVersion = javaVersion;
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationMillis = iterationMillis;
+        results = new ArrayList<BenchmarkResult>();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds result to the end of the results
+    public void add(BenchmarkResult result) {
+        results.add(result);
+    }
+
+    public List<BenchmarkResult> getResults() {
+        return new ArrayList<BenchmarkResult>(results);
+    }
+
+    public String getJavaVersion() {
+        return javaVersion;
+    }
+
+    // EFFECTS: replaces the file at filePath with these results
+    // throws IOException if it could not be written
+    public void write(String filePath) throws IOException {
+        AtomicFileWriter.write(filePath, format().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // EFFECTS: returns these results as the contents of a results file
+    public String format() {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("    \"format\": ").append(FORMAT_VERSION).append(",\n");
+        json.append("    \"java\": ").append(JSONObject.quote(javaVersion)).append(",\n");
+        json.append("    \"warmupIterations\": ").append(warmupIterations).append(",\n");
+        json.append("    \"measurementIterations\": ").append(measurementIterations).append(",\n");
+        json.append("    \"iterationMillis\": ").append(iterationMillis).append(",\n");
+        json.append("    \"unit\": ").append(JSONObject.quote(BenchmarkResult.UNIT)).append(",\n");
+        json.append("    \"results\": [");
+        for (int i = 0; i < results.size(); i++) {
+            BenchmarkResult result = results.get(i);
+            json.append(i == 0 ? "\n" : ",\n");
+            json.append("        {\"benchmark\": ").append(JSONObject.quote(result.getBenchmark()));
+            json.append(", \"param\": ").append(JSONObject.quote(result.getParamName()));
+            json.append(", \"value\": ").append(JSONObject.quote(result.getParamValue()));
+            json.append(", \"score\": ").append(formatNanos(result.getScore()));
+            json.append(", \"error\": ").append(formatNanos(result.getError())).append("}");
+        }
+        json.append(results.isEmpty() ? "]\n" : "\n    ]\n");
+        json.append("}\n");
+        return json.toString();
+    }
+
+    // EFFECTS: reads the results file at filePath and returns the results in it
+    // throws IOException if it could not be read
+    // throws InvalidJsonException if it is not a results file of this format
+    public static BenchmarkResults read(String filePath) throws IOException, InvalidJsonException {
+        String contents;
+        try {
+            contents = new String(Files.readAllBytes(Paths.get(filePath)), StandardCharsets.UTF_8);
+        } catch (InvalidPathException e) {
+            throw new IOException(e);
+        }
+        try {
+            JSONObject json = new JSONObject(contents);
+            if (json.getInt("format") != FORMAT_VERSION || !BenchmarkResult.UNIT.equals(json.getString("unit"))) {
+                throw new InvalidJsonException();
+            }
+            BenchmarkResults read = new BenchmarkResults(json.getString("java"), json.getInt("warmupIterations"),
+                    json.getInt("measurementIterations"), json.getLong("iterationMillis"));
+            JSONArray results = json.getJSONArray("results");
+            for (int i = 0; i < results.length(); i++) {
+                JSONObject result = results.getJSONObject(i);
+                read.add(new BenchmarkResult(result.getString("benchmark"), result.getString("param"),
+                        result.getString("value"), result.getDouble("score"), result.getDouble("error")));
+            }
+            return read;
+        } catch (JSONException e) {
+            throw new InvalidJsonException();
+        }
+    }
+
+    // EFFECTS: returns a report of how each of these results compares to the same result in baseline, one line each,
+    // followed by a line counting the regressions. A result is a regression if its score is more than threshold (as a
+    // fraction) above the baseline's and the two scores' confidence intervals do not overlap, so that noise alone is
+    // not reported. Results with no baseline are reported as new
+    public List<String> compareTo(BenchmarkResults baseline, double threshold) {
+        Map<String, BenchmarkResult> baselineResults = new LinkedHashMap<String, BenchmarkResult>();
+        for (BenchmarkResult result : baseline.results) {
+            baselineResults.put(result.getKey(), result);
+        }
+        List<String> report = new ArrayList<String>();
+        for (BenchmarkResult result : results) {
+            report.add(compare(result, baselineResults.remove(result.getKey()), threshold));
+        }
+        for (String key : baselineResults.keySet()) {
+            report.add(String.format(Locale.ROOT, "%-70s  removed", key));
+        }
+        report.add(countRegressions(baseline, threshold) + " regression(s) of more than "
+                + String.format(Locale.ROOT, "%.0f%%", threshold * 100) + " against the baseline run on "
+                + baseline.javaVersion);
+        return report;
+    }
+
+    // EFFECTS: returns the number of these results that are regressions (see compareTo) against baseline
+    public int countRegressions(BenchmarkResults baseline, double threshold) {
+        int numRegressions = 0;
+        for (BenchmarkResult result : results) {
+            for (BenchmarkResult before : baseline.results) {
+                if (before.getKey().equals(result.getKey()) && isRegression(before, result, threshold)) {
+                    numRegressions++;
+                }
+            }
+        }
+        return numRegressions;
+    }
+
+
+    // Helper Methods:
+
+    // EFFECTS: returns the line of compareTo's report comparing result to before, the same result in the baseline (or
+    // null if there is none)
+    private static String compare(BenchmarkResult result, BenchmarkResult before, double threshold) {
+        if (before == null) {
+            return String.format(Locale.ROOT, "%-70s %14s -> %14s  new", result.getKey(), "",
+                    formatNanos(result.getScore()));
+        }
+        double change = (result.getScore() - before.getScore()) / before.getScore();
+        return String.format(Locale.ROOT, "%-70s %14s -> %14s  %+7.1f%%%s", result.getKey(),
+                formatNanos(before.getScore()), formatNanos(result.getScore()), change * 100,
+                isRegression(before, result, threshold) ? "  REGRESSION" : "");
+    }
+
+    // EFFECTS: returns true if after is more than threshold slower than before, beyond the error of either
+    private static boolean isRegression(BenchmarkResult before, BenchmarkResult after, double threshold) {
+        return after.getScore() > before.getScore() * (1 + threshold)
+                && after.getScore() - after.getError() > before.getScore() + before.getError();
+    }
+
+    // EFFECTS: returns nanos to three decimal places
+    private static String formatNanos(double nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos);
+    }
+}
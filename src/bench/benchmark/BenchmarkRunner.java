@@ -0,0 +1,237 @@
+package benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+// Represents a runner that times benchmarks the way JMH's average time mode does. Each parameter value of each
+// benchmark is timed in a JVM of its own (a fork, started with this JVM's options and class path), so that what the JIT
+// compiler learns while running one operation (such as the classes seen at the call site that runs it) cannot change
+// how another is compiled. In the fork, the state is built, the operation is run for a number of warmup iterations (so
+// that it is JIT-compiled) whose times are thrown away, and then for a number of measurement iterations, each lasting
+// about iterationMillis, whose average times per operation make up the result. Operations are run in batches between
+// reads of the clock so that reading it does not add to their time, except for prepared operations, which are timed
+// one invocation at a time
+public class BenchmarkRunner {
+    public static final int DEFAULT_WARMUP_ITERATIONS = 5;
+    public static final int DEFAULT_MEASUREMENT_ITERATIONS = 10;
+    public static final long DEFAULT_ITERATION_MILLIS = 1000;
+    public static final String FORK_COMMAND = "fork";
+
+    private static final int BATCHES_PER_ITERATION = 100;
+    private static final String NANOS_PER_OP_PREFIX = "nanosPerOp:";
+
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final long iterationMillis;
+    private final PrintStream progress;
+    private final Blackhole blackhole;
+
+    // REQUIRES: warmupIterations >= 0, measurementIterations >= 1, iterationMillis >= 1
+    // EFFECTS: constructs a runner that does warmupIterations and then measurementIterations iterations of about
+    // iterationMillis each, and reports how it is going to progress (or nowhere, if progress is null)
+    public BenchmarkRunner(int warmupIterations, int measurementIterations, long iterationMillis,
+                           PrintStream progress) {
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationMillis = iterationMillis;
+        this.progress = progress;
+        blackhole = new Blackhole();
+    }
+
+    // EFFECTS: times benchmark for each of its parameter values, each in a fork, and returns the results, in the same
+    // order
+    // throws IOException if a fork could not be started, failed, or did not report its result
+    // throws InterruptedException if interrupted while waiting for a fork
+    public List<BenchmarkResult> run(Benchmark benchmark) throws IOException, InterruptedException {
+        List<BenchmarkResult> results = new ArrayList<BenchmarkResult>();
+        for (String paramValue : benchmark.getParamValues()) {
+            results.add(run(benchmark, paramValue));
+        }
+        return results;
+    }
+
+    // EFFECTS: times benchmark with its parameter set to paramValue in a fork and returns the result, passing on the
+    // fork's progress
+    // throws IOException if the fork could not be started, failed, or did not report its result
+    // throws InterruptedException if interrupted while waiting for the fork
+    public BenchmarkResult run(Benchmark benchmark, String paramValue) throws IOException, InterruptedException {
+        Process fork = new ProcessBuilder(getForkCommand(benchmark, paramValue))
+                .redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        double[] nanosPerOp = null;
+        try (BufferedReader output = new BufferedReader(new InputStreamReader(fork.getInputStream(),
+                StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = output.readLine()) != null) {
+                if (line.startsWith(NANOS_PER_OP_PREFIX)) {
+                    nanosPerOp = parseNanosPerOp(line);
+                } else {
+                    report(line);
+                }
+            }
+        }
+        int status = fork.waitFor();
+        if (status != 0 || nanosPerOp == null) {
+            throw new IOException("The fork timing " + benchmark.getName() + " exited with status " + status);
+        }
+        return new BenchmarkResult(benchmark.getName(), benchmark.getParamName(), paramValue, nanosPerOp);
+    }
+
+    // EFFECTS: times benchmark with its parameter set to paramValue in this JVM and returns the result
+    // throws Exception if building the state or running the operation failed
+    public BenchmarkResult runInThisJvm(Benchmark benchmark, String paramValue) throws Exception {
+        report(benchmark.getName() + " (" + benchmark.getParamName() + " = " + paramValue + ")");
+        Benchmark.Operation operation = benchmark.setUp(paramValue);
+        System.gc();
+
+        long[] invocation = {0};
+        long batchSize = 1;
+        for (int i = 0; i < warmupIterations; i++) {
+            double nanosPerOp = runIteration(operation, invocation, batchSize);
+            batchSize = chooseBatchSize(nanosPerOp);
+            report("  warmup " + (i + 1) + ": " + format(nanosPerOp));
+        }
+        double[] nanosPerOp = new double[measurementIterations];
+        for (int i = 0; i < measurementIterations; i++) {
+            nanosPerOp[i] = runIteration(operation, invocation, batchSize);
+            report("  iteration " + (i + 1) + ": " + format(nanosPerOp[i]));
+        }
+
+        BenchmarkResult result = new BenchmarkResult(benchmark.getName(), benchmark.getParamName(), paramValue,
+                nanosPerOp);
+        report("  result: " + format(result.getScore()) + " +/- " + format(result.getError()));
+        return result;
+    }
+
+    // EFFECTS: does the work of a fork started by run, as described by args (FORK_COMMAND, the benchmark's name, the
+    // parameter value, and the numbers of warmup and measurement iterations and milliseconds per iteration): times
+    // the benchmark in this JVM, printing its progress and then its result to System.out for run to read
+    // throws IllegalArgumentException if args are not well-formed or name no benchmark
+    // throws Exception if building the state or running the operation failed
+    public static void runFork(String[] args) throws Exception {
+        if (args.length != 6) {
+            throw new IllegalArgumentException();
+        }
+        BenchmarkRunner runner = new BenchmarkRunner(Integer.parseInt(args[3]), Integer.parseInt(args[4]),
+                Long.parseLong(args[5]), System.out);
+        BenchmarkResult result = runner.runInThisJvm(findBenchmark(args[1]), args[2]);
+        StringBuilder line = new StringBuilder(NANOS_PER_OP_PREFIX);
+        for (double nanos : result.getNanosPerOp()) {
+            line.append(' ').append(nanos);
+        }
+        System.out.println(line);
+    }
+
+
+    // Helper Methods:
+
+    // EFFECTS: returns the command that starts a fork timing benchmark with its parameter set to paramValue, with
+    // this JVM's options (other than any debugger agent, which would clash with this JVM's) and class path
+    private List<String> getForkCommand(Benchmark benchmark, String paramValue) {
+        List<String> command = new ArrayList<String>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        for (String option : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (!option.startsWith("-agentlib:jdwp") && !option.startsWith("-Xrunjdwp")) {
+                command.add(option);
+            }
+        }
+        command.addAll(List.of("-cp", System.getProperty("java.class.path"), Benchmarks.class.getName(),
+                FORK_COMMAND, benchmark.getName(), paramValue, Integer.toString(warmupIterations),
+                Integer.toString(measurementIterations), Long.toString(iterationMillis)));
+        return command;
+    }
+
+    // EFFECTS: returns the nanoseconds per operation listed on line, the result line of a fork
+    // throws IOException if line is not well-formed
+    private static double[] parseNanosPerOp(String line) throws IOException {
+        String[] values = line.substring(NANOS_PER_OP_PREFIX.length()).trim().split(" ");
+        double[] nanosPerOp = new double[values.length];
+        try {
+            for (int i = 0; i < values.length; i++) {
+                nanosPerOp[i] = Double.parseDouble(values[i]);
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("A fork reported a malformed result: " + line);
+        }
+        return nanosPerOp;
+    }
+
+    // EFFECTS: returns the benchmark in the suite named name
+    // throws IllegalArgumentException if there is none
+    private static Benchmark findBenchmark(String name) {
+        for (Benchmark benchmark : Benchmarks.getBenchmarks()) {
+            if (benchmark.getName().equals(name)) {
+                return benchmark;
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    // MODIFIES: operation's state, invocation
+    // EFFECTS: runs operation for about iterationMillis, starting from invocation number invocation[0] (which is left
+    // as the number of the next invocation), and returns the average nanoseconds it took per operation
+    // throws Exception if running (or preparing) the operation failed
+    private double runIteration(Benchmark.Operation operation, long[] invocation, long batchSize) throws Exception {
+        if (operation instanceof Benchmark.PreparedOperation) {
+            return runPreparedIteration((Benchmark.PreparedOperation) operation, invocation);
+        }
+        long iterationNanos = TimeUnit.MILLISECONDS.toNanos(iterationMillis);
+        long operations = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            for (long i = 0; i < batchSize; i++) {
+                blackhole.consume(operation.run(invocation[0]++));
+            }
+            operations += batchSize;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < iterationNanos);
+        return (double) elapsed / operations;
+    }
+
+    // MODIFIES: operation's state, invocation
+    // EFFECTS: like runIteration, but prepares operation before each invocation and only counts the time spent
+    // running it
+    // throws Exception if running or preparing the operation failed
+    private double runPreparedIteration(Benchmark.PreparedOperation operation, long[] invocation) throws Exception {
+        long iterationNanos = TimeUnit.MILLISECONDS.toNanos(iterationMillis);
+        long operations = 0;
+        long timed = 0;
+        long start = System.nanoTime();
+        do {
+            operation.prepare(invocation[0]);
+            long runStart = System.nanoTime();
+            blackhole.consume(operation.run(invocation[0]++));
+            timed += System.nanoTime() - runStart;
+            operations++;
+        } while (System.nanoTime() - start < iterationNanos);
+        return (double) timed / operations;
+    }
+
+    // EFFECTS: returns how many operations taking about nanosPerOp each to run between reads of the clock, so that an
+    // iteration is made of about BATCHES_PER_ITERATION batches
+    private long chooseBatchSize(double nanosPerOp) {
+        double batchNanos = (double) TimeUnit.MILLISECONDS.toNanos(iterationMillis) / BATCHES_PER_ITERATION;
+        return Math.max(1, (long) (batchNanos / Math.max(nanosPerOp, 1)));
+    }
+
+    // EFFECTS: prints line to progress, if there is anywhere to report progress
+    private void report(String line) {
+        if (progress != null) {
+            progress.println(line);
+        }
+    }
+
+    // EFFECTS: returns nanos formatted with its unit
+    private static String format(double nanos) {
+        return String.format(Locale.ROOT, "%.3f %s", nanos, BenchmarkResult.UNIT);
+    }
+}
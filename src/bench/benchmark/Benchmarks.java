@@ -0,0 +1,211 @@
+package benchmark;
+
+import persistence.exceptions.InvalidJsonException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+// The command-line entry point of the benchmark suite. Build src/main and src/bench together and run, e.g.:
+//     java -cp <classes>:lib/json-20240303.jar benchmark.Benchmarks run --out data/bench/results.json
+//     java -cp <classes>:lib/json-20240303.jar benchmark.Benchmarks compare baseline.json data/bench/results.json
+//     java -cp <classes>:lib/json-20240303.jar benchmark.Benchmarks generate --files 1000000 --out data/bench/big.json
+// "run" times every benchmark (or those whose names match --filter), each parameter value in a JVM of its own, and
+// saves the results; --quick does fewer, shorter iterations, for checking that the benchmarks work rather than for
+// results worth keeping. "compare" reports how the second results file compares to the first (see
+// BenchmarkResults.compareTo) and exits with status 1 if any benchmark has regressed by more than --threshold percent.
+// "generate" saves a synthetic library (see LibraryGenerator) to a file that the apps or a soak test can load,
+// optionally with a .txt note on disk for each of its files
+public class Benchmarks {
+    public static final String DEFAULT_RESULTS_FILE_PATH = "data/bench/results.json";
+    public static final long DEFAULT_SEED = 210;
+
+    private static final int QUICK_WARMUP_ITERATIONS = 1;
+    private static final int QUICK_MEASUREMENT_ITERATIONS = 3;
+    private static final long QUICK_ITERATION_MILLIS = 100;
+
+    // EFFECTS: runs the command given by args
+    public static void main(String[] args) {
+        try {
+            if (args.length >= 1 && args[0].equals("run")) {
+                run(args);
+            } else if (args.length >= 1 && args[0].equals(BenchmarkRunner.FORK_COMMAND)) {
+                BenchmarkRunner.runFork(args);
+            } else if (args.length >= 3 && args[0].equals("compare")) {
+                System.exit(compare(args));
+            } else if (args.length >= 1 && args[0].equals("generate")) {
+                generate(args);
+            } else {
+                printUsage();
+                System.exit(2);
+            }
+        } catch (IllegalArgumentException e) {
+            printUsage();
+            System.exit(2);
+        } catch (IOException | InvalidJsonException e) {
+            System.err.println("Could not read or write a file: " + e);
+            System.exit(2);
+        } catch (Exception e) {
+            e.printStackTrace();
+            System.exit(2);
+        }
+    }
+
+    // EFFECTS: returns every benchmark in the suite, in the order they are run
+    public static List<Benchmark> getBenchmarks() {
+        List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+        benchmarks.addAll(FolderBenchmarks.getBenchmarks());
+        benchmarks.addAll(FileSystemBenchmarks.getBenchmarks());
+        benchmarks.addAll(JsonBenchmarks.getBenchmarks());
+        benchmarks.addAll(LiteralMatcherBenchmarks.getBenchmarks());
+        return benchmarks;
+    }
+
+
+    // Helper Methods:
+
+    // EFFECTS: times the benchmarks chosen by args ("run" [--quick] [--filter regex] [--out path]), each parameter
+    // value in a fork of its own (see BenchmarkRunner), and saves the results
+    // throws IllegalArgumentException if args are not well-formed
+    // throws IOException if the results could not be saved or a fork failed
+    // throws InterruptedException if interrupted while waiting for a fork
+    private static void run(String[] args) throws IOException, InterruptedException {
+        RunOptions options = new RunOptions(args);
+        int warmupIterations = options.quick ? QUICK_WARMUP_ITERATIONS : BenchmarkRunner.DEFAULT_WARMUP_ITERATIONS;
+        int measurementIterations = options.quick ? QUICK_MEASUREMENT_ITERATIONS
+                : BenchmarkRunner.DEFAULT_MEASUREMENT_ITERATIONS;
+        long iterationMillis = options.quick ? QUICK_ITERATION_MILLIS : BenchmarkRunner.DEFAULT_ITERATION_MILLIS;
+        BenchmarkRunner runner = new BenchmarkRunner(warmupIterations, measurementIterations, iterationMillis,
+                System.out);
+        BenchmarkResults results = new BenchmarkResults(System.getProperty("java.vm.name") + " "
+                + System.getProperty("java.version"), warmupIterations, measurementIterations, iterationMillis);
+        for (Benchmark benchmark : getBenchmarks()) {
+            if (options.filter.matcher(benchmark.getName()).find()) {
+                for (BenchmarkResult result : runner.run(benchmark)) {
+                    results.add(result);
+                }
+            }
+        }
+        results.write(options.filePath);
+        System.out.println("Results saved to " + options.filePath);
+    }
+
+    // EFFECTS: prints how the results file args[2] compares to the baseline results file args[1] (with the threshold
+    // given by an optional "--threshold percent") and returns 1 if there are any regressions, 0 otherwise
+    // throws IllegalArgumentException if args are not well-formed
+    // throws IOException if either file could not be read
+    // throws InvalidJsonException if either file is not a results file
+    private static int compare(String[] args) throws IOException, InvalidJsonException {
+        double threshold = BenchmarkResults.DEFAULT_REGRESSION_THRESHOLD;
+        if (args.length == 5 && args[3].equals("--threshold")) {
+            threshold = Double.parseDouble(args[4]) / 100;
+        } else if (args.length != 3) {
+            throw new IllegalArgumentException();
+        }
+        BenchmarkResults baseline = BenchmarkResults.read(args[1]);
+        BenchmarkResults current = BenchmarkResults.read(args[2]);
+        for (String line : current.compareTo(baseline, threshold)) {
+            System.out.println(line);
+        }
+        return current.countRegressions(baseline, threshold) > 0 ? 1 : 0;
+    }
+
+    // EFFECTS: generates the library described by args ("generate" [--seed seed] [--files count] [--labels count]
+    // [--notes directory] [--compact] --out path) and saves it
+    // throws IllegalArgumentException if args are not well-formed
+    // throws IOException if the library could not be saved
+    private static void generate(String[] args) throws IOException {
+        GenerateOptions options = new GenerateOptions(args);
+        LibraryGenerator generator = new LibraryGenerator(options.seed);
+        if (options.numFiles >= 0) {
+            generator.withFiles(options.numFiles);
+        }
+        if (options.numLabels >= 0) {
+            generator.withLabels(options.numLabels, 1.0);
+        }
+        if (options.notesDirectoryPath != null) {
+            generator.withNotesOnDisk(options.notesDirectoryPath);
+        }
+        generator.generateSaveFile(options.filePath, options.compact);
+        System.out.println("Library saved to " + options.filePath);
+    }
+
+    // EFFECTS: prints how to use this program
+    private static void printUsage() {
+        System.err.println("Usage: Benchmarks run [--quick] [--filter regex] [--out path]");
+        System.err.println("       Benchmarks compare baseline.json current.json [--threshold percent]");
+        System.err.println("       Benchmarks generate [--seed seed] [--files count] [--labels count] "
+                + "[--notes directory] [--compact] --out path");
+    }
+
+    // Represents the options of the "run" command
+    private static class RunOptions {
+        private boolean quick = false;
+        private Pattern filter = Pattern.compile("");
+        private String filePath = DEFAULT_RESULTS_FILE_PATH;
+
+        // EFFECTS: constructs the options given by args ("run" [--quick] [--filter regex] [--out path])
+        // throws IllegalArgumentException if args are not well-formed
+        RunOptions(String[] args) {
+            for (int i = 1; i < args.length; i++) {
+                if (args[i].equals("--quick")) {
+                    quick = true;
+                } else if (args[i].equals("--filter") && i + 1 < args.length) {
+                    filter = Pattern.compile(args[++i]);
+                } else if (args[i].equals("--out") && i + 1 < args.length) {
+                    filePath = args[++i];
+                } else {
+                    throw new IllegalArgumentException(args[i]);
+                }
+            }
+        }
+    }
+
+    // Represents the options of the "generate" command; numFiles and numLabels are -1 if not given
+    private static class GenerateOptions {
+        private long seed = DEFAULT_SEED;
+        private int numFiles = -1;
+        private int numLabels = -1;
+        private String notesDirectoryPath = null;
+        private boolean compact = false;
+        private String filePath = null;
+
+        // EFFECTS: constructs the options given by args ("generate" [--seed seed] [--files count] [--labels count]
+        // [--notes directory] [--compact] --out path)
+        // throws IllegalArgumentException if args are not well-formed
+        GenerateOptions(String[] args) {
+            for (int i = 1; i < args.length; i++) {
+                if (args[i].equals("--compact")) {
+                    compact = true;
+                } else if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException(args[i]);
+                } else {
+                    setOption(args[i], args[++i]);
+                }
+            }
+            if (filePath == null) {
+                throw new IllegalArgumentException();
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: sets the option named option (other than --compact) to value
+        // throws IllegalArgumentException if there is no such option or value is not well-formed
+        private void setOption(String option, String value) {
+            if (option.equals("--seed")) {
+                seed = Long.parseLong(value);
+            } else if (option.equals("--files")) {
+                numFiles = Integer.parseInt(value);
+            } else if (option.equals("--labels")) {
+                numLabels = Integer.parseInt(value);
+            } else if (option.equals("--notes")) {
+                notesDirectoryPath = value;
+            } else if (option.equals("--out")) {
+                filePath = value;
+            } else {
+                throw new IllegalArgumentException(option);
+            }
+        }
+    }
+}
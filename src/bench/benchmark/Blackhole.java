@@ -0,0 +1,30 @@
+package benchmark;
+
+import java.lang.ref.WeakReference;
+
+// Represents a sink for the results of timed operations. Handing each result to it keeps the JIT compiler from deciding
+// that the work done to compute it is unused and skipping that work. As in JMH, each result is kept, through a weak
+// reference stored in a volatile field, with a probability read from another volatile field, so that the compiler
+// cannot prove any result is never kept; the probability halves each time one is, so keeping them costs next to nothing
+public class Blackhole {
+    private volatile int keepMask;
+    private volatile WeakReference<Object> kept;
+    private int random;
+
+    // EFFECTS: constructs a sink that keeps the first result it is given
+    public Blackhole() {
+        keepMask = 0;
+        random = (int) System.nanoTime();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: takes in result
+    public void consume(Object result) {
+        int mask = keepMask;
+        random = random * 1664525 + 1013904223;
+        if ((random & mask) == 0) {
+            kept = new WeakReference<Object>(result);
+            keepMask = (mask << 1) + 1;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package benchmark;
+
+import model.FileSystem;
+
+import java.util.List;
+
+// Benchmarks of the FileSystem operations whose cost grows with the library: opening a Label whose files share a name
+// (so that every one but the first needs a differentiator), removing every Label from a File, and the bookkeeping of
+// recently-opened files as the history of them fills up
+public class FileSystemBenchmarks {
+    static final List<String> NUM_COLLIDING_FILES = List.of("10", "1000", "10000");
+    static final List<String> NUM_LABELS = List.of("1", "10", "100");
+    static final List<String> NUM_RECENT_FILES = List.of("10", "1000", "5000");
+
+    private static final String LABEL_NAME = "School";
+    private static final String FILE_NAME = "Notes";
+
+    // EFFECTS: returns the FileSystem benchmarks
+    public static List<Benchmark> getBenchmarks() {
+        return List.of(
+                new Benchmark("FileSystem.openLabel", "collidingFiles", NUM_COLLIDING_FILES,
+                        FileSystemBenchmarks::setUpOpenLabel),
+                new Benchmark("FileSystem.removeAllLabels", "labels", NUM_LABELS,
+                        FileSystemBenchmarks::setUpRemoveAllLabels),
+                new Benchmark("FileSystem.openFileButNotOnComputerEvenIfNoLongerValid", "recentFiles",
+                        NUM_RECENT_FILES, FileSystemBenchmarks::setUpOpenFile),
+                new Benchmark("FileSystem.getNamesOfRecentlyOpenedFiles", "recentFiles", NUM_RECENT_FILES,
+                        numRecentFiles -> {
+                            FileSystem fileSystem = makeFileSystemWithRecents(numRecentFiles);
+                            return invocation -> fileSystem.getNamesOfRecentlyOpenedFiles();
+                        }),
+                new Benchmark("FileSystem.getNamesOfFrecentlyOpenedFiles", "recentFiles", NUM_RECENT_FILES,
+                        numRecentFiles -> {
+                            FileSystem fileSystem = makeFileSystemWithRecents(numRecentFiles);
+                            return invocation -> fileSystem.getNamesOfFrecentlyOpenedFiles();
+                        }));
+    }
+
+
+    // Helper Methods:
+
+    // EFFECTS: makes a file system with a Label on numCollidingFiles Files, all named FILE_NAME and each in a Folder of
+    // its own, and returns an operation that opens the Label and lists the names of its Files (as the apps do)
+    // throws Exception if the file system could not be made
+    private static Benchmark.Operation setUpOpenLabel(String numCollidingFiles) throws Exception {
+        FileSystem fileSystem = new FileSystem();
+        fileSystem.createLabel(LABEL_NAME);
+        for (String folderName : FolderBenchmarks.makeNames("Folder ", Integer.parseInt(numCollidingFiles))) {
+            fileSystem.createFolder(folderName);
+            fileSystem.openFolder(folderName);
+            fileSystem.createFile(FILE_NAME, "C:/Users/User/Documents/" + folderName + "/Notes.txt");
+            fileSystem.labelFile(FILE_NAME, LABEL_NAME);
+            fileSystem.goUpOneDirectoryLevel();
+        }
+        return invocation -> {
+            fileSystem.openLabel(LABEL_NAME);
+            return fileSystem.getNamesOfSubfiles();
+        };
+    }
+
+    // EFFECTS: makes a file system with numLabels Labels and a File, and returns an operation that removes every Label
+    // from the File, having first labelled it with all of them
+    // throws Exception if the file system could not be made
+    private static Benchmark.Operation setUpRemoveAllLabels(String numLabels) throws Exception {
+        FileSystem fileSystem = new FileSystem();
+        String[] labelNames = FolderBenchmarks.makeNames("Label ", Integer.parseInt(numLabels));
+        for (String labelName : labelNames) {
+            fileSystem.createLabel(labelName);
+        }
+        fileSystem.createFile(FILE_NAME, FileSystem.EXAMPLE_FILE_PATH);
+        return new Benchmark.PreparedOperation() {
+            @Override
+            public void prepare(long invocation) throws Exception {
+                for (String labelName : labelNames) {
+                    fileSystem.labelFile(FILE_NAME, labelName);
+                }
+            }
+
+            @Override
+            public Object run(long invocation) throws Exception {
+                fileSystem.removeAllLabels(FILE_NAME);
+                return fileSystem;
+            }
+        };
+    }
+
+    // EFFECTS: makes a file system whose history of recently-opened Files holds numRecentFiles Files, and returns an
+    // operation that opens the next of them again
+    // throws Exception if the file system could not be made
+    private static Benchmark.Operation setUpOpenFile(String numRecentFiles) throws Exception {
+        FileSystem fileSystem = makeFileSystemWithRecents(numRecentFiles);
+        String[] fileNames = FolderBenchmarks.makeNames("Notes ", Integer.parseInt(numRecentFiles));
+        return invocation -> {
+            fileSystem.openFileButNotOnComputerEvenIfNoLongerValid(fileNames[(int) (invocation % fileNames.length)]);
+            return fileSystem;
+        };
+    }
+
+    // EFFECTS: returns a file system with numRecentFiles Files in its root Folder, named "Notes 0", "Notes 1", ...,
+    // which have each been opened once, in that order
+    // throws Exception if the file system could not be made
+    private static FileSystem makeFileSystemWithRecents(String numRecentFiles) throws Exception {
+        FileSystem fileSystem = new FileSystem();
+        for (String fileName : FolderBenchmarks.makeNames("Notes ", Integer.parseInt(numRecentFiles))) {
+            fileSystem.createFile(fileName, "C:/Users/User/Documents/" + fileName + ".txt");
+            fileSystem.openFileButNotOnComputerEvenIfNoLongerValid(fileName);
+        }
+        return fileSystem;
+    }
+}
@@ -0,0 +1,68 @@
+package benchmark;
+
+import model.Folder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+// Benchmarks of looking up a Folder's subfiles and subfolders by name, in folders of 10 up to a million of them. Each
+// invocation looks up the next of the folder's children in a shuffled order, so that lookups do not walk memory in the
+// order the children were made
+public class FolderBenchmarks {
+    static final List<String> NUM_CHILDREN = List.of("10", "1000", "100000", "1000000");
+
+    private static final long SEED = 210;
+
+    // EFFECTS: returns the Folder benchmarks
+    public static List<Benchmark> getBenchmarks() {
+        return List.of(
+                new Benchmark("Folder.getSubfile", "children", NUM_CHILDREN, FolderBenchmarks::setUpGetSubfile),
+                new Benchmark("Folder.getSubfolder", "children", NUM_CHILDREN, FolderBenchmarks::setUpGetSubfolder));
+    }
+
+
+    // Helper Methods:
+
+    // EFFECTS: makes a folder of numChildren subfiles and returns an operation that looks one up
+    // throws Exception if the folder could not be made
+    private static Benchmark.Operation setUpGetSubfile(String numChildren) throws Exception {
+        Folder folder = new Folder("root");
+        String[] names = makeNames("Notes ", Integer.parseInt(numChildren));
+        for (String name : names) {
+            folder.makeSubfile(name, "C:/Users/User/Documents/" + name + ".txt");
+        }
+        shuffle(names);
+        return invocation -> folder.getSubfile(names[(int) (invocation % names.length)]);
+    }
+
+    // EFFECTS: makes a folder of numChildren subfolders and returns an operation that looks one up
+    // throws Exception if the folder could not be made
+    private static Benchmark.Operation setUpGetSubfolder(String numChildren) throws Exception {
+        Folder folder = new Folder("root");
+        String[] names = makeNames("Folder ", Integer.parseInt(numChildren));
+        for (String name : names) {
+            folder.makeSubfolder(name);
+        }
+        shuffle(names);
+        return invocation -> folder.getSubfolder(names[(int) (invocation % names.length)]);
+    }
+
+    // EFFECTS: returns the names prefix + 0, prefix + 1, ..., prefix + (count - 1)
+    static String[] makeNames(String prefix, int count) {
+        String[] names = new String[count];
+        for (int i = 0; i < count; i++) {
+            names[i] = prefix + i;
+        }
+        return names;
+    }
+
+    // MODIFIES: names
+    // EFFECTS: shuffles names into the same order every run
+    private static void shuffle(String[] names) {
+        List<String> shuffled = new ArrayList<String>(List.of(names));
+        Collections.shuffle(shuffled, new Random(SEED));
+        shuffled.toArray(names);
+    }
+}
@@ -0,0 +1,59 @@
+package benchmark;
+
+import model.FileSystem;
+import persistence.JsonReader;
+import persistence.JsonWriter;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+// Benchmarks of saving a library to JSON and loading it back, for libraries of 100 up to 1,000,000 Files generated by
+// a LibraryGenerator with its default shape. The library to load is generated straight to its save file, so the largest
+// one is never held in memory until it is loaded
+public class JsonBenchmarks {
+    static final List<String> NUM_FILES_TO_WRITE = List.of("100", "10000", "100000");
+    static final List<String> NUM_FILES_TO_READ = List.of("100", "10000", "100000", "1000000");
+    static final String DIRECTORY_PATH = "data/bench";
+
+    private static final long SEED = 210;
+
+    // EFFECTS: returns the JSON benchmarks
+    public static List<Benchmark> getBenchmarks() {
+        return List.of(
+                new Benchmark("JsonWriter.write", "files", NUM_FILES_TO_WRITE, JsonBenchmarks::setUpWrite),
+                new Benchmark("JsonReader.read", "files", NUM_FILES_TO_READ, JsonBenchmarks::setUpRead));
+    }
+
+
+    // Helper Methods:
+
+    // EFFECTS: generates a library of numFiles Files and returns an operation that saves it
+    // throws Exception if the library could not be generated
+    private static Benchmark.Operation setUpWrite(String numFiles) throws Exception {
+        FileSystem fileSystem = new LibraryGenerator(SEED).withFiles(Integer.parseInt(numFiles)).generateFileSystem();
+        String filePath = getFilePath(numFiles);
+        return invocation -> {
+            JsonWriter writer = new JsonWriter(filePath);
+            writer.open();
+            writer.write(fileSystem);
+            writer.close();
+            return writer;
+        };
+    }
+
+    // EFFECTS: generates the save file of a library of numFiles Files and returns an operation that loads it
+    // throws Exception if the save file could not be generated
+    private static Benchmark.Operation setUpRead(String numFiles) throws Exception {
+        String filePath = getFilePath(numFiles);
+        new LibraryGenerator(SEED).withFiles(Integer.parseInt(numFiles)).generateSaveFile(filePath, false);
+        return invocation -> new JsonReader(filePath).read();
+    }
+
+    // EFFECTS: returns the path to save a library of numFiles Files to, making its directory if needed
+    // throws Exception if the directory could not be made
+    private static String getFilePath(String numFiles) throws Exception {
+        Files.createDirectories(Paths.get(DIRECTORY_PATH));
+        return DIRECTORY_PATH + "/library" + numFiles + ".json";
+    }
+}
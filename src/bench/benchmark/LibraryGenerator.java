@@ -0,0 +1,739 @@
+package benchmark;
+
+import model.File;
+import model.FileSystem;
+import model.Folder;
+import model.exceptions.NameIsTakenException;
+import model.exceptions.NoSuchLabelFoundException;
+import persistence.AtomicFileWriter;
+import persistence.JsonStreamWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+// Represents a generator of synthetic libraries with the shapes real ones have, for load and scaling tests: deep
+// hierarchies (School > Science > Ecology), the odd very wide folder, Labels used with a Zipf distribution (a few on
+// most files, most on a few), files in different folders that share common names, and a history of recently-opened
+// files, folders, and labels. A generator with the same seed and settings always generates the same library, whether as
+// a FileSystem (generateFileSystem) or as a save file that JsonReader can load (generateSaveFile). A save file is
+// written as the library is generated, so it can have millions of files without them ever all being in memory. If
+// asked to, the generator also writes a small .txt note to disk for each file, at the file's path
+public class LibraryGenerator {
+    public static final String ROOT_FOLDER_NAME = "root";
+    public static final String DEFAULT_DOCUMENTS_PATH = "C:/Users/User/Documents";
+    public static final long START_MILLIS = 1_700_000_000_000L;
+
+    static final String[] FOLDER_WORDS = {
+        "School", "Science", "Ecology", "Biology", "Chemistry", "Physics", "Math", "History", "English", "Work",
+        "Projects", "Meetings", "Personal", "Journal", "Recipes", "Travel", "Reading", "Finance", "Archive", "Drafts"
+    };
+    static final String[] FILE_WORDS = {
+        "Lecture Notes", "Meeting Notes", "Summary", "Outline", "Lab Report", "Essay", "Reading List", "Todo List",
+        "Journal Entry", "Questions", "Plan", "Review", "Reference", "Brainstorm", "Minutes"
+    };
+    static final String[] COMMON_FILE_NAMES = {"Notes", "Todo", "README", "Ideas", "Draft", "Untitled"};
+    static final String[] LABEL_WORDS = {
+        "School", "Urgent", "Work", "Personal", "Important", "Archived", "Ideas", "Exam", "Reference", "Later",
+        "Health", "Finance", "Travel", "Family", "Reading"
+    };
+
+    private static final int MAX_LABELS_PER_FILE = 4;
+    private static final double LABEL_CHANCE = 0.6;
+    private static final int MAX_RECENTS = 5000;
+    private static final int MAX_OPEN_COUNT = 20;
+    private static final long MILLIS_BETWEEN_OPENS = 60 * 60 * 1000;
+    private static final int MAX_NOTE_LINES = 12;
+    private static final int WORDS_PER_NOTE_LINE = 10;
+    private static final long RECENTS_SALT = 0x5DEECE66DL;
+    private static final long NOTES_SALT = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+    private int numFiles;
+    private int numLabels;
+    private double labelSkew;
+    private int maxDepth;
+    private int maxSubfolders;
+    private int filesPerFolder;
+    private double wideFolderChance;
+    private int wideFolderSize;
+    private double collisionChance;
+    private int numRecentFiles;
+    private int numRecentFolders;
+    private int numRecentLabels;
+    private String notesDirectoryPath;
+
+    // EFFECTS: constructs a generator of libraries from seed, with the default shape: 10,000 files in folders nested up
+    // to 6 deep with up to 6 subfolders each, about 50 files per folder but 1 folder in 100 holding up to 5,000, 1 file
+    // in 10 given a common name, 50 Labels with a Zipf exponent of 1, and 100 recently-opened files, 10 folders, and
+    // 5 labels. Files' paths are under DEFAULT_DOCUMENTS_PATH and no notes are written to disk
+    public LibraryGenerator(long seed) {
+        this.seed = seed;
+        numFiles = 10000;
+        numLabels = 50;
+        labelSkew = 1.0;
+        maxDepth = 6;
+        maxSubfolders = 6;
+        filesPerFolder = 50;
+        wideFolderChance = 0.01;
+        wideFolderSize = 5000;
+        collisionChance = 0.1;
+        numRecentFiles = 100;
+        numRecentFolders = 10;
+        numRecentLabels = 5;
+        notesDirectoryPath = null;
+    }
+
+    // REQUIRES: numFiles >= 0
+    // MODIFIES: this
+    // EFFECTS: makes generated libraries have numFiles files, and returns this
+    public LibraryGenerator withFiles(int numFiles) {
+        this.numFiles = numFiles;
+        return this;
+    }
+
+    // REQUIRES: numLabels >= 0, skew >= 0
+    // MODIFIES: this
+    // EFFECTS: makes generated libraries have numLabels Labels, the k-th most used of which is put on files with
+    // probability proportional to 1 / k^skew, and returns this
+    public LibraryGenerator withLabels(int numLabels, double skew) {
+        this.numLabels = numLabels;
+        this.labelSkew = skew;
+        return this;
+    }
+
+    // REQUIRES: maxDepth >= 0, maxSubfolders >= 1
+    // MODIFIES: this
+    // EFFECTS: makes generated libraries have folders nested up to maxDepth below the root Folder, each with up to
+    // maxSubfolders subfolders, and returns this
+    public LibraryGenerator withHierarchy(int maxDepth, int maxSubfolders) {
+        this.maxDepth = maxDepth;
+        this.maxSubfolders = maxSubfolders;
+        return this;
+    }
+
+    // REQUIRES: filesPerFolder >= 1, 0 <= wideFolderChance <= 1, wideFolderSize >= 1
+    // MODIFIES: this
+    // EFFECTS: makes the folders of generated libraries hold about filesPerFolder files each, except that each folder
+    // is wide (holding up to wideFolderSize files) with probability wideFolderChance, and returns this
+    public LibraryGenerator withFolderSizes(int filesPerFolder, double wideFolderChance, int wideFolderSize) {
+        this.filesPerFolder = filesPerFolder;
+        this.wideFolderChance = wideFolderChance;
+        this.wideFolderSize = wideFolderSize;
+        return this;
+    }
+
+    // REQUIRES: 0 <= collisionChance <= 1
+    // MODIFIES: this
+    // EFFECTS: makes each file of generated libraries get one of COMMON_FILE_NAMES (if its folder does not already
+    // have a file by that name) with probability collisionChance, and returns this
+    public LibraryGenerator withCollisions(double collisionChance) {
+        this.collisionChance = collisionChance;
+        return this;
+    }
+
+    // REQUIRES: numRecentFiles, numRecentFolders, numRecentLabels >= 0
+    // MODIFIES: this
+    // EFFECTS: makes generated libraries have up to numRecentFiles recently-opened files, numRecentFolders folders (the
+    // folders of the most recent files), and numRecentLabels labels (the most used), and returns this
+    public LibraryGenerator withRecents(int numRecentFiles, int numRecentFolders, int numRecentLabels) {
+        this.numRecentFiles = numRecentFiles;
+        this.numRecentFolders = numRecentFolders;
+        this.numRecentLabels = numRecentLabels;
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes generating a library also write a .txt note for each of its files under the directory at
+    // directoryPath (in subdirectories matching its folders), which becomes the file's path, and returns this
+    public LibraryGenerator withNotesOnDisk(String directoryPath) {
+        this.notesDirectoryPath = directoryPath;
+        return this;
+    }
+
+    // EFFECTS: generates a library and returns it as a FileSystem, with the root Folder open
+    // throws IOException if notes were to be written to disk and one could not be
+    public FileSystem generateFileSystem() throws IOException {
+        FileSystemSink sink = new FileSystemSink(new FileSystem());
+        for (String labelName : getLabelNames()) {
+            sink.loadLabel(labelName);
+        }
+        new Walk(sink, true).walk();
+        sink.restoreRecents();
+        return sink.fileSystem;
+    }
+
+    // EFFECTS: generates a library and saves it to filePath in the same JSON that JsonWriter would save it as (compact
+    // if compact is true), writing it as it is generated. The library is generated twice: once to find the paths of
+    // the recently-opened files (which are saved before the Folders) and once to save it
+    // throws IOException if the file (or a note) could not be written
+    public void generateSaveFile(String filePath, boolean compact) throws IOException {
+        RecentsSink recents = new RecentsSink();
+        new Walk(recents, false).walk();
+
+        AtomicFileWriter file = new AtomicFileWriter(filePath);
+        try {
+            Writer writer = new BufferedWriter(Channels.newWriter(file.open(), StandardCharsets.UTF_8), 64 * 1024);
+            JsonStreamWriter json = new JsonStreamWriter(writer, compact ? 0 : 4);
+            writeLibrary(json, recents);
+            json.flush();
+            writer.flush();
+        } catch (IOException e) {
+            file.abort();
+            throw e;
+        }
+        file.commit();
+    }
+
+    // MODIFIES: json
+    // EFFECTS: generates a library and writes it to json as a save file, with the recently-opened files, folders, and
+    // labels noted by recents
+    // throws IOException if json (or a note) could not be written
+    private void writeLibrary(JsonStreamWriter json, RecentsSink recents) throws IOException {
+        json.beginObject();
+        json.name("currentFolderPath").beginArray().value(ROOT_FOLDER_NAME).endArray();
+        json.name("labels").beginArray();
+        for (String labelName : getLabelNames()) {
+            json.beginObject().name("name").value(labelName).endObject();
+        }
+        json.endArray();
+        recents.writeJson(json);
+        json.name("rootFolder");
+        new Walk(new JsonSink(json), true).walk();
+        json.endObject();
+    }
+
+    // EFFECTS: returns the names of the Labels of generated libraries, from most to least used
+    public List<String> getLabelNames() {
+        List<String> labelNames = new ArrayList<String>(numLabels);
+        for (int i = 0; i < numLabels; i++) {
+            String word = LABEL_WORDS[i % LABEL_WORDS.length];
+            labelNames.add(i < LABEL_WORDS.length ? word : word + " " + i / LABEL_WORDS.length);
+        }
+        return labelNames;
+    }
+
+    // Represents what a generated library is made into as it is walked. For each folder, beginFolder is called, then
+    // file for each of its files, then endFiles, then the same for each of its subfolders, and then endFolder
+    private interface Sink {
+        // EFFECTS: starts a folder named name in the current folder (or the root Folder, if there is none)
+        void beginFolder(String name) throws IOException;
+
+        // EFFECTS: adds the index-th file of the library, named name with path path and labelled with labelNames, to
+        // the current folder
+        void file(int index, String name, String path, List<String> labelNames) throws IOException;
+
+        // EFFECTS: ends the files of the current folder
+        void endFiles() throws IOException;
+
+        // EFFECTS: ends the current folder, making its parent the current folder
+        void endFolder() throws IOException;
+    }
+
+    // Represents one walk through a generated library, from the seed. Every walk makes the same random choices in the
+    // same order, so every walk generates the same library
+    private class Walk {
+        private final Sink sink;
+        private final boolean writeNotes;
+        private final Random random;
+        private final double[] labelCumulativeWeights;
+        private final List<String> labelNames;
+        private final List<String> folderPath;
+        private int nextFileIndex;
+
+        // EFFECTS: constructs a walk that makes the library into sink, writing notes to disk if writeNotes is true and
+        // the generator is set to
+        Walk(Sink sink, boolean writeNotes) {
+            this.sink = sink;
+            this.writeNotes = writeNotes && notesDirectoryPath != null;
+            random = new Random(seed);
+            labelCumulativeWeights = makeZipfCumulativeWeights(numLabels, labelSkew);
+            labelNames = getLabelNames();
+            folderPath = new ArrayList<String>();
+            nextFileIndex = 0;
+        }
+
+        // EFFECTS: walks the whole library, starting with the root Folder
+        // throws IOException if the sink or a note could not be written
+        void walk() throws IOException {
+            walkFolder(ROOT_FOLDER_NAME, 0, numFiles);
+        }
+
+        // EFFECTS: walks a folder named name, depth folders below the root Folder, that holds numFilesWithin files
+        // (directly or in its subfolders). Folders deeper than maxDepth, or small enough, hold all of their files
+        // directly; a wide folder holds up to wideFolderSize directly; any other folder holds a few directly and splits
+        // the rest unevenly between its subfolders
+        // throws IOException if the sink or a note could not be written
+        private void walkFolder(String name, int depth, int numFilesWithin) throws IOException {
+            sink.beginFolder(name);
+            if (depth > 0) {
+                folderPath.add(name);
+            }
+            if (writeNotes) {
+                Files.createDirectories(Paths.get(notesDirectoryPath, folderPath.toArray(new String[0])));
+            }
+
+            int[] shape = chooseShape(depth, numFilesWithin);
+            Set<String> usedCommonNames = new HashSet<String>();
+            for (int i = 0; i < shape[0]; i++) {
+                walkFile(i, usedCommonNames);
+            }
+            sink.endFiles();
+            walkSubfolders(depth, numFilesWithin - shape[0], shape[1]);
+
+            if (depth > 0) {
+                folderPath.remove(folderPath.size() - 1);
+            }
+            sink.endFolder();
+        }
+
+        // EFFECTS: returns how many files a folder depth folders below the root Folder that holds numFilesWithin files
+        // holds directly, followed by how many subfolders it has (see walkFolder)
+        private int[] chooseShape(int depth, int numFilesWithin) {
+            if (depth >= maxDepth || numFilesWithin <= filesPerFolder) {
+                return new int[] {numFilesWithin, 0};
+            } else if (random.nextDouble() < wideFolderChance) {
+                int numDirectFiles = Math.min(numFilesWithin, wideFolderSize);
+                return new int[] {numDirectFiles,
+                        numDirectFiles < numFilesWithin ? 1 + random.nextInt(maxSubfolders) : 0};
+            } else {
+                int numDirectFiles = random.nextInt(filesPerFolder / 2 + 1);
+                return new int[] {numDirectFiles, 1 + random.nextInt(maxSubfolders)};
+            }
+        }
+
+        // EFFECTS: walks numSubfolders subfolders of the current folder, depth folders below the root Folder, splitting
+        // numFilesWithin files between them
+        // throws IOException if the sink or a note could not be written
+        private void walkSubfolders(int depth, int numFilesWithin, int numSubfolders) throws IOException {
+            int[] numFilesWithinSubfolders = split(numFilesWithin, numSubfolders);
+            Set<String> usedFolderNames = new HashSet<String>();
+            for (int i = 0; i < numSubfolders; i++) {
+                String word = FOLDER_WORDS[random.nextInt(FOLDER_WORDS.length)];
+                String subfolderName = usedFolderNames.add(word) ? word : word + " " + i;
+                walkFolder(subfolderName, depth + 1, numFilesWithinSubfolders[i]);
+            }
+        }
+
+        // MODIFIES: usedCommonNames
+        // EFFECTS: walks the i-th file of the current folder, which is given a common name (and that name is added to
+        // usedCommonNames) if it is chosen to have one and the folder has no file by that name yet
+        // throws IOException if the sink or a note could not be written
+        private void walkFile(int i, Set<String> usedCommonNames) throws IOException {
+            String name = chooseFileName(i, usedCommonNames);
+            List<String> fileLabelNames = chooseLabelNames();
+            int index = nextFileIndex++;
+            String path = getPath(name);
+            if (writeNotes) {
+                writeNote(index, name, path);
+            }
+            sink.file(index, name, path, fileLabelNames);
+        }
+
+        // MODIFIES: usedCommonNames
+        // EFFECTS: returns the name of the i-th file of the current folder (see walkFile)
+        private String chooseFileName(int i, Set<String> usedCommonNames) {
+            if (random.nextDouble() < collisionChance) {
+                String commonName = COMMON_FILE_NAMES[random.nextInt(COMMON_FILE_NAMES.length)];
+                if (usedCommonNames.add(commonName)) {
+                    return commonName;
+                }
+            }
+            return FILE_WORDS[random.nextInt(FILE_WORDS.length)] + " " + i;
+        }
+
+        // EFFECTS: returns the names of the Labels on a file, each chosen with the Zipf distribution
+        private List<String> chooseLabelNames() {
+            List<String> fileLabelNames = new ArrayList<String>(MAX_LABELS_PER_FILE);
+            while (numLabels > 0 && fileLabelNames.size() < MAX_LABELS_PER_FILE && random.nextDouble() < LABEL_CHANCE) {
+                String labelName = labelNames.get(pickLabel());
+                if (fileLabelNames.contains(labelName)) {
+                    break;
+                }
+                fileLabelNames.add(labelName);
+            }
+            return fileLabelNames;
+        }
+
+        // EFFECTS: returns the index of a Label, chosen with the Zipf distribution
+        private int pickLabel() {
+            double weight = random.nextDouble() * labelCumulativeWeights[numLabels - 1];
+            int index = Arrays.binarySearch(labelCumulativeWeights, weight);
+            return Math.min(index < 0 ? -index - 1 : index, numLabels - 1);
+        }
+
+        // EFFECTS: returns the path of a file named name in the current folder
+        private String getPath(String name) {
+            if (notesDirectoryPath != null) {
+                return Paths.get(notesDirectoryPath, folderPath.toArray(new String[0])).resolve(name + ".txt")
+                        .toString();
+            }
+            StringBuilder path = new StringBuilder(DEFAULT_DOCUMENTS_PATH);
+            for (String folderName : folderPath) {
+                path.append('/').append(folderName);
+            }
+            return path.append('/').append(name).append(".txt").toString();
+        }
+
+        // EFFECTS: returns total split into count parts at random, a few large and the rest small
+        private int[] split(int total, int count) {
+            int[] parts = new int[count];
+            if (count == 0) {
+                return parts;
+            }
+            double[] weights = new double[count];
+            double totalWeight = 0;
+            for (int i = 0; i < count; i++) {
+                double r = random.nextDouble();
+                weights[i] = r * r * r + 0.02;
+                totalWeight += weights[i];
+            }
+            int assigned = 0;
+            for (int i = 0; i < count; i++) {
+                parts[i] = (int) (total * (weights[i] / totalWeight));
+                assigned += parts[i];
+            }
+            for (int i = 0; assigned < total; i = (i + 1) % count) {
+                parts[i]++;
+                assigned++;
+            }
+            return parts;
+        }
+    }
+
+    // Represents a sink that builds a FileSystem directly, the way JsonReader does, and keeps the recently-opened files
+    // it comes across so their history can be restored once the library has been walked
+    private class FileSystemSink implements Sink {
+        private final FileSystem fileSystem;
+        private final Map<Integer, Integer> recentRanks;
+        private final File[] recentFiles;
+        private final List<Folder> folders;
+
+        // EFFECTS: constructs a sink that builds fileSystem, which must be empty
+        FileSystemSink(FileSystem fileSystem) {
+            this.fileSystem = fileSystem;
+            recentRanks = chooseRecentFiles();
+            recentFiles = new File[recentRanks.size()];
+            folders = new ArrayList<Folder>();
+        }
+
+        // MODIFIES: this
+        // EFFECTS: adds a Label named labelName to the file system
+        void loadLabel(String labelName) {
+            try {
+                fileSystem.loadLabel(labelName);
+            } catch (NameIsTakenException e) {
+                throw new IllegalStateException("generated two labels named " + labelName);
+            }
+        }
+
+        @Override
+        public void beginFolder(String name) {
+            if (folders.isEmpty()) {
+                folders.add(fileSystem.getRootFolder());
+                return;
+            }
+            Folder folder = new Folder(name);
+            try {
+                folders.get(folders.size() - 1).addExistingSubfolder(folder);
+            } catch (NameIsTakenException e) {
+                throw new IllegalStateException("generated two folders named " + name + " in one folder");
+            }
+            folders.add(folder);
+        }
+
+        @Override
+        public void file(int index, String name, String path, List<String> labelNames) {
+            try {
+                File file = fileSystem.loadFile(folders.get(folders.size() - 1), name, path);
+                for (String labelName : labelNames) {
+                    fileSystem.loadLabelOnFile(file, labelName);
+                }
+                Integer rank = recentRanks.get(index);
+                if (rank != null) {
+                    recentFiles[rank] = file;
+                }
+            } catch (NameIsTakenException e) {
+                throw new IllegalStateException("generated two files named " + name + " in one folder");
+            } catch (NoSuchLabelFoundException e) {
+                throw new IllegalStateException("generated a file with a label that was not generated");
+            }
+        }
+
+        @Override
+        public void endFiles() {
+            // nothing to do; a Folder's files and subfolders can be added in any order
+        }
+
+        @Override
+        public void endFolder() {
+            folders.remove(folders.size() - 1);
+        }
+
+        // MODIFIES: this
+        // EFFECTS: restores the history of recently-opened files, folders, and labels, from most to least recent
+        void restoreRecents() {
+            int[] openCounts = makeOpenCounts();
+            for (int rank = 0; rank < recentFiles.length; rank++) {
+                fileSystem.restoreRecentlyOpenedFile(recentFiles[rank], openCounts[rank], getLastOpened(rank));
+            }
+            Set<Folder> recentFolders = new LinkedHashSet<Folder>();
+            for (int rank = 0; rank < recentFiles.length && recentFolders.size() < numRecentFolders; rank++) {
+                if (recentFiles[rank].getParentFolder() != fileSystem.getRootFolder()) {
+                    recentFolders.add(recentFiles[rank].getParentFolder());
+                }
+            }
+            int rank = 0;
+            for (Folder folder : recentFolders) {
+                fileSystem.restoreRecentlyOpenedFolder(folder, openCounts[rank], getLastOpened(rank));
+                rank++;
+            }
+            List<String> labelNames = getLabelNames();
+            for (rank = 0; rank < Math.min(numRecentLabels, numLabels); rank++) {
+                try {
+                    fileSystem.restoreRecentlyOpenedLabel(labelNames.get(rank), openCounts[rank], getLastOpened(rank));
+                } catch (NoSuchLabelFoundException e) {
+                    throw new IllegalStateException("a recent label was not generated");
+                }
+            }
+        }
+    }
+
+    // Represents a sink that only notes the paths of the recently-opened files it comes across, in order of recency
+    private class RecentsSink implements Sink {
+        private final Map<Integer, Integer> recentRanks;
+        private final List<String> folderPath;
+        private final String[] recentFileNames;
+        private final List<List<String>> recentFolderPaths;
+
+        // EFFECTS: constructs a sink that has not come across any recently-opened files
+        RecentsSink() {
+            recentRanks = chooseRecentFiles();
+            folderPath = new ArrayList<String>();
+            recentFileNames = new String[recentRanks.size()];
+            recentFolderPaths = new ArrayList<List<String>>();
+            for (int i = 0; i < recentFileNames.length; i++) {
+                recentFolderPaths.add(null);
+            }
+        }
+
+        @Override
+        public void beginFolder(String name) {
+            folderPath.add(name);
+        }
+
+        @Override
+        public void file(int index, String name, String path, List<String> labelNames) {
+            Integer rank = recentRanks.get(index);
+            if (rank != null) {
+                recentFileNames[rank] = name;
+                recentFolderPaths.set(rank, new ArrayList<String>(folderPath));
+            }
+        }
+
+        @Override
+        public void endFiles() {
+            // nothing to note
+        }
+
+        @Override
+        public void endFolder() {
+            folderPath.remove(folderPath.size() - 1);
+        }
+
+        // MODIFIES: writer
+        // EFFECTS: writes the history of recently-opened files, folders, and labels to writer, as FileSystem does
+        void writeJson(JsonStreamWriter writer) throws IOException {
+            int[] openCounts = makeOpenCounts();
+            writeRecentFiles(writer, openCounts);
+            writeRecentFolders(writer, openCounts);
+            writeRecentLabels(writer, openCounts);
+        }
+
+        // MODIFIES: writer
+        // EFFECTS: writes the recently-opened files to writer, the rank-th opened openCounts[rank] times
+        private void writeRecentFiles(JsonStreamWriter writer, int[] openCounts) throws IOException {
+            writer.name("recentlyOpenedFilePaths").beginArray();
+            for (int rank = 0; rank < recentFileNames.length; rank++) {
+                writer.beginObject();
+                writer.name("fileName").value(recentFileNames[rank]);
+                writer.name("folderPath");
+                writePath(writer, recentFolderPaths.get(rank));
+                writeAccessHistory(writer, openCounts[rank], rank);
+                writer.endObject();
+            }
+            writer.endArray();
+        }
+
+        // MODIFIES: writer
+        // EFFECTS: writes the recently-opened folders (those of the most recently opened files, other than the root
+        // Folder) to writer, the rank-th opened openCounts[rank] times
+        private void writeRecentFolders(JsonStreamWriter writer, int[] openCounts) throws IOException {
+            Set<List<String>> recentFolders = new LinkedHashSet<List<String>>();
+            for (int rank = 0; rank < recentFileNames.length && recentFolders.size() < numRecentFolders; rank++) {
+                if (recentFolderPaths.get(rank).size() > 1) {
+                    recentFolders.add(recentFolderPaths.get(rank));
+                }
+            }
+            writer.name("recentlyOpenedFolderPaths").beginArray();
+            int rank = 0;
+            for (List<String> path : recentFolders) {
+                writer.beginObject();
+                writer.name("folderName").value(path.get(path.size() - 1));
+                writer.name("folderPath");
+                writePath(writer, path.subList(0, path.size() - 1));
+                writeAccessHistory(writer, openCounts[rank], rank);
+                writer.endObject();
+                rank++;
+            }
+            writer.endArray();
+        }
+
+        // MODIFIES: writer
+        // EFFECTS: writes the recently-opened labels (the most used) to writer, the rank-th opened openCounts[rank]
+        // times
+        private void writeRecentLabels(JsonStreamWriter writer, int[] openCounts) throws IOException {
+            List<String> labelNames = getLabelNames();
+            writer.name("recentlyOpenedLabels").beginArray();
+            for (int rank = 0; rank < Math.min(numRecentLabels, numLabels); rank++) {
+                writer.beginObject();
+                writer.name("name").value(labelNames.get(rank));
+                writeAccessHistory(writer, openCounts[rank], rank);
+                writer.endObject();
+            }
+            writer.endArray();
+        }
+
+        // MODIFIES: writer
+        // EFFECTS: writes path to writer as an array of folder names
+        private void writePath(JsonStreamWriter writer, List<String> path) throws IOException {
+            writer.beginArray();
+            for (String folderName : path) {
+                writer.value(folderName);
+            }
+            writer.endArray();
+        }
+
+        // MODIFIES: writer
+        // EFFECTS: writes the open count and time last opened of the rank-th most recently opened item to writer
+        private void writeAccessHistory(JsonStreamWriter writer, int openCount, int rank) throws IOException {
+            writer.name("openCount").value(openCount);
+            writer.name("lastOpened").value(getLastOpened(rank));
+        }
+    }
+
+    // Represents a sink that writes the Folders of a library as FileSystem.writeJson would
+    private static class JsonSink implements Sink {
+        private final JsonStreamWriter writer;
+
+        // EFFECTS: constructs a sink that writes to writer
+        JsonSink(JsonStreamWriter writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void beginFolder(String name) throws IOException {
+            writer.beginObject();
+            writer.name("name").value(name);
+            writer.name("subfiles").beginArray();
+        }
+
+        @Override
+        public void file(int index, String name, String path, List<String> labelNames) throws IOException {
+            writer.beginObject();
+            writer.name("name").value(name);
+            writer.name("filePath").value(path);
+            writer.name("labels").beginArray();
+            for (String labelName : labelNames) {
+                writer.beginObject().name("name").value(labelName).endObject();
+            }
+            writer.endArray();
+            writer.endObject();
+        }
+
+        @Override
+        public void endFiles() throws IOException {
+            writer.endArray();
+            writer.name("subfolders").beginArray();
+        }
+
+        @Override
+        public void endFolder() throws IOException {
+            writer.endArray();
+            writer.endObject();
+        }
+    }
+
+
+    // Helper Methods:
+
+    // EFFECTS: returns the indices of the recently-opened files, each mapped to its rank (0 for the most recent)
+    private Map<Integer, Integer> chooseRecentFiles() {
+        int count = Math.min(Math.min(numRecentFiles, MAX_RECENTS), numFiles);
+        Random random = new Random(seed + RECENTS_SALT);
+        Map<Integer, Integer> ranks = new HashMap<Integer, Integer>();
+        while (ranks.size() < count) {
+            ranks.putIfAbsent(random.nextInt(numFiles), ranks.size());
+        }
+        return ranks;
+    }
+
+    // EFFECTS: returns how many times the rank-th most recently opened file, folder, or label has been opened, for
+    // every rank
+    private int[] makeOpenCounts() {
+        Random random = new Random(seed - RECENTS_SALT);
+        int[] openCounts = new int[MAX_RECENTS];
+        for (int i = 0; i < openCounts.length; i++) {
+            openCounts[i] = 1 + random.nextInt(MAX_OPEN_COUNT);
+        }
+        return openCounts;
+    }
+
+    // EFFECTS: returns when the rank-th most recently opened file, folder, or label was last opened
+    private static long getLastOpened(int rank) {
+        return START_MILLIS - rank * MILLIS_BETWEEN_OPENS;
+    }
+
+    // EFFECTS: returns the running totals of the weights 1 / k^skew for k = 1, ..., count
+    private static double[] makeZipfCumulativeWeights(int count, double skew) {
+        double[] cumulativeWeights = new double[count];
+        double total = 0;
+        for (int k = 1; k <= count; k++) {
+            total += 1 / Math.pow(k, skew);
+            cumulativeWeights[k - 1] = total;
+        }
+        return cumulativeWeights;
+    }
+
+    // EFFECTS: writes a note for the index-th file, named name, to path: a heading and a few lines of words chosen from
+    // a random number generator of its own, so that the notes are the same however the library is generated
+    // throws IOException if it could not be written
+    private void writeNote(int index, String name, String path) throws IOException {
+        Random random = new Random(seed ^ (index * NOTES_SALT));
+        StringBuilder note = new StringBuilder("# ").append(name).append('\n');
+        int numLines = 1 + random.nextInt(MAX_NOTE_LINES);
+        for (int line = 0; line < numLines; line++) {
+            for (int word = 0; word < WORDS_PER_NOTE_LINE; word++) {
+                String[] words = random.nextBoolean() ? FOLDER_WORDS : LABEL_WORDS;
+                note.append(word == 0 ? "" : " ").append(words[random.nextInt(words.length)].toLowerCase());
+            }
+            note.append('\n');
+        }
+        Path notePath = Paths.get(path);
+        Files.write(notePath, note.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
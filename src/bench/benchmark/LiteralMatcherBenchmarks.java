@@ -0,0 +1,97 @@
+package benchmark;
+
+import model.LiteralMatcher;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+
+// Benchmarks of finding an exact string in notes' contents, as an exact grep does (see NoteGrep), over corpora of 64 KB
+// up to 16 MB of notes like the ones a LibraryGenerator writes. The string only appears at the very end, so every
+// invocation scans the whole corpus. LiteralMatcher.indexOf (eight bytes at a time) and indexOfScalar (one byte at
+// a time) search a direct buffer, as they do a memory-mapped note. String.indexOf searches the same corpus already
+// decoded into a String, and String.indexOf.decoding decodes the direct buffer first, which is what searching a note
+// for a String would cost
+public class LiteralMatcherBenchmarks {
+    static final List<String> NUM_BYTES = List.of("65536", "1048576", "16777216");
+    static final String NEEDLE = "quarterly budget review";
+
+    private static final long SEED = 210;
+    private static final int MAX_NOTE_LINES = 12;
+    private static final int WORDS_PER_NOTE_LINE = 10;
+
+    // EFFECTS: returns the LiteralMatcher benchmarks
+    public static List<Benchmark> getBenchmarks() {
+        return List.of(
+                new Benchmark("LiteralMatcher.indexOf", "bytes", NUM_BYTES, LiteralMatcherBenchmarks::setUpIndexOf),
+                new Benchmark("LiteralMatcher.indexOfScalar", "bytes", NUM_BYTES,
+                        LiteralMatcherBenchmarks::setUpIndexOfScalar),
+                new Benchmark("String.indexOf", "bytes", NUM_BYTES, LiteralMatcherBenchmarks::setUpStringIndexOf),
+                new Benchmark("String.indexOf.decoding", "bytes", NUM_BYTES,
+                        LiteralMatcherBenchmarks::setUpDecodingStringIndexOf));
+    }
+
+
+    // Helper Methods:
+
+    // EFFECTS: makes a corpus of numBytes bytes and returns an operation that finds NEEDLE in it a word at a time
+    private static Benchmark.Operation setUpIndexOf(String numBytes) {
+        ByteBuffer corpus = makeDirectCorpus(Integer.parseInt(numBytes));
+        LiteralMatcher matcher = new LiteralMatcher(NEEDLE.getBytes(StandardCharsets.UTF_8));
+        return invocation -> matcher.indexOf(corpus, 0, corpus.limit());
+    }
+
+    // EFFECTS: makes a corpus of numBytes bytes and returns an operation that finds NEEDLE in it a byte at a time
+    private static Benchmark.Operation setUpIndexOfScalar(String numBytes) {
+        ByteBuffer corpus = makeDirectCorpus(Integer.parseInt(numBytes));
+        LiteralMatcher matcher = new LiteralMatcher(NEEDLE.getBytes(StandardCharsets.UTF_8));
+        return invocation -> matcher.indexOfScalar(corpus, 0, corpus.limit());
+    }
+
+    // EFFECTS: makes a corpus of numBytes bytes and returns an operation that finds NEEDLE in it as a String
+    private static Benchmark.Operation setUpStringIndexOf(String numBytes) {
+        String corpus = new String(makeCorpus(Integer.parseInt(numBytes)), StandardCharsets.UTF_8);
+        return invocation -> corpus.indexOf(NEEDLE);
+    }
+
+    // EFFECTS: makes a corpus of numBytes bytes and returns an operation that decodes it into a String and finds NEEDLE
+    // in that
+    private static Benchmark.Operation setUpDecodingStringIndexOf(String numBytes) {
+        ByteBuffer corpus = makeDirectCorpus(Integer.parseInt(numBytes));
+        return invocation -> StandardCharsets.UTF_8.decode(corpus.duplicate()).toString().indexOf(NEEDLE);
+    }
+
+    // EFFECTS: returns makeCorpus(numBytes) in a little-endian direct buffer, like a memory-mapped note searched by
+    // NoteGrep
+    private static ByteBuffer makeDirectCorpus(int numBytes) {
+        byte[] bytes = makeCorpus(numBytes);
+        ByteBuffer corpus = ByteBuffer.allocateDirect(bytes.length).order(ByteOrder.LITTLE_ENDIAN);
+        corpus.put(bytes).flip();
+        return corpus;
+    }
+
+    // EFFECTS: returns numBytes bytes of notes made of the words LibraryGenerator uses for folders and labels, one
+    // after another in the same order every run, ending with NEEDLE
+    private static byte[] makeCorpus(int numBytes) {
+        Random random = new Random(SEED);
+        StringBuilder corpus = new StringBuilder(numBytes);
+        for (int note = 0; corpus.length() < numBytes; note++) {
+            String fileWord = LibraryGenerator.FILE_WORDS[random.nextInt(LibraryGenerator.FILE_WORDS.length)];
+            corpus.append("# ").append(fileWord).append(' ').append(note).append('\n');
+            int numLines = 1 + random.nextInt(MAX_NOTE_LINES);
+            for (int line = 0; line < numLines; line++) {
+                for (int word = 0; word < WORDS_PER_NOTE_LINE; word++) {
+                    String[] words = random.nextBoolean() ? LibraryGenerator.FOLDER_WORDS
+                            : LibraryGenerator.LABEL_WORDS;
+                    corpus.append(word == 0 ? "" : " ").append(words[random.nextInt(words.length)].toLowerCase());
+                }
+                corpus.append('\n');
+            }
+        }
+        corpus.setLength(numBytes - NEEDLE.length());
+        corpus.append(NEEDLE);
+        return corpus.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
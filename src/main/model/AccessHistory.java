@@ -0,0 +1,234 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.LongSupplier;
+
+// Represents a history of opened items (Files, Folders, or Labels), from most to least recently opened, that also
+// remembers how many times each item was opened and when it was last opened. Items are kept in a hash map and a
+// doubly-linked list so that recording an open, moving an item to the front, and forgetting an item all take constant
+// time. Once there are more than capacity items, the least recently opened one is forgotten.
+// Items can be ranked by recency or by frecency, which combines how often and how recently an item was opened: each
+// item scores its number of opens, halved for every FRECENCY_HALF_LIFE_MILLIS since it was last opened
+public class AccessHistory<T> {
+    public static final long FRECENCY_HALF_LIFE_MILLIS = 7L * 24 * 60 * 60 * 1000;
+
+    private final int capacity;
+    private final LongSupplier clock;
+    private final Map<T, Entry<T>> entries;
+    private Entry<T> mostRecent;
+    private Entry<T> leastRecent;
+    private long nextSequenceNumber;
+
+    // Represents an item in the history along with its open count and the time it was last opened
+    public static class Entry<T> {
+        private final T item;
+        private int openCount;
+        private long lastOpenedMillis;
+        private long sequenceNumber;
+        private Entry<T> moreRecent;
+        private Entry<T> lessRecent;
+
+        private Entry(T item) {
+            this.item = item;
+        }
+
+        public T getItem() {
+            return item;
+        }
+
+        public int getOpenCount() {
+            return openCount;
+        }
+
+        public long getLastOpenedMillis() {
+            return lastOpenedMillis;
+        }
+    }
+
+    // REQUIRES: capacity > 0
+    // EFFECTS: constructs an empty history that remembers up to capacity items and uses the system clock
+    public AccessHistory(int capacity) {
+        this(capacity, System::currentTimeMillis);
+    }
+
+    // REQUIRES: capacity > 0
+    // EFFECTS: constructs an empty history that remembers up to capacity items and gets the time from clock
+    AccessHistory(int capacity, LongSupplier clock) {
+        this.capacity = capacity;
+        this.clock = clock;
+        entries = new HashMap<>();
+        mostRecent = null;
+        leastRecent = null;
+        nextSequenceNumber = 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that item was just opened: moves it to the front, adds one to its open count, and sets the time
+    // it was last opened to now. Forgets the least recently opened item if there are now more than capacity items
+    public void recordOpen(T item) {
+        Entry<T> entry = entries.get(item);
+        if (entry == null) {
+            entry = new Entry<>(item);
+            entries.put(item, entry);
+        } else {
+            unlink(entry);
+        }
+        entry.openCount++;
+        entry.lastOpenedMillis = clock.getAsLong();
+        linkAsMostRecent(entry);
+        evictIfOverCapacity();
+    }
+
+    // REQUIRES: openCount > 0
+    // MODIFIES: this
+    // EFFECTS: adds item (if it is not already in the history) as the least recently opened item with the given open
+    // count and time last opened. Used to rebuild a saved history from most to least recent
+    public void restore(T item, int openCount, long lastOpenedMillis) {
+        if (entries.containsKey(item) || entries.size() == capacity) {
+            return;
+        }
+        Entry<T> entry = new Entry<>(item);
+        entry.openCount = openCount;
+        entry.lastOpenedMillis = lastOpenedMillis;
+        entries.put(item, entry);
+        linkAsLeastRecent(entry);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forgets item if it is in the history
+    public void remove(T item) {
+        Entry<T> entry = entries.remove(item);
+        if (entry != null) {
+            unlink(entry);
+        }
+    }
+
+    // EFFECTS: returns true if item is in the history
+    public boolean contains(T item) {
+        return entries.containsKey(item);
+    }
+
+    // EFFECTS: returns the number of items in the history
+    public int size() {
+        return entries.size();
+    }
+
+    // EFFECTS: returns the entry for item, or null if item is not in the history
+    public Entry<T> getEntry(T item) {
+        return entries.get(item);
+    }
+
+    // EFFECTS: returns the entries for every item in the history, from most to least recently opened
+    public List<Entry<T>> getEntries() {
+        List<Entry<T>> list = new ArrayList<>(entries.size());
+        for (Entry<T> entry = mostRecent; entry != null; entry = entry.lessRecent) {
+            list.add(entry);
+        }
+        return list;
+    }
+
+    // EFFECTS: returns up to k items, from most to least recently opened
+    public List<T> getMostRecent(int k) {
+        List<T> items = new ArrayList<>(Math.min(k, entries.size()));
+        for (Entry<T> entry = mostRecent; entry != null && items.size() < k; entry = entry.lessRecent) {
+            items.add(entry.item);
+        }
+        return items;
+    }
+
+    // EFFECTS: returns up to k items with the highest frecency, from highest to lowest. Items with the same frecency
+    // are ordered from most to least recently opened
+    public List<T> getMostFrecent(int k) {
+        long now = clock.getAsLong();
+        Comparator<Entry<T>> byFrecency = Comparator.comparingDouble((Entry<T> entry) -> frecency(entry, now))
+                .thenComparingLong(entry -> entry.sequenceNumber);
+        PriorityQueue<Entry<T>> top = new PriorityQueue<>(byFrecency);
+
+        for (Entry<T> entry : entries.values()) {
+            top.add(entry);
+            if (top.size() > k) {
+                top.poll();
+            }
+        }
+
+        List<T> items = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            items.add(top.poll().item);
+        }
+        Collections.reverse(items);
+        return items;
+    }
+
+
+    // Helper Methods:
+
+    // EFFECTS: returns entry's open count, halved for every FRECENCY_HALF_LIFE_MILLIS between when it was last opened
+    // and now
+    private static double frecency(Entry<?> entry, long now) {
+        long age = Math.max(0, now - entry.lastOpenedMillis);
+        return entry.openCount * Math.pow(0.5, (double) age / FRECENCY_HALF_LIFE_MILLIS);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: puts entry at the front of the list
+    private void linkAsMostRecent(Entry<T> entry) {
+        entry.sequenceNumber = nextSequenceNumber++;
+        entry.moreRecent = null;
+        entry.lessRecent = mostRecent;
+        if (mostRecent != null) {
+            mostRecent.moreRecent = entry;
+        }
+        mostRecent = entry;
+        if (leastRecent == null) {
+            leastRecent = entry;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: puts entry at the back of the list. Its sequence number is below every other entry's
+    private void linkAsLeastRecent(Entry<T> entry) {
+        entry.sequenceNumber = leastRecent == null ? nextSequenceNumber++ : leastRecent.sequenceNumber - 1;
+        entry.lessRecent = null;
+        entry.moreRecent = leastRecent;
+        if (leastRecent != null) {
+            leastRecent.lessRecent = entry;
+        }
+        leastRecent = entry;
+        if (mostRecent == null) {
+            mostRecent = entry;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: takes entry out of the list
+    private void unlink(Entry<T> entry) {
+        if (entry.moreRecent != null) {
+            entry.moreRecent.lessRecent = entry.lessRecent;
+        } else {
+            mostRecent = entry.lessRecent;
+        }
+        if (entry.lessRecent != null) {
+            entry.lessRecent.moreRecent = entry.moreRecent;
+        } else {
+            leastRecent = entry.moreRecent;
+        }
+        entry.moreRecent = null;
+        entry.lessRecent = null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forgets the least recently opened item if there are more than capacity items
+    private void evictIfOverCapacity() {
+        if (entries.size() > capacity) {
+            Entry<T> evicted = leastRecent;
+            unlink(evicted);
+            entries.remove(evicted.item);
+        }
+    }
+}
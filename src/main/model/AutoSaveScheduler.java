@@ -0,0 +1,135 @@
+package model;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+// Represents a scheduler that autosaves a FileSystem in the background whenever it has been changed, coalescing bursts
+// of changes into a single save: the FileSystem is saved once it has gone idleMillis without being changed, or once
+// maxPendingChanges changes have been made since it was last saved, whichever comes first. Saves are made with
+// FileSystem.autoSaveInBackground, so the thread making the changes never waits on the disk.
+// Every method (and every change to the FileSystem) must be made on the same thread, the owner thread, and the idle
+// save is handed back to that thread through ownerExecutor (e.g. SwingUtilities::invokeLater for a GUI)
+public class AutoSaveScheduler {
+    public static final long DEFAULT_IDLE_MILLIS = 2000;
+    public static final int DEFAULT_MAX_PENDING_CHANGES = 50;
+
+    private FileSystem fileSystem;
+    private final int maxPendingChanges;
+    private final long idleMillis;
+    private final Executor ownerExecutor;
+    private final ScheduledExecutorService idleTimer;
+
+    private ScheduledFuture<?> idleSave;
+    private int pendingChanges;
+    private CompletableFuture<Void> lastSave;
+
+    // REQUIRES: maxPendingChanges > 0
+    // MODIFIES: fileSystem
+    // EFFECTS: constructs a scheduler that saves fileSystem only once maxPendingChanges changes have been made to it
+    // (for when there is no event loop to hand an idle save back to)
+    public AutoSaveScheduler(FileSystem fileSystem, int maxPendingChanges) {
+        this(fileSystem, maxPendingChanges, 0, null);
+    }
+
+    // REQUIRES: maxPendingChanges > 0, idleMillis > 0
+    // MODIFIES: fileSystem
+    // EFFECTS: constructs a scheduler that saves fileSystem once it has gone idleMillis without being changed (running
+    // the save on ownerExecutor) or once maxPendingChanges changes have been made to it
+    public AutoSaveScheduler(FileSystem fileSystem, int maxPendingChanges, long idleMillis, Executor ownerExecutor) {
+        this.maxPendingChanges = maxPendingChanges;
+        this.idleMillis = idleMillis;
+        this.ownerExecutor = ownerExecutor;
+        if (ownerExecutor == null) {
+            idleTimer = null;
+        } else {
+            idleTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "Autosave idle timer");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        lastSave = CompletableFuture.completedFuture(null);
+        setFileSystem(fileSystem);
+    }
+
+    // MODIFIES: this, fileSystem
+    // EFFECTS: stops watching the current file system (dropping any changes to it that have not been saved yet) and
+    // starts watching fileSystem instead, e.g. after a different file system was loaded
+    public void setFileSystem(FileSystem fileSystem) {
+        if (this.fileSystem != null) {
+            this.fileSystem.setChangeListener(null);
+        }
+        cancelIdleSave();
+        pendingChanges = 0;
+        this.fileSystem = fileSystem;
+        fileSystem.setChangeListener(this::changed);
+    }
+
+    // EFFECTS: returns the number of changes made to the file system since it was last saved
+    public int getPendingChanges() {
+        return pendingChanges;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: saves the file system in the background now, whether or not it has changed, and returns a future that
+    // completes once it has been written to disk
+    public CompletableFuture<Void> saveNow() {
+        cancelIdleSave();
+        pendingChanges = 0;
+        lastSave = fileSystem.autoSaveInBackground();
+        return lastSave;
+    }
+
+    // MODIFIES: this, fileSystem
+    // EFFECTS: stops watching the file system, saving it in the background if it has changed since it was last saved,
+    // and returns a future that completes once the last save has been written to disk
+    public CompletableFuture<Void> close() {
+        if (pendingChanges > 0) {
+            saveNow();
+        }
+        cancelIdleSave();
+        if (idleTimer != null) {
+            idleTimer.shutdownNow();
+        }
+        fileSystem.setChangeListener(null);
+        return lastSave;
+    }
+
+
+    // Helper Methods:
+
+    // MODIFIES: this
+    // EFFECTS: records that the file system changed, saving it if maxPendingChanges changes are now pending and
+    // otherwise (re)starting the wait for it to go idle
+    private void changed() {
+        pendingChanges++;
+        if (pendingChanges >= maxPendingChanges) {
+            saveNow();
+        } else if (idleTimer != null) {
+            cancelIdleSave();
+            idleSave = idleTimer.schedule(() -> ownerExecutor.execute(this::saveIfChanged), idleMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: saves the file system if it has changed since it was last saved
+    private void saveIfChanged() {
+        if (pendingChanges > 0) {
+            saveNow();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: cancels the save waiting for the file system to go idle, if there is one
+    private void cancelIdleSave() {
+        if (idleSave != null) {
+            idleSave.cancel(false);
+            idleSave = null;
+        }
+    }
+}
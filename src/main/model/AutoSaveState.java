@@ -0,0 +1,84 @@
+package model;
+
+import java.util.List;
+
+// Represents what a file system's journal does not record about it, captured on the thread that owns the file system
+// so that FileSystem.autoSaveInBackground can rebuild the file system from the autosave and the journal on a
+// background thread: the sequence number of the last journaled change, the Folder or Label that is open, and the
+// recently-opened Files, Folders, and Labels (each with how many times and when it was last opened). It holds only
+// names, never the Files, Folders, or Labels themselves, so it never changes once captured
+final class AutoSaveState {
+    private final long journalSequence;
+    private final List<String> currentFolderPath;
+    private final String currentLabelName;
+    private final List<Recent> recentFiles;
+    private final List<Recent> recentFolders;
+    private final List<Recent> recentLabels;
+
+    // Represents a recently-opened File, Folder, or Label: the names leading to it from the root Folder (exclusive),
+    // ending with its own name (just its name for a Label), how many times it was opened, and when it was last opened
+    static final class Recent {
+        private final List<String> path;
+        private final int openCount;
+        private final long lastOpenedMillis;
+
+        // EFFECTS: constructs a record of the object at path having been opened openCount times, most recently at
+        // lastOpenedMillis
+        Recent(List<String> path, int openCount, long lastOpenedMillis) {
+            this.path = List.copyOf(path);
+            this.openCount = openCount;
+            this.lastOpenedMillis = lastOpenedMillis;
+        }
+
+        List<String> getPath() {
+            return path;
+        }
+
+        int getOpenCount() {
+            return openCount;
+        }
+
+        long getLastOpenedMillis() {
+            return lastOpenedMillis;
+        }
+    }
+
+    // REQUIRES: exactly one of currentFolderPath and currentLabelName is null
+    // EFFECTS: constructs the state of a file system whose last journaled change has sequence number journalSequence,
+    // in which the Folder at currentFolderPath (the names leading to it from the root Folder, exclusive) or the Label
+    // named currentLabelName is open, and whose recently-opened Files, Folders, and Labels are the given ones, from
+    // most to least recent
+    AutoSaveState(long journalSequence, List<String> currentFolderPath, String currentLabelName,
+            List<Recent> recentFiles, List<Recent> recentFolders, List<Recent> recentLabels) {
+        this.journalSequence = journalSequence;
+        this.currentFolderPath = currentFolderPath == null ? null : List.copyOf(currentFolderPath);
+        this.currentLabelName = currentLabelName;
+        this.recentFiles = List.copyOf(recentFiles);
+        this.recentFolders = List.copyOf(recentFolders);
+        this.recentLabels = List.copyOf(recentLabels);
+    }
+
+    long getJournalSequence() {
+        return journalSequence;
+    }
+
+    List<String> getCurrentFolderPath() {
+        return currentFolderPath;
+    }
+
+    String getCurrentLabelName() {
+        return currentLabelName;
+    }
+
+    List<Recent> getRecentFiles() {
+        return recentFiles;
+    }
+
+    List<Recent> getRecentFolders() {
+        return recentFolders;
+    }
+
+    List<Recent> getRecentLabels() {
+        return recentLabels;
+    }
+}
@@ -1,45 +1,232 @@
 package model;
 
-import java.util.Calendar;
 import java.util.Date;
+import java.util.Objects;
 
 /**
- * Represents an alarm system event.
+ * Represents an event in the file system: what kind of operation it was,
+ * the names of the objects it involved, and when it happened. The
+ * description is only formatted when it is asked for, so logging an
+ * event does not build any strings.
  * <p>
- * Taken from https://github.students.cs.ubc.ca/CPSC210/AlarmSystem
+ * Adapted from https://github.students.cs.ubc.ca/CPSC210/AlarmSystem
  */
 public class Event {
     private static final int HASH_CONSTANT = 13;
-    private Date dateLogged;
-    private String description;
+
+    /** when the first Event could have been logged, as a time of day and on System.nanoTime's clock */
+    private static final long START_MILLIS = System.currentTimeMillis();
+    private static final long START_NANOS = System.nanoTime();
+
+    /**
+     * The kinds of thing that can happen to an object, which group the
+     * operations so that the log can be searched by them.
+     */
+    public enum Kind {
+        CREATED, OPENED, RENAMED, DELETED, LABELLED, OTHER
+    }
+
+    /**
+     * The kinds of operation an Event can record, each with the Kind it
+     * is and the pattern its description is formatted from (%1$s is the
+     * Event's subject and %2$s its detail).
+     */
+    public enum Operation {
+        FILE_SYSTEM_CREATED(Kind.CREATED, "New FileSystem created"),
+        FILE_CREATED(Kind.CREATED, "File named \"%1$s\" created"),
+        FILE_OPENED(Kind.OPENED, "File named \"%1$s\" with path on this computer \"%2$s\" opened"),
+        FILE_DELETED(Kind.DELETED, "File named \"%1$s\" deleted"),
+        FILE_RENAMED(Kind.RENAMED, "File named \"%1$s\" renamed to \"%2$s\""),
+        FOLDER_CREATED(Kind.CREATED, "Folder named \"%1$s\" created"),
+        FOLDER_OPENED(Kind.OPENED, "Folder named \"%1$s\" opened"),
+        ROOT_FOLDER_OPENED(Kind.OPENED, "Root folder opened"),
+        FOLDER_DELETED(Kind.DELETED, "Folder named \"%1$s\" deleted"),
+        FOLDER_RENAMED(Kind.RENAMED, "Folder named \"%1$s\" renamed to \"%2$s\""),
+        LABEL_CREATED(Kind.CREATED, "Label named \"%1$s\" created"),
+        LABEL_OPENED(Kind.OPENED, "Label named \"%1$s\" opened"),
+        LABEL_QUERY_OPENED(Kind.OPENED, "Label query \"%1$s\" opened"),
+        LABEL_DELETED(Kind.DELETED, "Label named \"%1$s\" deleted"),
+        LABEL_RENAMED(Kind.RENAMED, "Label named \"%1$s\" renamed to \"%2$s\""),
+        FILE_LABELLED(Kind.LABELLED, "File named \"%1$s\" labelled with label \"%2$s\""),
+        FILE_UNLABELLED(Kind.LABELLED, "File named \"%1$s\" had label named \"%2$s\" removed"),
+        ALL_LABELS_REMOVED(Kind.LABELLED, "Removed all labels from file named \"%1$s\""),
+        JOURNAL_FAILED(Kind.OTHER,
+                "Changes could not be written to the autosave journal and will only be saved by autosaving"),
+        EVENT_LOG_CLEARED(Kind.OTHER, "Event log cleared.");
+
+        private final Kind kind;
+        private final String pattern;
+
+        Operation(Kind kind, String pattern) {
+            this.kind = kind;
+            this.pattern = pattern;
+        }
+
+        /**
+         * Gets the kind of thing this operation does to an object.
+         *
+         * @return the kind
+         */
+        public Kind getKind() {
+            return kind;
+        }
+
+        /**
+         * Formats the description of an Event of this kind.
+         *
+         * @param subject the name of the object the Event is about, or null
+         * @param detail the other name or path the Event involved, or null
+         * @return the description
+         */
+        public String format(String subject, String detail) {
+            return String.format(pattern, subject, detail);
+        }
+    }
+
+    private final Operation operation;
+    private final String subject;
+    private final String detail;
+    private final long nanoTime;
+    private long sequence;
+
+    /**
+     * Creates an event of the given kind, involving no objects, with the
+     * current time stamp.
+     *
+     * @param operation the kind of operation
+     */
+    public Event(Operation operation) {
+        this(operation, null, null);
+    }
+
+    /**
+     * Creates an event of the given kind about subject, with the current
+     * time stamp.
+     *
+     * @param operation the kind of operation
+     * @param subject the name of the object it is about
+     */
+    public Event(Operation operation, String subject) {
+        this(operation, subject, null);
+    }
+
+    /**
+     * Creates an event of the given kind about subject that also involved
+     * detail (e.g. the new name of something renamed), with the current
+     * time stamp.
+     *
+     * @param operation the kind of operation
+     * @param subject the name of the object it is about
+     * @param detail the other name or path it involved
+     */
+    public Event(Operation operation, String subject, String detail) {
+        this.operation = operation;
+        this.subject = subject;
+        this.detail = detail;
+        nanoTime = System.nanoTime();
+        sequence = -1;
+    }
 
     /**
-     * Creates an event with the given description
-     * and the current date/time stamp.
-     * 
-     * @param description a description of the event
+     * Recreates an event that was logged at the given time with the given
+     * sequence number, e.g. one read back from a log file.
+     *
+     * @param sequence the sequence number it was logged with
+     * @param millis when it was logged, in milliseconds since the epoch
+     * @param operation the kind of operation
+     * @param subject the name of the object it is about, or null
+     * @param detail the other name or path it involved, or null
      */
-    public Event(String description) {
-        dateLogged = Calendar.getInstance().getTime();
-        this.description = description;
+    public Event(long sequence, long millis, Operation operation, String subject, String detail) {
+        this.operation = operation;
+        this.subject = subject;
+        this.detail = detail;
+        nanoTime = START_NANOS + (millis - START_MILLIS) * 1_000_000;
+        this.sequence = sequence;
+    }
+
+    /**
+     * Gets the kind of operation this event records.
+     *
+     * @return the operation
+     */
+    public Operation getOperation() {
+        return operation;
+    }
+
+    /**
+     * Gets the name of the object this event is about.
+     *
+     * @return the subject's name, or null if the event is not about one
+     */
+    public String getSubject() {
+        return subject;
+    }
+
+    /**
+     * Gets the other name or path this event involved.
+     *
+     * @return the detail, or null if the event did not involve one
+     */
+    public String getDetail() {
+        return detail;
+    }
+
+    /**
+     * Gets when this event happened on System.nanoTime's clock, which
+     * (unlike the time of day) never goes backwards.
+     *
+     * @return the time stamp of the event
+     */
+    public long getNanoTime() {
+        return nanoTime;
     }
 
     /**
      * Gets the date of this event (includes time).
-     * 
+     *
      * @return the date of the event
      */
     public Date getDate() {
-        return dateLogged;
+        return new Date(getMillis());
     }
 
     /**
-     * Gets the description of this event.
-     * 
+     * Gets the date of this event in milliseconds since the epoch.
+     *
+     * @return the date of the event
+     */
+    public long getMillis() {
+        return START_MILLIS + Math.floorDiv(nanoTime - START_NANOS, 1_000_000);
+    }
+
+    /**
+     * Gets the description of this event, formatting it from its
+     * operation, subject, and detail.
+     *
      * @return the description of the event
      */
     public String getDescription() {
-        return description;
+        return operation.format(subject, detail);
+    }
+
+    /**
+     * Gets the position of this event in the EventLog it was logged to.
+     *
+     * @return the sequence number, or -1 if it has not been logged
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Records the position of this event in the EventLog it is being
+     * logged to. Called once, by the log, before the event is published.
+     *
+     * @param sequence the sequence number
+     */
+    void setSequence(long sequence) {
+        this.sequence = sequence;
     }
 
     @Override
@@ -54,17 +241,19 @@ public class Event {
 
         Event otherEvent = (Event) other;
 
-        return (this.dateLogged.equals(otherEvent.dateLogged)
-                && this.description.equals(otherEvent.description));
+        return (this.nanoTime == otherEvent.nanoTime
+                && this.operation == otherEvent.operation
+                && Objects.equals(this.subject, otherEvent.subject)
+                && Objects.equals(this.detail, otherEvent.detail));
     }
 
     @Override
     public int hashCode() {
-        return (HASH_CONSTANT * dateLogged.hashCode() + description.hashCode());
+        return (HASH_CONSTANT * Long.hashCode(nanoTime) + Objects.hash(operation, subject, detail));
     }
 
     @Override
     public String toString() {
-        return dateLogged.toString() + "\n" + description;
+        return getDate().toString() + "\n" + getDescription();
     }
 }
@@ -1,65 +1,232 @@
 package model;
 
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
- * Represents a log of alarm system events.
+ * Represents a log of file system events.
+ * <p>
+ * The log keeps only the most recent events, in a ring buffer of fixed
+ * capacity: once it is full, each new event overwrites the oldest one,
+ * so a long-running session (or loading a large file system) cannot fill
+ * the heap with events. Any number of threads can log events at once
+ * without taking a lock: each one claims the next sequence number and
+ * writes its event to that number's slot.
  * <p>
  * We use the Singleton Design Pattern to ensure that there is only
  * one EventLog in the system and that the system has global access
  * to the single instance of the EventLog.
  * <p>
- * Taken from https://github.students.cs.ubc.ca/CPSC210/AlarmSystem
+ * Adapted from https://github.students.cs.ubc.ca/CPSC210/AlarmSystem
  */
 public class EventLog implements Iterable<Event> {
+    /** the number of events the log keeps; a power of two */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    /**
+     * how far out of order (by time) events can be logged: an event is
+     * timestamped when it is created and only gets its place in the log
+     * once it is logged, so with many threads logging at once, a later
+     * event can end up before an earlier one
+     */
+    static final long ORDER_SLACK_MILLIS = 1000;
+
     /** the only EventLog in the system (Singleton Design Pattern) */
-    private static EventLog theLog;
-    private Collection<Event> events;
+    private static final EventLog theLog = new EventLog(DEFAULT_CAPACITY);
+
+    private final AtomicReferenceArray<Event> slots;
+    private final int mask;
+    private final AtomicLong nextSequence;
+    private volatile long clearedBefore;
 
     /**
      * Prevent external construction.
      * (Singleton Design Pattern).
+     * Other logs are only constructed by tests.
+     *
+     * @param capacity the number of events to keep; must be a power of two
      */
-    private EventLog() {
-        events = new ArrayList<Event>();
+    EventLog(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException();
+        }
+        slots = new AtomicReferenceArray<Event>(capacity);
+        mask = capacity - 1;
+        nextSequence = new AtomicLong(0);
+        clearedBefore = 0;
     }
 
     /**
-     * Gets instance of EventLog - creates it
-     * if it doesn't already exist.
+     * Gets instance of EventLog.
      * (Singleton Design Pattern)
-     * 
+     *
      * @return instance of EventLog
      */
     public static EventLog getInstance() {
-        if (theLog == null) {
-            theLog = new EventLog();
-        }
-
         return theLog;
     }
 
     /**
-     * Adds an event to the event log.
-     * 
-     * @param e the event to be added
+     * Adds an event to the event log, overwriting the oldest event if
+     * the log is full. Safe to call from any thread.
+     *
+     * @param e the event to be added; must not have been logged before
      */
     public void logEvent(Event e) {
-        events.add(e);
+        long sequence = nextSequence.getAndIncrement();
+        e.setSequence(sequence);
+        slots.set((int) sequence & mask, e);
     }
 
     /**
      * Clears the event log and logs the event.
      */
     public void clear() {
-        events.clear();
-        logEvent(new Event("Event log cleared."));
+        clearedBefore = nextSequence.get();
+        logEvent(new Event(Event.Operation.EVENT_LOG_CLEARED));
+    }
+
+    /**
+     * Gets the number of events the log keeps.
+     *
+     * @return the capacity of the log
+     */
+    public int getCapacity() {
+        return slots.length();
+    }
+
+    /**
+     * Gets the number of events that have ever been logged, which is also
+     * the sequence number the next event will get.
+     *
+     * @return the number of events logged
+     */
+    public long getNumLogged() {
+        return nextSequence.get();
     }
 
+    /**
+     * Returns an iterator over the events the log still has, from oldest
+     * to newest, as of when it is called. Events that are overwritten
+     * while iterating (or that are still being logged by another thread)
+     * are skipped.
+     *
+     * @return an iterator over the events
+     */
     @Override
     public Iterator<Event> iterator() {
-        return events.iterator();
+        return new EventIterator(0);
+    }
+
+    /**
+     * Returns an iterator like iterator(), but over only the events with
+     * sequence numbers of at least fromSequence.
+     *
+     * @param fromSequence the sequence number of the first event wanted
+     * @return an iterator over the events
+     */
+    public Iterator<Event> iterator(long fromSequence) {
+        return new EventIterator(fromSequence);
+    }
+
+    /**
+     * Returns the events the log still has that match query, from oldest
+     * to newest, as they are streamed. Since events are kept in the order
+     * they were logged, which is (give or take ORDER_SLACK_MILLIS) the
+     * order they happened, only the events logged around query's window
+     * of time are looked at: the first one is found by binary search,
+     * and the stream ends once events are past the window.
+     *
+     * @param query the events wanted
+     * @return a stream of the matching events
+     */
+    public Stream<Event> query(EventQuery query) {
+        long first = findFirstLoggedAtOrAfter(saturatingSubtract(query.getFromMillis(), ORDER_SLACK_MILLIS));
+        long stopMillis = saturatingAdd(query.getToMillis(), ORDER_SLACK_MILLIS);
+        Spliterator<Event> events = Spliterators.spliteratorUnknownSize(new EventIterator(first),
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(events, false)
+                .takeWhile(event -> event.getMillis() < stopMillis)
+                .filter(query::matches);
+    }
+
+    /**
+     * Finds the sequence number of the oldest event the log still has that
+     * was logged at or after millis, assuming events are in time order.
+     *
+     * @param millis the time, in milliseconds since the epoch
+     * @return the sequence number, or the next one if there is no such event
+     */
+    private long findFirstLoggedAtOrAfter(long millis) {
+        long high = nextSequence.get();
+        long low = Math.max(clearedBefore, high - slots.length());
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            Event event = slots.get((int) middle & mask);
+            // an event that has been overwritten since the search began was older than every event still in the log
+            if (event == null || event.getSequence() != middle || event.getMillis() < millis) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Subtracts without going past Long.MIN_VALUE.
+     */
+    private static long saturatingSubtract(long a, long b) {
+        return a < Long.MIN_VALUE + b ? Long.MIN_VALUE : a - b;
+    }
+
+    /**
+     * Adds without going past Long.MAX_VALUE.
+     */
+    private static long saturatingAdd(long a, long b) {
+        return a > Long.MAX_VALUE - b ? Long.MAX_VALUE : a + b;
+    }
+
+    // Represents an iterator over the events in the log with sequence numbers in [next, end)
+    private class EventIterator implements Iterator<Event> {
+        private long next;
+        private final long end;
+        private Event nextEvent;
+
+        // EFFECTS: constructs an iterator over the events from fromSequence (or the oldest event the log still has, if
+        // that is later) up to the last one logged so far
+        EventIterator(long fromSequence) {
+            end = nextSequence.get();
+            next = Math.max(fromSequence, Math.max(clearedBefore, end - slots.length()));
+            nextEvent = null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (nextEvent == null && next < end) {
+                Event event = slots.get((int) next & mask);
+                if (event != null && event.getSequence() == next) {
+                    nextEvent = event;
+                }
+                next++;
+            }
+            return nextEvent != null;
+        }
+
+        @Override
+        public Event next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Event event = nextEvent;
+            nextEvent = null;
+            return event;
+        }
     }
 }
@@ -0,0 +1,109 @@
+package model;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+// Represents a search of the event log: the events logged in a window of time, of some kinds of operation, and about
+// an object with some name. Each part matches every event until it is narrowed down, e.g.
+//   new EventQuery().between(weekAgo, now).ofKind(Event.Kind.OPENED).about("Notes")
+// finds every time something named Notes was opened in the last week
+public class EventQuery {
+    private long fromMillis;
+    private long toMillis;
+    private Set<Event.Operation> operations;
+    private int operationMask;
+    private String name;
+
+    // EFFECTS: constructs a query that matches every event
+    public EventQuery() {
+        fromMillis = Long.MIN_VALUE;
+        toMillis = Long.MAX_VALUE;
+        setOperations(EnumSet.allOf(Event.Operation.class));
+        name = null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: narrows this query down to events logged at or after fromMillis and before toMillis (in milliseconds
+    // since the epoch), and returns it
+    public EventQuery between(long fromMillis, long toMillis) {
+        this.fromMillis = fromMillis;
+        this.toMillis = toMillis;
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: narrows this query down to events whose operations are of one of kinds, and returns it
+    public EventQuery ofKind(Event.Kind... kinds) {
+        Set<Event.Operation> ofKinds = EnumSet.noneOf(Event.Operation.class);
+        for (Event.Kind kind : kinds) {
+            for (Event.Operation operation : operations) {
+                if (operation.getKind() == kind) {
+                    ofKinds.add(operation);
+                }
+            }
+        }
+        setOperations(ofKinds);
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: narrows this query down to events whose operations are one of operations, and returns it
+    public EventQuery ofOperation(Event.Operation... operations) {
+        Set<Event.Operation> ofOperations = EnumSet.noneOf(Event.Operation.class);
+        for (Event.Operation operation : operations) {
+            if (this.operations.contains(operation)) {
+                ofOperations.add(operation);
+            }
+        }
+        setOperations(ofOperations);
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: narrows this query down to events about (or involving, e.g. as the new name or the label) an object
+    // whose name is name, ignoring case, and returns it
+    public EventQuery about(String name) {
+        this.name = name;
+        return this;
+    }
+
+    public long getFromMillis() {
+        return fromMillis;
+    }
+
+    public long getToMillis() {
+        return toMillis;
+    }
+
+    // EFFECTS: returns a bit mask with the bit 1 << operation.ordinal() set for each operation this query matches
+    public int getOperationMask() {
+        return operationMask;
+    }
+
+    // EFFECTS: returns true if the window of time this query matches overlaps [minMillis, maxMillis]
+    public boolean overlaps(long minMillis, long maxMillis) {
+        return minMillis < toMillis && maxMillis >= fromMillis;
+    }
+
+    // EFFECTS: returns true if event matches every part of this query
+    public boolean matches(Event event) {
+        long millis = event.getMillis();
+        if (millis < fromMillis || millis >= toMillis || !operations.contains(event.getOperation())) {
+            return false;
+        }
+        return name == null || name.equalsIgnoreCase(event.getSubject()) || name.equalsIgnoreCase(event.getDetail());
+    }
+
+
+    // Helper Methods:
+
+    // MODIFIES: this
+    // EFFECTS: makes this query match only events whose operations are in operations
+    private void setOperations(Set<Event.Operation> operations) {
+        this.operations = operations;
+        operationMask = 0;
+        for (Event.Operation operation : operations) {
+            operationMask |= 1 << operation.ordinal();
+        }
+    }
+}
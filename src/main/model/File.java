@@ -1,34 +1,68 @@
 package model;
 
 import java.util.*;
+import java.io.IOException;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
 
+import persistence.JsonStreamWriter;
+
 // Represents a file having a name, a file path where it is stored on the user's computer,
-// and a set of labels that it is labelled with
+// a set of labels that it is labelled with, and a small integer id that is unique among the files in use while the
+// application is running (the id of a file that is discarded can be given to a new one, see releaseIds)
 public class File extends NamedObject {
+    private static int nextId = 0;
+    private static FileIdBitmap freeIds = new FileIdBitmap();
+
+    private final int id;
     private String filePath;
     private Folder parentFolder;
     private Set<Label> labels;
+    private PathListener pathListener;
+
+    // Represents something that is told whenever a File's file path changes (such as the file system it is part of)
+    interface PathListener {
+        // EFFECTS: records that file's file path has changed from previousFilePath
+        void filePathChanged(File file, String previousFilePath);
+    }
 
     // REQUIRES: name.isBlank() is false
     // EFFECTS: constructs a new file named name with path filePath, parent Folder parentFolder,
-    // and an empty list of labels it is labelled with
+    // an empty list of labels it is labelled with, and the next unused id
     // throws NameIsBlankException if name.isBlank() is true (name is empty or just whitespace)
     public File(String name, String filePath, Folder parentFolder) {
         super(name);
+        id = takeNextId();
         this.filePath = filePath;
         this.parentFolder = parentFolder;
         labels = new HashSet<>();
+        pathListener = null;
+    }
+
+    public int getId() {
+        return id;
     }
 
     public String getFilePath() {
         return filePath;
     }
 
+    // MODIFIES: this, parentFolder
+    // EFFECTS: sets filePath to filePath, and tells the path listener (if there is one)
     public void setFilePath(String filePath) {
+        String previousFilePath = this.filePath;
         this.filePath = filePath;
+        saveChanged();
+        if (pathListener != null) {
+            pathListener.filePathChanged(this, previousFilePath);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes pathListener be told whenever this file's file path changes, or nothing if it is null
+    void setPathListener(PathListener pathListener) {
+        this.pathListener = pathListener;
     }
 
     // EFFECTS: returns a string representing the path of this file in the file system it is part of
@@ -40,20 +74,46 @@ public class File extends NamedObject {
         return parentFolder;
     }
 
+    // MODIFIES: parentFolder
+    // EFFECTS: tells parentFolder that this file's name has changed
+    @Override
+    protected void nameChanged(String previousNameKey) {
+        if (parentFolder != null) {
+            parentFolder.subfileRenamed(this, previousNameKey);
+        }
+    }
+
     public int getNumLabels() {
         return labels.size();
     }
 
-    // MODIFIES: this
+    // MODIFIES: this, parentFolder
     // EFFECTS: labels this file with label
     protected void addLabel(Label label) {
         labels.add(label);
+        saveChanged();
     }
 
-    // MODIFIES: this
+    // MODIFIES: this, parentFolder
     // EFFECTS: removes given label from this file. Returns true if it had a label on it and false if it did not
     protected boolean removeLabel(Label label) {
-        return labels.remove(label);
+        boolean removed = labels.remove(label);
+        saveChanged();
+        return removed;
+    }
+
+    // MODIFIES: parentFolder
+    // EFFECTS: tells parentFolder (if there is one) that how this file is saved has changed, e.g. because one of its
+    // labels was renamed
+    void saveChanged() {
+        if (parentFolder != null) {
+            parentFolder.fieldsChanged();
+        }
+    }
+
+    // EFFECTS: returns the labels this file is labelled with
+    Set<Label> getLabels() {
+        return labels;
     }
 
     // EFFECTS: returns true if this file is labelled with label otherwise returns false
@@ -83,7 +143,7 @@ public class File extends NamedObject {
     }
     
 
-    // Persistence-Related Method:
+    // Persistence-Related Methods:
 
     // EFFECTS: returns a JSON representation of this file
     @Override
@@ -108,6 +168,19 @@ public class File extends NamedObject {
         return jsonArray;
     }
 
+    // MODIFIES: writer
+    // EFFECTS: writes the fields of this file's JSON representation to writer
+    @Override
+    protected void writeJsonFields(JsonStreamWriter writer) throws IOException {
+        super.writeJsonFields(writer);
+        writer.name("filePath").value(filePath);
+        writer.name("labels").beginArray();
+        for (Label label : labels) {
+            label.writeJson(writer);
+        }
+        writer.endArray();
+    }
+
 
     // Static Methods:
 
@@ -119,6 +192,24 @@ public class File extends NamedObject {
     }
 
 
+    // REQUIRES: no File with any of the ids in ids is used again
+    // EFFECTS: frees ids to be given to Files constructed later
+    static synchronized void releaseIds(FileIdBitmap ids) {
+        freeIds = freeIds.or(ids);
+    }
+
+    // EFFECTS: returns the smallest freed file id (see releaseIds), or the next unused one if none are free. Ids are
+    // handed out densely, starting at 0
+    private static synchronized int takeNextId() {
+        int id = freeIds.nextId(0);
+        if (id < 0) {
+            return nextId++;
+        }
+        freeIds.remove(id);
+        return id;
+    }
+
+
     // Helper Methods:
 
     // EFFECTS: returns all characters after the final forward or backslash of string
@@ -0,0 +1,252 @@
+package model;
+
+import java.util.Arrays;
+
+// Represents a compressed set of File ids. Ids are split into blocks of BLOCK_SIZE consecutive ids and only blocks
+// that contain at least one id are stored, each as an array of 64-bit words. Blocks are kept sorted by their key
+// (id / BLOCK_SIZE) so that intersections, unions and differences can merge two bitmaps a word at a time
+public class FileIdBitmap {
+    private static final int WORDS_PER_BLOCK = 64;
+    private static final int BLOCK_SIZE = WORDS_PER_BLOCK * Long.SIZE;
+    private static final int BLOCK_SHIFT = Integer.numberOfTrailingZeros(BLOCK_SIZE);
+    private static final int INITIAL_CAPACITY = 4;
+
+    private int[] keys;
+    private long[][] blocks;
+    private int numBlocks;
+
+    // EFFECTS: constructs an empty bitmap
+    public FileIdBitmap() {
+        keys = new int[INITIAL_CAPACITY];
+        blocks = new long[INITIAL_CAPACITY][];
+        numBlocks = 0;
+    }
+
+    // EFFECTS: constructs a bitmap holding a copy of the given blocks
+    private FileIdBitmap(int[] keys, long[][] blocks, int numBlocks) {
+        this.keys = keys;
+        this.blocks = blocks;
+        this.numBlocks = numBlocks;
+    }
+
+    // REQUIRES: id >= 0
+    // MODIFIES: this
+    // EFFECTS: adds id to this bitmap
+    public void add(int id) {
+        int key = id >>> BLOCK_SHIFT;
+        int index = Arrays.binarySearch(keys, 0, numBlocks, key);
+        if (index < 0) {
+            index = -index - 1;
+            insertBlock(index, key, new long[WORDS_PER_BLOCK]);
+        }
+        int bit = id & (BLOCK_SIZE - 1);
+        blocks[index][bit >>> 6] |= 1L << bit;
+    }
+
+    // REQUIRES: id >= 0
+    // MODIFIES: this
+    // EFFECTS: removes id from this bitmap, dropping its block if the block is now empty
+    public void remove(int id) {
+        int index = Arrays.binarySearch(keys, 0, numBlocks, id >>> BLOCK_SHIFT);
+        if (index < 0) {
+            return;
+        }
+        int bit = id & (BLOCK_SIZE - 1);
+        blocks[index][bit >>> 6] &= ~(1L << bit);
+        if (isEmptyBlock(blocks[index])) {
+            removeBlock(index);
+        }
+    }
+
+    // EFFECTS: returns true if this bitmap contains id otherwise returns false
+    public boolean contains(int id) {
+        int index = Arrays.binarySearch(keys, 0, numBlocks, id >>> BLOCK_SHIFT);
+        if (index < 0) {
+            return false;
+        }
+        int bit = id & (BLOCK_SIZE - 1);
+        return (blocks[index][bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes every id from this bitmap
+    public void clear() {
+        keys = new int[INITIAL_CAPACITY];
+        blocks = new long[INITIAL_CAPACITY][];
+        numBlocks = 0;
+    }
+
+    // EFFECTS: returns true if this bitmap contains no ids
+    public boolean isEmpty() {
+        return numBlocks == 0;
+    }
+
+    // EFFECTS: returns the number of ids in this bitmap
+    public int cardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < numBlocks; i++) {
+            for (long word : blocks[i]) {
+                cardinality += Long.bitCount(word);
+            }
+        }
+        return cardinality;
+    }
+
+    // EFFECTS: returns the smallest id in this bitmap that is >= fromId, or -1 if there is none
+    public int nextId(int fromId) {
+        int key = fromId >>> BLOCK_SHIFT;
+        int index = Arrays.binarySearch(keys, 0, numBlocks, key);
+        if (index >= 0) {
+            int bit = fromId & (BLOCK_SIZE - 1);
+            int wordIndex = bit >>> 6;
+            return firstIdFrom(index, wordIndex, blocks[index][wordIndex] & (-1L << bit));
+        }
+        index = -index - 1;
+        if (index == numBlocks) {
+            return -1;
+        }
+        return firstIdFrom(index, 0, blocks[index][0]);
+    }
+
+    // EFFECTS: returns a new bitmap holding the ids that are in both this and other
+    public FileIdBitmap and(FileIdBitmap other) {
+        FileIdBitmap result = new FileIdBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < numBlocks && j < other.numBlocks) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                long[] block = new long[WORDS_PER_BLOCK];
+                for (int w = 0; w < WORDS_PER_BLOCK; w++) {
+                    block[w] = blocks[i][w] & other.blocks[j][w];
+                }
+                result.appendBlockIfNotEmpty(keys[i], block);
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    // EFFECTS: returns a new bitmap holding the ids that are in this, other, or both
+    public FileIdBitmap or(FileIdBitmap other) {
+        FileIdBitmap result = new FileIdBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < numBlocks || j < other.numBlocks) {
+            if (j == other.numBlocks || (i < numBlocks && keys[i] < other.keys[j])) {
+                result.appendBlockIfNotEmpty(keys[i], blocks[i].clone());
+                i++;
+            } else if (i == numBlocks || keys[i] > other.keys[j]) {
+                result.appendBlockIfNotEmpty(other.keys[j], other.blocks[j].clone());
+                j++;
+            } else {
+                long[] block = new long[WORDS_PER_BLOCK];
+                for (int w = 0; w < WORDS_PER_BLOCK; w++) {
+                    block[w] = blocks[i][w] | other.blocks[j][w];
+                }
+                result.appendBlockIfNotEmpty(keys[i], block);
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    // EFFECTS: returns a new bitmap holding the ids that are in this but not in other
+    public FileIdBitmap andNot(FileIdBitmap other) {
+        FileIdBitmap result = new FileIdBitmap();
+        int j = 0;
+        for (int i = 0; i < numBlocks; i++) {
+            while (j < other.numBlocks && other.keys[j] < keys[i]) {
+                j++;
+            }
+            if (j < other.numBlocks && other.keys[j] == keys[i]) {
+                long[] block = new long[WORDS_PER_BLOCK];
+                for (int w = 0; w < WORDS_PER_BLOCK; w++) {
+                    block[w] = blocks[i][w] & ~other.blocks[j][w];
+                }
+                result.appendBlockIfNotEmpty(keys[i], block);
+            } else {
+                result.appendBlockIfNotEmpty(keys[i], blocks[i].clone());
+            }
+        }
+        return result;
+    }
+
+    // EFFECTS: returns a copy of this bitmap that can be modified without affecting this one
+    public FileIdBitmap copy() {
+        long[][] blocksCopy = new long[blocks.length][];
+        for (int i = 0; i < numBlocks; i++) {
+            blocksCopy[i] = blocks[i].clone();
+        }
+        return new FileIdBitmap(keys.clone(), blocksCopy, numBlocks);
+    }
+
+
+    // Helper Methods:
+
+    // REQUIRES: key is greater than every key currently in this bitmap
+    // MODIFIES: this
+    // EFFECTS: adds block under key at the end of this bitmap unless it has no bits set
+    private void appendBlockIfNotEmpty(int key, long[] block) {
+        if (!isEmptyBlock(block)) {
+            insertBlock(numBlocks, key, block);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: inserts block under key at position index, growing the arrays if needed
+    private void insertBlock(int index, int key, long[] block) {
+        if (numBlocks == keys.length) {
+            keys = Arrays.copyOf(keys, numBlocks * 2);
+            blocks = Arrays.copyOf(blocks, numBlocks * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, numBlocks - index);
+        System.arraycopy(blocks, index, blocks, index + 1, numBlocks - index);
+        keys[index] = key;
+        blocks[index] = block;
+        numBlocks++;
+    }
+
+    // REQUIRES: index < numBlocks, and word is the word at wordIndex in the block at position index with any bits
+    // below the smallest id wanted cleared
+    // EFFECTS: returns the smallest id in word or in the words after it (in that block or later blocks), or -1 if
+    // there is none
+    private int firstIdFrom(int index, int wordIndex, long word) {
+        while (word == 0) {
+            wordIndex++;
+            if (wordIndex == WORDS_PER_BLOCK) {
+                index++;
+                if (index == numBlocks) {
+                    return -1;
+                }
+                wordIndex = 0;
+            }
+            word = blocks[index][wordIndex];
+        }
+        return (keys[index] << BLOCK_SHIFT) + (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the block at position index
+    private void removeBlock(int index) {
+        System.arraycopy(keys, index + 1, keys, index, numBlocks - index - 1);
+        System.arraycopy(blocks, index + 1, blocks, index, numBlocks - index - 1);
+        numBlocks--;
+        blocks[numBlocks] = null;
+    }
+
+    // EFFECTS: returns true if no bits are set in block
+    private static boolean isEmptyBlock(long[] block) {
+        for (long word : block) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,20 +1,52 @@
 package model;
 
 import model.exceptions.*;
+import model.jfr.DesktopOpenEvent;
+import model.jfr.FileSystemMutationEvent;
+import model.jfr.FolderOpenEvent;
+import model.jfr.LabelOpenEvent;
+import persistence.AtomicFileWriter;
+import persistence.JournalEntry;
+import persistence.JournalReader;
+import persistence.JournalWriter;
 import persistence.JsonReader;
+import persistence.JsonStreamWriter;
 import persistence.JsonWriter;
+import persistence.MappedNoteIndex;
+import persistence.NoteIndexPointer;
+import persistence.NoteIndexWriter;
+import persistence.ShardManifest;
+import persistence.ShardedReader;
+import persistence.ShardedWriter;
+import persistence.SnapshotReader;
+import persistence.SnapshotWriter;
 import persistence.Writable;
 import persistence.exceptions.InvalidJsonException;
+import persistence.exceptions.InvalidNoteIndexException;
+import persistence.exceptions.InvalidSnapshotException;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
+import java.util.Map;
+import java.util.HashMap;
 import java.util.Set;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.LinkedList;
-import java.io.FileNotFoundException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.awt.Desktop;
 
 // Represents a file system with Folders and Files as well as Labels that can be applied to Files.
@@ -24,46 +56,184 @@ import java.awt.Desktop;
 // labelled with a given Label.
 public class FileSystem implements Writable {
     public static final String AUTOSAVE_FILE_PATH = "data/Autosave.json";
+    public static final String AUTOSAVE_SNAPSHOT_FILE_PATH = "data/Autosave.snapshot";
+    public static final String AUTOSAVE_JOURNAL_FILE_PATH = "data/Autosave.journal";
+    public static final String AUTOSAVE_INDEX_FILE_PATH = "data/Autosave.index";
     public static final String EXAMPLE_FILE_PATH = "C:/Users/User/Documents/Note Name.txt";
     public static final String EXAMPLE_SAVE_PATH = "ManualSave.json";
 
-    private static final int MAX_NUM_RECENTLY_OPENED_STORED = 10;
+    private static final int MAX_NUM_RECENTLY_OPENED_SHOWN = 10;
+    private static final int MAX_NUM_RECENTLY_OPENED_STORED = 5000;
+
+    private static final String COMPACTING_JOURNAL_FILE_PATH = AUTOSAVE_JOURNAL_FILE_PATH + ".compacting";
+    private static final long JOURNAL_COMPACTION_THRESHOLD_BYTES = 1024 * 1024;
+
+    // the metrics kept for each operation (see MetricsRegistry), which count every call, including calls made by other
+    // operations (e.g. deleteFile removes all of a File's Labels with removeAllLabels)
+    private static final OperationMetrics CREATE_FILE_METRICS = metrics("createFile");
+    private static final OperationMetrics OPEN_FILE_BUT_NOT_ON_COMPUTER_METRICS = metrics("openFileButNotOnComputer");
+    private static final OperationMetrics OPEN_FILE_BUT_NOT_ON_COMPUTER_EVEN_IF_NO_LONGER_VALID_METRICS =
+            metrics("openFileButNotOnComputerEvenIfNoLongerValid");
+    private static final OperationMetrics OPEN_FILE_METRICS = metrics("openFile");
+    private static final OperationMetrics DELETE_FILE_METRICS = metrics("deleteFile");
+    private static final OperationMetrics SET_FILE_NAME_METRICS = metrics("setFileName");
+    private static final OperationMetrics GET_NAMES_OF_SUBFILES_METRICS = metrics("getNamesOfSubfiles");
+    private static final OperationMetrics GET_NAMES_OF_RECENTLY_OPENED_FILES_METRICS =
+            metrics("getNamesOfRecentlyOpenedFiles");
+    private static final OperationMetrics GET_NAMES_OF_FRECENTLY_OPENED_FILES_METRICS =
+            metrics("getNamesOfFrecentlyOpenedFiles");
+    private static final OperationMetrics OPEN_RECENTLY_OPENED_FILE_METRICS = metrics("openRecentlyOpenedFile");
+    private static final OperationMetrics CREATE_FOLDER_METRICS = metrics("createFolder");
+    private static final OperationMetrics OPEN_FOLDER_METRICS = metrics("openFolder");
+    private static final OperationMetrics GO_UP_ONE_DIRECTORY_LEVEL_METRICS = metrics("goUpOneDirectoryLevel");
+    private static final OperationMetrics OPEN_ROOT_FOLDER_METRICS = metrics("openRootFolder");
+    private static final OperationMetrics DELETE_FOLDER_METRICS = metrics("deleteFolder");
+    private static final OperationMetrics SET_FOLDER_NAME_METRICS = metrics("setFolderName");
+    private static final OperationMetrics GET_NAMES_OF_SUBFOLDERS_METRICS = metrics("getNamesOfSubfolders");
+    private static final OperationMetrics GET_NAMES_OF_RECENTLY_OPENED_FOLDERS_METRICS =
+            metrics("getNamesOfRecentlyOpenedFolders");
+    private static final OperationMetrics GET_NAMES_OF_FRECENTLY_OPENED_FOLDERS_METRICS =
+            metrics("getNamesOfFrecentlyOpenedFolders");
+    private static final OperationMetrics OPEN_RECENTLY_OPENED_FOLDER_METRICS = metrics("openRecentlyOpenedFolder");
+    private static final OperationMetrics CREATE_LABEL_METRICS = metrics("createLabel");
+    private static final OperationMetrics OPEN_LABEL_METRICS = metrics("openLabel");
+    private static final OperationMetrics OPEN_LABEL_QUERY_METRICS = metrics("openLabelQuery");
+    private static final OperationMetrics DELETE_LABEL_METRICS = metrics("deleteLabel");
+    private static final OperationMetrics LABEL_FILE_METRICS = metrics("labelFile");
+    private static final OperationMetrics UNLABEL_FILE_METRICS = metrics("unlabelFile");
+    private static final OperationMetrics SET_LABEL_NAME_METRICS = metrics("setLabelName");
+    private static final OperationMetrics REMOVE_ALL_LABELS_METRICS = metrics("removeAllLabels");
+    private static final OperationMetrics GET_NAMES_OF_LABELS_METRICS = metrics("getNamesOfLabels");
+    private static final OperationMetrics GET_NAMES_OF_LABELS_ON_FILE_METRICS = metrics("getNamesOfLabelsOnFile");
+    private static final OperationMetrics GET_NAMES_OF_LABELS_NOT_ON_FILE_METRICS =
+            metrics("getNamesOfLabelsNotOnFile");
+    private static final OperationMetrics GET_NAMES_OF_RECENTLY_OPENED_LABELS_METRICS =
+            metrics("getNamesOfRecentlyOpenedLabels");
+    private static final OperationMetrics GET_NAMES_OF_FRECENTLY_OPENED_LABELS_METRICS =
+            metrics("getNamesOfFrecentlyOpenedLabels");
+    private static final OperationMetrics OPEN_RECENTLY_OPENED_LABEL_METRICS = metrics("openRecentlyOpenedLabel");
+    private static final OperationMetrics INDEX_NOTES_METRICS = metrics("indexNotes");
+    private static final OperationMetrics SEARCH_NOTES_METRICS = metrics("searchNotes");
+    private static final OperationMetrics UPDATE_NOTE_INDEX_METRICS = metrics("updateNoteIndex");
+    private static final OperationMetrics SAVE_NOTE_INDEX_METRICS = metrics("saveNoteIndex");
+    private static final OperationMetrics LOAD_NOTE_INDEX_METRICS = metrics("loadNoteIndex");
+    private static final OperationMetrics GREP_NOTES_METRICS = metrics("grepNotes");
+    private static final OperationMetrics GREP_LABEL_METRICS = metrics("grepLabel");
+    private static final OperationMetrics COMPLETE_NAME_METRICS = metrics("completeName");
+    private static final OperationMetrics AUTO_SAVE_METRICS = metrics("autoSave");
+    private static final OperationMetrics AUTO_SAVE_IN_BACKGROUND_METRICS = metrics("autoSaveInBackground");
+    private static final OperationMetrics MANUALLY_SAVE_METRICS = metrics("manuallySave");
+    private static final OperationMetrics SAVE_SHARDS_METRICS = metrics("saveShards");
+    private static final OperationMetrics LOAD_SHARDS_METRICS = metrics("loadShards");
+    private static final OperationMetrics AUTO_LOAD_METRICS = metrics("autoLoad");
+    private static final OperationMetrics MANUALLY_LOAD_METRICS = metrics("manuallyLoad");
 
     private static JsonReader autoLoadJsonReader = new JsonReader(AUTOSAVE_FILE_PATH);
+    private static SnapshotReader autoLoadSnapshotReader = new SnapshotReader(AUTOSAVE_SNAPSHOT_FILE_PATH);
     private JsonWriter autoSaveJsonWriter;
+    private SnapshotWriter autoSaveSnapshotWriter;
+
+    private static JournalWriter autoSaveJournalWriter = new JournalWriter(AUTOSAVE_JOURNAL_FILE_PATH);
+    private static FileSystem journaledFileSystem;
+    private static ExecutorService backgroundSaves = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Background autosave");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private long journalSequence;
+
+    // Represents the part of an autosave that runs on the background thread (see autoSaveInBackground)
+    private interface BackgroundSave {
+        // EFFECTS: writes the autosave to disk
+        // throws IOException if it could not be written
+        // throws InvalidJsonException if the file system to write could not be loaded from the JSON autosave
+        void run() throws IOException, InvalidJsonException;
+    }
 
     private Folder rootFolder;
     private Folder currentFolder;
 
-    private Set<Label> labels;
+    private Map<String, Label> labels;
+
+    private Map<Integer, File> filesById;
+    private FileIdBitmap fileIds;
+    private FileIdBitmap removedFileIds;
+    private Map<String, List<File>> filesByNotePath;
 
-    private List<File> recentlyOpenedFiles;
-    private List<Folder> recentlyOpenedFolders;
-    private List<Label> recentlyOpenedLabels;
+    private AccessHistory<File> recentlyOpenedFiles;
+    private AccessHistory<Folder> recentlyOpenedFolders;
+    private AccessHistory<Label> recentlyOpenedLabels;
     private boolean keepTrackOfRecents;
+    private Runnable changeListener;
+    private ShardManifest shardManifest;
+    private boolean hasUnloadedFolders;
+    private NoteIndexer noteIndexer;
+    private TextIndex loadedNoteIndex;
+    private long noteIndexVersionAutoSaved;
+    private CompletableFuture<Long> noteIndexAutoSave;
+    private volatile boolean fullAutoSaveFailed;
+    private NameIndex nameIndex;
 
     // EFFECTS: initializes the variables needed for the file system:
     // rootFolder: for the Folder that contains the initial Folders and Files, and indirectly contains every Folder and
     //             File since every Folder or File is a subfolder or subfile of root or one of root's subfolders (or a
     //             subfolder's subfolder, and so on...)
     // currentFolder: initialized to the root Folder such that Folders can be created and Files can be added
-    // labels: stores all of the Labels the user creates
-    // recentlyOpenedFile: stores the names of the MAX_RECENTLY_OPENED_STORED most recently-opened Files
-    // recentlyOpenedFolder: stores the MAX_RECENTLY_OPENED_STORED most recently-opened Folders
-    // recentlyOpenedLabel: stores the MAX_RECENTLY_OPENED_STORED most recently-opened Label
+    // labels: stores all of the Labels the user creates, keyed by the case-folded form of their names
+    // filesById: stores every File in the file system, keyed by its id
+    // fileIds: stores the ids of every File in the file system
+    // removedFileIds: stores the ids of every File removed from the file system if it is a copy rebuilt on a
+    //                 background thread (see loadBackgroundCopy), so that they can be freed once it is discarded;
+    //                 otherwise null
+    // filesByNotePath: stores every File in the file system, keyed by the path of the note it points to
+    // recentlyOpenedFiles: stores the MAX_NUM_RECENTLY_OPENED_STORED most recently-opened Files
+    // recentlyOpenedFolders: stores the MAX_NUM_RECENTLY_OPENED_STORED most recently-opened Folders
+    // recentlyOpenedLabels: stores the MAX_NUM_RECENTLY_OPENED_STORED most recently-opened Labels
+    // (along with how many times and when each was last opened)
+    // journalSequence: the sequence number of the last change made to this file system that was journaled (see
+    //                  autoSave)
+    // changeListener: told whenever this file system changes (see setChangeListener); initially there is none
+    // shardManifest: what this file system was last saved as or loaded from in a sharded save (see saveShards);
+    //                initially there is none
+    // hasUnloadedFolders: whether any Folder's contents may not have been loaded yet (see Folder.setContentsLoader)
+    // noteIndexer: keeps the full-text index of the notes the Files point to up to date (see indexNotes); initially
+    //              there is none
+    // loadedNoteIndex: an index that was loaded but not yet handed to noteIndexer (see loadNoteIndex); initially none
+    // noteIndexVersionAutoSaved: the version of the index (see NoteIndexer.getVersion) last saved to (or loaded from)
+    //                            AUTOSAVE_INDEX_FILE_PATH, or -1 if it has not been
+    // noteIndexAutoSave: completes with the version of the index once the last background save of it to
+    //                    AUTOSAVE_INDEX_FILE_PATH succeeds (see getNoteIndexAutoSave); initially there is none
+    // fullAutoSaveFailed: whether the last time autoSaveInBackground wrote this file system in full, the write failed,
+    //                     so the autosave and the journal cannot rebuild it; initially false
+    // nameIndex: the names of every File, Folder, and Label, for completing them (see completeName); initially there is
+    //            none, since it is only built the first time a name is completed
     public FileSystem() {
-        autoSaveJsonWriter = new JsonWriter(AUTOSAVE_FILE_PATH);
+        autoSaveJsonWriter = new JsonWriter(AUTOSAVE_FILE_PATH, true);
+        autoSaveSnapshotWriter = new SnapshotWriter(AUTOSAVE_SNAPSHOT_FILE_PATH);
 
         rootFolder = new Folder("root");
         currentFolder = rootFolder;
 
-        labels = new HashSet<Label>();
-        recentlyOpenedFiles = new LinkedList<File>();
-        recentlyOpenedFolders = new LinkedList<Folder>();
-        recentlyOpenedLabels = new LinkedList<Label>();
+        labels = new HashMap<String, Label>();
+        filesById = new HashMap<Integer, File>();
+        fileIds = new FileIdBitmap();
+        removedFileIds = null;
+        filesByNotePath = new HashMap<String, List<File>>();
+        recentlyOpenedFiles = new AccessHistory<File>(MAX_NUM_RECENTLY_OPENED_STORED);
+        recentlyOpenedFolders = new AccessHistory<Folder>(MAX_NUM_RECENTLY_OPENED_STORED);
+        recentlyOpenedLabels = new AccessHistory<Label>(MAX_NUM_RECENTLY_OPENED_STORED);
         keepTrackOfRecents = true;
+        journalSequence = 0;
+        changeListener = null;
+        shardManifest = null;
+        hasUnloadedFolders = false;
+        noteIndexer = null;
+        loadedNoteIndex = null;
+        noteIndexVersionAutoSaved = -1;
+        noteIndexAutoSave = null;
+        nameIndex = null;
 
-        logEvent("New FileSystem created");
+        logEvent(new Event(Event.Operation.FILE_SYSTEM_CREATED));
     }
 
     // EFFECTS: returns currentFolder's name
@@ -89,6 +259,14 @@ public class FileSystem implements Writable {
         keepTrackOfRecents = true;
     }
 
+    // MODIFIES: this
+    // EFFECTS: makes changeListener (or nobody, if it is null) be run on the thread making the change every time a
+    // File, Folder, or Label is created, opened, renamed, deleted, labelled, or unlabelled (e.g. so that an
+    // AutoSaveScheduler knows when there are changes to save)
+    public void setChangeListener(Runnable changeListener) {
+        this.changeListener = changeListener;
+    }
+
 
     /* 
      *  File, Folder, and Label Methods:
@@ -102,8 +280,17 @@ public class FileSystem implements Writable {
     // throws NameIsTakenException if currentFolder already contains a Folder named name
     // throws NameIsBlankException if name.isBlank() is true
     public void createFile(String name, String path) throws NameIsTakenException {
-        currentFolder.makeSubfile(name, path);
-        logEvent("File named \"" + name + "\" created");
+        long start = System.nanoTime();
+        FileSystemMutationEvent mutation = new FileSystemMutationEvent();
+        mutation.begin();
+        try {
+            loadFile(currentFolder, name, path);
+            journal(JournalEntry.CREATE_FILE, currentFolder, name, path);
+            logEvent(new Event(Event.Operation.FILE_CREATED, name));
+            mutation.commit(Event.Operation.FILE_CREATED, name, currentFolder, null);
+        } finally {
+            CREATE_FILE_METRICS.recordSince(start);
+        }
     }
 
     // MODIFIES: this
@@ -113,7 +300,12 @@ public class FileSystem implements Writable {
     // throws NoSuchFileFoundException if there are no Files named fileName in currentFolder
     public void openFileButNotOnComputer(String fileName) throws NoSuchFileFoundException,
             FilePathNoLongerValidException {
-        openFile(currentFolder.getSubfile(fileName), false);
+        long start = System.nanoTime();
+        try {
+            openFile(currentFolder.getSubfile(fileName), false);
+        } finally {
+            OPEN_FILE_BUT_NOT_ON_COMPUTER_METRICS.recordSince(start);
+        }
     }
 
     // MODIFIES: this
@@ -121,7 +313,12 @@ public class FileSystem implements Writable {
     // recently-opened Files
     // throws NoSuchFileFoundException if there are no Files named fileName in currentFolder
     public void openFileButNotOnComputerEvenIfNoLongerValid(String fileName) throws NoSuchFileFoundException {
-        addRecentlyOpenedFile(currentFolder.getSubfile(fileName));
+        long start = System.nanoTime();
+        try {
+            addRecentlyOpenedFile(currentFolder.getSubfile(fileName));
+        } finally {
+            OPEN_FILE_BUT_NOT_ON_COMPUTER_EVEN_IF_NO_LONGER_VALID_METRICS.recordSince(start);
+        }
     }
 
     // MODIFIES: this
@@ -130,7 +327,12 @@ public class FileSystem implements Writable {
     // throws FilePathNoLongerValidException if the File no longer exists on their computer
     // throws NoSuchFileFoundException if there are no Files named fileName in currentFolder
     public void openFile(String fileName) throws NoSuchFileFoundException, FilePathNoLongerValidException {
-        openFile(currentFolder.getSubfile(fileName), true);
+        long start = System.nanoTime();
+        try {
+            openFile(currentFolder.getSubfile(fileName), true);
+        } finally {
+            OPEN_FILE_METRICS.recordSince(start);
+        }
     }
 
     // MODIFIES: this
@@ -145,11 +347,13 @@ public class FileSystem implements Writable {
 
         try {
             if (openOnComputer) {
+                DesktopOpenEvent desktopOpen = new DesktopOpenEvent();
+                desktopOpen.begin();
                 Desktop.getDesktop().open(new java.io.File(file.getFilePath()));
+                desktopOpen.commit(file.getFilePath());
             }
             addRecentlyOpenedFile(file);
-            logEvent("File named \"" + file.getName() + "\" with path on this computer \""
-                    + file.getFilePath() + "\" opened");
+            logEvent(new Event(Event.Operation.FILE_OPENED, file.getName(), file.getFilePath()));
         } catch (IOException e) {
             throw new FilePathNoLongerValidException();
         }
@@ -159,28 +363,53 @@ public class FileSystem implements Writable {
     // EFFECTS: deletes File named fileName
     // throws NoSuchFileFoundException if there are no Files named fileName in currentFolder
     public void deleteFile(String fileName) throws NoSuchFileFoundException {
-        File file = currentFolder.getSubfile(fileName);
-        recentlyOpenedFiles.remove(file);
-        removeAllLabels(fileName);
-
-        if (file.getParentFolder() != currentFolder) {
-            file.getParentFolder().removeSubfile(fileName);
+        long start = System.nanoTime();
+        FileSystemMutationEvent mutation = new FileSystemMutationEvent();
+        mutation.begin();
+        try {
+            File file = currentFolder.getSubfile(fileName);
+            removeAllLabels(fileName);
+
+            file.getParentFolder().removeSubfile(file);
+            currentFolder.removeSubfile(file);
+            unregisterFile(file);
+            journal(JournalEntry.DELETE_FILE, file.getParentFolder(), file.getName());
+            logEvent(new Event(Event.Operation.FILE_DELETED, fileName));
+            mutation.commit(Event.Operation.FILE_DELETED, fileName, currentFolder, null);
+        } finally {
+            DELETE_FILE_METRICS.recordSince(start);
         }
-        currentFolder.removeSubfile(fileName);
-        logEvent("File named \"" + fileName + "\" deleted");
     }
 
     // REQUIRES: newName.isBlank() is false
     // EFFECTS: sets the name of File named fileName to newName
-    // throws NameIsTakenException if currentFolder already contains a Folder named name
+    // throws NameIsTakenException if currentFolder, or the Folder the File is in (which differs from currentFolder when
+    // it is a LabelView), already contains a File named newName
     // throws NoSuchFileFoundException if there are no Files named fileName in currentFolder
     // throws NameIsBlankException if newName.isBlank() is true
     public void setFileName(String fileName, String newName) throws NoSuchFileFoundException, NameIsTakenException {
-        if (containsFile(newName)) {
-            throw new NameIsTakenException(getCapitalizationOfFile(newName));
+        long start = System.nanoTime();
+        FileSystemMutationEvent mutation = new FileSystemMutationEvent();
+        mutation.begin();
+        try {
+            if (containsFile(newName)) {
+                throw new NameIsTakenException(getCapitalizationOfFile(newName));
+            }
+            File file = currentFolder.getSubfile(fileName);
+            checkFileNameNotTakenInParent(file, newName);
+            String previousName = file.getName();
+            String previousNameKey = file.getNameKey();
+            file.setName(newName);
+            if (file.getParentFolder() != currentFolder) {
+                currentFolder.subfileRenamed(file, previousNameKey);
+            }
+            renameInNameIndex(file, previousNameKey);
+            journal(JournalEntry.RENAME_FILE, file.getParentFolder(), previousName, newName);
+            logEvent(new Event(Event.Operation.FILE_RENAMED, fileName, newName));
+            mutation.commit(Event.Operation.FILE_RENAMED, fileName, currentFolder, null);
+        } finally {
+            SET_FILE_NAME_METRICS.recordSince(start);
         }
-        currentFolder.getSubfile(fileName).setName(newName);
-        logEvent("File named \"" + fileName + "\" renamed to \"" + newName + "\"");
     }
 
     // EFFECTS: returns the file path of File named fileName
@@ -221,35 +450,52 @@ public class FileSystem implements Writable {
 
     // EFFECTS: returns a list of the names of the Files that are subfiles of currentFolder
     public List<String> getNamesOfSubfiles() {
-        List<String> namesOfSubfiles = new LinkedList<String>();
-        for (File file : currentFolder.getSubfiles()) {
-            namesOfSubfiles.add(file.getName());
+        long start = System.nanoTime();
+        try {
+            return currentFolder.getNamesOfSubfiles();
+        } finally {
+            GET_NAMES_OF_SUBFILES_METRICS.recordSince(start);
         }
-        return namesOfSubfiles;
     }
 
-    // EFFECTS: returns a list of the names of the up to MAX_NUM_RECENTLY_OPENED_STORED last files opened
+    // EFFECTS: returns a list of the names of the up to MAX_NUM_RECENTLY_OPENED_SHOWN last files opened
     public List<String> getNamesOfRecentlyOpenedFiles() {
-        List<String> namesOfRecentlyOpenedFiles = new ArrayList<String>();
-        for (File file : recentlyOpenedFiles) {
-            namesOfRecentlyOpenedFiles.add(file.getName());
+        long start = System.nanoTime();
+        try {
+            return getNames(recentlyOpenedFiles.getMostRecent(MAX_NUM_RECENTLY_OPENED_SHOWN));
+        } finally {
+            GET_NAMES_OF_RECENTLY_OPENED_FILES_METRICS.recordSince(start);
+        }
+    }
+
+    // EFFECTS: returns a list of the names of the up to MAX_NUM_RECENTLY_OPENED_SHOWN files with the highest frecency
+    // (see AccessHistory), from highest to lowest
+    public List<String> getNamesOfFrecentlyOpenedFiles() {
+        long start = System.nanoTime();
+        try {
+            return getNames(recentlyOpenedFiles.getMostFrecent(MAX_NUM_RECENTLY_OPENED_SHOWN));
+        } finally {
+            GET_NAMES_OF_FRECENTLY_OPENED_FILES_METRICS.recordSince(start);
         }
-        return namesOfRecentlyOpenedFiles;
     }
 
-    // EFFECTS: opens File named fileName in user's default text editor if it is in recentlyOpenedFiles
-    // throws NoSuchFileFoundException if there is no File named fileName in recentlyOpenedFiles
+    // EFFECTS: opens File named fileName in user's default text editor if it is among the files listed by
+    // getNamesOfRecentlyOpenedFiles or getNamesOfFrecentlyOpenedFiles
+    // throws NoSuchFileFoundException if there is no File named fileName in either list
     // throws FilePathNoLongerValidException if the File named fileName failed to open (due to the path no longer being
     // valid)
     public void openRecentlyOpenedFile(String fileName)
             throws NoSuchFileFoundException, FilePathNoLongerValidException {
-        for (File file : recentlyOpenedFiles) {
-            if (file.isNamed(fileName)) {
-                openFile(file, true);
-                return;
+        long start = System.nanoTime();
+        try {
+            File file = findShownInHistory(recentlyOpenedFiles, fileName);
+            if (file == null) {
+                throw new NoSuchFileFoundException();
             }
+            openFile(file, true);
+        } finally {
+            OPEN_RECENTLY_OPENED_FILE_METRICS.recordSince(start);
         }
-        throw new NoSuchFileFoundException();
     }
 
     // Folder:
@@ -260,8 +506,17 @@ public class FileSystem implements Writable {
     // throws NameIsTakenException if containsFolder(folderName) is true
     // throws NameIsBlankException if folderName.isBlank() is true
     public void createFolder(String folderName) throws NameIsTakenException {
-        currentFolder.makeSubfolder(folderName);
-        logEvent("Folder named \"" + folderName + "\" created");
+        long start = System.nanoTime();
+        FileSystemMutationEvent mutation = new FileSystemMutationEvent();
+        mutation.begin();
+        try {
+            addToNameIndex(currentFolder.makeSubfolder(folderName));
+            journal(JournalEntry.CREATE_FOLDER, currentFolder, folderName);
+            logEvent(new Event(Event.Operation.FOLDER_CREATED, folderName));
+            mutation.commit(Event.Operation.FOLDER_CREATED, folderName, currentFolder, null);
+        } finally {
+            CREATE_FOLDER_METRICS.recordSince(start);
+        }
     }
 
     // MODIFIES: this
@@ -269,40 +524,72 @@ public class FileSystem implements Writable {
     // folderName to list of recently-opened Folders
     // throws NoSuchFolderFoundException if there are no Folders named folderName in currentFolder
     public void openFolder(String folderName) throws NoSuchFolderFoundException {
-        openFolder(currentFolder.getSubfolder(folderName));
+        long start = System.nanoTime();
+        try {
+            openFolder(currentFolder.getSubfolder(folderName));
+        } finally {
+            OPEN_FOLDER_METRICS.recordSince(start);
+        }
     }
     
     // MODIFIES: this
     // EFFECTS: opens folderToOpen, i.e. makes that Folder the current directory. Adds folderToOpen to list of
     // recently-opened Folders
     private void openFolder(Folder folderToOpen) {
+        FolderOpenEvent open = new FolderOpenEvent();
+        open.begin();
         currentFolder = folderToOpen;
         addRecentlyOpenedFolder(folderToOpen);
-        logEvent("Folder named \"" + folderToOpen.getName() + "\" opened");
+        logEvent(new Event(Event.Operation.FOLDER_OPENED, folderToOpen.getName()));
+        open.commit(folderToOpen);
     }
 
     // MODIFIES: this
     // EFFECTS: opens the parent Folder of currentFolder
     // throws NoSuchFolderFoundException if currentFolder does not have a parent
     public void goUpOneDirectoryLevel() throws NoSuchFolderFoundException {
-        currentFolder = currentFolder.getParentFolder();
-        logEvent("Folder named \"" + currentFolder.getName() + "\" opened");
+        long start = System.nanoTime();
+        FolderOpenEvent open = new FolderOpenEvent();
+        open.begin();
+        try {
+            currentFolder = currentFolder.getParentFolder();
+            logEvent(new Event(Event.Operation.FOLDER_OPENED, currentFolder.getName()));
+            open.commit(currentFolder);
+        } finally {
+            GO_UP_ONE_DIRECTORY_LEVEL_METRICS.recordSince(start);
+        }
     }
 
     // MODIFIES: this
     // EFFECTS: opens the root Folder
     public void openRootFolder() {
-        currentFolder = rootFolder;
-        logEvent("Root folder opened");
+        long start = System.nanoTime();
+        FolderOpenEvent open = new FolderOpenEvent();
+        open.begin();
+        try {
+            currentFolder = rootFolder;
+            logEvent(new Event(Event.Operation.ROOT_FOLDER_OPENED));
+            open.commit(rootFolder);
+        } finally {
+            OPEN_ROOT_FOLDER_METRICS.recordSince(start);
+        }
     }
 
     // MODIFIES: this
     // EFFECTS: deletes Folder named folderName
     // throws NoSuchFolderFoundException if there are no Folders named folderName in currentFolder
     public void deleteFolder(String folderName) throws NoSuchFolderFoundException {
-        recentlyOpenedFolders.remove(currentFolder.getSubfolder(folderName));
-        currentFolder.removeSubfolder(folderName);
-        logEvent("Folder named \"" + folderName + "\" deleted");
+        long start = System.nanoTime();
+        FileSystemMutationEvent mutation = new FileSystemMutationEvent();
+        mutation.begin();
+        try {
+            removeFolder(currentFolder, currentFolder.getSubfolder(folderName));
+            journal(JournalEntry.DELETE_FOLDER, currentFolder, folderName);
+            logEvent(new Event(Event.Operation.FOLDER_DELETED, folderName));
+            mutation.commit(Event.Operation.FOLDER_DELETED, folderName, currentFolder, null);
+        } finally {
+            DELETE_FOLDER_METRICS.recordSince(start);
+        }
     }
 
     // REQUIRES: newName.isBlank() is false
@@ -312,11 +599,24 @@ public class FileSystem implements Writable {
     // throws NameIsBlankException if ewName.isBlank() is true
     public void setFolderName(String folderName, String newName)
             throws NoSuchFolderFoundException, NameIsTakenException {
-        if (containsFolder(newName)) {
-            throw new NameIsTakenException(getCapitalizationOfFolder(newName));
+        long start = System.nanoTime();
+        FileSystemMutationEvent mutation = new FileSystemMutationEvent();
+        mutation.begin();
+        try {
+            if (containsFolder(newName)) {
+                throw new NameIsTakenException(getCapitalizationOfFolder(newName));
+            }
+            Folder folder = currentFolder.getSubfolder(folderName);
+            String previousName = folder.getName();
+            String previousNameKey = folder.getNameKey();
+            folder.setName(newName);
+            renameInNameIndex(folder, previousNameKey);
+            journal(JournalEntry.RENAME_FOLDER, currentFolder, previousName, newName);
+            logEvent(new Event(Event.Operation.FOLDER_RENAMED, folderName, newName));
+            mutation.commit(Event.Operation.FOLDER_RENAMED, folderName, currentFolder, null);
+        } finally {
+            SET_FOLDER_NAME_METRICS.recordSince(start);
         }
-        currentFolder.getSubfolder(folderName).setName(newName);
-        logEvent("Folder named \"" + folderName + "\" renamed to \"" + newName + "\"");
     }
 
     // EFFECTS: returns true if the currently-opened Folder has a parent and false if it does not
@@ -336,11 +636,16 @@ public class FileSystem implements Writable {
 
     // EFFECTS: returns a list of the names of the Folders that are direct subfolders of currentFolder
     public List<String> getNamesOfSubfolders() {
-        List<String> namesOfSubfolders = new LinkedList<String>();
-        for (Folder folder : currentFolder.getSubfolders()) {
-            namesOfSubfolders.add(folder.getName());
+        long start = System.nanoTime();
+        try {
+            List<String> namesOfSubfolders = new LinkedList<String>();
+            for (Folder folder : currentFolder.getSubfolders()) {
+                namesOfSubfolders.add(folder.getName());
+            }
+            return namesOfSubfolders;
+        } finally {
+            GET_NAMES_OF_SUBFOLDERS_METRICS.recordSince(start);
         }
-        return namesOfSubfolders;
     }
 
     // REQUIRES: containsFolder(folderNameWrongCase) is true
@@ -353,25 +658,41 @@ public class FileSystem implements Writable {
         }
     }
 
-    // EFFECTS: returns a list of the names of the up to MAX_NUM_RECENTLY_OPENED_STORED last folders opened
+    // EFFECTS: returns a list of the names of the up to MAX_NUM_RECENTLY_OPENED_SHOWN last folders opened
     public List<String> getNamesOfRecentlyOpenedFolders() {
-        List<String> namesOfRecentlyOpenedFolders = new ArrayList<String>();
-        for (Folder folder : recentlyOpenedFolders) {
-            namesOfRecentlyOpenedFolders.add(folder.getName());
+        long start = System.nanoTime();
+        try {
+            return getNames(recentlyOpenedFolders.getMostRecent(MAX_NUM_RECENTLY_OPENED_SHOWN));
+        } finally {
+            GET_NAMES_OF_RECENTLY_OPENED_FOLDERS_METRICS.recordSince(start);
+        }
+    }
+
+    // EFFECTS: returns a list of the names of the up to MAX_NUM_RECENTLY_OPENED_SHOWN folders with the highest
+    // frecency (see AccessHistory), from highest to lowest
+    public List<String> getNamesOfFrecentlyOpenedFolders() {
+        long start = System.nanoTime();
+        try {
+            return getNames(recentlyOpenedFolders.getMostFrecent(MAX_NUM_RECENTLY_OPENED_SHOWN));
+        } finally {
+            GET_NAMES_OF_FRECENTLY_OPENED_FOLDERS_METRICS.recordSince(start);
         }
-        return namesOfRecentlyOpenedFolders;
     }
 
-    // EFFECTS: opens Folder named folderName (sets currentFolder to it) if it is in recentlyOpenedFolders
-    // throws NoSuchFolderFoundException if there is no Folder named folderName in recentlyOpenedFolders
+    // EFFECTS: opens Folder named folderName (sets currentFolder to it) if it is among the folders listed by
+    // getNamesOfRecentlyOpenedFolders or getNamesOfFrecentlyOpenedFolders
+    // throws NoSuchFolderFoundException if there is no Folder named folderName in either list
     public void openRecentlyOpenedFolder(String folderName) throws NoSuchFolderFoundException {
-        for (Folder folder : recentlyOpenedFolders) {
-            if (folder.isNamed(folderName)) {
-                openFolder(folder);
-                return;
+        long start = System.nanoTime();
+        try {
+            Folder folder = findShownInHistory(recentlyOpenedFolders, folderName);
+            if (folder == null) {
+                throw new NoSuchFolderFoundException();
             }
+            openFolder(folder);
+        } finally {
+            OPEN_RECENTLY_OPENED_FOLDER_METRICS.recordSince(start);
         }
-        throw new NoSuchFolderFoundException();
     }
 
     // Label:
@@ -382,57 +703,72 @@ public class FileSystem implements Writable {
     // throws NameIsTakenException if there is already a label named labelName
     // throws NameIsBlankException if labelName.isBlank() is true
     public void createLabel(String labelName) throws NameIsTakenException {
-        if (labelExists(labelName)) {
-            throw new NameIsTakenException(getCapitalizationOfLabel(labelName));
+        long start = System.nanoTime();
+        FileSystemMutationEvent mutation = new FileSystemMutationEvent();
+        mutation.begin();
+        try {
+            Label label = loadLabel(labelName);
+            journal(JournalEntry.CREATE_LABEL, rootFolder, labelName);
+            logEvent(new Event(Event.Operation.LABEL_CREATED, labelName));
+            mutation.commit(Event.Operation.LABEL_CREATED, labelName, currentFolder, label);
+        } finally {
+            CREATE_LABEL_METRICS.recordSince(start);
         }
-        labels.add(new Label(labelName));
-        logEvent("Label named \"" + labelName + "\" created");
     }
 
     // MODIFIES: this
-    // EFFECTS: creates a new Folder with every File labelled with Label named labelName and sets currentFolder to that
-    // new Folder. This is not an actual Folder in the file system but rathaer a 'fake' one to view all Files labelled
-    // with the given Label. This is a brand-new directory to which adding and removing Files and Folders is pointless,
-    // though editing them (renaming, changing labels, deleting) isn't: those changes do affect the real file system
+    // EFFECTS: sets currentFolder to a LabelView of every File labelled with Label named labelName. This is not an
+    // actual Folder in the file system but rather a 'fake' one to view all Files labelled with the given Label. Adding
+    // and removing Files and Folders to it is pointless, though editing the Files (renaming, changing labels,
+    // deleting) isn't: those changes do affect the real file system
     // throws NoSuchLabelFoundException if there are no Labels named labelName
     public void openLabel(String labelName) throws NoSuchLabelFoundException {
-        openLabel(getLabel(labelName));
+        long start = System.nanoTime();
+        try {
+            openLabel(getLabel(labelName));
+        } finally {
+            OPEN_LABEL_METRICS.recordSince(start);
+        }
     }
 
     // MODIFIES: this
-    // EFFECTS: creates a new Folder with every File labelled label and sets currentFolder to that new Folder
-    // this is not an actual Folder in the File system but rataher a fake one to view all Files labelled with the
-    // given Label. This is a brand-new directory to which adding and removing Files and Folders is pointless
+    // EFFECTS: sets currentFolder to a LabelView of every File labelled label. This is not an actual Folder in the File
+    // system but rather a fake one to view all Files labelled with the given Label
     private void openLabel(Label label) {
-        Folder labelFolder = new Folder(label.getName());
-
-        for (File file : label.getLabelledFiles()) {
-            try {
-                labelFolder.addExistingSubfile(file);
-            } catch (NameIsTakenException e) {
-                addDifferentiatorUntilSuccess(labelFolder, file);
-            }
-        }
-        currentFolder = labelFolder;
+        LabelOpenEvent open = new LabelOpenEvent();
+        open.begin();
+        loadAllFolders();
+        currentFolder = new LabelView(label);
         addRecentlyOpenedLabel(label);
-        logEvent("Label named \"" + label.getName() + "\" opened");
+        logEvent(new Event(Event.Operation.LABEL_OPENED, label.getName()));
+        open.commit(label.getName(), false, currentFolder);
     }
 
     // MODIFIES: this
-    // EFFECTS: adds a differentiator of the form (1) to the end of file's name and then attempts to add it to
-    // labelFolder. If there is already a File with that name, removes the differentiator and then loops, adding a
-    // differentiator with a number 1 larger until it succeeds in adding it
-    private void addDifferentiatorUntilSuccess(Folder labelFolder, File file) {
-        for (int i = 1; true; i++) {
-            String name = file.getName();
-            String differentiator = " (" + String.valueOf(i) + ")";
-            file.setName(name + differentiator);
-            try {
-                labelFolder.addExistingSubfile(file);
-                break;
-            } catch (NameIsTakenException e) {
-                file.setName(name);
+    // EFFECTS: sets currentFolder to a LabelView named query of every File matching the label query (for example
+    // "School AND Urgent AND NOT Archived"). Like a Folder opened by openLabel, it is a 'fake' Folder to view the
+    // matching Files, so renaming, relabelling, and deleting them affects the real file system
+    // throws InvalidLabelQueryException if query is not a well-formed combination of label names (see LabelQuery)
+    // throws NoSuchLabelFoundException if query names a Label that does not exist
+    public void openLabelQuery(String query) throws InvalidLabelQueryException, NoSuchLabelFoundException {
+        long start = System.nanoTime();
+        LabelOpenEvent open = new LabelOpenEvent();
+        open.begin();
+        try {
+            loadAllFolders();
+            FileIdBitmap matchingFileIds = new LabelQuery(query).evaluate(
+                    labelName -> getLabel(labelName).getLabelledFileIds(), fileIds);
+
+            Set<File> matchingFiles = new LinkedHashSet<File>();
+            for (int id = matchingFileIds.nextId(0); id >= 0; id = matchingFileIds.nextId(id + 1)) {
+                matchingFiles.add(filesById.get(id));
             }
+
+            currentFolder = new LabelView(query.trim(), matchingFiles);
+            logEvent(new Event(Event.Operation.LABEL_QUERY_OPENED, query));
+            open.commit(query, true, currentFolder);
+        } finally {
+            OPEN_LABEL_QUERY_METRICS.recordSince(start);
         }
     }
 
@@ -440,11 +776,18 @@ public class FileSystem implements Writable {
     // EFFECTS: deletes Label with name labelName
     // throws NoSuchLabelFoundException if there are no Labels named labelName
     public void deleteLabel(String labelName) throws NoSuchLabelFoundException {
-        Label label = getLabel(labelName);
-        label.unlabelAllFiles();
-        recentlyOpenedLabels.remove(label);
-        labels.remove(label);
-        logEvent("Label named \"" + labelName + "\" deleted");
+        long start = System.nanoTime();
+        FileSystemMutationEvent mutation = new FileSystemMutationEvent();
+        mutation.begin();
+        try {
+            Label label = getLabel(labelName);
+            removeLabel(label);
+            journal(JournalEntry.DELETE_LABEL, rootFolder, label.getName());
+            logEvent(new Event(Event.Operation.LABEL_DELETED, labelName));
+            mutation.commit(Event.Operation.LABEL_DELETED, labelName, currentFolder, label);
+        } finally {
+            DELETE_LABEL_METRICS.recordSince(start);
+        }
     }
 
     // MODIFIES: this
@@ -453,10 +796,19 @@ public class FileSystem implements Writable {
     // throws NoSuchLabelFoundException if there are no Labels named labelName
     public void labelFile(String fileName, String labelName)
             throws NoSuchFileFoundException, NoSuchLabelFoundException {
-        File file = currentFolder.getSubfile(fileName);
-        Label label = getLabel(labelName);
-        label.labelFile(file);
-        logEvent("File named \"" + fileName + "\" labelled with label \"" + labelName + "\"");
+        long start = System.nanoTime();
+        FileSystemMutationEvent mutation = new FileSystemMutationEvent();
+        mutation.begin();
+        try {
+            File file = currentFolder.getSubfile(fileName);
+            Label label = getLabel(labelName);
+            label.labelFile(file);
+            journal(JournalEntry.LABEL_FILE, file.getParentFolder(), file.getName(), label.getName());
+            logEvent(new Event(Event.Operation.FILE_LABELLED, fileName, labelName));
+            mutation.commit(Event.Operation.FILE_LABELLED, fileName, currentFolder, label);
+        } finally {
+            LABEL_FILE_METRICS.recordSince(start);
+        }
     }
 
     // MODIFIES: this
@@ -465,10 +817,19 @@ public class FileSystem implements Writable {
     // throws NoSuchFileFoundException if there are no Files named fileName in currentFolder
     public void unlabelFile(String fileName, String labelName)
             throws NoSuchFileFoundException, NoSuchLabelFoundException {
-        File file = currentFolder.getSubfile(fileName);
-        Label label = getLabel(labelName);
-        label.unlabelFile(file);
-        logEvent("File named \"" + fileName + "\" had label named \"" + labelName + "\" removed");
+        long start = System.nanoTime();
+        FileSystemMutationEvent mutation = new FileSystemMutationEvent();
+        mutation.begin();
+        try {
+            File file = currentFolder.getSubfile(fileName);
+            Label label = getLabel(labelName);
+            label.unlabelFile(file);
+            journal(JournalEntry.UNLABEL_FILE, file.getParentFolder(), file.getName(), label.getName());
+            logEvent(new Event(Event.Operation.FILE_UNLABELLED, fileName, labelName));
+            mutation.commit(Event.Operation.FILE_UNLABELLED, fileName, currentFolder, label);
+        } finally {
+            UNLABEL_FILE_METRICS.recordSince(start);
+        }
     }
 
     // REQUIRES: newName.isBlank() is false
@@ -478,11 +839,22 @@ public class FileSystem implements Writable {
     // throws NoSuchLabelFoundException if there are no Labels named labelName
     // throws NameIsBlankException if newName.isBlank() is true
     public void setLabelName(String labelName, String newName) throws NoSuchLabelFoundException, NameIsTakenException {
-        if (labelExists(newName)) {
-            throw new NameIsTakenException(getCapitalizationOfLabel(newName));
+        long start = System.nanoTime();
+        FileSystemMutationEvent mutation = new FileSystemMutationEvent();
+        mutation.begin();
+        try {
+            if (labelExists(newName)) {
+                throw new NameIsTakenException(getCapitalizationOfLabel(newName));
+            }
+            Label label = getLabel(labelName);
+            String previousName = label.getName();
+            renameLabel(label, newName);
+            journal(JournalEntry.RENAME_LABEL, rootFolder, previousName, newName);
+            logEvent(new Event(Event.Operation.LABEL_RENAMED, labelName, newName));
+            mutation.commit(Event.Operation.LABEL_RENAMED, labelName, currentFolder, label);
+        } finally {
+            SET_LABEL_NAME_METRICS.recordSince(start);
         }
-        getLabel(labelName).setName(newName);
-        logEvent("Label named \"" + labelName + "\" renamed to \"" + newName + "\"");
     }
 
     // EFFECTS: returns true if the user has created any Labels and false if no Labels have been made
@@ -519,20 +891,23 @@ public class FileSystem implements Writable {
     // EFFECTS: removes all of the Labels on File named fileName
     // throws NoSuchFileFoundException if there are no Files named fileName
     public void removeAllLabels(String fileName) throws NoSuchFileFoundException {
-        File file = currentFolder.getSubfile(fileName);
-
-        for (Label label : labels) {
-            if (file.isLabelled(label)) {
-                label.unlabelFile(file);
-            }
+        long start = System.nanoTime();
+        FileSystemMutationEvent mutation = new FileSystemMutationEvent();
+        mutation.begin();
+        try {
+            File file = currentFolder.getSubfile(fileName);
+            unlabelAll(file);
+            journal(JournalEntry.REMOVE_ALL_LABELS, file.getParentFolder(), file.getName());
+            logEvent(new Event(Event.Operation.ALL_LABELS_REMOVED, fileName));
+            mutation.commit(Event.Operation.ALL_LABELS_REMOVED, fileName, currentFolder, null);
+        } finally {
+            REMOVE_ALL_LABELS_METRICS.recordSince(start);
         }
-        
-        logEvent("Removed all labels from file named \"" + fileName + "\"");
     }
 
     // EFFECTS: returns the name of the only Label the user has made. returns null if they haven't made any
     public String getOnlyLabelName() {
-        for (Label label : labels) {
+        for (Label label : labels.values()) {
             return label.getName();
         }
         return null;
@@ -556,59 +931,240 @@ public class FileSystem implements Writable {
 
     // EFFECTS: returns a list of the names of the Labels the user has created so far (empty if none)
     public List<String> getNamesOfLabels() {
-        List<String> namesOfLabels = new LinkedList<String>();
-        for (Label label : labels) {
-            namesOfLabels.add(label.getName());
+        long start = System.nanoTime();
+        try {
+            List<String> namesOfLabels = new LinkedList<String>();
+            for (Label label : labels.values()) {
+                namesOfLabels.add(label.getName());
+            }
+            return namesOfLabels;
+        } finally {
+            GET_NAMES_OF_LABELS_METRICS.recordSince(start);
         }
-        return namesOfLabels;
     }
 
     // EFFECTS: returns a list of the names of the Labels on File named fileName
     // throws NoSuchFileFoundException if there are no Files named fileName in currentFolder
     public List<String> getNamesOfLabelsOnFile(String fileName) throws NoSuchFileFoundException {
-        File file = currentFolder.getSubfile(fileName);
-        List<String> namesOfLabelsOnFile = new LinkedList<String>();
-        for (Label label : labels) {
-            if (file.isLabelled(label)) {
-                namesOfLabelsOnFile.add(label.getName());
+        long start = System.nanoTime();
+        try {
+            File file = currentFolder.getSubfile(fileName);
+            List<String> namesOfLabelsOnFile = new LinkedList<String>();
+            for (Label label : labels.values()) {
+                if (file.isLabelled(label)) {
+                    namesOfLabelsOnFile.add(label.getName());
+                }
             }
+            return namesOfLabelsOnFile;
+        } finally {
+            GET_NAMES_OF_LABELS_ON_FILE_METRICS.recordSince(start);
         }
-        return namesOfLabelsOnFile;
     }
 
     // EFFECTS: returns a list of the names of the Labels not on File named fileName
     // throws NoSuchFileFoundException if there are no Files named fileName in currentFolder
     public List<String> getNamesOfLabelsNotOnFile(String fileName) throws NoSuchFileFoundException {
-        File file = currentFolder.getSubfile(fileName);
-        List<String> namesOfLabelsNotOnFile = new LinkedList<String>();
-        for (Label label : labels) {
-            if (!file.isLabelled(label)) {
-                namesOfLabelsNotOnFile.add(label.getName());
+        long start = System.nanoTime();
+        try {
+            File file = currentFolder.getSubfile(fileName);
+            List<String> namesOfLabelsNotOnFile = new LinkedList<String>();
+            for (Label label : labels.values()) {
+                if (!file.isLabelled(label)) {
+                    namesOfLabelsNotOnFile.add(label.getName());
+                }
             }
+            return namesOfLabelsNotOnFile;
+        } finally {
+            GET_NAMES_OF_LABELS_NOT_ON_FILE_METRICS.recordSince(start);
         }
-        return namesOfLabelsNotOnFile;
     }
 
-    // EFFECTS: returns a list of the names of the up to MAX_NUM_RECENTLY_OPENED_STORED last labels 'opened'
+    // EFFECTS: returns a list of the names of the up to MAX_NUM_RECENTLY_OPENED_SHOWN last labels 'opened'
     public List<String> getNamesOfRecentlyOpenedLabels() {
-        List<String> namesOfRecentlyOpenedLabels = new ArrayList<String>();
-        for (Label label : recentlyOpenedLabels) {
-            namesOfRecentlyOpenedLabels.add(label.getName());
+        long start = System.nanoTime();
+        try {
+            return getNames(recentlyOpenedLabels.getMostRecent(MAX_NUM_RECENTLY_OPENED_SHOWN));
+        } finally {
+            GET_NAMES_OF_RECENTLY_OPENED_LABELS_METRICS.recordSince(start);
         }
-        return namesOfRecentlyOpenedLabels;
     }
 
-    // EFFECTS: 'opens' Label named labelName (opens a new Folder containing every File labelled with Label) if it is
-    // in recentlyOpenedLabels
-    // throws NoSuchLabelFoundException if there is no Label named labelName in recentlyOpenedLabels
+    // EFFECTS: returns a list of the names of the up to MAX_NUM_RECENTLY_OPENED_SHOWN labels with the highest frecency
+    // (see AccessHistory), from highest to lowest
+    public List<String> getNamesOfFrecentlyOpenedLabels() {
+        long start = System.nanoTime();
+        try {
+            return getNames(recentlyOpenedLabels.getMostFrecent(MAX_NUM_RECENTLY_OPENED_SHOWN));
+        } finally {
+            GET_NAMES_OF_FRECENTLY_OPENED_LABELS_METRICS.recordSince(start);
+        }
+    }
+
+    // EFFECTS: 'opens' Label named labelName (opens a view of every File labelled with Label) if it is among the labels
+    // listed by getNamesOfRecentlyOpenedLabels or getNamesOfFrecentlyOpenedLabels
+    // throws NoSuchLabelFoundException if there is no Label named labelName in either list
     public void openRecentlyOpenedLabel(String labelName) throws NoSuchLabelFoundException {
-        for (Label label : recentlyOpenedLabels) {
-            if (label.isNamed(labelName)) {
-                openLabel(label);
-                return;
+        long start = System.nanoTime();
+        try {
+            Label label = findShownInHistory(recentlyOpenedLabels, labelName);
+            if (label == null) {
+                throw new NoSuchLabelFoundException();
+            }
+            openLabel(label);
+        } finally {
+            OPEN_RECENTLY_OPENED_LABEL_METRICS.recordSince(start);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds Label named labelName to the end of the list of recently-opened Labels (after every Label already
+    // in it) as having been opened openCount times, most recently at lastOpenedMillis. Used to restore a saved list
+    // throws NoSuchLabelFoundException if there are no Labels named labelName
+    public void restoreRecentlyOpenedLabel(String labelName, int openCount, long lastOpenedMillis)
+            throws NoSuchLabelFoundException {
+        recentlyOpenedLabels.restore(getLabel(labelName), openCount, lastOpenedMillis);
+    }
+
+
+    /*
+     *  Search-related Methods:
+     */
+
+    // MODIFIES: this
+    // EFFECTS: builds a full-text index of the notes on the user's computer that the Files point to (each note once,
+    // however many Files point to it), replacing any index this file system already had. Notes that cannot be read
+    // are left out. From now on, notes are indexed in the background as Files that point to them are created, and
+    // deleted from the index once no File points to them (see NoteIndexer)
+    public void indexNotes() {
+        long start = System.nanoTime();
+        try {
+            loadAllFolders();
+            noteIndexer = new NoteIndexer(new NoteIndex(), getNotePaths(), NoteIndexer.DEFAULT_MAX_BYTES_PER_SECOND);
+            noteIndexer.updateNow();
+            loadedNoteIndex = null;
+            noteIndexVersionAutoSaved = -1;
+            noteIndexAutoSave = null;
+        } finally {
+            INDEX_NOTES_METRICS.recordSince(start);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: brings the full-text index of the notes up to date in the background, indexing again only the notes
+    // whose size or last-modified time has changed since they were last indexed, and returns a future that completes
+    // once it is. Indexes the notes first if there is no index yet (see indexNotes)
+    public CompletableFuture<Void> updateNoteIndex() {
+        long start = System.nanoTime();
+        try {
+            return getNoteIndexer().update();
+        } finally {
+            UPDATE_NOTE_INDEX_METRICS.recordSince(start);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns up to maxResults notes whose contents match query (words, and "quoted phrases" that must
+    // appear word for word; see NoteSearcher), best match first, each with the Files that point to it. Notes that no
+    // File points to any more are left out. Indexes the notes first if there is no index yet (see indexNotes). The
+    // index is not brought up to date with notes that have been edited until updateNoteIndex is called (a loaded
+    // index is brought up to date in the background the first time it is searched)
+    public List<NoteSearchResult> searchNotes(String query, int maxResults) {
+        long start = System.nanoTime();
+        try {
+            List<NoteSearcher.Hit> hits = getNoteIndexer().search(query, maxResults);
+            loadAllFolders();
+            List<NoteSearchResult> results = new ArrayList<NoteSearchResult>();
+            for (NoteSearcher.Hit hit : hits) {
+                List<File> files = filesByNotePath.get(hit.getPath());
+                if (files != null) {
+                    results.add(new NoteSearchResult(hit.getPath(), hit.getScore(), new ArrayList<File>(files)));
+                }
             }
+            return results;
+        } finally {
+            SEARCH_NOTES_METRICS.recordSince(start);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: saves the full-text index of the notes to filePath, indexing the notes first if there is no index yet
+    // throws IOException if the file could not be written
+    public void saveNoteIndex(String filePath) throws IOException {
+        long start = System.nanoTime();
+        try {
+            getNoteIndexer().read(index -> new NoteIndexWriter(filePath).write(index));
+        } finally {
+            SAVE_NOTE_INDEX_METRICS.recordSince(start);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: memory-maps the full-text index saved at filePath (see saveNoteIndex) and searches it from now on,
+    // without reading any of the notes; the first search brings it up to date in the background
+    // throws IOException if there is a problem with the file
+    // throws InvalidNoteIndexException if the file is not a valid index
+    public void loadNoteIndex(String filePath) throws IOException, InvalidNoteIndexException {
+        long start = System.nanoTime();
+        try {
+            loadedNoteIndex = MappedNoteIndex.open(filePath);
+            noteIndexer = null;
+            noteIndexVersionAutoSaved = -1;
+            noteIndexAutoSave = null;
+        } finally {
+            LOAD_NOTE_INDEX_METRICS.recordSince(start);
+        }
+    }
+
+    // EFFECTS: starts grep on the notes of every File in currentFolder and its subfolders (or, if currentFolder is a
+    // LabelView, every File in the view) and returns the search, whose matching lines are given to listener as they
+    // are found (see NoteGrep.start)
+    public NoteGrep.Search grepNotes(NoteGrep grep, NoteGrep.MatchListener listener) {
+        long start = System.nanoTime();
+        try {
+            List<File> files = new ArrayList<File>();
+            addFilesWithin(currentFolder, files);
+            return grep.start(files, listener);
+        } finally {
+            GREP_NOTES_METRICS.recordSince(start);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts grep on the notes of every File labelled with Label named labelName and returns the search, whose
+    // matching lines are given to listener as they are found (see NoteGrep.start)
+    // throws NoSuchLabelFoundException if there are no Labels named labelName
+    public NoteGrep.Search grepLabel(String labelName, NoteGrep grep, NoteGrep.MatchListener listener)
+            throws NoSuchLabelFoundException {
+        long start = System.nanoTime();
+        try {
+            Label label = getLabel(labelName);
+            loadAllFolders();
+            return grep.start(new ArrayList<File>(label.getLabelledFiles()), listener);
+        } finally {
+            GREP_LABEL_METRICS.recordSince(start);
+        }
+    }
+
+    // REQUIRES: maxResults >= 0
+    // MODIFIES: this
+    // EFFECTS: returns up to maxResults names anywhere in the file system that begin with prefix (ignoring case) and
+    // are names of the given kind, or of any kind if kind is null, in alphabetical order ignoring case, along with the
+    // path of the Folder each File or Folder is in. Takes time proportional to the length of prefix plus the number of
+    // names returned, except the first time, when every name is indexed (see NameIndex)
+    public List<NameCompletion> completeName(String prefix, int maxResults, NameCompletion.Kind kind) {
+        long start = System.nanoTime();
+        try {
+            return getNameIndex().complete(prefix, maxResults, kind);
+        } finally {
+            COMPLETE_NAME_METRICS.recordSince(start);
         }
-        throw new NoSuchLabelFoundException();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the number of names anywhere in the file system of the given kind (or of any kind if kind is
+    // null) that begin with prefix (ignoring case)
+    public int countNameCompletions(String prefix, NameCompletion.Kind kind) {
+        return getNameIndex().countCompletions(prefix, kind);
     }
 
 
@@ -616,6 +1172,99 @@ public class FileSystem implements Writable {
      *  Persistence-related Methods:
      */
 
+    // EFFECTS: returns the root Folder. Used to build a loaded file system directly
+    public Folder getRootFolder() {
+        return rootFolder;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: creates a Label named labelName and returns it, without logging an event. Used to build a loaded file
+    // system directly
+    // throws NameIsTakenException if there is already a Label named labelName
+    public Label loadLabel(String labelName) throws NameIsTakenException {
+        if (labelExists(labelName)) {
+            throw new NameIsTakenException(getCapitalizationOfLabel(labelName));
+        }
+        Label label = new Label(labelName);
+        labels.put(label.getNameKey(), label);
+        addToNameIndex(label);
+        return label;
+    }
+
+    // MODIFIES: this, folder
+    // EFFECTS: creates a File named fileName with path filePath in folder and returns it, without logging an event.
+    // Used to build a loaded file system directly (folder does not have to have been added to the file system yet)
+    // throws NameIsTakenException if folder already contains a File named fileName
+    public File loadFile(Folder folder, String fileName, String filePath) throws NameIsTakenException {
+        File file = folder.makeSubfile(fileName, filePath);
+        registerFile(file);
+        return file;
+    }
+
+    // MODIFIES: this, file
+    // EFFECTS: labels file with Label named labelName, without logging an event. Used to build a loaded file system
+    // directly
+    // throws NoSuchLabelFoundException if there is no Label named labelName
+    public void loadLabelOnFile(File file, String labelName) throws NoSuchLabelFoundException {
+        getLabel(labelName).labelFile(file);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds file to the end of the list of recently-opened Files (after every File already in it) as having
+    // been opened openCount times, most recently at lastOpenedMillis. Used to restore a saved list
+    public void restoreRecentlyOpenedFile(File file, int openCount, long lastOpenedMillis) {
+        recentlyOpenedFiles.restore(file, openCount, lastOpenedMillis);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds folder to the end of the list of recently-opened Folders (after every Folder already in it) as
+    // having been opened openCount times, most recently at lastOpenedMillis. Used to restore a saved list
+    public void restoreRecentlyOpenedFolder(Folder folder, int openCount, long lastOpenedMillis) {
+        recentlyOpenedFolders.restore(folder, openCount, lastOpenedMillis);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes folder currentFolder without tracking it as recently opened or logging an event. Used to restore
+    // the Folder that was open when the file system was saved
+    public void restoreCurrentFolder(Folder folder) {
+        currentFolder = folder;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets currentFolder to a LabelView of Label named labelName without tracking it as recently opened or
+    // logging an event. Used to restore the Label that was open when the file system was saved
+    // throws NoSuchLabelFoundException if there are no Labels named labelName
+    public void restoreCurrentLabel(String labelName) throws NoSuchLabelFoundException {
+        loadAllFolders();
+        currentFolder = new LabelView(getLabel(labelName));
+    }
+
+    // EFFECTS: returns what this file system was last saved as or loaded from in a sharded save, or null if it has not
+    // been
+    public ShardManifest getShardManifest() {
+        return shardManifest;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that some Folders were loaded without their contents, which will be loaded once they are first
+    // needed (see Folder.setContentsLoader). Used by readers that load a file system lazily
+    public void markHasUnloadedFolders() {
+        hasUnloadedFolders = true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that this file system was just saved as or loaded from the sharded save shardManifest describes
+    public void setShardManifest(ShardManifest shardManifest) {
+        this.shardManifest = shardManifest;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that the saved file system already reflects every journaled change up to and including the one
+    // with sequence number journalSequence, so that autoLoad does not replay them again
+    public void restoreJournalSequence(long journalSequence) {
+        this.journalSequence = journalSequence;
+    }
+
     // EFFECTS: returns a JSON representation of this file system
     @Override
     public JSONObject toJson() {
@@ -629,8 +1278,12 @@ public class FileSystem implements Writable {
         return json;
     }
 
-    // EFFECTS: returns a JSON representation of the path that leads to currentFolder
+    // EFFECTS: returns a JSON representation of the path that leads to currentFolder. Since the results of a label
+    // query cannot be reopened by name, the root folder's path is returned if currentFolder is one
     private JSONArray currentFolderPathToJson() {
+        if (currentFolder instanceof LabelView && !((LabelView) currentFolder).isViewOfLabel()) {
+            return folderPathToJson(rootFolder, true);
+        }
         return folderPathToJson(currentFolder, true);
     }
 
@@ -638,7 +1291,7 @@ public class FileSystem implements Writable {
     private JSONArray labelsToJson() {
         JSONArray jsonArray = new JSONArray();
 
-        for (Label label : labels) {
+        for (Label label : labels.values()) {
             jsonArray.put(label.toJson());
         }
         
@@ -648,8 +1301,8 @@ public class FileSystem implements Writable {
     // EFFECTS: returns a JSON representation of the paths that lead to the recently-opened files
     private JSONArray recentFilePathsToJson() {
         JSONArray jsonArray = new JSONArray();
-        for (File file : recentlyOpenedFiles) {
-            jsonArray.put(pathToFileToJson(file));
+        for (AccessHistory.Entry<File> entry : recentlyOpenedFiles.getEntries()) {
+            jsonArray.put(addAccessHistoryToJson(pathToFileToJson(entry.getItem()), entry));
         }
         return jsonArray;
     }
@@ -665,8 +1318,8 @@ public class FileSystem implements Writable {
     // EFFECTS: returns a JSON representation of the paths that lead to the recently-opened folders
     private JSONArray recentFolderPathsToJson() {
         JSONArray jsonArray = new JSONArray();
-        for (Folder folder : recentlyOpenedFolders) {
-            jsonArray.put(pathToFolderToJson(folder));
+        for (AccessHistory.Entry<Folder> entry : recentlyOpenedFolders.getEntries()) {
+            jsonArray.put(addAccessHistoryToJson(pathToFolderToJson(entry.getItem()), entry));
         }
         return jsonArray;
     }
@@ -682,12 +1335,290 @@ public class FileSystem implements Writable {
     // EFFECTS: returns a JSON representation of the names of the recently-opened labels
     private JSONArray recentLabelsToJson() {
         JSONArray jsonArray = new JSONArray();
-        for (Label label : recentlyOpenedLabels) {
-            jsonArray.put(label.toJson());
+        for (AccessHistory.Entry<Label> entry : recentlyOpenedLabels.getEntries()) {
+            jsonArray.put(addAccessHistoryToJson(entry.getItem().toJson(), entry));
         }
         return jsonArray;
     }
 
+    // MODIFIES: json
+    // EFFECTS: adds how many times and when entry's item was last opened to json and returns json
+    private JSONObject addAccessHistoryToJson(JSONObject json, AccessHistory.Entry<?> entry) {
+        json.put("openCount", entry.getOpenCount());
+        json.put("lastOpened", entry.getLastOpenedMillis());
+        return json;
+    }
+
+    // MODIFIES: writer
+    // EFFECTS: writes a JSON representation of this file system to writer, walking the Folders and Files directly
+    // rather than building the representation in memory first
+    @Override
+    public void writeJson(JsonStreamWriter writer) throws IOException {
+        writeJson(writer, true);
+    }
+
+    // MODIFIES: writer
+    // EFFECTS: writes a JSON representation of this file system to writer, leaving out the root Folder's subfolders
+    // unless includeSubfoldersOfRoot is true
+    private void writeJson(JsonStreamWriter writer, boolean includeSubfoldersOfRoot) throws IOException {
+        writer.beginObject();
+        writer.name("currentFolderPath");
+        if (currentFolder instanceof LabelView && !((LabelView) currentFolder).isViewOfLabel()) {
+            writeFolderPath(writer, rootFolder, true);
+        } else {
+            writeFolderPath(writer, currentFolder, true);
+        }
+
+        writer.name("labels").beginArray();
+        for (Label label : labels.values()) {
+            label.writeJson(writer);
+        }
+        writer.endArray();
+
+        writeRecentlyOpenedJson(writer);
+
+        writer.name("rootFolder");
+        if (includeSubfoldersOfRoot) {
+            rootFolder.writeJson(writer);
+        } else {
+            rootFolder.writeJsonWithoutSubfolders(writer);
+        }
+        writer.endObject();
+    }
+
+    // MODIFIES: writer
+    // EFFECTS: writes the same JSON representation as writeJson to writer, except that the root Folder is written as if
+    // it had no subfolders. Used for the part of a sharded save that is not in any top-level Folder's shard
+    public void writeJsonWithoutSubfoldersOfRoot(JsonStreamWriter writer) throws IOException {
+        writeJson(writer, false);
+    }
+
+    // MODIFIES: writer
+    // EFFECTS: writes the recently-opened Files, Folders, and Labels to writer as the JSON fields
+    // recentlyOpenedFilePaths, recentlyOpenedFolderPaths, and recentlyOpenedLabels
+    private void writeRecentlyOpenedJson(JsonStreamWriter writer) throws IOException {
+        writer.name("recentlyOpenedFilePaths").beginArray();
+        for (AccessHistory.Entry<File> entry : recentlyOpenedFiles.getEntries()) {
+            writer.beginObject();
+            writer.name("fileName").value(entry.getItem().getName());
+            writer.name("folderPath");
+            writeFolderPath(writer, entry.getItem().getParentFolder(), true);
+            writeAccessHistory(writer, entry);
+            writer.endObject();
+        }
+        writer.endArray();
+
+        writer.name("recentlyOpenedFolderPaths").beginArray();
+        for (AccessHistory.Entry<Folder> entry : recentlyOpenedFolders.getEntries()) {
+            writer.beginObject();
+            writer.name("folderName").value(entry.getItem().getName());
+            writer.name("folderPath");
+            writeFolderPath(writer, entry.getItem(), false);
+            writeAccessHistory(writer, entry);
+            writer.endObject();
+        }
+        writer.endArray();
+        writeRecentLabelsJson(writer);
+    }
+
+    // MODIFIES: writer
+    // EFFECTS: writes the recently-opened Labels to writer as the JSON field recentlyOpenedLabels
+    private void writeRecentLabelsJson(JsonStreamWriter writer) throws IOException {
+        writer.name("recentlyOpenedLabels").beginArray();
+        for (AccessHistory.Entry<Label> entry : recentlyOpenedLabels.getEntries()) {
+            writer.beginObject();
+            writer.name("name").value(entry.getItem().getName());
+            writeAccessHistory(writer, entry);
+            writer.endObject();
+        }
+        writer.endArray();
+    }
+
+    // MODIFIES: writer
+    // EFFECTS: writes a binary snapshot of this file system to writer (see SnapshotWriter for the layout):
+    //   LABELS:  each Label's name
+    //   FOLDERS: each Folder's name and the index of its parent (-1 for root), breadth-first so parents come first
+    //   FILES:   each File's name, path, the index of its Folder, and the indices of its Labels
+    //   STATE:   the current Folder (0 and a Folder index) or Label (1 and a Label index), then the recently-opened
+    //            Files, Folders, and Labels, each as a count followed by (index, open count, time last opened) entries
+    //   JOURNAL: the sequence number of the last journal entry this file system reflects (see autoSave)
+    //   FOLDER_INDEX: for each Folder, the index of its first subfolder, its number of subfolders, the index of its
+    //            first File, its number of Files, and where its first File starts in FILES. Since Folders are written
+    //            breadth-first and Files Folder by Folder, each Folder's subfolders and Files are contiguous, so this
+    //            lets a Folder's contents be read without reading anything else (see SnapshotReader.readLazily)
+    public void writeSnapshot(SnapshotWriter writer) throws IOException {
+        Map<Label, Integer> labelIndices = writeSnapshotLabels(writer);
+
+        List<Folder> folders = new ArrayList<Folder>();
+        Map<Folder, Integer> folderIndices = new HashMap<Folder, Integer>();
+        writeSnapshotFolders(writer, folders, folderIndices);
+
+        Map<File, Integer> recentFileIndices = new HashMap<File, Integer>();
+        int[] firstFileIndices = new int[folders.size() + 1];
+        long[] firstFileOffsets = new long[folders.size()];
+        writeSnapshotFiles(writer, folders, labelIndices, recentFileIndices, firstFileIndices, firstFileOffsets);
+
+        writeSnapshotState(writer, labelIndices, folderIndices, recentFileIndices);
+
+        writer.beginSection(SnapshotWriter.SECTION_JOURNAL);
+        writer.writeLong(journalSequence);
+        writer.endSection();
+
+        writeSnapshotFolderIndex(writer, folders, firstFileIndices, firstFileOffsets);
+    }
+
+    // MODIFIES: writer
+    // EFFECTS: writes the LABELS section of a snapshot (see writeSnapshot) and returns the index of each Label in it
+    private Map<Label, Integer> writeSnapshotLabels(SnapshotWriter writer) throws IOException {
+        Map<Label, Integer> labelIndices = new HashMap<Label, Integer>();
+        writer.beginSection(SnapshotWriter.SECTION_LABELS);
+        for (Label label : labels.values()) {
+            labelIndices.put(label, labelIndices.size());
+            writer.writeString(label.getName());
+        }
+        writer.endSection();
+        return labelIndices;
+    }
+
+    // MODIFIES: writer, folders, folderIndices
+    // EFFECTS: writes the FOLDERS section of a snapshot (see writeSnapshot), adding every Folder to folders in the
+    // order they are written and adding the index of the root Folder, currentFolder, and each recently-opened Folder
+    // to folderIndices
+    private void writeSnapshotFolders(SnapshotWriter writer, List<Folder> folders, Map<Folder, Integer> folderIndices)
+            throws IOException {
+        folders.add(rootFolder);
+        folderIndices.put(rootFolder, 0);
+        writer.beginSection(SnapshotWriter.SECTION_FOLDERS);
+        writer.writeString(rootFolder.getName());
+        writer.writeInt(-1);
+        for (int i = 0; i < folders.size(); i++) {
+            for (Folder subfolder : folders.get(i).getSubfolders()) {
+                if (subfolder == currentFolder || recentlyOpenedFolders.contains(subfolder)) {
+                    folderIndices.put(subfolder, folders.size());
+                }
+                folders.add(subfolder);
+                writer.writeString(subfolder.getName());
+                writer.writeInt(i);
+            }
+        }
+        writer.endSection();
+    }
+
+    // REQUIRES: firstFileIndices.length == folders.size() + 1 and firstFileOffsets.length == folders.size()
+    // MODIFIES: writer, recentFileIndices, firstFileIndices, firstFileOffsets
+    // EFFECTS: writes the FILES section of a snapshot (see writeSnapshot), Folder by Folder in the order of folders.
+    // Adds the index of each recently-opened File to recentFileIndices, and records the index of each Folder's first
+    // File (and, at the end, the number of Files) in firstFileIndices and where it starts in firstFileOffsets
+    private void writeSnapshotFiles(SnapshotWriter writer, List<Folder> folders, Map<Label, Integer> labelIndices,
+            Map<File, Integer> recentFileIndices, int[] firstFileIndices, long[] firstFileOffsets) throws IOException {
+        int fileIndex = 0;
+        writer.beginSection(SnapshotWriter.SECTION_FILES);
+        for (int i = 0; i < folders.size(); i++) {
+            firstFileIndices[i] = fileIndex;
+            firstFileOffsets[i] = writer.getSectionPosition();
+            for (File file : folders.get(i).getSubfiles()) {
+                writer.writeString(file.getName());
+                writer.writeString(file.getFilePath());
+                writer.writeInt(i);
+                writer.writeInt(file.getLabels().size());
+                for (Label label : file.getLabels()) {
+                    writer.writeInt(labelIndices.get(label));
+                }
+                if (recentlyOpenedFiles.contains(file)) {
+                    recentFileIndices.put(file, fileIndex);
+                }
+                fileIndex++;
+            }
+        }
+        firstFileIndices[folders.size()] = fileIndex;
+        writer.endSection();
+    }
+
+    // MODIFIES: writer
+    // EFFECTS: writes the STATE section of a snapshot (see writeSnapshot), finding the Labels, Folders, and Files in
+    // it by their indices
+    private void writeSnapshotState(SnapshotWriter writer, Map<Label, Integer> labelIndices,
+            Map<Folder, Integer> folderIndices, Map<File, Integer> recentFileIndices) throws IOException {
+        writer.beginSection(SnapshotWriter.SECTION_STATE);
+        if (currentFolder instanceof LabelView && ((LabelView) currentFolder).isViewOfLabel()) {
+            writer.writeInt(1);
+            writer.writeInt(labelIndices.get(((LabelView) currentFolder).getLabel()));
+        } else {
+            writer.writeInt(0);
+            writer.writeInt(folderIndices.getOrDefault(currentFolder, 0));
+        }
+        writeSnapshotAccessHistory(writer, recentlyOpenedFiles, recentFileIndices);
+        writeSnapshotAccessHistory(writer, recentlyOpenedFolders, folderIndices);
+        writeSnapshotAccessHistory(writer, recentlyOpenedLabels, labelIndices);
+        writer.endSection();
+    }
+
+    // MODIFIES: writer
+    // EFFECTS: writes the FOLDER_INDEX section of a snapshot (see writeSnapshot) for folders, given the index of each
+    // Folder's first File (followed by the number of Files) and where each Folder's first File starts in FILES
+    private void writeSnapshotFolderIndex(SnapshotWriter writer, List<Folder> folders, int[] firstFileIndices,
+            long[] firstFileOffsets) throws IOException {
+        writer.beginSection(SnapshotWriter.SECTION_FOLDER_INDEX);
+        int firstSubfolderIndex = 1;
+        for (int i = 0; i < folders.size(); i++) {
+            int numSubfolders = folders.get(i).getSubfolders().size();
+            writer.writeInt(firstSubfolderIndex);
+            writer.writeInt(numSubfolders);
+            writer.writeInt(firstFileIndices[i]);
+            writer.writeInt(firstFileIndices[i + 1] - firstFileIndices[i]);
+            writer.writeLong(firstFileOffsets[i]);
+            firstSubfolderIndex += numSubfolders;
+        }
+        writer.endSection();
+    }
+
+    // MODIFIES: writer
+    // EFFECTS: writes the number of entries in history followed by each one's index (looked up in indices), open
+    // count, and time last opened, from most to least recent
+    private <T> void writeSnapshotAccessHistory(SnapshotWriter writer, AccessHistory<T> history,
+            Map<T, Integer> indices) throws IOException {
+        List<AccessHistory.Entry<T>> entries = history.getEntries();
+        writer.writeInt(entries.size());
+        for (AccessHistory.Entry<T> entry : entries) {
+            writer.writeInt(indices.get(entry.getItem()));
+            writer.writeInt(entry.getOpenCount());
+            writer.writeLong(entry.getLastOpenedMillis());
+        }
+    }
+
+    // MODIFIES: writer
+    // EFFECTS: writes how many times and when entry's item was last opened to writer
+    private void writeAccessHistory(JsonStreamWriter writer, AccessHistory.Entry<?> entry) throws IOException {
+        writer.name("openCount").value(entry.getOpenCount());
+        writer.name("lastOpened").value(entry.getLastOpenedMillis());
+    }
+
+    // MODIFIES: writer
+    // EFFECTS: writes the names of the Folders on the path that leads to childFolder to writer as a JSON array
+    // if includeChild is true, includes childFolder; if includeChild is false, doesn't include childFolder
+    private void writeFolderPath(JsonStreamWriter writer, Folder childFolder, boolean includeChild)
+            throws IOException {
+        LinkedList<String> folderNames = new LinkedList<String>();
+        if (includeChild) {
+            folderNames.addFirst(childFolder.getName());
+        }
+        Folder folder = childFolder;
+        while (true) {
+            try {
+                folder = folder.getParentFolder();
+            } catch (NoSuchFolderFoundException e) {
+                break;
+            }
+            folderNames.addFirst(folder.getName());
+        }
+
+        writer.beginArray();
+        for (String folderName : folderNames) {
+            writer.value(folderName);
+        }
+        writer.endArray();
+    }
+
     // Shared Helper:
 
     // EFFECTS: returns a JSON representation of the path that leads to childFolder
@@ -718,36 +1649,139 @@ public class FileSystem implements Writable {
         return jsonArray;
     }
 
-    // EFFECTS: saves a JSON representation of this file system to AUTOSAVE_FILE_PATH
-    public void autoSave() throws FileNotFoundException {
-        autoSaveJsonWriter.open();
-        autoSaveJsonWriter.write(this);
-        autoSaveJsonWriter.close();
+    // MODIFIES: this
+    // EFFECTS: saves a compact JSON representation of this file system to AUTOSAVE_FILE_PATH and then a binary
+    // snapshot of it to AUTOSAVE_SNAPSHOT_FILE_PATH (so that the snapshot is never older than the JSON it matches).
+    // Then empties the journal and makes this the file system it tracks: from now on every File, Folder, and Label
+    // that is created, renamed, deleted, labelled, or unlabelled is appended to AUTOSAVE_JOURNAL_FILE_PATH as it
+    // happens, so that autoLoad can recover those changes even if autoSave is never called again. Finally saves the
+    // full-text index of the notes to AUTOSAVE_INDEX_FILE_PATH if there is one that has not been saved there yet
+    // throws IOException if either file could not be written or the journal could not be emptied
+    public void autoSave() throws IOException {
+        long start = System.nanoTime();
+        try {
+            awaitBackgroundSaves();
+            journalSequence = Math.max(journalSequence, getLastJournalSequence());
+
+            save(autoSaveJsonWriter);
+            saveSnapshot(autoSaveSnapshotWriter);
+
+            startJournaling();
+            autoSaveJournalWriter.clear();
+            Files.deleteIfExists(Paths.get(COMPACTING_JOURNAL_FILE_PATH));
+            autoSaveNoteIndex();
+        } finally {
+            AUTO_SAVE_METRICS.recordSince(start);
+        }
     }
 
-    // EFFECTS: saves a jSON representation of this file system to filePath
-    public void manuallySave(String filePath) throws FileNotFoundException {
-        JsonWriter jsonWriter = new JsonWriter(filePath);
-        jsonWriter.open();
-        jsonWriter.write(this);
-        jsonWriter.close();
+    // MODIFIES: this
+    // EFFECTS: like autoSave, except that the calling thread only captures what the journal does not record about this
+    // file system (see AutoSaveState), which takes time proportional to how many objects were opened recently rather
+    // than to the size of the file system. On a background thread, the autosaved file system is then loaded, every
+    // journaled change up to this call is replayed onto it, the captured state is restored, and the compact JSON and
+    // the snapshot are streamed from it to disk, so the caller never waits on encoding the file system or on the disk.
+    // The journal cannot rebuild a file system it does not track yet (e.g. one just loaded from a manual save), so
+    // such a file system is encoded on the calling thread the first time, and only written in the background. Returns
+    // a future that completes once both files have been replaced (or completes exceptionally with the exception that
+    // stopped them from being replaced). Unlike autoSave, the journal is not emptied, since changes made after this
+    // call may already be in it (the entries this save makes redundant are skipped by autoLoad since it reads their
+    // sequence numbers). The full-text index of the notes is saved in the background too, after both files, if it
+    // has not been saved yet; failing to save it does not fail the future
+    public CompletableFuture<Void> autoSaveInBackground() {
+        long start = System.nanoTime();
+        try {
+            CompletableFuture<Void> saved = new CompletableFuture<Void>();
+            BackgroundSave save;
+            try {
+                save = journaledFileSystem == this && !fullAutoSaveFailed
+                        ? getAutoSaveFromJournal() : getAutoSaveOfEncoded();
+            } catch (IOException e) {
+                saved.completeExceptionally(e);
+                return saved;
+            }
+            Runnable noteIndexSave = getNoteIndexAutoSave();
+            backgroundSaves.execute(() -> runAutoSave(save, saved, noteIndexSave));
+            return saved;
+        } finally {
+            AUTO_SAVE_IN_BACKGROUND_METRICS.recordSince(start);
+        }
     }
 
-    // EFFECTS: loads a JSON representation of a file system
-    // throws IOException if there is a problem with the file
-    // throws InvalidJsonException if there was a problem making the file system the JSON represents
-    public static FileSystem autoLoad() throws IOException, InvalidJsonException {
-        FileSystem fileSystem = autoLoadJsonReader.read();
-        return fileSystem;
+    // EFFECTS: saves a jSON representation of this file system to filePath
+    // throws IOException if the file could not be written
+    public void manuallySave(String filePath) throws IOException {
+        long start = System.nanoTime();
+        try {
+            save(new JsonWriter(filePath));
+        } finally {
+            MANUALLY_SAVE_METRICS.recordSince(start);
+        }
     }
 
-    // EFFECTS: loads a JSON representation of a file system from filePath
-    // throws IOException if there is a problem with the file
-    // throws InvalidJsonException if there was a problem making the file system the JSON represents
-    public static FileSystem manuallyLoad(String filePath) throws IOException, InvalidJsonException {
-        JsonReader jsonReader = new JsonReader(filePath);
-        FileSystem fileSystem = jsonReader.read();
-        return fileSystem;
+    // EFFECTS: saves this file system to the directory at directoryPath as a sharded save: one file for each Folder in
+    // the root Folder (with everything in it), one for everything else, and a manifest of them (see ShardedWriter). If
+    // this file system was last saved to or loaded from the same directory, only the top-level Folders that have
+    // changed since are written again
+    // throws IOException if the directory or any of the files in it could not be written
+    public void saveShards(String directoryPath) throws IOException {
+        long start = System.nanoTime();
+        try {
+            new ShardedWriter(directoryPath).write(this);
+        } finally {
+            SAVE_SHARDS_METRICS.recordSince(start);
+        }
+    }
+
+    // EFFECTS: loads the file system saved as a sharded save in the directory at directoryPath. Each Folder in the root
+    // Folder is only loaded from its file once it is first needed (e.g. when it is opened)
+    // throws IOException if there is a problem with the manifest or the file that is not any top-level Folder's
+    // throws InvalidJsonException if there was a problem making the file system they represent
+    public static FileSystem loadShards(String directoryPath) throws IOException, InvalidJsonException {
+        long start = System.nanoTime();
+        try {
+            return new ShardedReader(directoryPath).read();
+        } finally {
+            LOAD_SHARDS_METRICS.recordSince(start);
+        }
+    }
+
+    // EFFECTS: loads the autosaved file system (see loadAutoSaveBase) and replays on top of it every change in the
+    // journal that it does not already reflect. The loaded file system becomes the one the journal tracks, as if it
+    // had just been autosaved. If there is a saved full-text index of the notes, it is memory-mapped so that searching
+    // the notes does not have to read them all again
+    // throws IOException if there is a problem with the JSON file or the journal
+    // throws InvalidJsonException if there was a problem making the file system the JSON represents
+    public static FileSystem autoLoad() throws IOException, InvalidJsonException {
+        long start = System.nanoTime();
+        try {
+            awaitBackgroundSaves();
+            boolean journalHasEntries = new java.io.File(COMPACTING_JOURNAL_FILE_PATH).exists()
+                    || new java.io.File(AUTOSAVE_JOURNAL_FILE_PATH).length() > 0;
+
+            FileSystem fileSystem = loadAutoSaveBase(journalHasEntries);
+            fileSystem.replayJournal(COMPACTING_JOURNAL_FILE_PATH, Long.MAX_VALUE);
+            fileSystem.replayJournal(AUTOSAVE_JOURNAL_FILE_PATH, Long.MAX_VALUE);
+            fileSystem.startJournaling();
+            fileSystem.autoLoadNoteIndex();
+            return fileSystem;
+        } finally {
+            AUTO_LOAD_METRICS.recordSince(start);
+        }
+    }
+
+    // EFFECTS: loads a JSON representation of a file system from filePath
+    // throws IOException if there is a problem with the file
+    // throws InvalidJsonException if there was a problem making the file system the JSON represents
+    public static FileSystem manuallyLoad(String filePath) throws IOException, InvalidJsonException {
+        long start = System.nanoTime();
+        try {
+            JsonReader jsonReader = new JsonReader(filePath);
+            FileSystem fileSystem = jsonReader.read();
+            return fileSystem;
+        } finally {
+            MANUALLY_LOAD_METRICS.recordSince(start);
+        }
     }
 
 
@@ -767,92 +1801,883 @@ public class FileSystem implements Writable {
      *  Helper Methods:
      */
 
-    // EFFECTS: returns Label with given name or null if not found
-    // throws NoSuchLabelFoundException if there are no Labels named labelName
-    private Label getLabel(String name) throws NoSuchLabelFoundException {
-        for (Label label : labels) {
-            if (label.isNamed(name)) {
-                return label;
+    // MODIFIES: MetricsRegistry.getInstance()
+    // EFFECTS: returns the metrics kept for the operation of FileSystem named operation
+    private static OperationMetrics metrics(String operation) {
+        return MetricsRegistry.getInstance().getOperation("FileSystem." + operation);
+    }
+
+    // EFFECTS: does nothing unless the Folder file is in already contains a File named newName
+    // throws NameIsTakenException if it does
+    private static void checkFileNameNotTakenInParent(File file, String newName) throws NameIsTakenException {
+        File sameName;
+        try {
+            sameName = file.getParentFolder().getSubfile(newName);
+        } catch (NoSuchFileFoundException e) {
+            return;
+        }
+        throw new NameIsTakenException(sameName.getName());
+    }
+
+    // EFFECTS: streams a JSON representation of this file system to the file jsonWriter writes to, leaving the file
+    // as it was if writing fails
+    // throws IOException if the file could not be written
+    private void save(JsonWriter jsonWriter) throws IOException {
+        jsonWriter.open();
+        try {
+            jsonWriter.write(this);
+        } catch (IOException e) {
+            jsonWriter.abort();
+            throw e;
+        }
+        jsonWriter.close();
+    }
+
+    // EFFECTS: writes a binary snapshot of this file system to the file snapshotWriter writes to, leaving the file as
+    // it was if writing fails
+    // throws IOException if the file could not be written
+    private void saveSnapshot(SnapshotWriter snapshotWriter) throws IOException {
+        snapshotWriter.open();
+        try {
+            snapshotWriter.write(this);
+        } catch (IOException e) {
+            snapshotWriter.abort();
+            throw e;
+        }
+        snapshotWriter.close();
+    }
+
+    // REQUIRES: this is the file system the journal tracks
+    // EFFECTS: returns what rebuilds this file system as it is now from the autosave and the journal, and writes it to
+    // AUTOSAVE_FILE_PATH and AUTOSAVE_SNAPSHOT_FILE_PATH (see autoSaveInBackground). What it returns fails without
+    // writing anything if writing this file system in full (see getAutoSaveOfEncoded) failed before it runs, since
+    // the autosave it would start from is then not this file system's, or if a journaled change could not be redone,
+    // since what it rebuilt is then not this file system (in which case the next one writes this file system in full)
+    private BackgroundSave getAutoSaveFromJournal() {
+        AutoSaveState state = captureAutoSaveState();
+        return () -> {
+            if (fullAutoSaveFailed) {
+                throw new IOException("The autosave could not be rebuilt since writing it in full failed");
+            }
+            FileSystem fileSystem = loadBackgroundCopy();
+            try {
+                if (!fileSystem.replayJournal(COMPACTING_JOURNAL_FILE_PATH, state.getJournalSequence())
+                        || !fileSystem.replayJournal(AUTOSAVE_JOURNAL_FILE_PATH, state.getJournalSequence())) {
+                    fullAutoSaveFailed = true;
+                    throw new IOException("The autosave could not be rebuilt since a change could not be redone");
+                }
+                fileSystem.restoreAutoSaveState(state);
+                fileSystem.save(fileSystem.autoSaveJsonWriter);
+                fileSystem.saveSnapshot(fileSystem.autoSaveSnapshotWriter);
+            } finally {
+                fileSystem.discard();
+            }
+        };
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes this the file system the journal tracks, encodes it as the compact JSON and the snapshot that
+    // autoSave writes, and returns what writes them to AUTOSAVE_FILE_PATH and AUTOSAVE_SNAPSHOT_FILE_PATH (recording
+    // whether that failed in fullAutoSaveFailed)
+    // throws IOException if the journal could not be opened or the file system could not be encoded
+    private BackgroundSave getAutoSaveOfEncoded() throws IOException {
+        journalSequence = Math.max(journalSequence, getLastJournalSequence());
+        startJournaling();
+        byte[] json = toCompactJsonBytes();
+        byte[] snapshot = toSnapshotBytes();
+        return () -> {
+            fullAutoSaveFailed = true;
+            AtomicFileWriter.write(AUTOSAVE_FILE_PATH, json);
+            AtomicFileWriter.write(AUTOSAVE_SNAPSHOT_FILE_PATH, snapshot);
+            fullAutoSaveFailed = false;
+        };
+    }
+
+    // MODIFIES: saved
+    // EFFECTS: runs save, then completes saved (exceptionally with the exception that stopped save, if there was one)
+    // and, only if save succeeded, runs noteIndexSave
+    private static void runAutoSave(BackgroundSave save, CompletableFuture<Void> saved, Runnable noteIndexSave) {
+        try {
+            save.run();
+        } catch (IOException | InvalidJsonException e) {
+            saved.completeExceptionally(e);
+            return;
+        }
+        saved.complete(null);
+        noteIndexSave.run();
+    }
+
+    // EFFECTS: returns what the journal does not record about this file system (see AutoSaveState)
+    private AutoSaveState captureAutoSaveState() {
+        List<String> currentFolderPath = null;
+        String currentLabelName = null;
+        if (!(currentFolder instanceof LabelView)) {
+            currentFolderPath = getFolderPathFromRoot(currentFolder);
+        } else if (((LabelView) currentFolder).isViewOfLabel()) {
+            currentLabelName = ((LabelView) currentFolder).getLabel().getName();
+        } else {
+            currentFolderPath = new ArrayList<String>();
+        }
+        return new AutoSaveState(journalSequence, currentFolderPath, currentLabelName,
+                captureRecents(recentlyOpenedFiles, file -> withName(getFolderPathFromRoot(file.getParentFolder()),
+                        file.getName())),
+                captureRecents(recentlyOpenedFolders, this::getFolderPathFromRoot),
+                captureRecents(recentlyOpenedLabels, label -> List.of(label.getName())));
+    }
+
+    // EFFECTS: returns a record of each entry in history, from most to least recent, with the path toPath gives its
+    // item (see AutoSaveState.Recent), leaving out any item toPath gives no path (null) because it is not part of this
+    // file system
+    private static <T> List<AutoSaveState.Recent> captureRecents(AccessHistory<T> history,
+            Function<T, List<String>> toPath) {
+        List<AutoSaveState.Recent> recents = new ArrayList<AutoSaveState.Recent>();
+        for (AccessHistory.Entry<T> entry : history.getEntries()) {
+            List<String> path = toPath.apply(entry.getItem());
+            if (path != null) {
+                recents.add(new AutoSaveState.Recent(path, entry.getOpenCount(), entry.getLastOpenedMillis()));
             }
         }
-        throw new NoSuchLabelFoundException();
+        return recents;
+    }
+
+    // EFFECTS: returns folderPath followed by name, or null if folderPath is null
+    private static List<String> withName(List<String> folderPath, String name) {
+        if (folderPath == null) {
+            return null;
+        }
+        List<String> path = new ArrayList<String>(folderPath);
+        path.add(name);
+        return path;
     }
 
-    // REQUIRES: recentlyOpenedFile.size() <= MAX_RECENTLY_OPENED_STORED
     // MODIFIES: this
-    // EFFECTS: if recentlyOpenedFiles contains file, removes it from its current position and puts it at the start
-    // Else If recentlyOpenedFiles contains fewer than MAX_RECENTLY_OPENED_STORED Strings, adds file.
-    // Else (if recentlyOpenedFiles contains MAX_RECENTLY_OPENED_STORED Strings) removes the last element and adds
-    // file to the front of the list.
-    private void addRecentlyOpenedFile(File file) {
-        if (!keepTrackOfRecents) {
+    // EFFECTS: records that this file system reflects every journaled change state does, opens the Folder or Label
+    // state records as open (or the root Folder if it is no longer part of this
+    // file system) and replaces the recently-opened Files, Folders, and Labels with the ones state records, leaving out
+    // any that are no longer part of this file system
+    private void restoreAutoSaveState(AutoSaveState state) {
+        journalSequence = Math.max(journalSequence, state.getJournalSequence());
+        try {
+            if (state.getCurrentLabelName() != null) {
+                restoreCurrentLabel(state.getCurrentLabelName());
+            } else {
+                restoreCurrentFolder(getFolderAtPath(state.getCurrentFolderPath()));
+            }
+        } catch (NoSuchLabelFoundException | NoSuchFolderFoundException e) {
+            restoreCurrentFolder(rootFolder);
+        }
+        recentlyOpenedFiles = new AccessHistory<File>(MAX_NUM_RECENTLY_OPENED_STORED);
+        recentlyOpenedFolders = new AccessHistory<Folder>(MAX_NUM_RECENTLY_OPENED_STORED);
+        recentlyOpenedLabels = new AccessHistory<Label>(MAX_NUM_RECENTLY_OPENED_STORED);
+        for (AutoSaveState.Recent recent : state.getRecentFiles()) {
+            List<String> path = recent.getPath();
+            try {
+                File file = getFolderAtPath(path.subList(0, path.size() - 1)).getSubfile(path.get(path.size() - 1));
+                restoreRecentlyOpenedFile(file, recent.getOpenCount(), recent.getLastOpenedMillis());
+            } catch (NoSuchFolderFoundException | NoSuchFileFoundException e) {
+                // the File was deleted, so it is no longer recently opened
+            }
+        }
+        restoreRecentFoldersAndLabels(state);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the recently-opened Folders and Labels state records to the (empty) lists of recently-opened
+    // Folders and Labels, leaving out any that are no longer part of this file system
+    private void restoreRecentFoldersAndLabels(AutoSaveState state) {
+        for (AutoSaveState.Recent recent : state.getRecentFolders()) {
+            try {
+                restoreRecentlyOpenedFolder(getFolderAtPath(recent.getPath()), recent.getOpenCount(),
+                        recent.getLastOpenedMillis());
+            } catch (NoSuchFolderFoundException e) {
+                // the Folder was deleted, so it is no longer recently opened
+            }
+        }
+        for (AutoSaveState.Recent recent : state.getRecentLabels()) {
+            try {
+                restoreRecentlyOpenedLabel(recent.getPath().get(0), recent.getOpenCount(),
+                        recent.getLastOpenedMillis());
+            } catch (NoSuchLabelFoundException e) {
+                // the Label was deleted, so it is no longer recently opened
+            }
+        }
+    }
+
+    // EFFECTS: returns the compact JSON representation of this file system that autoSave writes, encoded as UTF-8
+    private byte[] toCompactJsonBytes() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        JsonStreamWriter writer = new JsonStreamWriter(new OutputStreamWriter(bytes, StandardCharsets.UTF_8), 0);
+        writeJson(writer);
+        writer.flush();
+        return bytes.toByteArray();
+    }
+
+    // EFFECTS: returns the binary snapshot of this file system that autoSave writes
+    private byte[] toSnapshotBytes() throws IOException {
+        SnapshotWriter snapshotWriter = new SnapshotWriter();
+        snapshotWriter.open();
+        snapshotWriter.write(this);
+        snapshotWriter.close();
+        return snapshotWriter.toByteArray();
+    }
+
+    // EFFECTS: loads the autosaved file system: from the binary snapshot if it can be read and either it is at least
+    // as new as the JSON autosave or journalHasEntries (the journal's entries are numbered relative to the snapshot,
+    // so the snapshot is the one they can be replayed onto), otherwise from the JSON. The snapshot is read lazily, so
+    // each Folder's contents are only read from it once they are first needed
+    // throws IOException if there is a problem with the JSON file
+    // throws InvalidJsonException if there was a problem making the file system the JSON represents
+    private static FileSystem loadAutoSaveBase(boolean journalHasEntries) throws IOException, InvalidJsonException {
+        java.io.File snapshotFile = new java.io.File(AUTOSAVE_SNAPSHOT_FILE_PATH);
+        if (snapshotFile.exists() && (journalHasEntries
+                || snapshotFile.lastModified() >= new java.io.File(AUTOSAVE_FILE_PATH).lastModified())) {
+            try {
+                return autoLoadSnapshotReader.readLazily();
+            } catch (IOException | InvalidSnapshotException e) {
+                // fall back to the JSON autosave below
+            }
+        }
+        return autoLoadJsonReader.read();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: saves the full-text index of the notes through the pointer at AUTOSAVE_INDEX_FILE_PATH (see
+    // NoteIndexPointer) if there is one that has changed since it was last saved there. If it cannot be saved, it is
+    // tried again by the next autoSave
+    private void autoSaveNoteIndex() {
+        collectNoteIndexAutoSave();
+        try {
+            if (noteIndexer != null && noteIndexer.getVersion() != noteIndexVersionAutoSaved) {
+                noteIndexVersionAutoSaved = noteIndexer.read(
+                        index -> new NoteIndexPointer(AUTOSAVE_INDEX_FILE_PATH).write(index));
+            } else if (noteIndexer == null && loadedNoteIndex != null && noteIndexVersionAutoSaved < 0) {
+                new NoteIndexPointer(AUTOSAVE_INDEX_FILE_PATH).write(loadedNoteIndex);
+                noteIndexVersionAutoSaved = 0;
+            }
+        } catch (IOException e) {
+            // the index can always be built again from the notes
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns what saves the full-text index of the notes to AUTOSAVE_INDEX_FILE_PATH on a background thread
+    // (or does nothing, if it has not changed since it was last saved there). The index is only recorded as saved
+    // there once that succeeds, the next time this file system autosaves (see collectNoteIndexAutoSave)
+    private Runnable getNoteIndexAutoSave() {
+        collectNoteIndexAutoSave();
+        NoteIndexer indexer = noteIndexer;
+        TextIndex index = loadedNoteIndex;
+        boolean changed = indexer != null ? indexer.getVersion() != noteIndexVersionAutoSaved
+                : index != null && noteIndexVersionAutoSaved < 0;
+        if (!changed) {
+            return () -> { };
+        }
+        CompletableFuture<Long> saved = new CompletableFuture<Long>();
+        noteIndexAutoSave = saved;
+        return () -> {
+            try {
+                if (indexer != null) {
+                    saved.complete(indexer.read(
+                            currentIndex -> new NoteIndexPointer(AUTOSAVE_INDEX_FILE_PATH).write(currentIndex)));
+                } else {
+                    new NoteIndexPointer(AUTOSAVE_INDEX_FILE_PATH).write(index);
+                    saved.complete(0L);
+                }
+            } catch (IOException e) {
+                saved.completeExceptionally(e); // tried again by the next autosave
+            }
+        };
+    }
+
+    // MODIFIES: this
+    // EFFECTS: if the last background save of the index (see getNoteIndexAutoSave) has succeeded, records the version
+    // it saved as the one saved to AUTOSAVE_INDEX_FILE_PATH. A save that failed, or has not finished, is forgotten, so
+    // the index is saved again
+    private void collectNoteIndexAutoSave() {
+        CompletableFuture<Long> saved = noteIndexAutoSave;
+        noteIndexAutoSave = null;
+        if (saved != null && saved.isDone() && !saved.isCompletedExceptionally()) {
+            noteIndexVersionAutoSaved = saved.join();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: memory-maps the index saved at AUTOSAVE_INDEX_FILE_PATH, if there is one, to be searched once the notes
+    // are first searched
+    private void autoLoadNoteIndex() {
+        if (!new java.io.File(AUTOSAVE_INDEX_FILE_PATH).exists()) {
             return;
         }
+        try {
+            loadedNoteIndex = new NoteIndexPointer(AUTOSAVE_INDEX_FILE_PATH).open();
+            noteIndexVersionAutoSaved = 0;
+            noteIndexAutoSave = null;
+        } catch (IOException | InvalidNoteIndexException e) {
+            // the notes are indexed again when they are first searched
+        }
+    }
 
-        if (recentlyOpenedFiles.contains(file)) {
-            recentlyOpenedFiles.remove(file);
-        } else {
-            int size = recentlyOpenedFiles.size();
-            int indexOfLast = size - 1;
-    
-            if (size == MAX_NUM_RECENTLY_OPENED_STORED) {
-                recentlyOpenedFiles.remove(indexOfLast);
+    // MODIFIES: this
+    // EFFECTS: makes this the file system the journal tracks, opening the journal if it is not already open
+    // throws IOException if the journal could not be opened
+    private void startJournaling() throws IOException {
+        if (journaledFileSystem == null) {
+            autoSaveJournalWriter.open();
+        }
+        journaledFileSystem = this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: if this is the file system the journal tracks and folder is part of it (i.e. not a LabelView), appends
+    // a change of the given type made in folder to the journal, then starts compacting the journal if it has grown
+    // past JOURNAL_COMPACTION_THRESHOLD_BYTES. If the journal cannot be written to, stops journaling and logs an event
+    // saying so (the change will still be saved by the next autoSave)
+    private void journal(int type, Folder folder, String... arguments) {
+        if (journaledFileSystem != this) {
+            return;
+        }
+        List<String> folderPath = getFolderPathFromRoot(folder);
+        if (folderPath == null) {
+            return;
+        }
+
+        journalSequence++;
+        try {
+            autoSaveJournalWriter.append(new JournalEntry(journalSequence, type, folderPath, List.of(arguments)));
+            if (autoSaveJournalWriter.size() > JOURNAL_COMPACTION_THRESHOLD_BYTES) {
+                startJournalCompaction();
+            }
+        } catch (IOException e) {
+            journaledFileSystem = null;
+            try {
+                autoSaveJournalWriter.close();
+            } catch (IOException e2) {
+                // the journal is already unusable, and the next autoSave reopens it
             }
+            logEvent(new Event(Event.Operation.JOURNAL_FAILED));
         }
-        recentlyOpenedFiles.add(0, file);
     }
 
-    // REQUIRES: recentlyOpenedFolder.size() <= MAX_RECENTLY_OPENED_STORED
     // MODIFIES: this
-    // EFFECTS: if recentlyOpenedFolders contains folder, removes it from its current position and puts it at the start
-    // Else if recentlyOpenedFolders contains fewer than MAX_RECENTLY_OPENED_STORED Strings, adds folder.
-    // Else (if recentlyOpenedFolders contains MAX_RECENTLY_OPENED_STORED Strings) removes the last element and adds
-    // folder to the front of the list.
-    private void addRecentlyOpenedFolder(Folder folder) {
-        if (!keepTrackOfRecents) {
+    // EFFECTS: unless the entries moved aside by the last compaction are still there (because it is still running or
+    // it failed), moves the journal's entries aside and queues folding them into AUTOSAVE_SNAPSHOT_FILE_PATH in the
+    // background (see compactJournal) while new entries go to a fresh journal
+    // throws IOException if the journal could not be moved aside or reopened
+    void startJournalCompaction() throws IOException {
+        Path compactingJournal = Paths.get(COMPACTING_JOURNAL_FILE_PATH);
+        if (Files.exists(compactingJournal)) {
             return;
         }
 
-        if (recentlyOpenedFolders.contains(folder)) {
-            recentlyOpenedFolders.remove(folder);
-        } else {
-            int size = recentlyOpenedFolders.size();
-            
-            if (size == MAX_NUM_RECENTLY_OPENED_STORED) {
-                int indexOfLast = size - 1;
-                recentlyOpenedFolders.remove(indexOfLast);
+        autoSaveJournalWriter.close();
+        Files.move(Paths.get(AUTOSAVE_JOURNAL_FILE_PATH), compactingJournal, StandardCopyOption.ATOMIC_MOVE);
+        autoSaveJournalWriter.open();
+
+        backgroundSaves.execute(FileSystem::compactJournal);
+    }
+
+    // EFFECTS: loads the autosaved file system into a new FileSystem (never the one the user is working with), replays
+    // the entries moved aside by startJournalCompaction onto it, replaces AUTOSAVE_SNAPSHOT_FILE_PATH with it, and
+    // deletes the entries moved aside. If any step fails (including redoing any of the entries), the entries moved
+    // aside are kept so that autoLoad still replays them. Runs on the same background thread as
+    // autoSaveInBackground's writes, so it always starts from the snapshot they wrote
+    private static void compactJournal() {
+        FileSystem fileSystem = null;
+        try {
+            fileSystem = loadBackgroundCopy();
+            if (fileSystem.replayJournal(COMPACTING_JOURNAL_FILE_PATH, Long.MAX_VALUE)) {
+                fileSystem.saveSnapshot(new SnapshotWriter(AUTOSAVE_SNAPSHOT_FILE_PATH));
+                Files.delete(Paths.get(COMPACTING_JOURNAL_FILE_PATH));
+            }
+        } catch (IOException | InvalidJsonException e) {
+            // keep the entries moved aside for autoLoad to replay
+        } finally {
+            if (fileSystem != null) {
+                fileSystem.discard();
             }
         }
-        recentlyOpenedFolders.add(0, folder);
     }
 
-    // REQUIRES: recentlyOpenedLabel.size() <= MAX_RECENTLY_OPENED_STORED
+    // EFFECTS: loads the autosaved file system (see loadAutoSaveBase) as a copy to be rebuilt on a background thread
+    // and then discarded (see discard)
+    // throws IOException if there is a problem with the JSON file
+    // throws InvalidJsonException if there was a problem making the file system the JSON represents
+    private static FileSystem loadBackgroundCopy() throws IOException, InvalidJsonException {
+        FileSystem fileSystem = loadAutoSaveBase(true);
+        fileSystem.removedFileIds = new FileIdBitmap();
+        return fileSystem;
+    }
+
+    // REQUIRES: this is a copy loaded by loadBackgroundCopy, and neither it nor any of its Files is used again
+    // EFFECTS: frees the ids of every File that has been part of this copy to be given to Files constructed later, so
+    // that rebuilding the file system for every background save does not use up ids
+    private void discard() {
+        File.releaseIds(fileIds.or(removedFileIds));
+    }
+
+    // EFFECTS: waits for every write queued by autoSaveInBackground and every journal compaction queued by
+    // startJournalCompaction to finish
+    static void awaitBackgroundSaves() {
+        try {
+            backgroundSaves.submit(() -> { }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // an empty task cannot fail
+        }
+    }
+
+    // EFFECTS: returns the highest sequence number of any change journaled so far, by any file system (including
+    // ones from before the program was last started that are still in the journal)
+    // throws IOException if the journal could not be read
+    private static long getLastJournalSequence() throws IOException {
+        long lastJournalSequence = journaledFileSystem == null ? 0 : journaledFileSystem.journalSequence;
+        for (String filePath : List.of(COMPACTING_JOURNAL_FILE_PATH, AUTOSAVE_JOURNAL_FILE_PATH)) {
+            for (JournalEntry entry : new JournalReader(filePath).read()) {
+                lastJournalSequence = Math.max(lastJournalSequence, entry.getSequence());
+            }
+        }
+        return lastJournalSequence;
+    }
+
     // MODIFIES: this
-    // EFFECTS: if recentlyOpenedLabels contains label, removes it from its current position and puts it at the start
-    // Else if recentlyOpenedLabels contains fewer than MAX_RECENTLY_OPENED_STORED Strings, adds label.
-    // Else (if recentlyOpenedFolders contains MAX_RECENTLY_OPENED_STORED Strings) removes the last element and adds
-    // label to the front of the list.
-    private void addRecentlyOpenedLabel(Label label) {
-        if (!keepTrackOfRecents) {
+    // EFFECTS: makes every change in the journal at filePath that this file system does not already reflect (i.e.
+    // whose sequence number is greater than journalSequence) up to and including the one with sequence number
+    // lastSequence, in order, and returns true if every one of them could be made (see applyJournalEntry). If that
+    // leaves currentFolder outside the file system (because it was deleted), opens the root Folder instead
+    // throws IOException if the journal could not be read
+    private boolean replayJournal(String filePath, long lastSequence) throws IOException {
+        boolean replayedAll = true;
+        for (JournalEntry entry : new JournalReader(filePath).read()) {
+            if (entry.getSequence() > journalSequence && entry.getSequence() <= lastSequence) {
+                replayedAll &= applyJournalEntry(entry);
+                journalSequence = entry.getSequence();
+            }
+        }
+        if (!(currentFolder instanceof LabelView) && getFolderPathFromRoot(currentFolder) == null) {
+            currentFolder = rootFolder;
+        }
+        return replayedAll;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes the change entry records, without logging an event or journaling it again, and returns true.
+    // Does nothing and returns false if the change no longer applies (e.g. it is in a Folder that does not exist, or
+    // it would give a File, Folder, or Label the name of another one)
+    private boolean applyJournalEntry(JournalEntry entry) {
+        try {
+            Folder folder = getFolderAtPath(entry.getFolderPath());
+            if (!applyFileOrFolderJournalEntry(entry, folder)) {
+                applyLabelJournalEntry(entry, folder);
+            }
+            return true;
+        } catch (NoSuchFolderFoundException | NoSuchFileFoundException | NoSuchLabelFoundException
+                | NameIsTakenException | NameIsBlankException e) {
+            return false;
+        }
+    }
+
+    // MODIFIES: this, folder
+    // EFFECTS: if entry records the creation, deletion, or renaming of a File or Folder in folder, makes that change
+    // and returns true, otherwise returns false
+    // throws NoSuchFileFoundException if the File entry refers to is not in folder
+    // throws NoSuchFolderFoundException if the Folder entry refers to is not in folder
+    // throws NameIsTakenException if entry creates or renames a File or Folder to the name of one already in folder
+    private boolean applyFileOrFolderJournalEntry(JournalEntry entry, Folder folder)
+            throws NoSuchFileFoundException, NoSuchFolderFoundException, NameIsTakenException {
+        switch (entry.getType()) {
+            case JournalEntry.CREATE_FILE:
+                loadFile(folder, entry.getArgument(0), entry.getArgument(1));
+                return true;
+            case JournalEntry.DELETE_FILE:
+                removeFile(folder, folder.getSubfile(entry.getArgument(0)));
+                return true;
+            case JournalEntry.RENAME_FILE:
+                renameSubfile(folder, entry.getArgument(0), entry.getArgument(1));
+                return true;
+            case JournalEntry.CREATE_FOLDER:
+                addToNameIndex(folder.makeSubfolder(entry.getArgument(0)));
+                return true;
+            case JournalEntry.DELETE_FOLDER:
+                removeFolder(folder, folder.getSubfolder(entry.getArgument(0)));
+                return true;
+            case JournalEntry.RENAME_FOLDER:
+                renameSubfolder(folder, entry.getArgument(0), entry.getArgument(1));
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes the change to a Label that entry records (made in folder, for changes to a File's Labels)
+    // throws NoSuchFileFoundException if the File entry refers to is not in folder
+    // throws NoSuchLabelFoundException if the Label entry refers to does not exist
+    // throws NameIsTakenException if entry creates or renames a Label to the name of one that already exists
+    private void applyLabelJournalEntry(JournalEntry entry, Folder folder)
+            throws NoSuchFileFoundException, NoSuchLabelFoundException, NameIsTakenException {
+        switch (entry.getType()) {
+            case JournalEntry.CREATE_LABEL:
+                loadLabel(entry.getArgument(0));
+                break;
+            case JournalEntry.DELETE_LABEL:
+                removeLabel(getLabel(entry.getArgument(0)));
+                break;
+            case JournalEntry.RENAME_LABEL:
+                renameLabelUnlessTaken(getLabel(entry.getArgument(0)), entry.getArgument(1));
+                break;
+            case JournalEntry.LABEL_FILE:
+                getLabel(entry.getArgument(1)).labelFile(folder.getSubfile(entry.getArgument(0)));
+                break;
+            case JournalEntry.UNLABEL_FILE:
+                getLabel(entry.getArgument(1)).unlabelFile(folder.getSubfile(entry.getArgument(0)));
+                break;
+            case JournalEntry.REMOVE_ALL_LABELS:
+                unlabelAll(folder.getSubfile(entry.getArgument(0)));
+                break;
+            default:
+                // an entry from a newer version of the journal, so there is nothing this version can redo
+        }
+    }
+
+    // MODIFIES: this, folder
+    // EFFECTS: unlabels file, removes it from folder, and records that it is no longer part of this file system
+    private void removeFile(Folder folder, File file) {
+        unlabelAll(file);
+        folder.removeSubfile(file);
+        unregisterFile(file);
+    }
+
+    // MODIFIES: this, folder
+    // EFFECTS: renames the File named fileName in folder to newName
+    // throws NoSuchFileFoundException if there is no File named fileName in folder
+    // throws NameIsTakenException if a different File in folder is already named newName
+    private void renameSubfile(Folder folder, String fileName, String newName)
+            throws NoSuchFileFoundException, NameIsTakenException {
+        renameInFolder(folder.getSubfile(fileName), newName,
+                folder.hasSubfile(newName) ? folder.getSubfile(newName) : null);
+    }
+
+    // MODIFIES: this, folder
+    // EFFECTS: renames the Folder named folderName in folder to newName
+    // throws NoSuchFolderFoundException if there is no Folder named folderName in folder
+    // throws NameIsTakenException if a different Folder in folder is already named newName
+    private void renameSubfolder(Folder folder, String folderName, String newName)
+            throws NoSuchFolderFoundException, NameIsTakenException {
+        renameInFolder(folder.getSubfolder(folderName), newName,
+                folder.hasSubfolder(newName) ? folder.getSubfolder(newName) : null);
+    }
+
+    // MODIFIES: this, label
+    // EFFECTS: renames label to newName, unless a different Label is already named newName
+    // throws NameIsTakenException if a different Label is already named newName
+    private void renameLabelUnlessTaken(Label label, String newName) throws NameIsTakenException {
+        if (labelExists(newName) && labels.get(NamedObject.toNameKey(newName)) != label) {
+            throw new NameIsTakenException(getCapitalizationOfLabel(newName));
+        }
+        renameLabel(label, newName);
+    }
+
+    // MODIFIES: namedObject
+    // EFFECTS: renames namedObject to newName, unless objectNamedNewName (the File or Folder in the same Folder that
+    // is already named newName, or null if there is none) is a different object
+    // throws NameIsTakenException if objectNamedNewName is a different object
+    private void renameInFolder(NamedObject namedObject, String newName, NamedObject objectNamedNewName)
+            throws NameIsTakenException {
+        if (objectNamedNewName != null && objectNamedNewName != namedObject) {
+            throw new NameIsTakenException(objectNamedNewName.getName());
+        }
+        String previousNameKey = namedObject.getNameKey();
+        namedObject.setName(newName);
+        renameInNameIndex(namedObject, previousNameKey);
+    }
+
+    // EFFECTS: returns the names of the Folders leading from the root Folder (exclusive) to folder (inclusive), or
+    // null if folder is not part of this file system (e.g. it is a LabelView or it has been deleted)
+    private List<String> getFolderPathFromRoot(Folder folder) {
+        LinkedList<String> folderPath = new LinkedList<String>();
+        Folder ancestor = folder;
+        while (ancestor != rootFolder) {
+            folderPath.addFirst(ancestor.getName());
+            try {
+                ancestor = ancestor.getParentFolder();
+            } catch (NoSuchFolderFoundException e) {
+                return null;
+            }
+        }
+        return folderPath;
+    }
+
+    // EFFECTS: returns the Folder reached by following folderPath (a list of Folder names) down from the root Folder
+    // throws NoSuchFolderFoundException if there is no such Folder
+    private Folder getFolderAtPath(List<String> folderPath) throws NoSuchFolderFoundException {
+        Folder folder = rootFolder;
+        for (String folderName : folderPath) {
+            folder = folder.getSubfolder(folderName);
+        }
+        return folder;
+    }
+
+    // MODIFIES: this, parentFolder
+    // EFFECTS: removes folder from parentFolder, forgetting that it or anything within it was opened
+    private void removeFolder(Folder parentFolder, Folder folder) throws NoSuchFolderFoundException {
+        recentlyOpenedFolders.remove(folder);
+        parentFolder.removeSubfolder(folder.getName());
+        removeFromNameIndex(folder);
+        unregisterFilesWithin(folder);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: unlabels every File labelled label, forgets that it was opened, and removes it from the file system
+    private void removeLabel(Label label) {
+        loadAllFolders();
+        label.unlabelAllFiles();
+        recentlyOpenedLabels.remove(label);
+        labels.remove(label.getNameKey());
+        removeFromNameIndex(label);
+    }
+
+    // MODIFIES: this, label
+    // EFFECTS: sets the name of label to newName and re-indexes it under its new name
+    private void renameLabel(Label label, String newName) {
+        loadAllFolders();
+        String previousNameKey = label.getNameKey();
+        label.setName(newName);
+        labels.remove(previousNameKey);
+        labels.put(label.getNameKey(), label);
+        renameInNameIndex(label, previousNameKey);
+    }
+
+    // MODIFIES: file
+    // EFFECTS: removes every Label from file
+    private void unlabelAll(File file) {
+        for (Label label : labels.values()) {
+            if (file.isLabelled(label)) {
+                label.unlabelFile(file);
+            }
+        }
+    }
+
+    // EFFECTS: returns Label with given name (ignoring case)
+    // throws NoSuchLabelFoundException if there are no Labels named labelName
+    private Label getLabel(String name) throws NoSuchLabelFoundException {
+        Label label = labels.get(NamedObject.toNameKey(name));
+        if (label == null) {
+            throw new NoSuchLabelFoundException();
+        }
+        return label;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the indexer of the notes the Files point to, indexing them first if there is no index yet (see
+    // indexNotes). If an index was loaded, it is searched from now on and brought up to date in the background
+    private NoteIndexer getNoteIndexer() {
+        if (noteIndexer == null && loadedNoteIndex == null) {
+            indexNotes();
+        } else if (noteIndexer == null) {
+            loadAllFolders();
+            noteIndexer = new NoteIndexer(loadedNoteIndex, getNotePaths(), NoteIndexer.DEFAULT_MAX_BYTES_PER_SECOND);
+            loadedNoteIndex = null;
+            noteIndexer.update();
+        }
+        return noteIndexer;
+    }
+
+    // EFFECTS: returns the path of the note each File points to (a path once for every File that points to it)
+    private List<String> getNotePaths() {
+        List<String> notePaths = new ArrayList<String>();
+        for (File file : filesById.values()) {
+            notePaths.add(file.getFilePath());
+        }
+        return notePaths;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: loads every Folder whose contents have not been loaded yet (see loadShards and autoLoad), since Labels
+    // only know about the Files that have been loaded. Does nothing if every Folder has already been loaded
+    private void loadAllFolders() {
+        if (!hasUnloadedFolders) {
             return;
         }
-        
-        if (recentlyOpenedLabels.contains(label)) {
-            recentlyOpenedLabels.remove(label);
-        } else {
-            int size = recentlyOpenedLabels.size();
-            int indexOfLast = size - 1;
+        LinkedList<Folder> foldersToLoad = new LinkedList<Folder>();
+        foldersToLoad.add(rootFolder);
+        while (!foldersToLoad.isEmpty()) {
+            foldersToLoad.addAll(foldersToLoad.removeFirst().getSubfolders());
+        }
+        hasUnloadedFolders = false;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records file as part of this file system so it can be found by its id
+    private void registerFile(File file) {
+        filesById.put(file.getId(), file);
+        fileIds.add(file.getId());
+        addToNameIndex(file);
+        addNotePath(file, file.getFilePath());
+        file.setPathListener(this::filePathChanged);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that file is no longer part of this file system (and forgets that it was opened)
+    private void unregisterFile(File file) {
+        recentlyOpenedFiles.remove(file);
+        filesById.remove(file.getId());
+        fileIds.remove(file.getId());
+        if (removedFileIds != null) {
+            removedFileIds.add(file.getId());
+        }
+        removeFromNameIndex(file);
+        removeNotePath(file, file.getFilePath());
+        file.setPathListener(null);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that file, part of this file system, now points to a note at a different path than
+    // previousFilePath
+    private void filePathChanged(File file, String previousFilePath) {
+        removeNotePath(file, previousFilePath);
+        addNotePath(file, file.getFilePath());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that file points to the note at notePath, and tells noteIndexer (if there is one)
+    private void addNotePath(File file, String notePath) {
+        filesByNotePath.computeIfAbsent(notePath, path -> new ArrayList<File>()).add(file);
+        if (noteIndexer != null) {
+            noteIndexer.noteAdded(notePath);
+        }
+    }
 
-            if (size == MAX_NUM_RECENTLY_OPENED_STORED) {
-                recentlyOpenedLabels.remove(indexOfLast);
+    // MODIFIES: this
+    // EFFECTS: records that file no longer points to the note at notePath, and tells noteIndexer (if there is one)
+    private void removeNotePath(File file, String notePath) {
+        List<File> files = filesByNotePath.get(notePath);
+        if (files == null || !files.remove(file)) {
+            return;
+        }
+        if (files.isEmpty()) {
+            filesByNotePath.remove(notePath);
+        }
+        if (noteIndexer != null) {
+            noteIndexer.noteRemoved(notePath);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that every File within folder (including within its subfolders) is no longer part of this file
+    // system, and forgets that any of those Files or subfolders were opened
+    private void unregisterFilesWithin(Folder folder) {
+        for (File file : folder.getSubfiles()) {
+            unregisterFile(file);
+        }
+        for (Folder subfolder : folder.getSubfolders()) {
+            recentlyOpenedFolders.remove(subfolder);
+            removeFromNameIndex(subfolder);
+            unregisterFilesWithin(subfolder);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds namedObject (a File, Folder, or Label) to nameIndex, if it has been built
+    private void addToNameIndex(NamedObject namedObject) {
+        if (nameIndex != null) {
+            nameIndex.added(namedObject);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes namedObject (a File, Folder, or Label) from nameIndex, if it has been built
+    private void removeFromNameIndex(NamedObject namedObject) {
+        if (nameIndex != null) {
+            nameIndex.removed(namedObject);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: re-indexes namedObject (a File, Folder, or Label) in nameIndex, if it has been built, after it was
+    // renamed from a name with name key previousNameKey
+    private void renameInNameIndex(NamedObject namedObject, String previousNameKey) {
+        if (nameIndex != null) {
+            nameIndex.renamed(namedObject, previousNameKey);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the index of the names of every File, Folder, and Label, building it first if there is none
+    private NameIndex getNameIndex() {
+        if (nameIndex == null) {
+            loadAllFolders();
+            nameIndex = new NameIndex(rootFolder, labels.values());
+        }
+        return nameIndex;
+    }
+
+    // MODIFIES: files
+    // EFFECTS: adds every File within folder (including within its subfolders) to files
+    private static void addFilesWithin(Folder folder, List<File> files) {
+        files.addAll(folder.getSubfiles());
+        for (Folder subfolder : folder.getSubfolders()) {
+            addFilesWithin(subfolder, files);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that file was just opened in recentlyOpenedFiles if recents are being kept track of
+    private void addRecentlyOpenedFile(File file) {
+        if (keepTrackOfRecents) {
+            recentlyOpenedFiles.recordOpen(file);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that folder was just opened in recentlyOpenedFolders if recents are being kept track of
+    private void addRecentlyOpenedFolder(Folder folder) {
+        if (keepTrackOfRecents) {
+            recentlyOpenedFolders.recordOpen(folder);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that label was just opened in recentlyOpenedLabels if recents are being kept track of
+    private void addRecentlyOpenedLabel(Label label) {
+        if (keepTrackOfRecents) {
+            recentlyOpenedLabels.recordOpen(label);
+        }
+    }
+
+    // EFFECTS: returns the item named name (ignoring case) among the MAX_NUM_RECENTLY_OPENED_SHOWN most recently
+    // opened items in history, or failing that among the MAX_NUM_RECENTLY_OPENED_SHOWN items with the highest
+    // frecency. Returns null if neither contains an item named name
+    private static <T extends NamedObject> T findShownInHistory(AccessHistory<T> history, String name) {
+        for (T item : history.getMostRecent(MAX_NUM_RECENTLY_OPENED_SHOWN)) {
+            if (item.isNamed(name)) {
+                return item;
+            }
+        }
+        for (T item : history.getMostFrecent(MAX_NUM_RECENTLY_OPENED_SHOWN)) {
+            if (item.isNamed(name)) {
+                return item;
             }
         }
-        recentlyOpenedLabels.add(0, label);
+        return null;
+    }
+
+    // EFFECTS: returns a list of the names of namedObjects, in the same order
+    private static List<String> getNames(List<? extends NamedObject> namedObjects) {
+        List<String> names = new ArrayList<String>(namedObjects.size());
+        for (NamedObject namedObject : namedObjects) {
+            names.add(namedObject.getName());
+        }
+        return names;
     }
 
     // MODIFIES: EventLog.getInstance()
-    // EFFECTS: adds new event to the event log with passed description
-    private void logEvent(String description) {
-        EventLog.getInstance().logEvent(new Event(description));
+    // EFFECTS: adds event to the event log, and tells changeListener (if there is one) that this file system has
+    // changed
+    private void logEvent(Event event) {
+        EventLog.getInstance().logEvent(event);
+        if (changeListener != null) {
+            changeListener.run();
+        }
     }
 }
@@ -1,24 +1,52 @@
 package model;
 
 import java.util.Set;
+import java.io.IOException;
+import java.io.StringWriter;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 
+import model.exceptions.FolderNotLoadedRuntimeException;
 import model.exceptions.NoSuchFileFoundException;
 import model.exceptions.NoSuchFolderFoundException;
 import model.exceptions.NameIsTakenException;
+import model.exceptions.RequiresClauseNotMetRuntimeException;
+import model.jfr.FolderLookupEvent;
+import persistence.JsonStreamWriter;
+import persistence.exceptions.InvalidJsonException;
 
 // Represents a folder with a name that holds files as well as other folders
-// and has a parent folder unless it is the root folder
+// and has a parent folder unless it is the root folder.
+// When saved compactly, the JSON of a folder's own fields (its name and subfiles, but not its subfolders) is cached
+// until one of them changes, so that saving again only re-encodes the folders that changed since the last save.
+// A folder's contents can also be left unloaded until they are first needed (see setContentsLoader)
 public class Folder extends NamedObject {
     public static final char FOLDER_SEPERATOR = '\\';
 
     private Set<Folder> subfolders;
     private Set<File> subfiles;
+    private Map<String, Folder> subfoldersByNameKey;
+    private Map<String, File> subfilesByNameKey;
     private Folder parentFolder;
+    private String encodedFields;
+    private long changeCount;
+    private ContentsLoader contentsLoader;
+
+    // Represents something that can fill in a Folder's subfiles and subfolders the first time they are needed
+    public interface ContentsLoader {
+        // MODIFIES: folder
+        // EFFECTS: adds the subfiles and subfolders that folder was saved with to folder
+        // throws IOException if there is a problem with where they were saved
+        // throws InvalidJsonException if what they were saved as is not valid
+        void loadContents(Folder folder) throws IOException, InvalidJsonException;
+    }
 
     // REQUIRES: name.isBlank() is false
     // EFFECTS: constructs a new root folder named name with empty lists of subfiles and subfolders
@@ -28,7 +56,12 @@ public class Folder extends NamedObject {
         super(name);
         subfolders = new HashSet<>();
         subfiles = new HashSet<>();
+        subfoldersByNameKey = new HashMap<>();
+        subfilesByNameKey = new HashMap<>();
         parentFolder = null;
+        encodedFields = null;
+        changeCount = 0;
+        contentsLoader = null;
     }
 
     // EFFECTS: returns a string representing the path of this file in the file system it is part of
@@ -48,14 +81,26 @@ public class Folder extends NamedObject {
 
     // EFFECTS: returns a reference to the set of folders within this folder
     public Set<Folder> getSubfolders() {
+        loadContentsIfNeeded();
         return subfolders;
     }
 
     // EFFECTS: returns a reference to the set of files within this folder
     public Set<File> getSubfiles() {
+        loadContentsIfNeeded();
         return subfiles;
     }
 
+    // EFFECTS: returns a list of the names of the files within this folder
+    public List<String> getNamesOfSubfiles() {
+        loadContentsIfNeeded();
+        List<String> namesOfSubfiles = new ArrayList<String>();
+        for (File file : subfiles) {
+            namesOfSubfiles.add(file.getName());
+        }
+        return namesOfSubfiles;
+    }
+
     // EFFECTS: returns this folder's parent folder
     // throws NoSuchFolderFoundException if this folder does not have a parent folder
     public Folder getParentFolder() throws NoSuchFolderFoundException {
@@ -68,30 +113,36 @@ public class Folder extends NamedObject {
     // EFFECTS: if this folder contains a folder named name (ignoring case) returns it,
     // otherwise throws NoSuchFolderFoundException
     public Folder getSubfolder(String name) throws NoSuchFolderFoundException {
-        for (Folder folder : subfolders) {
-            if (folder.isNamed(name)) {
-                return folder;
-            }
+        FolderLookupEvent lookup = new FolderLookupEvent();
+        lookup.begin();
+        loadContentsIfNeeded();
+        Folder folder = subfoldersByNameKey.get(toNameKey(name));
+        lookup.commit(this, name, true, subfoldersByNameKey.size(), folder != null);
+        if (folder == null) {
+            throw new NoSuchFolderFoundException();
         }
-        throw new NoSuchFolderFoundException();
+        return folder;
     }
 
     // EFFECTS: returns file with given name
     // throws NoSuchFileExistsException if this folder does not contain a file named fileName (ignoring case)
     public File getSubfile(String name) throws NoSuchFileFoundException {
-        for (File file : subfiles) {
-            if (file.isNamed(name)) {
-                return file;
-            }
+        FolderLookupEvent lookup = new FolderLookupEvent();
+        lookup.begin();
+        loadContentsIfNeeded();
+        File file = subfilesByNameKey.get(toNameKey(name));
+        lookup.commit(this, name, false, subfilesByNameKey.size(), file != null);
+        if (file == null) {
+            throw new NoSuchFileFoundException();
         }
-        throw new NoSuchFileFoundException();
+        return file;
     }
 
     // MODIFIES: this
-    // EFFECTS: creates a new folder that is a subfolder of this folder, named name
+    // EFFECTS: creates a new folder that is a subfolder of this folder, named name, and returns it
     // throws NameIsTakenException if this already contains a subfolder named name
     // throws NameIsBlankException if name is blank
-    public void makeSubfolder(String name) throws NameIsTakenException {
+    public Folder makeSubfolder(String name) throws NameIsTakenException {
         try {
             Folder folderNamedName = getSubfolder(name);
             throw new NameIsTakenException(folderNamedName.getName());
@@ -102,6 +153,23 @@ public class Folder extends NamedObject {
         Folder newFolder = new Folder(name);
         newFolder.parentFolder = this;
         subfolders.add(newFolder);
+        subfoldersByNameKey.put(newFolder.getNameKey(), newFolder);
+        changed();
+        return newFolder;
+    }
+
+    // MODIFIES: this, folder
+    // EFFECTS: adds folder (which must not already have a parent folder) as a subfolder of this folder
+    // throws NameIsTakenException if this already contains a subfolder named folder.getName()
+    public void addExistingSubfolder(Folder folder) throws NameIsTakenException {
+        try {
+            throw new NameIsTakenException(getSubfolder(folder.getName()).getName());
+        } catch (NoSuchFolderFoundException e) {
+            folder.parentFolder = this;
+            subfolders.add(folder);
+            subfoldersByNameKey.put(folder.getNameKey(), folder);
+            changed();
+        }
     }
 
     // MODIFIES: this
@@ -109,6 +177,8 @@ public class Folder extends NamedObject {
     // throws NoSuchFolderFoundException if this does not contain a subfolder named folderName (ignores case)
     public void removeSubfolder(String folderName) throws NoSuchFolderFoundException {
         subfolders.remove(getSubfolder(folderName));
+        subfoldersByNameKey.remove(toNameKey(folderName));
+        changed();
     }
 
     // EFFECTS: returns true if this contains a Folder named folderName otherwise returns false
@@ -122,15 +192,18 @@ public class Folder extends NamedObject {
     }
 
     // MODIFIES: this
-    // EFFECTS creates a new file named name with path path that is within this folder
+    // EFFECTS creates a new file named name with path path that is within this folder and returns it
     // throws NameIsTakenException if this contains a file named name (ignores case)
     // throws NameIsBlankException if name is blank
-    public void makeSubfile(String name, String path) throws NameIsTakenException {
+    public File makeSubfile(String name, String path) throws NameIsTakenException {
         try {
             throw new NameIsTakenException(getSubfile(name).getName());
         } catch (NoSuchFileFoundException e) {
             File newFile = new File(name, path, this);
             subfiles.add(newFile);
+            subfilesByNameKey.put(newFile.getNameKey(), newFile);
+            fieldsChanged();
+            return newFile;
         }
     }
 
@@ -142,6 +215,8 @@ public class Folder extends NamedObject {
             throw new NameIsTakenException(getSubfile(file.getName()).getName());
         } catch (NoSuchFileFoundException e) {
             subfiles.add(file);
+            subfilesByNameKey.put(file.getNameKey(), file);
+            fieldsChanged();
         }
     }
     
@@ -150,6 +225,19 @@ public class Folder extends NamedObject {
     // throws NoSuchFileFoundException if this does not contain a file named fileName (ignoring case)
     public void removeSubfile(String fileName) throws NoSuchFileFoundException {
         subfiles.remove(getSubfile(fileName));
+        subfilesByNameKey.remove(toNameKey(fileName));
+        fieldsChanged();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes this folder's reference to file if it has one
+    public void removeSubfile(File file) {
+        loadContentsIfNeeded();
+        if (subfilesByNameKey.get(file.getNameKey()) == file) {
+            subfiles.remove(file);
+            subfilesByNameKey.remove(file.getNameKey());
+            fieldsChanged();
+        }
     }
 
     // EFFECTS: returns true if this contains a File named fileName otherwise returns false
@@ -162,15 +250,178 @@ public class Folder extends NamedObject {
         }
     }
 
+    // REQUIRES: no other subfolder of this folder is named folder's new name
+    // MODIFIES: this
+    // EFFECTS: if folder is indexed under previousNameKey, re-indexes it under its current name
+    // throws RequiresClauseNotMetRuntimeException if a different subfolder is already indexed under folder's new name
+    protected void subfolderRenamed(Folder folder, String previousNameKey) {
+        if (subfoldersByNameKey.get(previousNameKey) == folder) {
+            Folder sameName = subfoldersByNameKey.get(folder.getNameKey());
+            if (sameName != null && sameName != folder) {
+                throw new RequiresClauseNotMetRuntimeException();
+            }
+            subfoldersByNameKey.remove(previousNameKey);
+            subfoldersByNameKey.put(folder.getNameKey(), folder);
+        }
+        changed();
+    }
+
+    // REQUIRES: no other subfile of this folder is named file's new name
+    // MODIFIES: this
+    // EFFECTS: if file is indexed under previousNameKey, re-indexes it under its current name
+    // throws RequiresClauseNotMetRuntimeException if a different subfile is already indexed under file's new name
+    protected void subfileRenamed(File file, String previousNameKey) {
+        if (subfilesByNameKey.get(previousNameKey) == file) {
+            File sameName = subfilesByNameKey.get(file.getNameKey());
+            if (sameName != null && sameName != file) {
+                throw new RequiresClauseNotMetRuntimeException();
+            }
+            subfilesByNameKey.remove(previousNameKey);
+            subfilesByNameKey.put(file.getNameKey(), file);
+        }
+        fieldsChanged();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forgets the cached JSON of this folder's own fields, since this folder's name or one of its subfiles
+    // (including the labels on it) has changed
+    void fieldsChanged() {
+        encodedFields = null;
+        changed();
+    }
+
+    // EFFECTS: returns the number of changes that have been made within this folder (including within its subfolders,
+    // and including the ones made by loading it), so that anything saved from it can tell when it is out of date
+    public long getChangeCount() {
+        return changeCount;
+    }
+
+    // REQUIRES: this folder has no subfiles or subfolders yet
+    // MODIFIES: this
+    // EFFECTS: leaves this folder's contents unloaded until they are first needed, at which point contentsLoader is
+    // used to load them
+    public void setContentsLoader(ContentsLoader contentsLoader) {
+        this.contentsLoader = contentsLoader;
+    }
+
+    // EFFECTS: returns true if this folder's contents have been loaded (or never needed loading)
+    public boolean isLoaded() {
+        return contentsLoader == null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: loads this folder's contents if they have not been loaded yet
+    // throws FolderNotLoadedRuntimeException if they could not be loaded, in which case they stay unloaded so that
+    // loading them can be tried again
+    void loadContentsIfNeeded() {
+        if (contentsLoader == null) {
+            return;
+        }
+        ContentsLoader loader = contentsLoader;
+        contentsLoader = null;
+        try {
+            loader.loadContents(this);
+        } catch (IOException | InvalidJsonException e) {
+            contentsLoader = loader;
+            throw new FolderNotLoadedRuntimeException();
+        }
+    }
+
+    // EFFECTS: returns true if the JSON of this folder's own fields is cached from the last time it was saved
+    // compactly and has not changed since
+    boolean hasEncodedFields() {
+        return encodedFields != null;
+    }
+
+    // MODIFIES: this, parentFolder
+    // EFFECTS: tells parentFolder (if there is one) that this folder's name has changed
+    @Override
+    protected void nameChanged(String previousNameKey) {
+        fieldsChanged();
+        if (parentFolder != null) {
+            parentFolder.subfolderRenamed(this, previousNameKey);
+        }
+    }
+
     // EFFECTS: returns a JSON representation of this file (including its subfolders and files)
     @Override
     public JSONObject toJson() {
+        loadContentsIfNeeded();
         JSONObject json = super.toJson();
         json.put("subfiles", subfilesToJson());
         json.put("subfolders", subfoldersToJson());
         return json;
     }
 
+    // MODIFIES: this, writer
+    // EFFECTS: writes the fields of this folder's JSON representation (including its subfolders and files) to writer,
+    // one subfile and subfolder at a time. If writer is compact, this folder's own fields are written from (and if
+    // need be, first encoded into) the cache
+    @Override
+    protected void writeJsonFields(JsonStreamWriter writer) throws IOException {
+        writeOwnJsonFieldsOrCached(writer);
+        writer.name("subfolders").beginArray();
+        for (Folder folder : subfolders) {
+            folder.writeJson(writer);
+        }
+        writer.endArray();
+    }
+
+    // MODIFIES: this, writer
+    // EFFECTS: writes a JSON representation of this folder to writer that has its subfiles but leaves out its
+    // subfolders (as if it had none)
+    public void writeJsonWithoutSubfolders(JsonStreamWriter writer) throws IOException {
+        writer.beginObject();
+        writeOwnJsonFieldsOrCached(writer);
+        writer.name("subfolders").beginArray().endArray();
+        writer.endObject();
+    }
+
+    // MODIFIES: this, writer
+    // EFFECTS: writes the fields of this folder's JSON representation other than its subfolders to writer, from (and
+    // if need be, first encoding them into) the cache if writer is compact
+    private void writeOwnJsonFieldsOrCached(JsonStreamWriter writer) throws IOException {
+        loadContentsIfNeeded();
+        if (writer.isCompact()) {
+            if (encodedFields == null) {
+                encodedFields = encodeOwnFields();
+            }
+            writer.encodedFields(encodedFields);
+        } else {
+            writeOwnJsonFields(writer);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that a change was made within this folder and within each of the folders that contain it
+    private void changed() {
+        for (Folder folder = this; folder != null; folder = folder.parentFolder) {
+            folder.changeCount++;
+        }
+    }
+
+    // MODIFIES: writer
+    // EFFECTS: writes the fields of this folder's JSON representation other than its subfolders to writer
+    private void writeOwnJsonFields(JsonStreamWriter writer) throws IOException {
+        super.writeJsonFields(writer);
+        writer.name("subfiles").beginArray();
+        for (File file : subfiles) {
+            file.writeJson(writer);
+        }
+        writer.endArray();
+    }
+
+    // EFFECTS: returns the fields of this folder's compact JSON representation other than its subfolders
+    private String encodeOwnFields() throws IOException {
+        StringWriter stringWriter = new StringWriter();
+        JsonStreamWriter writer = new JsonStreamWriter(stringWriter, 0);
+        writer.beginObject();
+        writeOwnJsonFields(writer);
+        writer.endObject();
+        StringBuffer encoded = stringWriter.getBuffer();
+        return encoded.substring(1, encoded.length() - 1);
+    }
+
     // EFFECTS: returns a JSONArray of JSON representations of the subfiles in this folder
     private JSONArray subfilesToJson() {
         JSONArray jsonArray = new JSONArray();
@@ -0,0 +1,28 @@
+package model;
+
+// Represents a line of a note that matched a grep of the notes' contents (see NoteGrep): the File that points to the
+// note, the number of the line (starting from 1), and a snippet of the line around where it matched
+public class GrepMatch {
+    private final File file;
+    private final int lineNumber;
+    private final String snippet;
+
+    // EFFECTS: constructs a match on line lineNumber of the note file points to, shown as snippet
+    public GrepMatch(File file, int lineNumber, String snippet) {
+        this.file = file;
+        this.lineNumber = lineNumber;
+        this.snippet = snippet;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    public String getSnippet() {
+        return snippet;
+    }
+}
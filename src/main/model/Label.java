@@ -3,9 +3,12 @@ package model;
 import java.util.Set;
 import java.util.HashSet;
 
-// Represents a label having a name and a list of all files labelled with this label
+// Represents a label having a name and a list of all files labelled with this label, which is also kept as a bitmap of
+// the files' ids for answering queries that combine labels
 public class Label extends NamedObject {
     Set<File> labelledFiles;
+    FileIdBitmap labelledFileIds;
+    private int modificationCount;
 
     // REQUIRES: name.isBlank() is false
     // EFFECTS: constructs a label named name with an empty list of files labelled with it
@@ -13,6 +16,8 @@ public class Label extends NamedObject {
     public Label(String name) {
         super(name);
         labelledFiles = new HashSet<>();
+        labelledFileIds = new FileIdBitmap();
+        modificationCount = 0;
     }
 
     // MODIFIES: this, file
@@ -20,6 +25,8 @@ public class Label extends NamedObject {
     //          and adds this label to the file's list of labels
     public void labelFile(File file) {
         labelledFiles.add(file);
+        labelledFileIds.add(file.getId());
+        modificationCount++;
 
         file.addLabel(this);
     }
@@ -29,6 +36,8 @@ public class Label extends NamedObject {
     //          and removes this label from file's list of labels
     public void unlabelFile(File file) {
         labelledFiles.remove(file);
+        labelledFileIds.remove(file.getId());
+        modificationCount++;
 
         file.removeLabel(this);
     }
@@ -40,10 +49,33 @@ public class Label extends NamedObject {
             file.removeLabel(this);
         }
         labelledFiles.clear();
+        labelledFileIds.clear();
+        modificationCount++;
+    }
+
+    // MODIFIES: every File in labelledFiles
+    // EFFECTS: tells every file labelled with this label that this label's name has changed, since it is saved as part
+    // of each of them
+    @Override
+    protected void nameChanged(String previousNameKey) {
+        for (File file : labelledFiles) {
+            file.saveChanged();
+        }
     }
 
     // EFFECTS: returns all of the files labelled with this label
     public Set<File> getLabelledFiles() {
         return labelledFiles;
     }
+
+    // EFFECTS: returns the number of times files have been labelled or unlabelled with this label, so that anything
+    // derived from getLabelledFiles() can tell when it is out of date
+    int getModificationCount() {
+        return modificationCount;
+    }
+
+    // EFFECTS: returns the ids of all of the files labelled with this label
+    public FileIdBitmap getLabelledFileIds() {
+        return labelledFileIds;
+    }
 }
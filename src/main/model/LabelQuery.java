@@ -0,0 +1,268 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import model.exceptions.InvalidLabelQueryException;
+import model.exceptions.NoSuchLabelFoundException;
+
+// Represents a parsed boolean combination of labels, such as: School AND Urgent AND NOT Archived
+// Label names are written as-is (and may contain spaces) or in double quotes if they contain a keyword or parenthesis.
+// The keywords AND, OR, and NOT must be written in capitals; NOT binds tightest, then AND, then OR, and parentheses
+// may be used for grouping
+public class LabelQuery {
+    private static final String AND = "AND";
+    private static final String OR = "OR";
+    private static final String NOT = "NOT";
+
+    private final Node root;
+
+    // Resolves a label name to the ids of the files labelled with it
+    public interface LabelResolver {
+        // EFFECTS: returns the ids of the files labelled with the label named labelName
+        // throws NoSuchLabelFoundException if there is no label named labelName
+        FileIdBitmap getLabelledFileIds(String labelName) throws NoSuchLabelFoundException;
+    }
+
+    // EFFECTS: parses query into a LabelQuery
+    // throws InvalidLabelQueryException if query is blank or is not a well-formed combination of labels
+    public LabelQuery(String query) throws InvalidLabelQueryException {
+        Parser parser = new Parser(tokenize(query));
+        root = parser.parseOr();
+        if (!parser.isAtEnd()) {
+            throw new InvalidLabelQueryException();
+        }
+    }
+
+    // EFFECTS: returns the ids of every file in allFileIds that matches this query, resolving label names with
+    // resolver. NOT is taken relative to allFileIds
+    // throws NoSuchLabelFoundException if the query names a label that resolver cannot find
+    public FileIdBitmap evaluate(LabelResolver resolver, FileIdBitmap allFileIds) throws NoSuchLabelFoundException {
+        return root.evaluate(resolver, allFileIds).and(allFileIds);
+    }
+
+
+    // Parsing:
+
+    // EFFECTS: splits query into parentheses, keywords, and label names. Consecutive words that are not keywords are
+    // joined (with single spaces) into one label name
+    // throws InvalidLabelQueryException if query is blank or has an unterminated quote
+    private static List<String> tokenize(String query) throws InvalidLabelQueryException {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder labelName = new StringBuilder();
+        int i = 0;
+        while (i < query.length()) {
+            char c = query.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '(' || c == ')') {
+                addLabelName(tokens, labelName);
+                tokens.add(String.valueOf(c));
+                i++;
+            } else if (c == '"') {
+                addLabelName(tokens, labelName);
+                i = readQuotedLabelName(query, i, tokens);
+            } else {
+                i = readWord(query, i, tokens, labelName);
+            }
+        }
+        addLabelName(tokens, labelName);
+
+        if (tokens.isEmpty()) {
+            throw new InvalidLabelQueryException();
+        }
+        return tokens;
+    }
+
+    // REQUIRES: query.charAt(start) == '"'
+    // MODIFIES: tokens
+    // EFFECTS: adds the quoted label name that starts at start in query (quotes included) to tokens and returns the
+    // index just past its closing quote
+    // throws InvalidLabelQueryException if the quote is unterminated or the quoted name is blank
+    private static int readQuotedLabelName(String query, int start, List<String> tokens)
+            throws InvalidLabelQueryException {
+        int end = query.indexOf('"', start + 1);
+        if (end < 0 || query.substring(start + 1, end).isBlank()) {
+            throw new InvalidLabelQueryException();
+        }
+        tokens.add(query.substring(start, end + 1));
+        return end + 1;
+    }
+
+    // MODIFIES: tokens, labelName
+    // EFFECTS: reads the word that starts at start in query (up to whitespace, a parenthesis, or a quote) and returns
+    // the index just past it. A keyword ends the label name being built and is added to tokens; any other word is
+    // added to the label name being built
+    private static int readWord(String query, int start, List<String> tokens, StringBuilder labelName) {
+        int end = start;
+        while (end < query.length() && !Character.isWhitespace(query.charAt(end))
+                && "()\"".indexOf(query.charAt(end)) < 0) {
+            end++;
+        }
+        String word = query.substring(start, end);
+        if (isKeyword(word)) {
+            addLabelName(tokens, labelName);
+            tokens.add(word);
+        } else {
+            if (labelName.length() > 0) {
+                labelName.append(' ');
+            }
+            labelName.append(word);
+        }
+        return end;
+    }
+
+    // MODIFIES: tokens, labelName
+    // EFFECTS: if labelName is not empty, adds it to tokens as a quoted label name and empties it
+    private static void addLabelName(List<String> tokens, StringBuilder labelName) {
+        if (labelName.length() > 0) {
+            tokens.add("\"" + labelName + "\"");
+            labelName.setLength(0);
+        }
+    }
+
+    // EFFECTS: returns true if word is AND, OR, or NOT
+    private static boolean isKeyword(String word) {
+        return word.equals(AND) || word.equals(OR) || word.equals(NOT);
+    }
+
+    // Represents a recursive-descent parser over the tokens of a query
+    private static class Parser {
+        private final List<String> tokens;
+        private int position;
+
+        Parser(List<String> tokens) {
+            this.tokens = tokens;
+            position = 0;
+        }
+
+        // EFFECTS: returns true if every token has been consumed
+        boolean isAtEnd() {
+            return position == tokens.size();
+        }
+
+        // MODIFIES: this
+        // EFFECTS: parses terms joined by OR
+        Node parseOr() throws InvalidLabelQueryException {
+            Node node = parseAnd();
+            while (consume(OR)) {
+                node = new Or(node, parseAnd());
+            }
+            return node;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: parses factors joined by AND
+        Node parseAnd() throws InvalidLabelQueryException {
+            Node node = parseNot();
+            while (consume(AND)) {
+                node = new And(node, parseNot());
+            }
+            return node;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: parses a label name, a parenthesized query, or NOT followed by either
+        Node parseNot() throws InvalidLabelQueryException {
+            if (consume(NOT)) {
+                return new Not(parseNot());
+            }
+            if (consume("(")) {
+                Node node = parseOr();
+                if (!consume(")")) {
+                    throw new InvalidLabelQueryException();
+                }
+                return node;
+            }
+            if (isAtEnd() || !tokens.get(position).startsWith("\"")) {
+                throw new InvalidLabelQueryException();
+            }
+            String quoted = tokens.get(position++);
+            return new LabelName(quoted.substring(1, quoted.length() - 1));
+        }
+
+        // MODIFIES: this
+        // EFFECTS: if the next token is token, consumes it and returns true, otherwise returns false
+        boolean consume(String token) {
+            if (!isAtEnd() && tokens.get(position).equals(token)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+    }
+
+
+    // Query Nodes:
+
+    // Represents a part of a query that evaluates to a set of file ids
+    private interface Node {
+        FileIdBitmap evaluate(LabelResolver resolver, FileIdBitmap allFileIds) throws NoSuchLabelFoundException;
+    }
+
+    private static class LabelName implements Node {
+        private final String labelName;
+
+        LabelName(String labelName) {
+            this.labelName = labelName;
+        }
+
+        @Override
+        public FileIdBitmap evaluate(LabelResolver resolver, FileIdBitmap allFileIds)
+                throws NoSuchLabelFoundException {
+            return resolver.getLabelledFileIds(labelName);
+        }
+    }
+
+    private static class Not implements Node {
+        private final Node operand;
+
+        Not(Node operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        public FileIdBitmap evaluate(LabelResolver resolver, FileIdBitmap allFileIds)
+                throws NoSuchLabelFoundException {
+            return allFileIds.andNot(operand.evaluate(resolver, allFileIds));
+        }
+    }
+
+    private static class And implements Node {
+        private final Node left;
+        private final Node right;
+
+        And(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        // EFFECTS: intersects the two sides, subtracting directly (rather than complementing first) when the right
+        // side is a NOT
+        @Override
+        public FileIdBitmap evaluate(LabelResolver resolver, FileIdBitmap allFileIds)
+                throws NoSuchLabelFoundException {
+            FileIdBitmap leftIds = left.evaluate(resolver, allFileIds);
+            if (right instanceof Not) {
+                return leftIds.andNot(((Not) right).operand.evaluate(resolver, allFileIds));
+            }
+            return leftIds.and(right.evaluate(resolver, allFileIds));
+        }
+    }
+
+    private static class Or implements Node {
+        private final Node left;
+        private final Node right;
+
+        Or(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public FileIdBitmap evaluate(LabelResolver resolver, FileIdBitmap allFileIds)
+                throws NoSuchLabelFoundException {
+            return left.evaluate(resolver, allFileIds).or(right.evaluate(resolver, allFileIds));
+        }
+    }
+}
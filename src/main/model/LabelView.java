@@ -0,0 +1,155 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import model.exceptions.NoSuchFileFoundException;
+
+// Represents a 'fake' Folder for viewing every File labelled with a Label (or every File matching a label query).
+// It has no parent and no subfolders, and its subfiles are read straight from the Label (or query results) rather
+// than copied in, so it always shows the Files currently labelled with the Label. When two of the Files share a name,
+// every one after the first is displayed with a differentiator of the form " (1)" added to the end of its name. The
+// names of the Files themselves are never changed
+public class LabelView extends Folder {
+    private final Label label;
+    private final Set<File> files;
+
+    private int labelModificationCount;
+    private Map<String, File> filesByDisplayNameKey;
+    private Map<File, String> displayNames;
+
+    // EFFECTS: constructs a view named after label of every File labelled with label
+    public LabelView(Label label) {
+        super(label.getName());
+        this.label = label;
+        this.files = label.getLabelledFiles();
+        invalidate();
+    }
+
+    // REQUIRES: name.isBlank() is false
+    // EFFECTS: constructs a view named name of files (for example, the results of a label query)
+    // throws NameIsBlankException if name.isBlank() is true (name is empty or just whitespace)
+    public LabelView(String name, Set<File> files) {
+        super(name);
+        this.label = null;
+        this.files = files;
+        invalidate();
+    }
+
+    // EFFECTS: returns true if this is a view of a single Label, false if it is a view of some other set of Files
+    public boolean isViewOfLabel() {
+        return label != null;
+    }
+
+    // EFFECTS: returns the Label this is a view of, or null if it is a view of some other set of Files
+    Label getLabel() {
+        return label;
+    }
+
+    // EFFECTS: returns the Files in this view
+    @Override
+    public Set<File> getSubfiles() {
+        return Collections.unmodifiableSet(files);
+    }
+
+    // EFFECTS: returns the File displayed as name (ignoring case)
+    // throws NoSuchFileFoundException if no File in this view is displayed as name (ignoring case)
+    @Override
+    public File getSubfile(String name) throws NoSuchFileFoundException {
+        updateDisplayNamesIfOutOfDate();
+        File file = filesByDisplayNameKey.get(toNameKey(name));
+        if (file == null) {
+            throw new NoSuchFileFoundException();
+        }
+        return file;
+    }
+
+    // EFFECTS: returns the names the Files in this view are displayed as
+    @Override
+    public List<String> getNamesOfSubfiles() {
+        updateDisplayNamesIfOutOfDate();
+        return new ArrayList<String>(displayNames.values());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes file from this view if this view's Files did not come from a Label. A view of a Label only stops
+    // showing a File once the File is unlabelled
+    @Override
+    public void removeSubfile(File file) {
+        if (label == null && files.remove(file)) {
+            invalidate();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: works out the displayed names again so that file is displayed under its new name
+    @Override
+    protected void subfileRenamed(File file, String previousNameKey) {
+        invalidate();
+    }
+
+
+    // Helper Methods:
+
+    // MODIFIES: this
+    // EFFECTS: forgets the displayed names so that they are worked out again the next time they are needed
+    private void invalidate() {
+        filesByDisplayNameKey = null;
+        displayNames = null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: if the displayed names have not been worked out since the Label last changed, works them out in a single
+    // pass over the Files (plus one pass to find names that are already in use). The first File with a given name is
+    // displayed as that name and later ones as that name followed by the smallest differentiator " (i)" that no other
+    // File is named or displayed as
+    private void updateDisplayNamesIfOutOfDate() {
+        boolean labelUnchanged = label == null || label.getModificationCount() == labelModificationCount;
+        if (filesByDisplayNameKey != null && labelUnchanged) {
+            return;
+        }
+
+        Set<String> nameKeysInUse = new HashSet<String>();
+        for (File file : files) {
+            nameKeysInUse.add(file.getNameKey());
+        }
+
+        filesByDisplayNameKey = new HashMap<String, File>();
+        displayNames = new HashMap<File, String>();
+        Map<String, Integer> nextDifferentiators = new HashMap<String, Integer>();
+        for (File file : files) {
+            String displayName = file.getName();
+            if (filesByDisplayNameKey.containsKey(file.getNameKey())) {
+                displayName = getDifferentiatedName(file, nameKeysInUse, nextDifferentiators);
+            }
+            filesByDisplayNameKey.put(toNameKey(displayName), file);
+            displayNames.put(file, displayName);
+        }
+
+        if (label != null) {
+            labelModificationCount = label.getModificationCount();
+        }
+    }
+
+    // MODIFIES: nextDifferentiators
+    // EFFECTS: returns file's name followed by the smallest differentiator " (i)" (starting from the one after the last
+    // used for that name, as recorded in nextDifferentiators) that no File is named (see nameKeysInUse) or displayed as
+    private String getDifferentiatedName(File file, Set<String> nameKeysInUse,
+            Map<String, Integer> nextDifferentiators) {
+        int differentiator = nextDifferentiators.getOrDefault(file.getNameKey(), 1);
+        String displayName;
+        String displayNameKey;
+        do {
+            displayName = file.getName() + " (" + differentiator + ")";
+            displayNameKey = toNameKey(displayName);
+            differentiator++;
+        } while (nameKeysInUse.contains(displayNameKey) || filesByDisplayNameKey.containsKey(displayNameKey));
+        nextDifferentiators.put(file.getNameKey(), differentiator);
+        return displayName;
+    }
+}
@@ -0,0 +1,110 @@
+package model;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Represents a histogram of latencies in nanoseconds that any number of threads can record into at once without taking
+// a lock. Like an HdrHistogram, its buckets are log-linear: latencies below 2^SUB_BUCKET_BITS get a bucket each, and
+// every power of two above that is split into 2^(SUB_BUCKET_BITS - 1) equal buckets, so a percentile read back from it
+// is within about 3% of the true value however large it is. Latencies of 2^MAX_EXPONENT ns (about 18 minutes) or more
+// are counted in the last bucket
+public class LatencyHistogram {
+    static final int SUB_BUCKET_BITS = 6;
+    static final int MAX_EXPONENT = 40;
+
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKET_COUNT = SUB_BUCKET_COUNT / 2;
+    private static final long MAX_VALUE = (1L << MAX_EXPONENT) - 1;
+    private static final int NUM_BUCKETS = bucketIndex(MAX_VALUE) + 1;
+
+    private final AtomicLongArray counts;
+    private final AtomicLong totalCount;
+    private final AtomicLong totalNanos;
+    private final AtomicLong maxNanos;
+
+    // EFFECTS: constructs an empty histogram
+    public LatencyHistogram() {
+        counts = new AtomicLongArray(NUM_BUCKETS);
+        totalCount = new AtomicLong(0);
+        totalNanos = new AtomicLong(0);
+        maxNanos = new AtomicLong(0);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records one latency of nanos (a negative latency, from a clock that went backwards, is recorded as 0)
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketIndex(Math.min(value, MAX_VALUE)));
+        totalCount.incrementAndGet();
+        totalNanos.addAndGet(value);
+        long max = maxNanos.get();
+        while (value > max && !maxNanos.compareAndSet(max, value)) {
+            max = maxNanos.get();
+        }
+    }
+
+    // EFFECTS: returns the number of latencies recorded
+    public long getCount() {
+        return totalCount.get();
+    }
+
+    // EFFECTS: returns the sum of the latencies recorded, in nanoseconds
+    public long getTotalNanos() {
+        return totalNanos.get();
+    }
+
+    // EFFECTS: returns the largest latency recorded, in nanoseconds, or 0 if none have been
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    // REQUIRES: 0 <= percentile <= 100
+    // EFFECTS: returns (to within the histogram's precision) the latency in nanoseconds that percentile percent of the
+    // recorded latencies are at or below, or 0 if none have been recorded. Latencies recorded while this runs may or
+    // may not be counted
+    public long getPercentileNanos(double percentile) {
+        long count = 0;
+        long[] snapshot = new long[NUM_BUCKETS];
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(highestValueInBucket(i), maxNanos.get());
+            }
+        }
+        return maxNanos.get();
+    }
+
+
+    // Helper Methods:
+
+    // REQUIRES: 0 <= value <= MAX_VALUE
+    // EFFECTS: returns the index of the bucket value is counted in
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS + 1;
+        int subBucket = (int) (value >>> shift);
+        return SUB_BUCKET_COUNT + (shift - 1) * HALF_SUB_BUCKET_COUNT + (subBucket - HALF_SUB_BUCKET_COUNT);
+    }
+
+    // EFFECTS: returns the largest value counted in bucket index
+    static long highestValueInBucket(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / HALF_SUB_BUCKET_COUNT + 1;
+        long subBucket = (index - SUB_BUCKET_COUNT) % HALF_SUB_BUCKET_COUNT + HALF_SUB_BUCKET_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,263 @@
+package model;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+// Represents a full-text index of notes that can be changed without being built again: a base index (e.g. one that was
+// saved and memory-mapped, which cannot be changed itself) with the documents added since layered on top of it in
+// memory. Documents added are numbered after the base's, and deleting a document only marks it as deleted, so its
+// terms stay in the postings (and are skipped) until the index is copied without them (see NoteIndex.copyOf). Each
+// note has at most one document that has not been deleted
+public class LayeredNoteIndex implements TextIndex {
+    private final TextIndex base;
+    private final int numBaseDocuments;
+    private final NoteIndex added;
+    private final BitSet deleted;
+    private int numDeleted;
+    private long deletedLength;
+    private final Map<String, Integer> docIdsByPath;
+    private final Map<Integer, long[]> updatedMetadata;
+
+    // REQUIRES: base has at most one document that has not been deleted for each note
+    // EFFECTS: constructs an index of the documents in base, with nothing layered on top of it yet
+    public LayeredNoteIndex(TextIndex base) {
+        this.base = base;
+        numBaseDocuments = base.getNumDocuments();
+        added = new NoteIndex();
+        deleted = new BitSet();
+        numDeleted = 0;
+        deletedLength = 0;
+        docIdsByPath = new HashMap<String, Integer>();
+        updatedMetadata = new HashMap<Integer, long[]>();
+        for (int docId = 0; docId < numBaseDocuments; docId++) {
+            if (base.isDeleted(docId)) {
+                deleted.set(docId);
+                numDeleted++;
+            } else {
+                docIdsByPath.put(base.getPath(docId), docId);
+            }
+        }
+    }
+
+    // EFFECTS: returns the id of the document of the note at notePath that has not been deleted, or -1 if there is none
+    public int getDocId(String notePath) {
+        Integer docId = docIdsByPath.get(notePath);
+        return docId == null ? -1 : docId;
+    }
+
+    // EFFECTS: returns the paths of every note that has a document that has not been deleted
+    public List<String> getPaths() {
+        return List.copyOf(docIdsByPath.keySet());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: deletes the document of the note at notePath, if it has one (any document it already had is deleted),
+    // then adds the next document, the note at notePath that was size bytes, last modified at lastModified, and had
+    // contents with hash contentHash, whose terms are terms, and returns its id
+    public int addDocument(String notePath, long size, long lastModified, long contentHash, List<String> terms) {
+        deleteDocument(notePath);
+        int docId = numBaseDocuments + added.addDocument(notePath, size, lastModified, contentHash, terms);
+        docIdsByPath.put(notePath, docId);
+        return docId;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: deletes the document of the note at notePath and returns true, or returns false if it has none
+    public boolean deleteDocument(String notePath) {
+        Integer docId = docIdsByPath.remove(notePath);
+        if (docId == null) {
+            return false;
+        }
+        deleted.set(docId);
+        numDeleted++;
+        deletedLength += getLength(docId);
+        updatedMetadata.remove(docId);
+        return true;
+    }
+
+    // REQUIRES: document docId has not been deleted
+    // MODIFIES: this
+    // EFFECTS: records that the note that is document docId is now size bytes and was last modified at lastModified,
+    // without its contents having changed
+    public void updateMetadata(int docId, long size, long lastModified) {
+        updatedMetadata.put(docId, new long[] {size, lastModified});
+    }
+
+    // EFFECTS: returns the number of documents that have been deleted
+    public int getNumDeleted() {
+        return numDeleted;
+    }
+
+    @Override
+    public int getNumDocuments() {
+        return numBaseDocuments + added.getNumDocuments();
+    }
+
+    @Override
+    public int getNumLiveDocuments() {
+        return getNumDocuments() - numDeleted;
+    }
+
+    @Override
+    public long getTotalLength() {
+        return base.getTotalLength() + added.getTotalLength() - deletedLength;
+    }
+
+    @Override
+    public boolean isDeleted(int docId) {
+        return deleted.get(docId);
+    }
+
+    @Override
+    public int getLength(int docId) {
+        return docId < numBaseDocuments ? base.getLength(docId) : added.getLength(docId - numBaseDocuments);
+    }
+
+    @Override
+    public String getPath(int docId) {
+        return docId < numBaseDocuments ? base.getPath(docId) : added.getPath(docId - numBaseDocuments);
+    }
+
+    @Override
+    public long getSize(int docId) {
+        long[] metadata = updatedMetadata.get(docId);
+        if (metadata != null) {
+            return metadata[0];
+        }
+        return docId < numBaseDocuments ? base.getSize(docId) : added.getSize(docId - numBaseDocuments);
+    }
+
+    @Override
+    public long getLastModified(int docId) {
+        long[] metadata = updatedMetadata.get(docId);
+        if (metadata != null) {
+            return metadata[1];
+        }
+        return docId < numBaseDocuments ? base.getLastModified(docId)
+                : added.getLastModified(docId - numBaseDocuments);
+    }
+
+    @Override
+    public long getContentHash(int docId) {
+        return docId < numBaseDocuments ? base.getContentHash(docId) : added.getContentHash(docId - numBaseDocuments);
+    }
+
+    @Override
+    public Postings getPostings(String term) {
+        Postings basePostings = base.getPostings(term);
+        Postings addedPostings = added.getPostings(term);
+        if (basePostings == null && addedPostings == null) {
+            return null;
+        }
+        return new Cursor(basePostings, addedPostings);
+    }
+
+    // EFFECTS: returns every term in the base, then every term only added documents have
+    @Override
+    public Iterator<String> getTerms() {
+        return new TermIterator();
+    }
+
+    // Represents an iterator over every term in the base, then every term only added documents have
+    private class TermIterator implements Iterator<String> {
+        private final Iterator<String> baseTerms;
+        private final Iterator<String> addedTerms;
+        private String next;
+
+        // EFFECTS: constructs an iterator starting from the first term in the base
+        TermIterator() {
+            baseTerms = base.getTerms();
+            addedTerms = added.getTerms();
+            next = findNext();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public String next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            String term = next;
+            next = findNext();
+            return term;
+        }
+
+        // EFFECTS: returns the next term to return, or null if there are no more
+        private String findNext() {
+            if (baseTerms.hasNext()) {
+                return baseTerms.next();
+            }
+            while (addedTerms.hasNext()) {
+                String term = addedTerms.next();
+                if (base.getPostings(term) == null) {
+                    return term;
+                }
+            }
+            return null;
+        }
+    }
+
+    // Represents a cursor over the postings of one term in the base and then in the documents added, skipping
+    // documents that have been deleted
+    private class Cursor implements Postings {
+        private final Postings basePostings;
+        private final Postings addedPostings;
+        private boolean inBase;
+        private int docId;
+
+        // EFFECTS: constructs a cursor over basePostings and then addedPostings (either of which may be null)
+        Cursor(Postings basePostings, Postings addedPostings) {
+            this.basePostings = basePostings;
+            this.addedPostings = addedPostings;
+            inBase = basePostings != null;
+        }
+
+        @Override
+        public int getDocumentFrequency() {
+            return (basePostings == null ? 0 : basePostings.getDocumentFrequency())
+                    + (addedPostings == null ? 0 : addedPostings.getDocumentFrequency());
+        }
+
+        @Override
+        public boolean next() {
+            while (inBase) {
+                if (!basePostings.next()) {
+                    inBase = false;
+                } else if (!deleted.get(basePostings.getDocId())) {
+                    docId = basePostings.getDocId();
+                    return true;
+                }
+            }
+            while (addedPostings != null && addedPostings.next()) {
+                if (!deleted.get(numBaseDocuments + addedPostings.getDocId())) {
+                    docId = numBaseDocuments + addedPostings.getDocId();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public int getDocId() {
+            return docId;
+        }
+
+        @Override
+        public int getFrequency() {
+            return inBase ? basePostings.getFrequency() : addedPostings.getFrequency();
+        }
+
+        @Override
+        public int[] getPositions() {
+            return inBase ? basePostings.getPositions() : addedPostings.getPositions();
+        }
+    }
+}
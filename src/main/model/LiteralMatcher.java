@@ -0,0 +1,90 @@
+package model;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// Represents a matcher that finds an exact sequence of bytes (such as an exact grep query encoded as UTF-8) in a
+// ByteBuffer without decoding it. It reads the buffer eight bytes at a time as longs and checks all eight positions in
+// a word at once (SIMD within a register): a position is only a candidate if it holds the needle's first byte and the
+// position needle.length - 1 bytes later holds its last byte, and only candidates are compared byte by byte. Near the
+// end of the range, where there are not enough bytes left for whole words, it falls back to checking byte by byte.
+// Buffers in little-endian order are fastest, since on x86 and ARM their words are read without swapping their bytes
+public class LiteralMatcher {
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+
+    private final byte[] needle;
+    private final long firstBytes;
+    private final long lastBytes;
+
+    // REQUIRES: needle.length > 0
+    // EFFECTS: constructs a matcher of needle
+    public LiteralMatcher(byte[] needle) {
+        this.needle = needle.clone();
+        firstBytes = (needle[0] & 0xFFL) * ONES;
+        lastBytes = (needle[needle.length - 1] & 0xFFL) * ONES;
+    }
+
+    // EFFECTS: returns the number of bytes in the needle
+    public int length() {
+        return needle.length;
+    }
+
+    // REQUIRES: 0 <= from and to <= buffer.limit()
+    // EFFECTS: returns the index in buffer of the first occurrence of the needle that starts at or after from and ends
+    // at or before to, or -1 if there is none
+    public int indexOf(ByteBuffer buffer, int from, int to) {
+        boolean bigEndian = buffer.order() == ByteOrder.BIG_ENDIAN;
+        int lastOffset = needle.length - 1;
+        int i = from;
+        for (; i <= to - lastOffset - Long.BYTES; i += Long.BYTES) {
+            long first = buffer.getLong(i);
+            long last = buffer.getLong(i + lastOffset);
+            if (bigEndian) {
+                first = Long.reverseBytes(first);
+                last = Long.reverseBytes(last);
+            }
+            long candidates = zeroBytes((first ^ firstBytes) | (last ^ lastBytes));
+            while (candidates != 0) {
+                int start = i + (Long.numberOfTrailingZeros(candidates) >>> 3);
+                if (matchesAt(buffer, start)) {
+                    return start;
+                }
+                candidates &= candidates - 1;
+            }
+        }
+        return indexOfScalar(buffer, i, to);
+    }
+
+    // REQUIRES: 0 <= from and to <= buffer.limit()
+    // EFFECTS: returns the same as indexOf, but checks every position byte by byte
+    public int indexOfScalar(ByteBuffer buffer, int from, int to) {
+        byte first = needle[0];
+        for (int start = from; start <= to - needle.length; start++) {
+            if (buffer.get(start) == first && matchesAt(buffer, start)) {
+                return start;
+            }
+        }
+        return -1;
+    }
+
+
+    // Helper Methods:
+
+    // EFFECTS: returns a word with the high bit of each byte set where word has a zero byte. The lowest such byte is
+    // always exact, but a byte just above a zero byte may be marked too, so every marked byte has to be checked
+    private static long zeroBytes(long word) {
+        return (word - ONES) & ~word & HIGH_BITS;
+    }
+
+    // REQUIRES: start + needle.length <= buffer.limit()
+    // EFFECTS: returns true if the needle is in buffer at start
+    private boolean matchesAt(ByteBuffer buffer, int start) {
+        for (int j = 0; j < needle.length; j++) {
+            if (buffer.get(start + j) != needle[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
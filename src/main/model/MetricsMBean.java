@@ -0,0 +1,123 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.ReflectionException;
+
+// Represents an MBean that shows a MetricsRegistry through JMX (e.g. in JConsole or VisualVM), so the latencies of a
+// running app can be read without attaching a profiler. Every operation in the registry has a read-only attribute for
+// each of STATISTICS, named "<operation>.<statistic>" (e.g. "FileSystem.openFolder.p99Millis"). Operations added to
+// the registry after the MBean was registered show up the next time a JMX client asks for its attributes
+public class MetricsMBean implements DynamicMBean {
+    static final String[] STATISTICS = {"count", "meanMillis", "p50Millis", "p90Millis", "p99Millis", "p999Millis",
+            "maxMillis"};
+
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    private final MetricsRegistry registry;
+
+    // EFFECTS: constructs an MBean for registry
+    public MetricsMBean(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    // EFFECTS: returns the value of the attribute named attribute: a long for a count and a double for a latency
+    // throws AttributeNotFoundException if there is no such attribute
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        int split = attribute.lastIndexOf('.');
+        if (split < 0) {
+            throw new AttributeNotFoundException(attribute);
+        }
+        OperationMetrics operation = registry.findOperation(attribute.substring(0, split));
+        if (operation == null) {
+            throw new AttributeNotFoundException(attribute);
+        }
+        Object value = getStatistic(operation.getLatencies(), attribute.substring(split + 1));
+        if (value == null) {
+            throw new AttributeNotFoundException(attribute);
+        }
+        return value;
+    }
+
+    // EFFECTS: returns the attributes named attributes, leaving out any that do not exist
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        AttributeList list = new AttributeList();
+        for (String attribute : attributes) {
+            try {
+                list.add(new Attribute(attribute, getAttribute(attribute)));
+            } catch (AttributeNotFoundException e) {
+                // left out, as DynamicMBean allows
+            }
+        }
+        return list;
+    }
+
+    // EFFECTS: throws AttributeNotFoundException, since every attribute is read-only
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException(attribute.getName());
+    }
+
+    // EFFECTS: returns an empty list, since every attribute is read-only
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    // EFFECTS: throws ReflectionException, since the MBean has no operations
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+        throw new ReflectionException(new NoSuchMethodException(actionName));
+    }
+
+    // EFFECTS: returns a description of the MBean with an attribute for each statistic of each operation currently in
+    // the registry
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        List<MBeanAttributeInfo> attributes = new ArrayList<MBeanAttributeInfo>();
+        for (OperationMetrics operation : registry.getOperations()) {
+            for (String statistic : STATISTICS) {
+                String type = statistic.equals("count") ? "long" : "double";
+                attributes.add(new MBeanAttributeInfo(operation.getName() + "." + statistic, type,
+                        statistic + " of " + operation.getName(), true, false, false));
+            }
+        }
+        return new MBeanInfo(getClass().getName(), "Latency and throughput of file system and persistence operations",
+                attributes.toArray(new MBeanAttributeInfo[0]), null, null, null);
+    }
+
+
+    // Helper Methods:
+
+    // EFFECTS: returns the statistic of latencies named statistic (a long for a count and a double for a latency), or
+    // null if there is no such statistic
+    private static Object getStatistic(LatencyHistogram latencies, String statistic) {
+        switch (statistic) {
+            case "count":
+                return latencies.getCount();
+            case "meanMillis":
+                long count = latencies.getCount();
+                return count == 0 ? 0.0 : latencies.getTotalNanos() / NANOS_PER_MILLI / count;
+            case "p50Millis":
+                return latencies.getPercentileNanos(50) / NANOS_PER_MILLI;
+            case "p90Millis":
+                return latencies.getPercentileNanos(90) / NANOS_PER_MILLI;
+            case "p99Millis":
+                return latencies.getPercentileNanos(99) / NANOS_PER_MILLI;
+            case "p999Millis":
+                return latencies.getPercentileNanos(99.9) / NANOS_PER_MILLI;
+            case "maxMillis":
+                return latencies.getMaxNanos() / NANOS_PER_MILLI;
+            default:
+                return null;
+        }
+    }
+}
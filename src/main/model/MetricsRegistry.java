@@ -0,0 +1,62 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+// Represents the registry of the metrics kept for every operation that is timed, keyed by the operation's name (e.g.
+// "FileSystem.openFolder"). Classes look up the metrics for their operations once, when they are loaded, and then
+// record into them without going through the registry again.
+// There is only one registry in the system (like EventLog), so that every operation's metrics can be read from one
+// place: through JMX (see registerMBean) or from the file PrometheusMetricsWriter keeps up to date
+public class MetricsRegistry {
+    public static final String MBEAN_NAME = "model:type=MetricsRegistry";
+
+    private static final MetricsRegistry theRegistry = new MetricsRegistry();
+
+    private final ConcurrentMap<String, OperationMetrics> operations;
+
+    // EFFECTS: constructs a registry with no operations (other registries are only constructed by tests)
+    MetricsRegistry() {
+        operations = new ConcurrentHashMap<String, OperationMetrics>();
+    }
+
+    // EFFECTS: returns the only registry in the system
+    public static MetricsRegistry getInstance() {
+        return theRegistry;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the metrics for the operation named name, adding them to this registry if they are not already
+    // in it
+    public OperationMetrics getOperation(String name) {
+        return operations.computeIfAbsent(name, OperationMetrics::new);
+    }
+
+    // EFFECTS: returns the metrics for the operation named name, or null if it is not in this registry
+    public OperationMetrics findOperation(String name) {
+        return operations.get(name);
+    }
+
+    // EFFECTS: returns the metrics for every operation in this registry, sorted by name
+    public List<OperationMetrics> getOperations() {
+        List<OperationMetrics> sorted = new ArrayList<OperationMetrics>(operations.values());
+        sorted.sort((a, b) -> a.getName().compareTo(b.getName()));
+        return sorted;
+    }
+
+    // MODIFIES: server
+    // EFFECTS: registers an MBean for this registry (see MetricsMBean) with server under MBEAN_NAME, unless there is
+    // already one registered under that name
+    // throws JMException if it could not be registered
+    public void registerMBean(MBeanServer server) throws JMException {
+        ObjectName name = new ObjectName(MBEAN_NAME);
+        if (!server.isRegistered(name)) {
+            server.registerMBean(new MetricsMBean(this), name);
+        }
+    }
+}
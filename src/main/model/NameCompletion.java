@@ -0,0 +1,36 @@
+package model;
+
+// Represents a name in a file system that completes a prefix the user typed (see FileSystem.completeName): the name,
+// whether it is the name of a File, a Folder, or a Label, and the path of the Folder the File or Folder is in (Labels
+// are not in a Folder, so theirs is empty)
+public class NameCompletion {
+    // Represents the kinds of objects whose names can be completed
+    public enum Kind {
+        FILE,
+        FOLDER,
+        LABEL
+    }
+
+    private final String name;
+    private final Kind kind;
+    private final String folderPath;
+
+    // EFFECTS: constructs a completion of name, the name of an object of the given kind in the Folder at folderPath
+    public NameCompletion(String name, Kind kind, String folderPath) {
+        this.name = name;
+        this.kind = kind;
+        this.folderPath = folderPath;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getFolderPath() {
+        return folderPath;
+    }
+}
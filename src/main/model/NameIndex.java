@@ -0,0 +1,146 @@
+package model;
+
+import model.exceptions.NoSuchFolderFoundException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+
+// Represents an index of the names of every File, Folder, and Label in a file system (other than the root Folder) that
+// completes prefixes of those names, ignoring case. Each kind of object has its own NameTrie, so completing the names
+// of one kind never has to skip over the names of the others. It has to be told whenever one of those objects is
+// added, removed, or renamed
+public class NameIndex {
+    private final NameTrie<File> fileNames;
+    private final NameTrie<Folder> folderNames;
+    private final NameTrie<Label> labelNames;
+
+    // EFFECTS: constructs an index of the names of every File and Folder within rootFolder (including within its
+    // subfolders, but not rootFolder itself) and of every Label in labels
+    public NameIndex(Folder rootFolder, Collection<Label> labels) {
+        fileNames = new NameTrie<File>();
+        folderNames = new NameTrie<Folder>();
+        labelNames = new NameTrie<Label>();
+        LinkedList<Folder> foldersToAdd = new LinkedList<Folder>();
+        foldersToAdd.add(rootFolder);
+        while (!foldersToAdd.isEmpty()) {
+            Folder folder = foldersToAdd.removeFirst();
+            for (File file : folder.getSubfiles()) {
+                fileNames.add(file);
+            }
+            for (Folder subfolder : folder.getSubfolders()) {
+                folderNames.add(subfolder);
+                foldersToAdd.add(subfolder);
+            }
+        }
+        for (Label label : labels) {
+            labelNames.add(label);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds namedObject (a File, Folder, or Label) to this index under its current name. A Folder is added
+    // without its contents
+    public void added(NamedObject namedObject) {
+        if (namedObject instanceof File) {
+            fileNames.add((File) namedObject);
+        } else if (namedObject instanceof Folder) {
+            folderNames.add((Folder) namedObject);
+        } else if (namedObject instanceof Label) {
+            labelNames.add((Label) namedObject);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes namedObject (a File, Folder, or Label) from this index. A Folder is removed without its contents
+    public void removed(NamedObject namedObject) {
+        if (namedObject instanceof File) {
+            fileNames.remove((File) namedObject);
+        } else if (namedObject instanceof Folder) {
+            folderNames.remove((Folder) namedObject);
+        } else if (namedObject instanceof Label) {
+            labelNames.remove((Label) namedObject);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: re-indexes namedObject (a File, Folder, or Label) under its current name after it was renamed from a
+    // name with name key previousNameKey
+    public void renamed(NamedObject namedObject, String previousNameKey) {
+        if (namedObject instanceof File) {
+            fileNames.renamed((File) namedObject, previousNameKey);
+        } else if (namedObject instanceof Folder) {
+            folderNames.renamed((Folder) namedObject, previousNameKey);
+        } else if (namedObject instanceof Label) {
+            labelNames.renamed((Label) namedObject, previousNameKey);
+        }
+    }
+
+    // REQUIRES: maxResults >= 0
+    // EFFECTS: returns up to maxResults completions of prefix (ignoring case) that are names of the given kind, or of
+    // any kind if kind is null, in alphabetical order ignoring case (Files before Folders before Labels of the same
+    // name)
+    public List<NameCompletion> complete(String prefix, int maxResults, NameCompletion.Kind kind) {
+        List<NameCompletion> completions = new ArrayList<NameCompletion>();
+        if (kind == null || kind == NameCompletion.Kind.FILE) {
+            for (File file : fileNames.complete(prefix, maxResults)) {
+                completions.add(new NameCompletion(file.getName(), NameCompletion.Kind.FILE,
+                        file.getParentFolder().getPathInThisFileSystem()));
+            }
+        }
+        if (kind == null || kind == NameCompletion.Kind.FOLDER) {
+            for (Folder folder : folderNames.complete(prefix, maxResults)) {
+                completions.add(new NameCompletion(folder.getName(), NameCompletion.Kind.FOLDER,
+                        getParentFolderPath(folder)));
+            }
+        }
+        if (kind == null || kind == NameCompletion.Kind.LABEL) {
+            for (Label label : labelNames.complete(prefix, maxResults)) {
+                completions.add(new NameCompletion(label.getName(), NameCompletion.Kind.LABEL, ""));
+            }
+        }
+        return kind == null ? merge(completions, maxResults) : completions;
+    }
+
+    // EFFECTS: returns the number of names of the given kind (or of any kind if kind is null) that begin with prefix
+    // (ignoring case)
+    public int countCompletions(String prefix, NameCompletion.Kind kind) {
+        int count = 0;
+        if (kind == null || kind == NameCompletion.Kind.FILE) {
+            count += fileNames.countCompletions(prefix);
+        }
+        if (kind == null || kind == NameCompletion.Kind.FOLDER) {
+            count += folderNames.countCompletions(prefix);
+        }
+        if (kind == null || kind == NameCompletion.Kind.LABEL) {
+            count += labelNames.countCompletions(prefix);
+        }
+        return count;
+    }
+
+
+    // Helper Methods:
+
+    // MODIFIES: completions
+    // EFFECTS: sorts completions of every kind in alphabetical order of their names' name keys (and then by kind), and
+    // returns the first maxResults of them
+    private static List<NameCompletion> merge(List<NameCompletion> completions, int maxResults) {
+        completions.sort(Comparator.comparing((NameCompletion completion) ->
+                NamedObject.toNameKey(completion.getName())).thenComparing(NameCompletion::getKind));
+        if (completions.size() > maxResults) {
+            return new ArrayList<NameCompletion>(completions.subList(0, maxResults));
+        }
+        return completions;
+    }
+
+    // EFFECTS: returns the path of the Folder that folder is in, or the empty string if it is not in one
+    private static String getParentFolderPath(Folder folder) {
+        try {
+            return folder.getParentFolder().getPathInThisFileSystem();
+        } catch (NoSuchFolderFoundException e) {
+            return "";
+        }
+    }
+}
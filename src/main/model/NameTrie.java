@@ -0,0 +1,277 @@
+package model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Represents a case-insensitive index of NamedObjects by name that finds the objects whose names begin with a given
+// prefix. It is a radix tree over the objects' name keys (see NamedObject.toNameKey): each node is reached from its
+// parent by a run of characters, and a node with no objects and only one child is merged into that child, so there are
+// fewer than two nodes for every distinct name. Finding the node for a prefix takes time proportional to the length of
+// the prefix, and completions are then collected in alphabetical order of their name keys (so a name comes before
+// longer names that begin with it), stopping once there are as many as were asked for. Several objects can have the
+// same name (e.g. Files in different Folders); they are completed in the order they were added
+public class NameTrie<T extends NamedObject> {
+    private final Node<T> root;
+
+    // Represents a node of the tree: the characters that lead to it from its parent, the objects whose name keys end
+    // at it, its children keyed by their first character, and the number of objects at it and below it
+    private static class Node<T> {
+        private String characters;
+        private Set<T> objects;
+        private TreeMap<Character, Node<T>> children;
+        private int size;
+
+        private Node(String characters) {
+            this.characters = characters;
+        }
+    }
+
+    // EFFECTS: constructs an empty index
+    public NameTrie() {
+        root = new Node<T>("");
+    }
+
+    // EFFECTS: returns the number of objects in this index
+    public int size() {
+        return root.size;
+    }
+
+    // EFFECTS: returns true if object is in this index under its current name
+    public boolean contains(T object) {
+        Node<T> node = getNode(object.getNameKey());
+        return node != null && node.objects != null && node.objects.contains(object);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds object to this index under its current name. Does nothing if it is already in it under that name
+    public void add(T object) {
+        if (contains(object)) {
+            return;
+        }
+        Node<T> node = addPath(object.getNameKey());
+        if (node.objects == null) {
+            node.objects = new LinkedHashSet<T>();
+        }
+        node.objects.add(object);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes object from this index, where it is under its current name, and returns true, or returns false
+    // if it was not in this index
+    public boolean remove(T object) {
+        return removeUnder(object, object.getNameKey());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves object from where it is in this index under the name with name key previousNameKey to where it
+    // belongs under its current name (used after it is renamed). Does nothing if it was not in this index
+    public void renamed(T object, String previousNameKey) {
+        if (removeUnder(object, previousNameKey)) {
+            add(object);
+        }
+    }
+
+    // REQUIRES: maxResults >= 0
+    // EFFECTS: returns up to maxResults objects whose names begin with prefix (ignoring case), in alphabetical order of
+    // their name keys
+    public List<T> complete(String prefix, int maxResults) {
+        List<T> completions = new ArrayList<T>();
+        Node<T> start = getPrefixNode(NamedObject.toNameKey(prefix));
+        if (start == null || maxResults == 0) {
+            return completions;
+        }
+        Deque<Node<T>> nodesToVisit = new ArrayDeque<Node<T>>();
+        nodesToVisit.push(start);
+        while (!nodesToVisit.isEmpty()) {
+            Node<T> node = nodesToVisit.pop();
+            if (addCompletions(node, completions, maxResults)) {
+                return completions;
+            }
+            if (node.children != null) {
+                for (Node<T> child : node.children.descendingMap().values()) {
+                    nodesToVisit.push(child);
+                }
+            }
+        }
+        return completions;
+    }
+
+    // EFFECTS: returns the number of objects whose names begin with prefix (ignoring case)
+    public int countCompletions(String prefix) {
+        Node<T> start = getPrefixNode(NamedObject.toNameKey(prefix));
+        return start == null ? 0 : start.size;
+    }
+
+
+    // Helper Methods:
+
+    // MODIFIES: this
+    // EFFECTS: removes object from where it is in this index under the name with name key nameKey, merging or removing
+    // nodes left without objects, and returns true, or returns false if it is not there
+    private boolean removeUnder(T object, String nameKey) {
+        List<Node<T>> path = getPath(nameKey);
+        if (path == null) {
+            return false;
+        }
+        Node<T> node = path.get(path.size() - 1);
+        if (node.objects == null || !node.objects.remove(object)) {
+            return false;
+        }
+        if (node.objects.isEmpty()) {
+            node.objects = null;
+        }
+        for (Node<T> nodeOnPath : path) {
+            nodeOnPath.size--;
+        }
+        prune(path);
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes sure there is a node that nameKey ends at, splitting or adding nodes on the way to it, counts one
+    // more object at every node from the root to it, and returns it
+    private Node<T> addPath(String nameKey) {
+        Node<T> node = root;
+        node.size++;
+        int i = 0;
+        while (i < nameKey.length()) {
+            Node<T> child = getChild(node, nameKey.charAt(i));
+            if (child == null) {
+                child = new Node<T>(nameKey.substring(i));
+                putChild(node, child);
+                i = nameKey.length();
+            } else {
+                int common = commonPrefixLength(child.characters, nameKey, i);
+                if (common < child.characters.length()) {
+                    child = split(node, child, common);
+                }
+                i += common;
+            }
+            child.size++;
+            node = child;
+        }
+        return node;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: going up path (the nodes from the root to a node that has just lost an object), removes the nodes left
+    // without objects or children and merges a node left without objects into its only child
+    private void prune(List<Node<T>> path) {
+        for (int i = path.size() - 1; i > 0 && path.get(i).objects == null; i--) {
+            Node<T> emptyNode = path.get(i);
+            Node<T> parent = path.get(i - 1);
+            if (emptyNode.children == null) {
+                parent.children.remove(emptyNode.characters.charAt(0));
+                if (parent.children.isEmpty()) {
+                    parent.children = null;
+                }
+            } else if (emptyNode.children.size() == 1) {
+                Node<T> onlyChild = emptyNode.children.firstEntry().getValue();
+                onlyChild.characters = emptyNode.characters + onlyChild.characters;
+                putChild(parent, onlyChild);
+                break;
+            } else {
+                break;
+            }
+        }
+    }
+
+    // MODIFIES: completions
+    // EFFECTS: adds the objects at node to completions until it has maxResults of them, and returns true if it does
+    private static <T> boolean addCompletions(Node<T> node, List<T> completions, int maxResults) {
+        if (node.objects != null) {
+            for (T object : node.objects) {
+                completions.add(object);
+                if (completions.size() == maxResults) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // EFFECTS: returns the nodes from the root to the node that nameKey ends at, or null if there is no such node
+    private List<Node<T>> getPath(String nameKey) {
+        List<Node<T>> path = new ArrayList<Node<T>>();
+        Node<T> node = root;
+        path.add(node);
+        int i = 0;
+        while (i < nameKey.length()) {
+            node = getChild(node, nameKey.charAt(i));
+            if (node == null || !nameKey.startsWith(node.characters, i)) {
+                return null;
+            }
+            path.add(node);
+            i += node.characters.length();
+        }
+        return path;
+    }
+
+    // EFFECTS: returns the node that nameKey ends at, or null if there is no such node
+    private Node<T> getNode(String nameKey) {
+        List<Node<T>> path = getPath(nameKey);
+        return path == null ? null : path.get(path.size() - 1);
+    }
+
+    // EFFECTS: returns the highest node whose subtree holds exactly the objects whose name keys begin with prefixKey,
+    // or null if there are none
+    private Node<T> getPrefixNode(String prefixKey) {
+        Node<T> node = root;
+        int i = 0;
+        while (i < prefixKey.length()) {
+            Node<T> child = getChild(node, prefixKey.charAt(i));
+            if (child == null) {
+                return null;
+            }
+            int common = commonPrefixLength(child.characters, prefixKey, i);
+            if (common < child.characters.length() && i + common < prefixKey.length()) {
+                return null;
+            }
+            node = child;
+            i += common;
+        }
+        return node;
+    }
+
+    // EFFECTS: returns the child of node whose characters begin with c, or null if there is none
+    private static <T> Node<T> getChild(Node<T> node, char c) {
+        return node.children == null ? null : node.children.get(c);
+    }
+
+    // MODIFIES: parent
+    // EFFECTS: makes child a child of parent, replacing any child whose characters begin with the same character
+    private static <T> void putChild(Node<T> parent, Node<T> child) {
+        if (parent.children == null) {
+            parent.children = new TreeMap<Character, Node<T>>();
+        }
+        parent.children.put(child.characters.charAt(0), child);
+    }
+
+    // REQUIRES: 0 < length < child.characters.length()
+    // MODIFIES: parent, child
+    // EFFECTS: puts a new node between parent and child that is reached by the first length of child's characters,
+    // leaving child reached from it by the rest, and returns the new node
+    private static <T> Node<T> split(Node<T> parent, Node<T> child, int length) {
+        Node<T> middle = new Node<T>(child.characters.substring(0, length));
+        middle.size = child.size;
+        child.characters = child.characters.substring(length);
+        putChild(middle, child);
+        putChild(parent, middle);
+        return middle;
+    }
+
+    // EFFECTS: returns the number of characters at the start of characters that match those in key starting at from
+    private static int commonPrefixLength(String characters, String key, int from) {
+        int length = 0;
+        int maxLength = Math.min(characters.length(), key.length() - from);
+        while (length < maxLength && characters.charAt(length) == key.charAt(from + length)) {
+            length++;
+        }
+        return length;
+    }
+}
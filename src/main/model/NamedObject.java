@@ -1,13 +1,17 @@
 package model;
 
+import java.io.IOException;
+
 import org.json.JSONObject;
 
 import model.exceptions.NameIsBlankException;
+import persistence.JsonStreamWriter;
 import persistence.Writable;
 
 // Represents an arbitrary object that has a name and includes methods for handling that name
 public abstract class NamedObject implements Writable {
     private String name;
+    private String nameKey;
 
     // REQUIRES: name.isBlank() is false
     // EFFECTS: creates a new NamedObject named name
@@ -17,12 +21,19 @@ public abstract class NamedObject implements Writable {
             throw new NameIsBlankException();
         }
         this.name = name;
+        this.nameKey = toNameKey(name);
     }
 
     public String getName() {
         return name;
     }
 
+    // EFFECTS: returns the case-folded form of this object's name, such that two names are equal ignoring case if and
+    // only if their name keys are equal
+    public String getNameKey() {
+        return nameKey;
+    }
+
     // REQUIRES: name.isBlank() is false
     // MODIFIES: this
     // EFFECTS: sets name to name
@@ -31,7 +42,15 @@ public abstract class NamedObject implements Writable {
         if (name.isBlank()) {
             throw new NameIsBlankException();
         }
+        String previousNameKey = nameKey;
         this.name = name;
+        this.nameKey = toNameKey(name);
+        nameChanged(previousNameKey);
+    }
+
+    // EFFECTS: called after this object's name has changed so that anything indexing it by name can update itself.
+    // Does nothing by default
+    protected void nameChanged(String previousNameKey) {
     }
 
     // EFFECTS: returns true if input matches this file's name regardless of case
@@ -48,6 +67,16 @@ public abstract class NamedObject implements Writable {
         return (input.equalsIgnoreCase(name.substring(0, input.length())));
     }
 
+    // EFFECTS: returns the case-folded form of name. Each character is folded the same way String.equalsIgnoreCase
+    // compares characters, so toNameKey(a).equals(toNameKey(b)) exactly when a.equalsIgnoreCase(b)
+    public static String toNameKey(String name) {
+        char[] chars = name.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+
     // EFFECTS: returns a JSON representation of this named object
     @Override
     public JSONObject toJson() {
@@ -55,4 +84,20 @@ public abstract class NamedObject implements Writable {
         json.put("name", name);
         return json;
     }
+
+    // MODIFIES: writer
+    // EFFECTS: writes a JSON representation of this named object to writer
+    @Override
+    public void writeJson(JsonStreamWriter writer) throws IOException {
+        writer.beginObject();
+        writeJsonFields(writer);
+        writer.endObject();
+    }
+
+    // MODIFIES: writer
+    // EFFECTS: writes the fields of this named object's JSON representation to writer. Subclasses that save more than
+    // the name add their own fields after calling this
+    protected void writeJsonFields(JsonStreamWriter writer) throws IOException {
+        writer.name("name").value(name);
+    }
 }
@@ -0,0 +1,383 @@
+package model;
+
+import model.exceptions.InvalidGrepPatternException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+// Represents a grep of notes' contents for an exact string or a regular expression, for queries the full-text index
+// cannot answer (e.g. punctuation, part of a word, or a pattern). Each note is memory-mapped; an exact string is found
+// in its bytes by a LiteralMatcher, so only the lines that match are decoded, while a regular expression is checked
+// against each line in turn. The notes are split between the threads of a shared fork/join pool, and matching lines are
+// given to a MatchListener as they are found, while the rest are still being scanned. Notes larger than maxFileBytes
+// are skipped, and a search stops checking notes once it is cancelled or timeoutMillis have passed since it started, so
+// one huge note holds up at most the thread scanning it
+public class NoteGrep {
+    public static final long DEFAULT_MAX_FILE_BYTES = 16L * 1024 * 1024;
+    public static final long DEFAULT_TIMEOUT_MILLIS = 10000;
+    public static final int MAX_SNIPPET_LENGTH = 160;
+
+    private static final int SNIPPET_CONTEXT = 40;
+    private static final int LINES_BETWEEN_CHECKS = 256;
+    private static final int BYTES_BETWEEN_CHECKS = 1024 * 1024;
+    private static final LiteralMatcher NEWLINE = new LiteralMatcher(new byte[] {'\n'});
+
+    private static final OperationMetrics SCAN_NOTE_METRICS =
+            MetricsRegistry.getInstance().getOperation("NoteGrep.scanNote");
+
+    private static ForkJoinPool scans = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    private final Pattern pattern;
+    private final LiteralMatcher literal;
+    private final long maxFileBytes;
+    private final long timeoutMillis;
+
+    // REQUIRES: 0 < maxFileBytes <= Integer.MAX_VALUE and timeoutMillis > 0
+    // EFFECTS: constructs a grep for lines containing query, either exactly (if isRegex is false) or as a regular
+    // expression (see java.util.regex.Pattern), that skips notes larger than maxFileBytes and stops timeoutMillis after
+    // it is started
+    // throws InvalidGrepPatternException if isRegex is true and query is not a valid regular expression
+    public NoteGrep(String query, boolean isRegex, long maxFileBytes, long timeoutMillis)
+            throws InvalidGrepPatternException {
+        this.pattern = compile(query, isRegex);
+        this.literal = isRegex || query.isEmpty() || query.indexOf('\n') >= 0 ? null
+                : new LiteralMatcher(query.getBytes(StandardCharsets.UTF_8));
+        this.maxFileBytes = maxFileBytes;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    // EFFECTS: constructs a grep for lines containing query (see above) with the default limits, DEFAULT_MAX_FILE_BYTES
+    // and DEFAULT_TIMEOUT_MILLIS
+    // throws InvalidGrepPatternException if isRegex is true and query is not a valid regular expression
+    public NoteGrep(String query, boolean isRegex) throws InvalidGrepPatternException {
+        this(query, isRegex, DEFAULT_MAX_FILE_BYTES, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    // EFFECTS: starts scanning the notes that files point to (each note once, however many of files point to it) in the
+    // background and returns the search. For every line that matches, listener is given a match for each of files that
+    // points to the note it is in. listener is only called by one thread at a time, and not after the search has been
+    // cancelled or timed out
+    public Search start(Collection<File> files, MatchListener listener) {
+        Map<String, List<File>> filesByNotePath = new LinkedHashMap<String, List<File>>();
+        for (File file : files) {
+            filesByNotePath.computeIfAbsent(file.getFilePath(), notePath -> new ArrayList<File>()).add(file);
+        }
+        return new Search(filesByNotePath, listener);
+    }
+
+    // Represents something that is given the matches of a search as they are found
+    public interface MatchListener {
+        // EFFECTS: handles match
+        void matched(GrepMatch match);
+    }
+
+    // Represents a grep that has been started: it can be waited for or cancelled, and keeps count of what it has done
+    public class Search {
+        private final Map<String, List<File>> filesByNotePath;
+        private final List<String> notePaths;
+        private final MatchListener listener;
+        private final long deadline;
+        private final AtomicInteger numNotesScanned;
+        private final List<File> skippedFiles;
+        private final ForkJoinTask<Void> task;
+        private volatile boolean cancelled;
+        private volatile boolean timedOut;
+        private int numMatches;
+
+        // EFFECTS: constructs a search of the notes at the keys of filesByNotePath, each pointed to by the Files it is
+        // mapped to, and starts scanning them on the shared pool
+        Search(Map<String, List<File>> filesByNotePath, MatchListener listener) {
+            this.filesByNotePath = filesByNotePath;
+            this.notePaths = new ArrayList<String>(filesByNotePath.keySet());
+            this.listener = listener;
+            deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            numNotesScanned = new AtomicInteger();
+            skippedFiles = new ArrayList<File>();
+            cancelled = false;
+            timedOut = false;
+            numMatches = 0;
+            task = scans.submit(new ScanTask(this, 0, notePaths.size()));
+        }
+
+        // MODIFIES: this
+        // EFFECTS: stops the search: no more notes are scanned and no more matches are given to the listener
+        public void cancel() {
+            cancelled = true;
+        }
+
+        // EFFECTS: waits until every note has been scanned, skipped, or given up on because the search was cancelled,
+        // but for no longer than the search has left before it times out
+        // throws RuntimeException (or Error) if the listener threw it
+        public void await() {
+            try {
+                task.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                timedOut = true;
+            } catch (InterruptedException e) {
+                cancel();
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw (RuntimeException) e.getCause();
+            }
+        }
+
+        // EFFECTS: returns true if every note has been scanned, skipped, or given up on
+        public boolean isDone() {
+            return task.isDone();
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        // EFFECTS: returns true if the search ran out of time before it could finish
+        public boolean isTimedOut() {
+            return timedOut;
+        }
+
+        // EFFECTS: returns the number of notes that have been scanned all the way through
+        public int getNumNotesScanned() {
+            return numNotesScanned.get();
+        }
+
+        // EFFECTS: returns the number of matches given to the listener so far
+        public synchronized int getNumMatches() {
+            return numMatches;
+        }
+
+        // EFFECTS: returns the Files pointing to notes that were skipped because they were larger than the limit or
+        // could not be read (e.g. because they have been moved or deleted)
+        public synchronized List<File> getSkippedFiles() {
+            return new ArrayList<File>(skippedFiles);
+        }
+
+        // MODIFIES: this
+        // EFFECTS: returns true if no more notes should be scanned, because the search was cancelled or has timed out
+        boolean shouldStop() {
+            if (cancelled || timedOut) {
+                return true;
+            }
+            if (System.nanoTime() - deadline >= 0) {
+                timedOut = true;
+                return true;
+            }
+            return false;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: gives the listener a match on line lineNumber, shown as snippet, for each File that points to the
+        // note at notePath, unless the search has stopped
+        synchronized void matched(String notePath, int lineNumber, String snippet) {
+            if (shouldStop()) {
+                return;
+            }
+            for (File file : filesByNotePath.get(notePath)) {
+                listener.matched(new GrepMatch(file, lineNumber, snippet));
+                numMatches++;
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: records that the note at notePath was skipped
+        synchronized void skipped(String notePath) {
+            skippedFiles.addAll(filesByNotePath.get(notePath));
+        }
+    }
+
+    // Represents the scanning of the notes from index from (inclusive) to index to (exclusive) of a search's notes,
+    // split in half until each task scans a single note so that idle threads can take over the rest
+    private class ScanTask extends RecursiveAction {
+        private final transient Search search;
+        private final int from;
+        private final int to;
+
+        // EFFECTS: constructs a task to scan search's notes from index from to index to
+        ScanTask(Search search, int from, int to) {
+            this.search = search;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                scanNote(search, search.notePaths.get(from));
+            } else if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ScanTask(search, from, middle), new ScanTask(search, middle, to));
+            }
+        }
+    }
+
+
+    // Helper Methods:
+
+    // EFFECTS: returns query compiled as a regular expression if isRegex is true, or as an exact string if not
+    // throws InvalidGrepPatternException if isRegex is true and query is not a valid regular expression
+    private static Pattern compile(String query, boolean isRegex) throws InvalidGrepPatternException {
+        try {
+            return Pattern.compile(query, isRegex ? 0 : Pattern.LITERAL);
+        } catch (PatternSyntaxException e) {
+            throw new InvalidGrepPatternException();
+        }
+    }
+
+    // MODIFIES: search
+    // EFFECTS: memory-maps the note at notePath and gives search every line of it that matches, or records that it was
+    // skipped if it is too large or cannot be read. Does nothing if search has stopped
+    private void scanNote(Search search, String notePath) {
+        if (search.shouldStop()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(Paths.get(notePath), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > maxFileBytes) {
+                search.skipped(notePath);
+            } else if (size == 0 || scan(search, notePath,
+                    channel.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ByteOrder.LITTLE_ENDIAN))) {
+                search.numNotesScanned.incrementAndGet();
+            }
+        } catch (IOException | InvalidPathException e) {
+            search.skipped(notePath);
+        } finally {
+            SCAN_NOTE_METRICS.recordSince(start);
+        }
+    }
+
+    // MODIFIES: search
+    // EFFECTS: gives search every line of buffer (the contents of the note at notePath) that matches and returns true,
+    // or returns false if search stopped before every line was checked
+    private boolean scan(Search search, String notePath, ByteBuffer buffer) {
+        return literal != null ? scanForLiteral(search, notePath, buffer) : scanLines(search, notePath, buffer);
+    }
+
+    // MODIFIES: search
+    // EFFECTS: gives search every line of buffer (the contents of the note at notePath) that contains the literal,
+    // searching the bytes between line endings only once one has been found, and returns true, or returns false if
+    // search stopped before every line was checked
+    private boolean scanForLiteral(Search search, String notePath, ByteBuffer buffer) {
+        int limit = buffer.limit();
+        int lineStart = 0;
+        int lineNumber = 1;
+        while (lineStart < limit) {
+            int match = findLiteral(search, buffer, lineStart);
+            if (match < 0) {
+                return false;
+            } else if (match == limit) {
+                return true;
+            }
+            for (int newline = NEWLINE.indexOf(buffer, lineStart, match); newline >= 0;
+                    newline = NEWLINE.indexOf(buffer, lineStart, match)) {
+                lineNumber++;
+                lineStart = newline + 1;
+            }
+            lineStart = matchLine(search, notePath, buffer, lineNumber, lineStart, match) + 1;
+            lineNumber++;
+        }
+        return true;
+    }
+
+    // MODIFIES: search
+    // EFFECTS: gives search the line numbered lineNumber of buffer (the contents of the note at notePath), which starts
+    // at index lineStart and contains the literal at index match, and returns the index where the line ends
+    private int matchLine(Search search, String notePath, ByteBuffer buffer, int lineNumber, int lineStart,
+                          int match) {
+        int lineEnd = NEWLINE.indexOf(buffer, match, buffer.limit());
+        if (lineEnd < 0) {
+            lineEnd = buffer.limit();
+        }
+        String line = decodeLine(buffer, lineStart, lineEnd);
+        search.matched(notePath, lineNumber, snippet(line, decodeLine(buffer, lineStart, match).length()));
+        return lineEnd;
+    }
+
+    // EFFECTS: returns the index of the first occurrence of the literal in buffer at or after from, searching
+    // BYTES_BETWEEN_CHECKS bytes at a time, or buffer's limit if there is none, or -1 if search stopped first
+    private int findLiteral(Search search, ByteBuffer buffer, int from) {
+        int limit = buffer.limit();
+        while (from < limit) {
+            if (search.shouldStop()) {
+                return -1;
+            }
+            int checkEnd = (int) Math.min(limit, (long) from + BYTES_BETWEEN_CHECKS);
+            int match = literal.indexOf(buffer, from, (int) Math.min(limit, (long) checkEnd + literal.length() - 1));
+            if (match >= 0) {
+                return match;
+            }
+            from = checkEnd;
+        }
+        return limit;
+    }
+
+    // MODIFIES: search
+    // EFFECTS: gives search every line of buffer (the contents of the note at notePath) that matches the pattern, and
+    // returns true, or returns false if search stopped before every line was checked
+    private boolean scanLines(Search search, String notePath, ByteBuffer buffer) {
+        Matcher matcher = pattern.matcher("");
+        int limit = buffer.limit();
+        int lineStart = 0;
+        int lineNumber = 0;
+        while (lineStart < limit) {
+            lineNumber++;
+            if (lineNumber % LINES_BETWEEN_CHECKS == 0 && search.shouldStop()) {
+                return false;
+            }
+            int lineEnd = NEWLINE.indexOf(buffer, lineStart, limit);
+            if (lineEnd < 0) {
+                lineEnd = limit;
+            }
+            String line = decodeLine(buffer, lineStart, lineEnd);
+            if (matcher.reset(line).find()) {
+                search.matched(notePath, lineNumber, snippet(line, matcher.start()));
+            }
+            lineStart = lineEnd + 1;
+        }
+        return true;
+    }
+
+    // EFFECTS: returns the bytes of buffer from index start to index end decoded as UTF-8, without the carriage return
+    // of a Windows line ending if they end with one
+    private static String decodeLine(ByteBuffer buffer, int start, int end) {
+        if (end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // EFFECTS: returns line, or MAX_SNIPPET_LENGTH characters of it starting up to SNIPPET_CONTEXT characters before
+    // matchStart if it is longer than that, without leading or trailing whitespace
+    static String snippet(String line, int matchStart) {
+        if (line.length() > MAX_SNIPPET_LENGTH) {
+            int start = Math.max(0, Math.min(matchStart - SNIPPET_CONTEXT, line.length() - MAX_SNIPPET_LENGTH));
+            line = line.substring(start, start + MAX_SNIPPET_LENGTH);
+        }
+        return line.strip();
+    }
+}
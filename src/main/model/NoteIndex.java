@@ -0,0 +1,284 @@
+package model;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+// Represents a full-text index of notes held in memory, built by reading each note from disk (or by being given its
+// text). Documents are numbered in the order they are added, so each term's postings are kept in ascending order simply
+// by appending to them. Documents are never deleted from a NoteIndex itself (see LayeredNoteIndex)
+public class NoteIndex implements TextIndex {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final Map<String, PostingList> postingLists;
+    private final List<String> paths;
+    private int[] lengths;
+    private long[] sizes;
+    private long[] lastModified;
+    private long[] contentHashes;
+    private long totalLength;
+
+    // EFFECTS: constructs an index with no documents
+    public NoteIndex() {
+        postingLists = new HashMap<String, PostingList>();
+        paths = new ArrayList<String>();
+        lengths = new int[16];
+        sizes = new long[16];
+        lastModified = new long[16];
+        contentHashes = new long[16];
+        totalLength = 0;
+    }
+
+    // EFFECTS: returns an index of the notes at notePaths, in order, leaving out any that could not be read
+    public static NoteIndex build(Collection<String> notePaths) {
+        NoteIndex index = new NoteIndex();
+        for (String notePath : notePaths) {
+            index.addNote(notePath);
+        }
+        return index;
+    }
+
+    // EFFECTS: returns a new index of the documents in index that have not been deleted, in the same order but
+    // numbered from 0 with no gaps, copied from index's postings (so no note is read again)
+    public static NoteIndex copyOf(TextIndex index) {
+        NoteIndex copy = new NoteIndex();
+        int[] newDocIds = new int[index.getNumDocuments()];
+        for (int docId = 0; docId < index.getNumDocuments(); docId++) {
+            if (!index.isDeleted(docId)) {
+                newDocIds[docId] = copy.addMetadata(index.getPath(docId), index.getLength(docId),
+                        index.getSize(docId), index.getLastModified(docId), index.getContentHash(docId));
+            }
+        }
+        for (Iterator<String> iterator = index.getTerms(); iterator.hasNext(); ) {
+            String term = iterator.next();
+            Postings postings = index.getPostings(term);
+            PostingList postingList = null;
+            while (postings.next()) {
+                if (postingList == null) {
+                    postingList = new PostingList();
+                    copy.postingLists.put(term, postingList);
+                }
+                int[] positions = postings.getPositions();
+                postingList.add(newDocIds[postings.getDocId()], positions, positions.length);
+            }
+        }
+        return copy;
+    }
+
+    // EFFECTS: returns a 64-bit hash (FNV-1a) of bytes, used to tell whether a note's contents have changed
+    public static long hash(byte[] bytes) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : bytes) {
+            hash = (hash ^ (b & 0xFF)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the note at notePath (as UTF-8) and adds it as the next document, returning its id, or returns -1
+    // (and adds nothing) if it could not be read (e.g. because it has been moved or deleted)
+    public int addNote(String notePath) {
+        try {
+            Path path = Paths.get(notePath);
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            byte[] bytes = Files.readAllBytes(path);
+            return addDocument(notePath, attributes.size(), attributes.lastModifiedTime().toMillis(), hash(bytes),
+                    NoteTokenizer.tokenize(new String(bytes, StandardCharsets.UTF_8)));
+        } catch (IOException | InvalidPathException e) {
+            return -1;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds text as the next document, the note at notePath that was size bytes and last modified at
+    // lastModified, and returns its id
+    public int addDocument(String notePath, long size, long lastModified, String text) {
+        return addDocument(notePath, size, lastModified, hash(text.getBytes(StandardCharsets.UTF_8)),
+                NoteTokenizer.tokenize(text));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the next document, the note at notePath that was size bytes, last modified at lastModified, and
+    // had contents with hash contentHash, whose terms are terms, and returns its id
+    public int addDocument(String notePath, long size, long lastModified, long contentHash, List<String> terms) {
+        int docId = addMetadata(notePath, terms.size(), size, lastModified, contentHash);
+        Map<String, IntList> positionsByTerm = new HashMap<String, IntList>();
+        for (int position = 0; position < terms.size(); position++) {
+            positionsByTerm.computeIfAbsent(terms.get(position), term -> new IntList()).add(position);
+        }
+        for (Map.Entry<String, IntList> entry : positionsByTerm.entrySet()) {
+            IntList positions = entry.getValue();
+            postingLists.computeIfAbsent(entry.getKey(), term -> new PostingList())
+                    .add(docId, positions.values, positions.size);
+        }
+        return docId;
+    }
+
+    @Override
+    public int getNumDocuments() {
+        return paths.size();
+    }
+
+    @Override
+    public int getNumLiveDocuments() {
+        return paths.size();
+    }
+
+    @Override
+    public boolean isDeleted(int docId) {
+        return false;
+    }
+
+    @Override
+    public long getTotalLength() {
+        return totalLength;
+    }
+
+    @Override
+    public int getLength(int docId) {
+        return lengths[docId];
+    }
+
+    @Override
+    public String getPath(int docId) {
+        return paths.get(docId);
+    }
+
+    @Override
+    public long getSize(int docId) {
+        return sizes[docId];
+    }
+
+    @Override
+    public long getLastModified(int docId) {
+        return lastModified[docId];
+    }
+
+    @Override
+    public long getContentHash(int docId) {
+        return contentHashes[docId];
+    }
+
+    @Override
+    public Postings getPostings(String term) {
+        PostingList postingList = postingLists.get(term);
+        return postingList == null ? null : postingList.new Cursor();
+    }
+
+    @Override
+    public Iterator<String> getTerms() {
+        return postingLists.keySet().iterator();
+    }
+
+    // Represents a growable list of ints
+    private static class IntList {
+        private int[] values = new int[4];
+        private int size = 0;
+
+        // MODIFIES: this
+        // EFFECTS: adds value to the end of the list
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+
+    // Represents the postings of one term: document i of the list is docIds[i], in which the term appears at
+    // positions[positionStarts[i]] up to (but not including) positions[positionStarts[i + 1]]
+    private static class PostingList {
+        private int size = 0;
+        private int[] docIds = new int[2];
+        private int[] positionStarts = new int[3];
+        private int[] positions = new int[4];
+
+        // REQUIRES: docId is greater than every document already in the list
+        // MODIFIES: this
+        // EFFECTS: adds document docId, in which the term appears at the first count of termPositions, to the end of
+        // the list
+        void add(int docId, int[] termPositions, int count) {
+            if (size + 1 == docIds.length) {
+                docIds = Arrays.copyOf(docIds, docIds.length * 2);
+                positionStarts = Arrays.copyOf(positionStarts, docIds.length + 1);
+            }
+            int start = positionStarts[size];
+            if (start + count > positions.length) {
+                positions = Arrays.copyOf(positions, Math.max(positions.length * 2, start + count));
+            }
+            System.arraycopy(termPositions, 0, positions, start, count);
+            docIds[size] = docId;
+            size++;
+            positionStarts[size] = start + count;
+        }
+
+        // Represents a cursor over this list
+        private class Cursor implements Postings {
+            private int current = -1;
+
+            @Override
+            public int getDocumentFrequency() {
+                return size;
+            }
+
+            @Override
+            public boolean next() {
+                if (current + 1 >= size) {
+                    current = size;
+                    return false;
+                }
+                current++;
+                return true;
+            }
+
+            @Override
+            public int getDocId() {
+                return docIds[current];
+            }
+
+            @Override
+            public int getFrequency() {
+                return positionStarts[current + 1] - positionStarts[current];
+            }
+
+            @Override
+            public int[] getPositions() {
+                return Arrays.copyOfRange(positions, positionStarts[current], positionStarts[current + 1]);
+            }
+        }
+    }
+
+
+    // Helper Methods:
+
+    // MODIFIES: this
+    // EFFECTS: adds the next document, with no terms in any postings yet, and returns its id
+    private int addMetadata(String notePath, int length, long size, long lastModified, long contentHash) {
+        int docId = paths.size();
+        if (docId == lengths.length) {
+            lengths = Arrays.copyOf(lengths, docId * 2);
+            sizes = Arrays.copyOf(sizes, docId * 2);
+            this.lastModified = Arrays.copyOf(this.lastModified, docId * 2);
+            contentHashes = Arrays.copyOf(contentHashes, docId * 2);
+        }
+        paths.add(notePath);
+        lengths[docId] = length;
+        sizes[docId] = size;
+        this.lastModified[docId] = lastModified;
+        contentHashes[docId] = contentHash;
+        totalLength += length;
+        return docId;
+    }
+}
@@ -0,0 +1,350 @@
+package model;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Represents an indexer that keeps a full-text index of notes up to date as they change, without building it again.
+// It knows which notes are referred to (and by how many Files), and each pass re-reads only the notes whose size or
+// last-modified time on disk differs from what was indexed, and re-tokenizes only those whose contents' hash differs
+// too; notes no longer referred to (or no longer readable) are deleted from the index. Passes run on a shared
+// background thread of the lowest priority with a bounded queue, with the notes read no faster than
+// maxBytesPerSecond, and a note is read and tokenized before the index is locked to change it, so searches (which
+// only need a read lock) are never held up for longer than it takes to add one note's postings
+public class NoteIndexer {
+    public static final long DEFAULT_MAX_BYTES_PER_SECOND = 32L * 1024 * 1024;
+
+    private static final int MAX_QUEUED_PASSES = 16;
+    private static final double MAX_DELETED_FRACTION = 0.25;
+    private static final int MIN_DELETED_TO_COMPACT = 64;
+
+    private static final OperationMetrics PASS_METRICS = MetricsRegistry.getInstance().getOperation("NoteIndexer.pass");
+
+    private static ThreadPoolExecutor backgroundPasses = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<Runnable>(MAX_QUEUED_PASSES), runnable -> {
+                Thread thread = new Thread(runnable, "Note indexer");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            });
+
+    private final long maxBytesPerSecond;
+    private final ReentrantReadWriteLock indexLock;
+    private final ReentrantLock passLock;
+    private LayeredNoteIndex index;
+    private long version;
+
+    // guarded by this
+    private final Map<String, Integer> references;
+    private final Set<String> pendingPaths;
+    private boolean fullPassPending;
+    private CompletableFuture<Void> scheduledPass;
+
+    // REQUIRES: maxBytesPerSecond > 0
+    // EFFECTS: constructs an indexer of the notes at notePaths (each path once for every File that refers to it),
+    // starting from the documents in base, which are brought up to date by the first pass
+    public NoteIndexer(TextIndex base, Collection<String> notePaths, long maxBytesPerSecond) {
+        this.maxBytesPerSecond = maxBytesPerSecond;
+        indexLock = new ReentrantReadWriteLock();
+        passLock = new ReentrantLock();
+        index = new LayeredNoteIndex(base);
+        version = 0;
+        references = new HashMap<String, Integer>();
+        for (String notePath : notePaths) {
+            references.merge(notePath, 1, Integer::sum);
+        }
+        pendingPaths = new LinkedHashSet<String>();
+        fullPassPending = true;
+        scheduledPass = null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that another File refers to the note at notePath and indexes it in the background
+    public synchronized void noteAdded(String notePath) {
+        references.merge(notePath, 1, Integer::sum);
+        pendingPaths.add(notePath);
+        schedulePass();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that one fewer File refers to the note at notePath and, if none do any more, deletes it from
+    // the index in the background
+    public synchronized void noteRemoved(String notePath) {
+        Integer count = references.get(notePath);
+        if (count == null) {
+            return;
+        }
+        if (count == 1) {
+            references.remove(notePath);
+            pendingPaths.add(notePath);
+            schedulePass();
+        } else {
+            references.put(notePath, count - 1);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: checks every note in the background, indexing again the ones that changed since the last pass, and
+    // returns a future that completes once that pass has finished (a pass that has not started yet is shared)
+    public synchronized CompletableFuture<Void> update() {
+        fullPassPending = true;
+        return schedulePass();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: checks every note on the calling thread, without limiting how fast they are read, indexing again the
+    // ones that changed since the last pass
+    public void updateNow() {
+        synchronized (this) {
+            fullPassPending = true;
+        }
+        runPass(false);
+    }
+
+    // EFFECTS: returns up to maxResults documents matching query (see NoteSearcher.search)
+    public List<NoteSearcher.Hit> search(String query, int maxResults) {
+        indexLock.readLock().lock();
+        try {
+            return new NoteSearcher(index).search(query, maxResults);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    // EFFECTS: calls reader with the index, which does not change until reader returns, and returns the version of the
+    // index it was called with
+    // throws IOException if reader does
+    public long read(IndexReader reader) throws IOException {
+        indexLock.readLock().lock();
+        try {
+            reader.read(index);
+            return version;
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    // EFFECTS: returns the version of the index, which goes up every time it changes
+    public long getVersion() {
+        indexLock.readLock().lock();
+        try {
+            return version;
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    // Represents something that reads the whole index at once, e.g. to save it
+    public interface IndexReader {
+        // EFFECTS: reads index
+        // throws IOException if reading it failed
+        void read(TextIndex index) throws IOException;
+    }
+
+
+    // Helper Methods:
+
+    // MODIFIES: this
+    // EFFECTS: makes sure a pass is queued on the background thread and returns the future it will complete. If the
+    // queue is full, returns a future that has failed and leaves the changes for the next pass
+    private synchronized CompletableFuture<Void> schedulePass() {
+        if (scheduledPass == null) {
+            CompletableFuture<Void> pass = new CompletableFuture<Void>();
+            try {
+                backgroundPasses.execute(() -> runScheduledPass(pass));
+                scheduledPass = pass;
+            } catch (RejectedExecutionException e) {
+                pass.completeExceptionally(e);
+                return pass;
+            }
+        }
+        return scheduledPass;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: runs a throttled pass on the background thread and completes pass once it has finished
+    private void runScheduledPass(CompletableFuture<Void> pass) {
+        synchronized (this) {
+            scheduledPass = null;
+        }
+        try {
+            runPass(true);
+            pass.complete(null);
+        } catch (RuntimeException e) {
+            pass.completeExceptionally(e);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: checks the notes that changed since the last pass (or every note, if a full pass is pending), reading
+    // them no faster than maxBytesPerSecond if throttled, then copies the index without its deleted documents if too
+    // many of them have built up
+    private void runPass(boolean throttled) {
+        passLock.lock();
+        long start = System.nanoTime();
+        try {
+            long bytesRead = 0;
+            for (String path : takePathsToCheck()) {
+                bytesRead += checkNote(path);
+                if (throttled) {
+                    throttle(bytesRead, start);
+                }
+            }
+            compactIfNeeded();
+        } finally {
+            PASS_METRICS.recordSince(start);
+            passLock.unlock();
+        }
+    }
+
+    // REQUIRES: passLock is held
+    // MODIFIES: this
+    // EFFECTS: returns the paths of the notes the next pass checks (the ones that changed since the last pass, or every
+    // note, if a full pass is pending) and clears them
+    private synchronized Set<String> takePathsToCheck() {
+        Set<String> paths = new LinkedHashSet<String>(pendingPaths);
+        pendingPaths.clear();
+        if (fullPassPending) {
+            paths.addAll(references.keySet());
+            paths.addAll(index.getPaths());
+            fullPassPending = false;
+        }
+        return paths;
+    }
+
+    // REQUIRES: passLock is held
+    // MODIFIES: this
+    // EFFECTS: brings the note at notePath up to date in the index and returns how many bytes of it were read
+    private long checkNote(String notePath) {
+        boolean referenced;
+        synchronized (this) {
+            referenced = references.containsKey(notePath);
+        }
+        int docId = index.getDocId(notePath);
+        BasicFileAttributes attributes = referenced ? readAttributes(notePath) : null;
+        if (attributes == null) {
+            deleteIfIndexed(notePath, docId);
+            return 0;
+        }
+
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        if (docId >= 0 && index.getSize(docId) == size && index.getLastModified(docId) == lastModified) {
+            return 0;
+        }
+        byte[] bytes = readNote(notePath);
+        if (bytes == null) {
+            deleteIfIndexed(notePath, docId);
+            return 0;
+        }
+        indexNote(notePath, docId, size, lastModified, bytes);
+        return bytes.length;
+    }
+
+    // REQUIRES: passLock is held
+    // MODIFIES: this
+    // EFFECTS: indexes bytes, the contents of the note at notePath (whose document in the index is docId, or -1 if it
+    // has none) with the given size and last-modified time, tokenizing them only if their hash has changed
+    private void indexNote(String notePath, int docId, long size, long lastModified, byte[] bytes) {
+        long contentHash = NoteIndex.hash(bytes);
+        if (docId >= 0 && index.getContentHash(docId) == contentHash) {
+            changeIndex(() -> index.updateMetadata(docId, size, lastModified));
+        } else {
+            List<String> terms = NoteTokenizer.tokenize(new String(bytes, StandardCharsets.UTF_8));
+            changeIndex(() -> index.addDocument(notePath, size, lastModified, contentHash, terms));
+        }
+    }
+
+    // REQUIRES: passLock is held
+    // MODIFIES: this
+    // EFFECTS: deletes the note at notePath from the index, if it is there as document docId (i.e. docId >= 0)
+    private void deleteIfIndexed(String notePath, int docId) {
+        if (docId >= 0) {
+            changeIndex(() -> index.deleteDocument(notePath));
+        }
+    }
+
+    // REQUIRES: passLock is held
+    // MODIFIES: this
+    // EFFECTS: copies the index without its deleted documents (while it can still be searched) if they make up more
+    // than MAX_DELETED_FRACTION of it, then replaces the index with the copy
+    private void compactIfNeeded() {
+        int numDeleted = index.getNumDeleted();
+        if (numDeleted < MIN_DELETED_TO_COMPACT || numDeleted <= index.getNumDocuments() * MAX_DELETED_FRACTION) {
+            return;
+        }
+        NoteIndex copy;
+        indexLock.readLock().lock();
+        try {
+            copy = NoteIndex.copyOf(index);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+        changeIndex(() -> index = new LayeredNoteIndex(copy));
+    }
+
+    // REQUIRES: passLock is held
+    // MODIFIES: this
+    // EFFECTS: makes change to the index while no search is reading it
+    private void changeIndex(Runnable change) {
+        indexLock.writeLock().lock();
+        try {
+            change.run();
+            version++;
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    // EFFECTS: sleeps for as long as it takes for bytesRead bytes to have been read since start (from System.nanoTime)
+    // at no more than maxBytesPerSecond
+    private void throttle(long bytesRead, long start) {
+        long earliestNanos = (long) (bytesRead * 1e9 / maxBytesPerSecond);
+        long waitNanos = earliestNanos - (System.nanoTime() - start);
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // EFFECTS: returns the contents of the note at notePath, or null if it cannot be read
+    private static byte[] readNote(String notePath) {
+        try {
+            return Files.readAllBytes(Paths.get(notePath));
+        } catch (IOException | InvalidPathException e) {
+            return null;
+        }
+    }
+
+    // EFFECTS: returns the attributes of the note at notePath, or null if it cannot be read (e.g. because it has been
+    // moved or deleted) or is not a regular file
+    private static BasicFileAttributes readAttributes(String notePath) {
+        try {
+            Path path = Paths.get(notePath);
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return attributes.isRegularFile() ? attributes : null;
+        } catch (IOException | InvalidPathException e) {
+            return null;
+        }
+    }
+}
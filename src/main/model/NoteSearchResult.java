@@ -0,0 +1,30 @@
+package model;
+
+import java.util.List;
+
+// Represents a note that matched a search of the notes' contents (see FileSystem.searchNotes): the path of the note,
+// how well it matched, and the Files in the file system that point to it
+public class NoteSearchResult {
+    private final String notePath;
+    private final double score;
+    private final List<File> files;
+
+    // EFFECTS: constructs a result for the note at notePath, which scored score and is pointed to by files
+    public NoteSearchResult(String notePath, double score, List<File> files) {
+        this.notePath = notePath;
+        this.score = score;
+        this.files = files;
+    }
+
+    public String getNotePath() {
+        return notePath;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public List<File> getFiles() {
+        return files;
+    }
+}
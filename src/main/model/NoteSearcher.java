@@ -0,0 +1,221 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+// Represents a searcher that answers queries against a TextIndex. A query is a mix of words and "quoted phrases": the
+// documents that have any of the words (or, if there are phrases, only the ones that have every phrase, word for word)
+// are ranked by BM25, the standard bag-of-words ranking in which a term counts for more the rarer it is across the
+// index and the more often it appears in a document, with diminishing returns, relative to how long the document is
+public class NoteSearcher {
+    public static final double K1 = 1.2;
+    public static final double B = 0.75;
+
+    private final TextIndex index;
+
+    // Represents one document that matched a query, and its score
+    public static class Hit {
+        private final int docId;
+        private final String path;
+        private final double score;
+
+        // EFFECTS: constructs a hit on document docId, the note at path, with the given score
+        Hit(int docId, String path, double score) {
+            this.docId = docId;
+            this.path = path;
+            this.score = score;
+        }
+
+        public int getDocId() {
+            return docId;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+
+    // EFFECTS: constructs a searcher of index
+    public NoteSearcher(TextIndex index) {
+        this.index = index;
+    }
+
+    // REQUIRES: maxResults >= 0
+    // EFFECTS: returns up to maxResults documents matching query, from highest to lowest score (documents with the same
+    // score are in order of id). A query with no terms matches nothing; a quotation mark that is not closed quotes the
+    // rest of the query
+    public List<Hit> search(String query, int maxResults) {
+        Set<String> terms = new LinkedHashSet<String>();
+        List<List<String>> phrases = new ArrayList<List<String>>();
+        parse(query, terms, phrases);
+        if (terms.isEmpty() || maxResults == 0) {
+            return new ArrayList<Hit>();
+        }
+
+        double[] scores = new double[index.getNumDocuments()];
+        List<Integer> scored = new ArrayList<Integer>();
+        score(terms, scores, scored);
+        return getTopHits(scores, scored, findPhrases(phrases), maxResults);
+    }
+
+
+    // Helper Methods:
+
+    // MODIFIES: scores, scored
+    // EFFECTS: adds the BM25 score of each of terms in each document to scores[docId], adding each document that
+    // has any of them to scored the first time it is scored
+    private void score(Set<String> terms, double[] scores, List<Integer> scored) {
+        int numDocuments = index.getNumLiveDocuments();
+        double averageLength = (double) index.getTotalLength() / Math.max(1, numDocuments);
+        for (String term : terms) {
+            TextIndex.Postings postings = index.getPostings(term);
+            if (postings == null) {
+                continue;
+            }
+            double df = postings.getDocumentFrequency();
+            double idf = Math.log(1 + (numDocuments - df + 0.5) / (df + 0.5));
+            while (postings.next()) {
+                int docId = postings.getDocId();
+                double tf = postings.getFrequency();
+                double norm = K1 * (1 - B + B * index.getLength(docId) / averageLength);
+                if (scores[docId] == 0) {
+                    scored.add(docId);
+                }
+                scores[docId] += idf * tf * (K1 + 1) / (tf + norm);
+            }
+        }
+    }
+
+    // EFFECTS: returns the documents that have every one of phrases, or null if there are no phrases
+    private BitSet findPhrases(List<List<String>> phrases) {
+        BitSet required = null;
+        for (List<String> phrase : phrases) {
+            BitSet matching = findPhrase(phrase);
+            if (required == null) {
+                required = matching;
+            } else {
+                required.and(matching);
+            }
+        }
+        return required;
+    }
+
+    // MODIFIES: terms, phrases
+    // EFFECTS: adds every term of query to terms, and the terms of each quoted phrase in it to phrases
+    private static void parse(String query, Set<String> terms, List<List<String>> phrases) {
+        boolean quoted = false;
+        for (String part : query.split("\"", -1)) {
+            List<String> partTerms = NoteTokenizer.tokenize(part);
+            terms.addAll(partTerms);
+            if (quoted && !partTerms.isEmpty()) {
+                phrases.add(partTerms);
+            }
+            quoted = !quoted;
+        }
+    }
+
+    // EFFECTS: returns the documents that have phrase's terms at consecutive positions
+    private BitSet findPhrase(List<String> phrase) {
+        BitSet matching = new BitSet();
+        TextIndex.Postings[] postings = getAllPostings(phrase);
+        if (postings == null) {
+            return matching;
+        }
+        int[] current = new int[postings.length];
+        Arrays.fill(current, -1);
+        while (advance(postings[0], current, 0, current[0] + 1)) {
+            int docId = current[0];
+            boolean inAll = true;
+            for (int i = 1; i < postings.length && inAll; i++) {
+                if (!advance(postings[i], current, i, docId)) {
+                    return matching;
+                }
+                inAll = current[i] == docId;
+            }
+            if (inAll && hasConsecutivePositions(postings)) {
+                matching.set(docId);
+            }
+        }
+        return matching;
+    }
+
+    // EFFECTS: returns the postings of each of terms, in the same order, or null if any of them is not in the index
+    private TextIndex.Postings[] getAllPostings(List<String> terms) {
+        TextIndex.Postings[] postings = new TextIndex.Postings[terms.size()];
+        for (int i = 0; i < postings.length; i++) {
+            postings[i] = index.getPostings(terms.get(i));
+            if (postings[i] == null) {
+                return null;
+            }
+        }
+        return postings;
+    }
+
+    // MODIFIES: postings, current
+    // EFFECTS: moves postings (whose current document is current[i], or -1 if it has not started) to its first
+    // document at or after target, recording it in current[i], and returns true, or returns false if it has none
+    private static boolean advance(TextIndex.Postings postings, int[] current, int i, int target) {
+        while (current[i] < target) {
+            if (!postings.next()) {
+                current[i] = Integer.MAX_VALUE;
+                return false;
+            }
+            current[i] = postings.getDocId();
+        }
+        return current[i] != Integer.MAX_VALUE;
+    }
+
+    // REQUIRES: every one of postings is on the same document
+    // EFFECTS: returns true if, for some position p, the i-th of postings has its term at position p + i
+    private static boolean hasConsecutivePositions(TextIndex.Postings[] postings) {
+        int[][] positions = new int[postings.length][];
+        for (int i = 0; i < postings.length; i++) {
+            positions[i] = postings[i].getPositions();
+        }
+        for (int start : positions[0]) {
+            boolean consecutive = true;
+            for (int i = 1; i < positions.length && consecutive; i++) {
+                consecutive = Arrays.binarySearch(positions[i], start + i) >= 0;
+            }
+            if (consecutive) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // EFFECTS: returns the up to maxResults documents in scored (that are in required, if it is not null) with the
+    // highest scores, from highest to lowest
+    private List<Hit> getTopHits(double[] scores, List<Integer> scored, BitSet required, int maxResults) {
+        Comparator<Integer> byScore = Comparator.comparingDouble((Integer docId) -> scores[docId])
+                .thenComparing(Comparator.<Integer>reverseOrder());
+        PriorityQueue<Integer> top = new PriorityQueue<Integer>(byScore);
+        for (int docId : scored) {
+            if (required != null && !required.get(docId)) {
+                continue;
+            }
+            top.add(docId);
+            if (top.size() > maxResults) {
+                top.poll();
+            }
+        }
+        List<Hit> hits = new ArrayList<Hit>(top.size());
+        while (!top.isEmpty()) {
+            int docId = top.poll();
+            hits.add(new Hit(docId, index.getPath(docId), scores[docId]));
+        }
+        Collections.reverse(hits);
+        return hits;
+    }
+}
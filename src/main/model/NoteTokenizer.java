@@ -0,0 +1,36 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Represents the rules for splitting the text of a note (or a search query) into terms: a term is a run of letters and
+// digits, lower-cased, and everything else separates terms. Terms longer than MAX_TERM_LENGTH characters are cut off
+// at that length, so that a long run of characters (e.g. an encoded image pasted into a note) cannot bloat the index
+public class NoteTokenizer {
+    public static final int MAX_TERM_LENGTH = 64;
+
+    // EFFECTS: returns the terms in text, in order; the i-th term is at position i
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<String>();
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            int codePoint = text.codePointAt(i);
+            if (!Character.isLetterOrDigit(codePoint)) {
+                i += Character.charCount(codePoint);
+                continue;
+            }
+            int start = i;
+            while (i < length && Character.isLetterOrDigit(codePoint = text.codePointAt(i))) {
+                i += Character.charCount(codePoint);
+            }
+            int end = Math.min(i, start + MAX_TERM_LENGTH);
+            if (end < i && Character.isHighSurrogate(text.charAt(end - 1))) {
+                end--;
+            }
+            terms.add(text.substring(start, end).toLowerCase(Locale.ROOT));
+        }
+        return terms;
+    }
+}
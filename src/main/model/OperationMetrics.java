@@ -0,0 +1,37 @@
+package model;
+
+// Represents the metrics kept for one operation (e.g. opening a Folder or reading a save): how many times it has been
+// done and how long each time took. Any number of threads can record into it at once without taking a lock
+public class OperationMetrics {
+    private final String name;
+    private final LatencyHistogram latencies;
+
+    // EFFECTS: constructs metrics for the operation named name, which has not been done yet
+    public OperationMetrics(String name) {
+        this.name = name;
+        latencies = new LatencyHistogram();
+    }
+
+    // EFFECTS: returns the name of the operation
+    public String getName() {
+        return name;
+    }
+
+    // EFFECTS: returns the latencies of the times the operation has been done
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    // EFFECTS: returns the number of times the operation has been done
+    public long getCount() {
+        return latencies.getCount();
+    }
+
+    // REQUIRES: startNanos is a value of System.nanoTime() from when the operation began
+    // MODIFIES: this
+    // EFFECTS: records that the operation was done once, taking from startNanos until now (whether it succeeded or
+    // threw)
+    public void recordSince(long startNanos) {
+        latencies.record(System.nanoTime() - startNanos);
+    }
+}
@@ -0,0 +1,77 @@
+package model;
+
+import java.util.Iterator;
+
+// Represents a full-text index of notes (the .txt files on the user's computer that Files point to). Each note indexed
+// is a document, numbered from 0 to getNumDocuments() - 1, and for each term (see NoteTokenizer) the index has its
+// postings: the documents it appears in, in ascending order, with the positions it appears at in each. A document can
+// be deleted (e.g. because its note changed and was indexed again as a new document), after which it keeps its number
+// but no longer appears in any postings
+public interface TextIndex {
+    // EFFECTS: returns the number of documents in the index, including deleted ones
+    int getNumDocuments();
+
+    // EFFECTS: returns the number of documents in the index that have not been deleted
+    int getNumLiveDocuments();
+
+    // EFFECTS: returns the total number of terms in all the documents that have not been deleted
+    long getTotalLength();
+
+    // REQUIRES: 0 <= docId < getNumDocuments()
+    // EFFECTS: returns true if document docId has been deleted
+    boolean isDeleted(int docId);
+
+    // REQUIRES: 0 <= docId < getNumDocuments()
+    // EFFECTS: returns the number of terms in document docId
+    int getLength(int docId);
+
+    // REQUIRES: 0 <= docId < getNumDocuments()
+    // EFFECTS: returns the path on the user's computer of the note that is document docId
+    String getPath(int docId);
+
+    // REQUIRES: 0 <= docId < getNumDocuments()
+    // EFFECTS: returns the size in bytes the note that is document docId had when it was indexed
+    long getSize(int docId);
+
+    // REQUIRES: 0 <= docId < getNumDocuments()
+    // EFFECTS: returns when (in milliseconds since the epoch) the note that is document docId had last been modified
+    // when it was indexed
+    long getLastModified(int docId);
+
+    // REQUIRES: 0 <= docId < getNumDocuments()
+    // EFFECTS: returns the hash (see NoteIndex.hash) of the contents the note that is document docId had when it was
+    // indexed
+    long getContentHash(int docId);
+
+    // EFFECTS: returns new postings of term (which must already be a term, as NoteTokenizer makes them), positioned
+    // before the first document, or null if no document has term (if only deleted documents have it, the postings
+    // may be returned but be empty)
+    Postings getPostings(String term);
+
+    // EFFECTS: returns every term that some document has (possibly including terms only deleted documents have), each
+    // once, in no particular order
+    Iterator<String> getTerms();
+
+    // Represents a cursor over the postings of one term
+    interface Postings {
+        // EFFECTS: returns the number of documents the term appears in (which may count deleted documents)
+        int getDocumentFrequency();
+
+        // MODIFIES: this
+        // EFFECTS: moves to the next document the term appears in and returns true, or returns false if there are
+        // no more
+        boolean next();
+
+        // REQUIRES: next has returned true
+        // EFFECTS: returns the current document
+        int getDocId();
+
+        // REQUIRES: next has returned true
+        // EFFECTS: returns the number of times the term appears in the current document
+        int getFrequency();
+
+        // REQUIRES: next has returned true
+        // EFFECTS: returns the positions the term appears at in the current document, in ascending order
+        int[] getPositions();
+    }
+}
@@ -0,0 +1,4 @@
+package model.exceptions;
+
+public class FolderNotLoadedRuntimeException extends RuntimeException {
+}
@@ -0,0 +1,4 @@
+package model.exceptions;
+
+public class InvalidGrepPatternException extends Exception {
+}
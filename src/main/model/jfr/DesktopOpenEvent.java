@@ -0,0 +1,33 @@
+package model.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// Represents a JFR event for asking the desktop to open a File in the user's default text editor. Its duration is how
+// long the desktop took to accept the request (not how long the editor took to start)
+@Name("pine.DesktopOpen")
+@Label("Desktop Open")
+@Category({"Pine", "Model"})
+@Description("A File was opened in the user's default text editor")
+public class DesktopOpenEvent extends Event {
+    @Label("File Path")
+    String filePath;
+
+    @Label("File Size")
+    @DataAmount
+    long fileSize;
+
+    // MODIFIES: this
+    // EFFECTS: if this event should be recorded, ends it and records it as opening the file at filePath
+    public void commit(String filePath) {
+        if (shouldCommit()) {
+            this.filePath = filePath;
+            fileSize = new java.io.File(filePath).length();
+            commit();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package model.jfr;
+
+import model.Event.Operation;
+import model.Folder;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// Represents a JFR event for one change made to a FileSystem: creating, renaming, or deleting a File, Folder, or
+// Label, or labelling or unlabelling a File. Its duration is how long the change took.
+// Like every event in this package, it costs next to nothing while no recording has it enabled: it is begun when the
+// change begins and its fields are only filled in (and counted) if shouldCommit() is true when it is committed
+@Name("pine.FileSystemMutation")
+@Label("File System Mutation")
+@Category({"Pine", "Model"})
+@Description("A File, Folder, or Label was created, renamed, deleted, labelled, or unlabelled")
+public class FileSystemMutationEvent extends Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Name")
+    @Description("The name of the File, Folder, or Label that was changed")
+    String name;
+
+    @Label("Child Count")
+    @Description("The number of subfiles and subfolders in the current Folder afterwards")
+    int childCount;
+
+    @Label("Labelled File Count")
+    @Description("The number of Files labelled with the Label that was changed or applied, or -1 if there was none")
+    int labelledFileCount;
+
+    // MODIFIES: this
+    // EFFECTS: if this event should be recorded, ends it and records it as operation on the File, Folder, or Label
+    // named name, made while currentFolder was open and involving label (or no Label, if label is null)
+    public void commit(Operation operation, String name, Folder currentFolder, model.Label label) {
+        if (shouldCommit()) {
+            this.operation = operation.name();
+            this.name = name;
+            childCount = currentFolder.getSubfolders().size() + currentFolder.getSubfiles().size();
+            labelledFileCount = label == null ? -1 : label.getLabelledFiles().size();
+            commit();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package model.jfr;
+
+import model.Folder;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// Represents a JFR event for looking up a subfile or subfolder of a Folder by name. Its duration is how long the
+// lookup took, including loading the Folder's contents if they had not been loaded yet.
+// Lookups happen far more often than anything else (every operation on a File or Folder starts with one), so this
+// event is disabled unless a recording enables it (e.g. with jfr configure or -XX:StartFlightRecording settings)
+@Name("pine.FolderLookup")
+@Label("Folder Lookup")
+@Category({"Pine", "Model"})
+@Description("A subfile or subfolder of a Folder was looked up by name")
+@Enabled(false)
+public class FolderLookupEvent extends Event {
+    @Label("Folder")
+    String folder;
+
+    @Label("Name")
+    String name;
+
+    @Label("Subfolder")
+    @Description("Whether a subfolder was looked up rather than a subfile")
+    boolean subfolder;
+
+    @Label("Child Count")
+    @Description("The number of subfolders (or subfiles) the name was looked up among")
+    int childCount;
+
+    @Label("Found")
+    boolean found;
+
+    // MODIFIES: this
+    // EFFECTS: if this event should be recorded, ends it and records it as looking up name among the childCount
+    // subfolders (if subfolder is true) or subfiles of folder, which found one if found is true
+    public void commit(Folder folder, String name, boolean subfolder, int childCount, boolean found) {
+        if (shouldCommit()) {
+            this.folder = folder.getName();
+            this.name = name;
+            this.subfolder = subfolder;
+            this.childCount = childCount;
+            this.found = found;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package model.jfr;
+
+import model.Folder;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// Represents a JFR event for opening a Folder, i.e. making it a FileSystem's current Folder. Its duration is how long
+// opening it took (not counting finding it; see FolderLookupEvent)
+@Name("pine.FolderOpen")
+@Label("Folder Open")
+@Category({"Pine", "Model"})
+@Description("A Folder was opened")
+public class FolderOpenEvent extends Event {
+    @Label("Path")
+    String path;
+
+    @Label("Subfolder Count")
+    @Description("The number of subfolders the Folder has, or -1 if its contents have not been loaded yet")
+    int subfolderCount;
+
+    @Label("Subfile Count")
+    @Description("The number of subfiles the Folder has, or -1 if its contents have not been loaded yet")
+    int subfileCount;
+
+    // MODIFIES: this
+    // EFFECTS: if this event should be recorded, ends it and records it as the opening of folder. Does not load
+    // folder's contents
+    public void commit(Folder folder) {
+        if (shouldCommit()) {
+            path = folder.getPathInThisFileSystem();
+            subfolderCount = folder.isLoaded() ? folder.getSubfolders().size() : -1;
+            subfileCount = folder.isLoaded() ? folder.getSubfiles().size() : -1;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package model.jfr;
+
+import model.Folder;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// Represents a JFR event for opening a Label or a label query, i.e. making a view of the Files labelled with it (or
+// matching it) a FileSystem's current Folder. Its duration is how long opening it took, including loading any Folders
+// that had not been loaded yet and evaluating the query
+@Name("pine.LabelOpen")
+@Label("Label Open")
+@Category({"Pine", "Model"})
+@Description("A Label or label query was opened")
+public class LabelOpenEvent extends Event {
+    @Label("Name")
+    @Description("The name of the Label, or the label query")
+    String name;
+
+    @Label("Query")
+    @Description("Whether a label query was opened rather than a single Label")
+    boolean query;
+
+    @Label("Labelled File Count")
+    @Description("The number of Files in the view that was opened")
+    int labelledFileCount;
+
+    // MODIFIES: this
+    // EFFECTS: if this event should be recorded, ends it and records it as the opening of view, a view of the Label
+    // named name (or of the label query name, if query is true)
+    public void commit(String name, boolean query, Folder view) {
+        if (shouldCommit()) {
+            this.name = name;
+            this.query = query;
+            labelledFileCount = view.getSubfiles().size();
+            commit();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package persistence;
+
+import model.MetricsRegistry;
+import model.OperationMetrics;
+import persistence.jfr.AtomicFileCommitEvent;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// Represents a file that is replaced all at once: everything is written to a temporary file in the same directory,
+// which is forced to disk and then renamed over the destination in one step. If the program is killed part way
+// through, the destination still holds its previous contents rather than a partly-written file
+public class AtomicFileWriter {
+    private static final OperationMetrics COMMIT_METRICS =
+            MetricsRegistry.getInstance().getOperation("AtomicFileWriter.commit");
+
+    private String destinationPath;
+    private Path destination;
+    private Path temporaryFile;
+    private FileChannel channel;
+
+    // EFFECTS: constructs a new AtomicFileWriter that replaces the file at destinationPath
+    public AtomicFileWriter(String destinationPath) {
+        this.destinationPath = destinationPath;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: creates the temporary file and returns a channel for writing to it
+    // throws IOException if it could not be created (including if destinationPath is not a valid path)
+    public FileChannel open() throws IOException {
+        try {
+            destination = Paths.get(destinationPath).toAbsolutePath();
+        } catch (InvalidPathException e) {
+            throw new IOException(e);
+        }
+        temporaryFile = Files.createTempFile(destination.getParent(), destination.getFileName() + ".", ".tmp");
+        channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        return channel;
+    }
+
+    // REQUIRES: open has been called and neither commit nor abort has been called since
+    // MODIFIES: this
+    // EFFECTS: forces the temporary file to disk, closes it, and renames it over the destination
+    // throws IOException if any of those fail, in which case the temporary file is deleted and the destination is
+    // left as it was
+    public void commit() throws IOException {
+        long start = System.nanoTime();
+        AtomicFileCommitEvent event = new AtomicFileCommitEvent();
+        event.begin();
+        try {
+            event.recordSize(channel);
+            channel.force(true);
+            channel.close();
+            Files.move(temporaryFile, destination, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            event.commit(destination);
+        } catch (IOException e) {
+            abort();
+            throw e;
+        } finally {
+            COMMIT_METRICS.recordSince(start);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes and deletes the temporary file (if there is one), leaving the destination as it was
+    public void abort() {
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+            if (temporaryFile != null) {
+                Files.deleteIfExists(temporaryFile);
+            }
+        } catch (IOException e) {
+            // nothing more can be done, and the destination is untouched either way
+        }
+    }
+
+    // EFFECTS: replaces the file at destinationPath with bytes
+    // throws IOException if it could not be replaced, in which case it is left as it was
+    public static void write(String destinationPath, byte[] bytes) throws IOException {
+        AtomicFileWriter writer = new AtomicFileWriter(destinationPath);
+        FileChannel channel = writer.open();
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            writer.abort();
+            throw e;
+        }
+        writer.commit();
+    }
+}
@@ -0,0 +1,247 @@
+package persistence;
+
+import model.Event;
+import model.EventLog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Represents an appender that copies the events logged to an EventLog into log files on disk, on a background thread,
+// so that they are not lost if the program dies. The EventLog's ring buffer is the bounded queue between the threads
+// logging events and the appender: logging an event never waits on the appender, and if the appender falls so far
+// behind that events are overwritten before it gets to them, they are counted as dropped instead.
+// Events are written in batches to FILE_NAME in the log directory, one per line, as tab-separated fields:
+//   the time it was logged (in milliseconds since the epoch), its sequence number, its operation, its subject, and its
+//   detail
+// with tabs, newlines, and backslashes in names escaped (see EventLogFile). Once the file would grow past
+// maxFileBytes it is rotated: it is renamed to events.1.log, the previous events.1.log to events.2.log, and so on,
+// keeping at most maxRotatedFiles rotated files
+public class EventLogAppender {
+    public static final String DEFAULT_DIRECTORY_PATH = "data/logs";
+    public static final long DEFAULT_MAX_FILE_BYTES = 1024 * 1024;
+    public static final int DEFAULT_MAX_ROTATED_FILES = 5;
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 500;
+
+    private static final int BATCH_SIZE = 64 * 1024;
+
+    private final EventLog eventLog;
+    private final String directoryPath;
+    private final long maxFileBytes;
+    private final int maxRotatedFiles;
+    private final long flushIntervalNanos;
+
+    private Thread thread;
+    private volatile boolean running;
+
+    private long nextSequence;
+    private final ByteArrayOutputStream batch;
+    private int numEventsInBatch;
+    private FileChannel channel;
+    private long fileSize;
+    private volatile long numWritten;
+    private volatile long numDropped;
+
+    // EFFECTS: constructs an appender that will write the events logged to eventLog from now on to log files in
+    // directoryPath, with the default file size, number of rotated files, and flush interval
+    public EventLogAppender(EventLog eventLog, String directoryPath) {
+        this(eventLog, directoryPath, DEFAULT_MAX_FILE_BYTES, DEFAULT_MAX_ROTATED_FILES,
+                DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
+
+    // REQUIRES: maxFileBytes > 0, maxRotatedFiles >= 0, flushIntervalMillis > 0
+    // EFFECTS: constructs an appender that will write the events logged to eventLog from now on to log files in
+    // directoryPath, rotating them once they would grow past maxFileBytes, keeping at most maxRotatedFiles rotated
+    // files, and writing whatever has been logged every flushIntervalMillis
+    public EventLogAppender(EventLog eventLog, String directoryPath, long maxFileBytes, int maxRotatedFiles,
+            long flushIntervalMillis) {
+        this.eventLog = eventLog;
+        this.directoryPath = directoryPath;
+        this.maxFileBytes = maxFileBytes;
+        this.maxRotatedFiles = maxRotatedFiles;
+        flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        nextSequence = eventLog.getNumLogged();
+        batch = new ByteArrayOutputStream(BATCH_SIZE);
+        numEventsInBatch = 0;
+        channel = null;
+        numWritten = 0;
+        numDropped = 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts writing events on a background (daemon) thread, if it has not been started already
+    public synchronized void start() {
+        if (thread != null) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "Event log appender");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes every event logged so far that has not been written yet, on the calling thread
+    public synchronized void flush() {
+        Iterator<Event> events = eventLog.iterator(nextSequence);
+        while (events.hasNext()) {
+            Event event = events.next();
+            if (event.getSequence() > nextSequence) {
+                numDropped += event.getSequence() - nextSequence;
+            }
+            nextSequence = event.getSequence() + 1;
+            byte[] line = EventLogFile.formatLine(event).getBytes(StandardCharsets.UTF_8);
+            if (fileSize + batch.size() + line.length > maxFileBytes && fileSize + batch.size() > 0) {
+                writeBatch();
+                rotate();
+            }
+            batch.write(line, 0, line.length);
+            numEventsInBatch++;
+            if (batch.size() >= BATCH_SIZE) {
+                writeBatch();
+            }
+        }
+        writeBatch();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops the background thread (if it was started), writes every event logged so far that has not been
+    // written yet, and closes the log file
+    public void close() {
+        Thread toJoin;
+        synchronized (this) {
+            running = false;
+            toJoin = thread;
+        }
+        if (toJoin != null) {
+            LockSupport.unpark(toJoin);
+            try {
+                toJoin.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            flush();
+            closeChannel();
+        }
+    }
+
+    // EFFECTS: returns the number of events that have been written to the log files
+    public long getNumWritten() {
+        return numWritten;
+    }
+
+    // EFFECTS: returns the number of events that were never written, because they were overwritten in the EventLog
+    // before the appender got to them or because writing them failed
+    public long getNumDropped() {
+        return numDropped;
+    }
+
+    // EFFECTS: returns the path of the log file events are currently written to
+    public Path getFilePath() {
+        return Paths.get(directoryPath, EventLogFile.FILE_NAME);
+    }
+
+
+    // Helper Methods:
+
+    // MODIFIES: this
+    // EFFECTS: writes whatever has been logged every flushIntervalNanos until close is called
+    private void run() {
+        while (running) {
+            flush();
+            LockSupport.parkNanos(this, flushIntervalNanos);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends the batch to the log file (opening it if need be) and empties the batch. If that fails, the
+    // events in the batch are counted as dropped and the file is reopened next time
+    private void writeBatch() {
+        if (numEventsInBatch == 0) {
+            return;
+        }
+        try {
+            if (channel == null) {
+                openChannel();
+            }
+            ByteBuffer bytes = ByteBuffer.wrap(batch.toByteArray());
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            fileSize += batch.size();
+            numWritten += numEventsInBatch;
+        } catch (IOException | InvalidPathException e) {
+            numDropped += numEventsInBatch;
+            closeChannel();
+        }
+        batch.reset();
+        numEventsInBatch = 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes the log file and renames it and the rotated files one step along, deleting the oldest one if
+    // there would be more than maxRotatedFiles. The next batch starts a new log file
+    private void rotate() {
+        closeChannel();
+        try {
+            Path directory = Paths.get(directoryPath);
+            if (maxRotatedFiles == 0) {
+                Files.deleteIfExists(directory.resolve(EventLogFile.FILE_NAME));
+            } else {
+                Files.deleteIfExists(directory.resolve(EventLogFile.rotatedFileName(maxRotatedFiles)));
+                for (int i = maxRotatedFiles - 1; i >= 1; i--) {
+                    moveIfExists(directory.resolve(EventLogFile.rotatedFileName(i)),
+                            directory.resolve(EventLogFile.rotatedFileName(i + 1)));
+                }
+                moveIfExists(directory.resolve(EventLogFile.FILE_NAME),
+                        directory.resolve(EventLogFile.rotatedFileName(1)));
+            }
+        } catch (IOException | InvalidPathException e) {
+            // the next batch is appended to the old log file instead, which is rotated again once it is written
+        }
+        fileSize = 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens the log file for appending, creating it and the log directory if they do not exist
+    // throws IOException if it could not be opened
+    private void openChannel() throws IOException {
+        Files.createDirectories(Paths.get(directoryPath));
+        channel = FileChannel.open(getFilePath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        fileSize = channel.size();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes the log file if it is open
+    private void closeChannel() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // everything written to it has already been handed to the operating system
+            }
+            channel = null;
+        }
+    }
+
+    // EFFECTS: renames source to target, replacing target, if source exists
+    private static void moveIfExists(Path source, Path target) throws IOException {
+        if (Files.exists(source)) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package persistence;
+
+import model.Event;
+
+// Represents the format of the log files written by EventLogAppender and searched by EventLogReader: their names, and
+// how each event is written as (and read back from) one line of tab-separated fields (see EventLogAppender). A
+// subject or detail that the event does not have is written as an empty field (names and paths are never empty), and
+// backslashes, tabs, carriage returns, and newlines in them are escaped as \\, \t, \r, and \n so that each event
+// stays on one line
+public class EventLogFile {
+    public static final String FILE_NAME = "events.log";
+
+    private static final String ROTATED_FILE_PREFIX = "events.";
+    private static final String ROTATED_FILE_SUFFIX = ".log";
+
+    // REQUIRES: rotation >= 1
+    // EFFECTS: returns the name of the rotation'th most recently rotated log file
+    public static String rotatedFileName(int rotation) {
+        return ROTATED_FILE_PREFIX + rotation + ROTATED_FILE_SUFFIX;
+    }
+
+    // REQUIRES: event has been logged to an EventLog
+    // EFFECTS: returns event as one line of a log file, including the line break at its end
+    public static String formatLine(Event event) {
+        StringBuilder line = new StringBuilder();
+        line.append(event.getMillis()).append('\t');
+        line.append(event.getSequence()).append('\t');
+        line.append(event.getOperation().name()).append('\t');
+        appendEscaped(line, event.getSubject());
+        line.append('\t');
+        appendEscaped(line, event.getDetail());
+        line.append('\n');
+        return line.toString();
+    }
+
+    // EFFECTS: returns the event written as line (without its line break), or null if line is not a well-formed event
+    // (e.g. one cut off part way by a crash, or one with an operation this version does not have)
+    public static Event parseLine(String line) {
+        String[] fields = line.split("\t", -1);
+        if (fields.length != 5) {
+            return null;
+        }
+        try {
+            return new Event(Long.parseLong(fields[1]), Long.parseLong(fields[0]), Event.Operation.valueOf(fields[2]),
+                    unescape(fields[3]), unescape(fields[4]));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+
+    // Helper Methods:
+
+    // MODIFIES: line
+    // EFFECTS: appends field to line with its backslashes, tabs, carriage returns, and newlines escaped, or nothing if
+    // it is null
+    private static void appendEscaped(StringBuilder line, String field) {
+        if (field == null) {
+            return;
+        }
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            switch (c) {
+                case '\\':
+                    line.append("\\\\");
+                    break;
+                case '\t':
+                    line.append("\\t");
+                    break;
+                case '\r':
+                    line.append("\\r");
+                    break;
+                case '\n':
+                    line.append("\\n");
+                    break;
+                default:
+                    line.append(c);
+            }
+        }
+    }
+
+    // EFFECTS: returns field with its escape sequences replaced, or null if it is empty
+    // throws IllegalArgumentException if it has a backslash that does not start an escape sequence
+    private static String unescape(String field) {
+        if (field.isEmpty()) {
+            return null;
+        }
+        if (field.indexOf('\\') < 0) {
+            return field;
+        }
+        StringBuilder unescaped = new StringBuilder(field.length());
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c != '\\') {
+                unescaped.append(c);
+                continue;
+            }
+            if (++i == field.length()) {
+                throw new IllegalArgumentException();
+            }
+            unescaped.append(unescape(field.charAt(i)));
+        }
+        return unescaped.toString();
+    }
+
+    // EFFECTS: returns the character that the escape sequence of a backslash followed by escaped stands for
+    // throws IllegalArgumentException if a backslash followed by escaped is not an escape sequence
+    private static char unescape(char escaped) {
+        switch (escaped) {
+            case '\\':
+                return '\\';
+            case 't':
+                return '\t';
+            case 'r':
+                return '\r';
+            case 'n':
+                return '\n';
+            default:
+                throw new IllegalArgumentException();
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package persistence;
+
+import model.Event;
+import model.EventQuery;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+// Represents a reader for searching the log files that EventLogAppender writes, oldest rotated file first. The first
+// time a file is searched, it is indexed: its lines are split into buckets of about BUCKET_MILLIS, and for each bucket
+// the index records where it starts in the file, the earliest and latest time of the events in it, and which
+// operations they are. A search then only reads the buckets whose times overlap the query's window and that have one
+// of the operations it wants, so it never reads (or parses) most of the file. Indices are kept until the file changes
+public class EventLogReader {
+    static final long BUCKET_MILLIS = 60 * 1000;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String directoryPath;
+    private final Map<Path, FileIndex> indices;
+
+    // EFFECTS: constructs a reader for the log files in directoryPath
+    public EventLogReader(String directoryPath) {
+        this.directoryPath = directoryPath;
+        indices = new HashMap<Path, FileIndex>();
+    }
+
+    // EFFECTS: returns the events in the log files that match query, from oldest to newest, reading the files as they
+    // are streamed. The stream should be closed (e.g. with try-with-resources) if it is not read to the end
+    // throws IOException if the log directory could not be listed
+    // throws UncheckedIOException (while streaming) if a log file could not be read
+    public Stream<Event> query(EventQuery query) throws IOException {
+        return getFilesOldestFirst().stream().flatMap(file -> queryFile(file, query));
+    }
+
+    // EFFECTS: returns the log files in the log directory, oldest first: the rotated files (from most rotated to
+    // least) and then the file currently being written to
+    // throws IOException if the log directory could not be listed
+    public List<Path> getFilesOldestFirst() throws IOException {
+        Path directory;
+        try {
+            directory = Paths.get(directoryPath);
+        } catch (InvalidPathException e) {
+            throw new IOException(e);
+        }
+        List<Path> files = new ArrayList<Path>();
+        if (!Files.isDirectory(directory)) {
+            return files;
+        }
+        for (int rotation = 1; Files.exists(directory.resolve(EventLogFile.rotatedFileName(rotation))); rotation++) {
+            files.add(0, directory.resolve(EventLogFile.rotatedFileName(rotation)));
+        }
+        if (Files.exists(directory.resolve(EventLogFile.FILE_NAME))) {
+            files.add(directory.resolve(EventLogFile.FILE_NAME));
+        }
+        return files;
+    }
+
+    // Represents the index of one log file: which file it was (where the file system can tell), its size and time last
+    // modified when it was indexed, and the buckets its lines were split into. Bucket i holds the lines in
+    // [offsets[i], offsets[i + 1])
+    private static class FileIndex {
+        private final Object fileKey;
+        private final long size;
+        private final long lastModified;
+        private int numBuckets;
+        private long[] offsets;
+        private long[] minMillis;
+        private long[] maxMillis;
+        private int[] operationMasks;
+        private long currentBucket;
+
+        // EFFECTS: constructs an index with no buckets for the file with the given attributes
+        FileIndex(BasicFileAttributes attributes) {
+            fileKey = attributes.fileKey();
+            size = attributes.size();
+            lastModified = attributes.lastModifiedTime().toMillis();
+            numBuckets = 0;
+            offsets = new long[17];
+            minMillis = new long[16];
+            maxMillis = new long[16];
+            operationMasks = new int[16];
+        }
+
+        // MODIFIES: this
+        // EFFECTS: adds the line that starts at offset, whose event was logged at millis and is operation, to the
+        // current bucket, or to a new one if it is in a later BUCKET_MILLIS than the current one
+        void addLine(long offset, long millis, Event.Operation operation) {
+            long bucket = Math.floorDiv(millis, BUCKET_MILLIS);
+            if (numBuckets == 0 || bucket > currentBucket) {
+                if (numBuckets == minMillis.length) {
+                    offsets = Arrays.copyOf(offsets, numBuckets * 2 + 1);
+                    minMillis = Arrays.copyOf(minMillis, numBuckets * 2);
+                    maxMillis = Arrays.copyOf(maxMillis, numBuckets * 2);
+                    operationMasks = Arrays.copyOf(operationMasks, numBuckets * 2);
+                }
+                offsets[numBuckets] = offset;
+                minMillis[numBuckets] = millis;
+                maxMillis[numBuckets] = millis;
+                numBuckets++;
+                currentBucket = bucket;
+            }
+            int i = numBuckets - 1;
+            minMillis[i] = Math.min(minMillis[i], millis);
+            maxMillis[i] = Math.max(maxMillis[i], millis);
+            operationMasks[i] |= 1 << operation.ordinal();
+        }
+
+        // MODIFIES: this
+        // EFFECTS: ends the last bucket at end, the end of the last complete line
+        void finish(long end) {
+            offsets[numBuckets] = end;
+        }
+
+        // EFFECTS: returns true if this is the index of the file with attributes, as it is now
+        boolean isOf(BasicFileAttributes attributes) {
+            return Objects.equals(fileKey, attributes.fileKey()) && size == attributes.size()
+                    && lastModified == attributes.lastModifiedTime().toMillis();
+        }
+
+        // EFFECTS: returns true if bucket i could have events that match query
+        boolean mayMatch(int i, EventQuery query) {
+            return query.overlaps(minMillis[i], maxMillis[i]) && (operationMasks[i] & query.getOperationMask()) != 0;
+        }
+    }
+
+
+    // Represents the parsing of a log file's lines one byte at a time, adding each well-formed line to an index: where
+    // the file is up to, where the current line starts, which of its tab-separated fields it is in, and what has been
+    // parsed of the line's time and operation name so far
+    private static class LineScanner {
+        private final FileIndex index;
+        private final StringBuilder operationName = new StringBuilder();
+        private long position = 0;
+        private long lineStart = 0;
+        private int field = 0;
+        private long millis = 0;
+        private boolean wellFormed = true;
+
+        // EFFECTS: constructs a scanner at the start of a file, which adds its lines to index
+        LineScanner(FileIndex index) {
+            this.index = index;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: parses c, the next byte of the file, adding the line it ends to the index if it is a line break
+        void next(byte c) {
+            if (c == '\n') {
+                Event.Operation operation = wellFormed && field == 4 ? toOperation(operationName) : null;
+                if (operation != null) {
+                    index.addLine(lineStart, millis, operation);
+                }
+                lineStart = position + 1;
+                field = 0;
+                millis = 0;
+                wellFormed = true;
+                operationName.setLength(0);
+            } else if (c == '\t') {
+                field++;
+            } else if (field == 0) {
+                wellFormed &= c >= '0' && c <= '9';
+                millis = millis * 10 + (c - '0');
+            } else if (field == 2) {
+                operationName.append((char) c);
+            }
+            position++;
+        }
+    }
+
+
+    // Helper Methods:
+
+    // EFFECTS: returns the events in file that match query, from oldest to newest, reading the buckets that could have
+    // some as they are streamed. If the file no longer exists (because it was rotated away while searching), there are
+    // none
+    // throws UncheckedIOException if the file could not be read
+    private Stream<Event> queryFile(Path file, EventQuery query) {
+        FileIndex index;
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            return Stream.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            index = getIndex(file);
+        } catch (IOException e) {
+            closeQuietly(channel);
+            throw new UncheckedIOException(e);
+        }
+        return IntStream.range(0, index.numBuckets)
+                .filter(i -> index.mayMatch(i, query))
+                .boxed()
+                .flatMap(i -> readBucket(channel, index, i))
+                .filter(query::matches)
+                .onClose(() -> closeQuietly(channel));
+    }
+
+    // MODIFIES: channel
+    // EFFECTS: closes channel, which was only read from
+    private static void closeQuietly(FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // nothing was written to it, so there is nothing to lose
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the index of file, indexing it if it has not been indexed since it last changed
+    // throws IOException if it could not be read
+    private synchronized FileIndex getIndex(Path file) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        FileIndex index = indices.get(file);
+        if (index == null || !index.isOf(attributes)) {
+            index = buildIndex(file, attributes);
+            indices.put(file, index);
+        }
+        return index;
+    }
+
+    // EFFECTS: reads file and returns its index. Only each line's time and operation are parsed; lines that are not
+    // well-formed are left in whichever bucket they fall in (and skipped when it is read), and a last line with no
+    // line break (which is still being written) is left out
+    // throws IOException if it could not be read
+    private static FileIndex buildIndex(Path file, BasicFileAttributes attributes) throws IOException {
+        FileIndex index = new FileIndex(attributes);
+        LineScanner scanner = new LineScanner(index);
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                for (int i = 0; i < read; i++) {
+                    scanner.next(buffer[i]);
+                }
+            }
+        }
+        if (index.numBuckets > 0) {
+            index.finish(scanner.lineStart);
+        }
+        return index;
+    }
+
+    // EFFECTS: returns the operation named name, or null if there is no such operation
+    private static Event.Operation toOperation(CharSequence name) {
+        try {
+            return Event.Operation.valueOf(name.toString());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // EFFECTS: reads bucket i of the file open on channel and returns its well-formed events, in order
+    // throws UncheckedIOException if it could not be read
+    private static Stream<Event> readBucket(FileChannel channel, FileIndex index, int i) {
+        ByteBuffer bytes = ByteBuffer.allocate((int) (index.offsets[i + 1] - index.offsets[i]));
+        try {
+            while (bytes.hasRemaining()) {
+                if (channel.read(bytes, index.offsets[i] + bytes.position()) < 0) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        String lines = new String(bytes.array(), 0, bytes.position(), StandardCharsets.UTF_8);
+        List<Event> events = new ArrayList<Event>();
+        int lineStart = 0;
+        for (int lineEnd = lines.indexOf('\n'); lineEnd >= 0; lineEnd = lines.indexOf('\n', lineStart)) {
+            Event event = EventLogFile.parseLine(lines.substring(lineStart, lineEnd));
+            if (event != null) {
+                events.add(event);
+            }
+            lineStart = lineEnd + 1;
+        }
+        return events.stream();
+    }
+}
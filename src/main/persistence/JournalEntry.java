@@ -0,0 +1,57 @@
+package persistence;
+
+import java.util.List;
+
+// Represents one change to a file system recorded in the journal: its sequence number (which increases by one with
+// each change), what kind of change it was, the names of the Folders leading from the root Folder to the Folder it
+// happened in (empty for the root Folder and for changes to Labels), and the names and paths it needs (e.g. the old
+// and new name of a renamed File)
+public class JournalEntry {
+    public static final int CREATE_FILE = 1;
+    public static final int DELETE_FILE = 2;
+    public static final int RENAME_FILE = 3;
+    public static final int CREATE_FOLDER = 4;
+    public static final int DELETE_FOLDER = 5;
+    public static final int RENAME_FOLDER = 6;
+    public static final int CREATE_LABEL = 7;
+    public static final int DELETE_LABEL = 8;
+    public static final int RENAME_LABEL = 9;
+    public static final int LABEL_FILE = 10;
+    public static final int UNLABEL_FILE = 11;
+    public static final int REMOVE_ALL_LABELS = 12;
+
+    private final long sequence;
+    private final int type;
+    private final List<String> folderPath;
+    private final List<String> arguments;
+
+    // EFFECTS: constructs a journal entry with the given sequence number, type, folder path, and arguments
+    public JournalEntry(long sequence, int type, List<String> folderPath, List<String> arguments) {
+        this.sequence = sequence;
+        this.type = type;
+        this.folderPath = folderPath;
+        this.arguments = arguments;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public int getType() {
+        return type;
+    }
+
+    public List<String> getFolderPath() {
+        return folderPath;
+    }
+
+    // REQUIRES: 0 <= index < the number of arguments
+    // EFFECTS: returns the argument at index
+    public String getArgument(int index) {
+        return arguments.get(index);
+    }
+
+    public List<String> getArguments() {
+        return arguments;
+    }
+}
@@ -0,0 +1,120 @@
+package persistence;
+
+import model.MetricsRegistry;
+import model.OperationMetrics;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+// Represents a reader that reads the JournalEntries written to a journal by JournalWriter, in the order they were
+// appended
+public class JournalReader {
+    private static final OperationMetrics READ_METRICS =
+            MetricsRegistry.getInstance().getOperation("JournalReader.read");
+
+    private String filePath;
+
+    // EFFECTS: constructs a new JournalReader for reading the journal located at filePath
+    public JournalReader(String filePath) {
+        this.filePath = filePath;
+    }
+
+    // EFFECTS: returns the entries in the journal in the order they were appended. Stops at the first record that is
+    // incomplete or fails its checksum (i.e. one that was only partly written when the program was killed), since
+    // nothing after it can be trusted. Returns an empty list if there is no journal at filePath
+    // throws IOException if there is a problem reading the file
+    public List<JournalEntry> read() throws IOException {
+        long start = System.nanoTime();
+        try {
+            if (!new java.io.File(filePath).exists()) {
+                return new ArrayList<JournalEntry>();
+            }
+            return readEntries(readJournal());
+        } finally {
+            READ_METRICS.recordSince(start);
+        }
+    }
+
+
+    // Helper Methods:
+
+    // EFFECTS: returns a buffer holding the whole journal at filePath
+    // throws IOException if there is a problem reading the file or it is too large to fit in a buffer
+    private ByteBuffer readJournal() throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Journal is too large to read");
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // keep reading until the whole journal is in buffer
+            }
+            buffer.flip();
+            return buffer;
+        }
+    }
+
+    // MODIFIES: buffer
+    // EFFECTS: returns the entries in the records in buffer, in order, stopping at the first record that is incomplete,
+    // fails its checksum, or cannot be read
+    private List<JournalEntry> readEntries(ByteBuffer buffer) {
+        List<JournalEntry> entries = new ArrayList<JournalEntry>();
+        CRC32 crc = new CRC32();
+        while (buffer.remaining() >= JournalWriter.RECORD_HEADER_SIZE) {
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                break;
+            }
+            ByteBuffer payload = buffer.slice(buffer.position(), length);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            try {
+                entries.add(readEntry(payload));
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                break;
+            }
+            buffer.position(buffer.position() + length);
+        }
+        return entries;
+    }
+
+    // EFFECTS: reads one entry from payload
+    private JournalEntry readEntry(ByteBuffer payload) {
+        long sequence = payload.getLong();
+        int type = payload.getInt();
+        List<String> folderPath = readStrings(payload);
+        List<String> arguments = readStrings(payload);
+        return new JournalEntry(sequence, type, folderPath, arguments);
+    }
+
+    // EFFECTS: reads a count followed by that many strings from payload
+    private List<String> readStrings(ByteBuffer payload) {
+        int numStrings = payload.getInt();
+        if (numStrings < 0) {
+            throw new IllegalArgumentException();
+        }
+        List<String> strings = new ArrayList<String>();
+        for (int i = 0; i < numStrings; i++) {
+            int length = payload.getInt();
+            if (length < 0 || length > payload.remaining()) {
+                throw new BufferUnderflowException();
+            }
+            byte[] bytes = new byte[length];
+            payload.get(bytes);
+            strings.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+        return strings;
+    }
+}
@@ -0,0 +1,114 @@
+package persistence;
+
+import model.MetricsRegistry;
+import model.OperationMetrics;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+
+// Represents a writer that appends JournalEntries to the end of a journal file, forcing each one to disk before
+// returning so that it survives the program being killed. Each entry is written as one record:
+//   the length of its payload, a CRC-32 checksum of the payload, and the payload itself: the sequence number, the
+//   type, the folder path (a count followed by each name), and the arguments (a count followed by each one)
+// where every string is its UTF-8 length followed by its bytes. A record cut off part way by a crash fails its
+// checksum, and JournalReader stops there
+public class JournalWriter {
+    static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+
+    private static final OperationMetrics APPEND_METRICS =
+            MetricsRegistry.getInstance().getOperation("JournalWriter.append");
+
+    private String destinationPath;
+    private FileChannel channel;
+    private final ByteArrayOutputStream payloadBytes;
+    private final DataOutputStream payload;
+    private final CRC32 crc;
+
+    // EFFECTS: constructs a new JournalWriter for appending to the journal located at destinationPath
+    public JournalWriter(String destinationPath) {
+        this.destinationPath = destinationPath;
+        payloadBytes = new ByteArrayOutputStream();
+        payload = new DataOutputStream(payloadBytes);
+        crc = new CRC32();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens the journal (creating it if it does not exist) such that entries can be appended to its end
+    // throws IOException if the file could not be opened for writing
+    public void open() throws IOException {
+        channel = FileChannel.open(Paths.get(destinationPath), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends entry to the end of the journal and forces it to disk
+    // throws IOException if it could not be written
+    public void append(JournalEntry entry) throws IOException {
+        long start = System.nanoTime();
+        try {
+            payloadBytes.reset();
+            payload.writeLong(entry.getSequence());
+            payload.writeInt(entry.getType());
+            writeStrings(entry.getFolderPath());
+            writeStrings(entry.getArguments());
+            payload.flush();
+
+            crc.reset();
+            crc.update(payloadBytes.toByteArray(), 0, payloadBytes.size());
+            ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + payloadBytes.size());
+            record.putInt(payloadBytes.size());
+            record.putInt((int) crc.getValue());
+            record.put(payloadBytes.toByteArray(), 0, payloadBytes.size());
+            record.flip();
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            channel.force(false);
+        } finally {
+            APPEND_METRICS.recordSince(start);
+        }
+    }
+
+    // EFFECTS: returns the size of the journal in bytes
+    // throws IOException if it could not be determined
+    public long size() throws IOException {
+        return channel.size();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: discards every entry in the journal
+    // throws IOException if the journal could not be truncated
+    public void clear() throws IOException {
+        channel.truncate(0);
+        channel.force(false);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes the journal
+    // throws IOException if it could not be closed
+    public void close() throws IOException {
+        channel.close();
+    }
+
+
+    // Helper Methods:
+
+    // MODIFIES: this
+    // EFFECTS: writes the number of strings followed by each one's UTF-8 length and bytes to the payload
+    private void writeStrings(List<String> strings) throws IOException {
+        payload.writeInt(strings.size());
+        for (String string : strings) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            payload.writeInt(bytes.length);
+            payload.write(bytes);
+        }
+    }
+}
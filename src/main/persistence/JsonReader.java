@@ -1,24 +1,38 @@
 package persistence;
 
+import model.File;
 import model.FileSystem;
+import model.Folder;
+import model.MetricsRegistry;
+import model.OperationMetrics;
 import model.exceptions.NameIsTakenException;
 import model.exceptions.NoSuchFileFoundException;
 import model.exceptions.NoSuchFolderFoundException;
 import model.exceptions.NoSuchLabelFoundException;
 import persistence.exceptions.InvalidJsonException;
+import persistence.jfr.JsonReadEvent;
 
 import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.stream.Stream;
+import java.util.ArrayList;
+import java.util.List;
 
-import org.json.JSONArray;
-import org.json.JSONObject;
-
-// Represents a reader for reading all of the labels, files, and folders of the file system from a file, in JSON format
-// Based on [JsonSerializationDemo](https://github.students.cs.ubc.ca/CPSC210/JsonSerializationDemo) 
+// Represents a reader for reading all of the labels, files, and folders of the file system from a file, in JSON format.
+// The file is parsed as it is read and the Folders, Files, and Labels are built directly rather than by replaying
+// user operations, so loading takes about as long as reading the file
+// Based on [JsonSerializationDemo](https://github.students.cs.ubc.ca/CPSC210/JsonSerializationDemo)
 public class JsonReader {
+    private static final String ROOT_FOLDER_NAME = "root";
+    private static final String UNNAMED_FOLDER_NAME = "unnamed folder";
+
+    private static final OperationMetrics READ_METRICS = MetricsRegistry.getInstance().getOperation("JsonReader.read");
+    private static final OperationMetrics READ_FOLDER_METRICS =
+            MetricsRegistry.getInstance().getOperation("JsonReader.readFolder");
+
     private String filePath;
 
     // EFFECTS: constructs a new JsonReader for reading file located at filePath
@@ -32,318 +46,469 @@ public class JsonReader {
     // throws IOException if there is a problem with the file
     // throws InvalidJsonException if there was a problem making the file system the JSON represents
     public FileSystem read() throws IOException, InvalidJsonException {
-        String printedJson = readFile(filePath);
-        JSONObject json = new JSONObject(printedJson);
-        return parseFileSystem(json);
+        return read(new FileSystem());
     }
 
-    // EFFECTS: reads file at filePath and returns it
-    private String readFile(String filePath) throws IOException {
-        StringBuilder stringBuilder = new StringBuilder();
-
-        try (Stream<String> stream = Files.lines(Paths.get(filePath), StandardCharsets.UTF_8)) {
-            stream.forEach(s -> stringBuilder.append(s));
+    // REQUIRES: fileSystem has no Labels or Files and nothing opened yet (its root Folder may already have subfolders)
+    // MODIFIES: fileSystem
+    // EFFECTS: reads file at filePath and parses the JSON representation into fileSystem, then returns it
+    // throws IOException if there is a problem with the file
+    // throws InvalidJsonException if there was a problem making the file system the JSON represents
+    public FileSystem read(FileSystem fileSystem) throws IOException, InvalidJsonException {
+        long start = System.nanoTime();
+        try {
+            try (Reader reader = Channels.newReader(FileChannel.open(Paths.get(filePath)), StandardCharsets.UTF_8)) {
+                return new Loader(new JsonStreamReader(reader), filePath, fileSystem, false).load();
+            }
+        } finally {
+            READ_METRICS.recordSince(start);
         }
+    }
 
-        return stringBuilder.toString();
+    // REQUIRES: folder is in fileSystem and has no subfiles or subfolders yet
+    // MODIFIES: fileSystem, folder
+    // EFFECTS: reads file at filePath as the JSON representation of a single Folder and creates the subfiles and
+    // subfolders it represents in folder, labelling them with fileSystem's Labels. The name it was saved with is
+    // ignored
+    // throws IOException if there is a problem with the file
+    // throws InvalidJsonException if the JSON is malformed, has a duplicate name, or has a Label that does not exist
+    public void readFolder(FileSystem fileSystem, Folder folder) throws IOException, InvalidJsonException {
+        long start = System.nanoTime();
+        try {
+            try (Reader reader = Channels.newReader(FileChannel.open(Paths.get(filePath)), StandardCharsets.UTF_8)) {
+                JsonReadEvent event = new JsonReadEvent();
+                event.begin();
+                Loader loader = new Loader(new JsonStreamReader(reader), filePath, fileSystem, true);
+                loader.loadFolderContents(folder);
+                event.commit(filePath, JsonReadEvent.PHASE_FOLDER, loader.numFolders, loader.numFiles, 0);
+            }
+        } finally {
+            READ_FOLDER_METRICS.recordSince(start);
+        }
     }
 
-    // EFFECTS: parses json to create file system and returns loaded file system
-    // throws InvalidJsonException if there was a problem making the file system the JSON represents
-    private FileSystem parseFileSystem(JSONObject json) throws InvalidJsonException {
-        FileSystem fileSystem = new FileSystem();
-        fileSystem.stopKeepingTrackOfRecents();
-
-        addLabels(fileSystem, json);
-
-        addFoldersAndFiles(fileSystem, json);
-
-        openRecentlyOpenedFiles(fileSystem, json);
-        openRecentlyOpenedFolders(fileSystem, json);
-        openRecentlyOpenedLabels(fileSystem, json);
-        
-        openCurrentFolder(fileSystem, json);
-        
-        fileSystem.startKeepingTrackOfRecents();
-        return fileSystem;
+    // Represents a path to a recently-opened File or Folder (or the name of a recently-opened Label) along with how
+    // many times and when it was last opened, kept until every Folder and File has been loaded
+    private static class SavedRecent {
+        private List<String> folderPath = new ArrayList<String>();
+        private String name;
+        private int openCount = 1;
+        private long lastOpened = 0;
     }
 
+    // Represents the loading of one file system. Since the parts of the JSON can come in any order, recently-opened
+    // items, the current folder, and Labels on Files that come before the Labels themselves are kept until the end.
+    // How many Folders, Files, and Labels have been built so far is counted for JsonReadEvents
+    private static class Loader {
+        private final JsonStreamReader json;
+        private final String filePath;
+        private final FileSystem fileSystem;
+
+        private boolean labelsLoaded;
+        private boolean rootFolderLoaded;
+        private List<String> currentFolderPath;
+        private List<SavedRecent> recentFiles;
+        private List<SavedRecent> recentFolders;
+        private List<SavedRecent> recentLabels;
+        private List<File> filesAwaitingLabels;
+        private List<String> awaitedLabelNames;
+        private int numFolders;
+        private int numFiles;
+        private int numLabels;
+
+        // EFFECTS: constructs a Loader that builds fileSystem from json, which is being read from filePath. If
+        // labelsLoaded is true, fileSystem already has its Labels, so Files are labelled as soon as they are read
+        Loader(JsonStreamReader json, String filePath, FileSystem fileSystem, boolean labelsLoaded) {
+            this.json = json;
+            this.filePath = filePath;
+            this.fileSystem = fileSystem;
+            this.labelsLoaded = labelsLoaded;
+            rootFolderLoaded = false;
+            filesAwaitingLabels = new ArrayList<File>();
+            awaitedLabelNames = new ArrayList<String>();
+            numFolders = 0;
+            numFiles = 0;
+            numLabels = 0;
+        }
 
-    /* 
-     *  Labels:
-     */
+        // MODIFIES: this
+        // EFFECTS: reads the whole JSON representation and returns the file system it represents
+        // throws IOException if there is a problem with the file
+        // throws InvalidJsonException if the JSON is malformed, is missing part of the file system, or has a
+        // duplicate name, a Label that does not exist, or a path that does not lead anywhere
+        FileSystem load() throws IOException, InvalidJsonException {
+            JsonReadEvent parse = new JsonReadEvent();
+            parse.begin();
+            json.beginObject();
+            while (json.hasNext()) {
+                loadField(json.nextName());
+            }
+            json.endObject();
 
-    // MODIFIES: fileSystem
-    // EFFECTS: parses labels from jsonObject and creates them in fileSystem
-    // throws InvalidJsonException if there is a duplicate label name in the JSON
-    private void addLabels(FileSystem fileSystem, JSONObject jsonObject) throws InvalidJsonException {
-        JSONArray jsonArray = jsonObject.getJSONArray("labels");
-        for (Object json : jsonArray) {
-            JSONObject nextLabel = (JSONObject) json;
-            addLabel(fileSystem, nextLabel);
+            if (!labelsLoaded || !rootFolderLoaded || currentFolderPath == null || recentFiles == null
+                    || recentFolders == null || recentLabels == null) {
+                throw new InvalidJsonException();
+            }
+            parse.commit(filePath, JsonReadEvent.PHASE_PARSE, numFolders, numFiles, numLabels);
+
+            JsonReadEvent restore = new JsonReadEvent();
+            restore.begin();
+            restoreRecentlyOpened();
+            restoreCurrentFolder();
+            restore.commit(filePath, JsonReadEvent.PHASE_RESTORE, numFolders, numFiles, numLabels);
+            return fileSystem;
         }
-    }
 
-    // MODIFIES: fileSystem
-    // EFFECTS: gets the name of the label from jsonObject and creates fileSystem
-    // throws InvalidJsonException if there is a duplicate label name in the JSON
-    private void addLabel(FileSystem fileSystem, JSONObject jsonObject) throws InvalidJsonException {
-        String name = jsonObject.getString("name");
-        try {
-            fileSystem.createLabel(name);
-        } catch (NameIsTakenException e) {
-            throw new InvalidJsonException();
+        // MODIFIES: this
+        // EFFECTS: reads the value of the top-level field named name
+        private void loadField(String name) throws IOException, InvalidJsonException {
+            switch (name) {
+                case "labels":
+                    loadLabels();
+                    break;
+                case "rootFolder":
+                    loadFolderContents(fileSystem.getRootFolder());
+                    rootFolderLoaded = true;
+                    break;
+                case "currentFolderPath":
+                    currentFolderPath = readStringArray();
+                    break;
+                case "recentlyOpenedFilePaths":
+                    recentFiles = readRecents("fileName");
+                    break;
+                case "recentlyOpenedFolderPaths":
+                    recentFolders = readRecents("folderName");
+                    break;
+                case "recentlyOpenedLabels":
+                    recentLabels = readRecents("name");
+                    break;
+                default:
+                    json.skipValue();
+            }
         }
-    }
-
 
-    /* 
-     *  Folders and Files:
-     */
 
-    // MODIFIES: fileSystem
-    // EFFECTS: parses all Folders and Files from jsonObject and creates them in fileSystem
-    // throws InvalidJsonException if there is a duplicate folder or file name in the JSON
-    private void addFoldersAndFiles(FileSystem fileSystem, JSONObject jsonObject) throws InvalidJsonException {
-        JSONObject rootFolder = jsonObject.getJSONObject("rootFolder");
-        addSubfiles(fileSystem, rootFolder);
-        addSubfolders(fileSystem, rootFolder);
-    }
+        /*
+         *  Labels:
+         */
+
+        // MODIFIES: this
+        // EFFECTS: reads the labels and creates them in fileSystem, then labels any Files that were waiting on them
+        // throws InvalidJsonException if there is a blank or duplicate label name or a File is labelled with a Label
+        // that does not exist
+        private void loadLabels() throws IOException, InvalidJsonException {
+            json.beginArray();
+            while (json.hasNext()) {
+                String labelName = readNameObject();
+                if (labelName.isBlank()) {
+                    throw new InvalidJsonException();
+                }
+                try {
+                    fileSystem.loadLabel(labelName);
+                    numLabels++;
+                } catch (NameIsTakenException e) {
+                    throw new InvalidJsonException();
+                }
+            }
+            json.endArray();
+            labelsLoaded = true;
 
-    // MODIFIES: fileSystem
-    // EFFECTS: parses files from jsonObject and creates them in fileSystem
-    // throws InvalidJsonException if there is a duplicate folder or file name in the JSON
-    private void addSubfiles(FileSystem fileSystem, JSONObject jsonObject) throws InvalidJsonException {
-        JSONArray jsonArray = jsonObject.getJSONArray("subfiles");
-        for (Object json : jsonArray) {
-            JSONObject nextFile = (JSONObject) json;
-            addSubfile(fileSystem, nextFile);
+            for (int i = 0; i < filesAwaitingLabels.size(); i++) {
+                labelFile(filesAwaitingLabels.get(i), awaitedLabelNames.get(i));
+            }
+            filesAwaitingLabels.clear();
+            awaitedLabelNames.clear();
         }
-    }
 
-    // MODIFIES: fileSystem
-    // EFFECTS: gets the name and file path of the file from jsonObject and adds it to the fileSystem
-    // throws InvalidJsonException if there is a duplicate name in the JSON
-    private void addSubfile(FileSystem fileSystem, JSONObject jsonObject) throws InvalidJsonException {
-        String name = jsonObject.getString("name");
-        String filePath = jsonObject.getString("filePath");
-        try {
-            fileSystem.createFile(name, filePath);
-        } catch (NameIsTakenException e) {
-            throw new InvalidJsonException();
+        // MODIFIES: this
+        // EFFECTS: labels file with the Label named labelName, or waits until the labels have been read to do so
+        // throws InvalidJsonException if the labels have been read and none is named labelName
+        private void labelFile(File file, String labelName) throws InvalidJsonException {
+            if (!labelsLoaded) {
+                filesAwaitingLabels.add(file);
+                awaitedLabelNames.add(labelName);
+                return;
+            }
+            try {
+                fileSystem.loadLabelOnFile(file, labelName);
+            } catch (NoSuchLabelFoundException e) {
+                throw new InvalidJsonException();
+            }
         }
-        addLabelsToFile(fileSystem, jsonObject);
-    }
 
-    // MODIFIES: fileSystem
-    // EFFECTS: parses labels from jsonObject and adds them to the file represented by jsonObject
-    // throws InvalidJsonException if the label on the file named fileName doesn't exist
-    private void addLabelsToFile(FileSystem fileSystem, JSONObject jsonObject) throws InvalidJsonException {
-        String fileName = jsonObject.getString("name");
-        JSONArray jsonArray = jsonObject.getJSONArray("labels");
-        for (Object json : jsonArray) {
-            JSONObject nextLabel = (JSONObject) json;
-            addLabelToFile(fileSystem, nextLabel, fileName);
-        }
-    }
 
-    // MODIFIES: fileSystem
-    // EFFECTS: gets the name of the label from jsonObject and adds it to file named fileName
-    // throws InvalidJsonException if the label on the file named fileName doesn't exist
-    private void addLabelToFile(FileSystem fileSystem, JSONObject jsonObject, String fileName)
-            throws InvalidJsonException {
-        String labelName = jsonObject.getString("name");
-        try {
-            fileSystem.labelFile(fileName, labelName);
-        } catch (NoSuchFileFoundException | NoSuchLabelFoundException e) {
-            throw new InvalidJsonException();
+        /*
+         *  Folders and Files:
+         */
+
+        // MODIFIES: this, folder
+        // EFFECTS: reads a folder's JSON representation, creating its subfiles and subfolders (recursively) in folder.
+        // Returns the name it was saved with, or null if it had none
+        // throws InvalidJsonException if there is a duplicate folder or file name
+        private String loadFolderContents(Folder folder) throws IOException, InvalidJsonException {
+            String name = null;
+            json.beginObject();
+            while (json.hasNext()) {
+                switch (json.nextName()) {
+                    case "name":
+                        name = json.nextString();
+                        break;
+                    case "subfiles":
+                        loadSubfiles(folder);
+                        break;
+                    case "subfolders":
+                        loadSubfolders(folder);
+                        break;
+                    default:
+                        json.skipValue();
+                }
+            }
+            json.endObject();
+            return name;
         }
-    }
 
-    // MODIFIES: fileSystem
-    // EFFECTS: parses folders from jsonObject and creates them in fileSystem
-    // throws InvalidJsonException if there is a duplicate file or folder name in the JSON
-    private void addSubfolders(FileSystem fileSystem, JSONObject jsonObject) throws InvalidJsonException {
-        JSONArray jsonArray = jsonObject.getJSONArray("subfolders");
-        for (Object json : jsonArray) {
-            JSONObject nextFolder = (JSONObject) json;
-            addSubfolder(fileSystem, nextFolder);
+        // MODIFIES: this, folder
+        // EFFECTS: reads an array of files' JSON representations and creates the files they represent in folder
+        // throws InvalidJsonException if any of the files is invalid (see loadSubfile)
+        private void loadSubfiles(Folder folder) throws IOException, InvalidJsonException {
+            json.beginArray();
+            while (json.hasNext()) {
+                loadSubfile(folder);
+            }
+            json.endArray();
         }
-    }
 
-    // MODIFIES: fileSystem
-    // EFFECTS: gets the name of the folder from jsonObject and adds it to the fileSystem and then adds the folder's
-    // subfiles and subfolders (recursively for the subfolders)
-    // throws InvalidJsonException if there is a duplicate file or folder name in the JSON
-    private void addSubfolder(FileSystem fileSystem, JSONObject jsonObject) throws InvalidJsonException {
-        String name = jsonObject.getString("name");
-        try {
-            fileSystem.createFolder(name);
-            fileSystem.openFolder(name);
-            addSubfiles(fileSystem, jsonObject);
-            addSubfolders(fileSystem, jsonObject);
-            fileSystem.goUpOneDirectoryLevel();
-        } catch (NameIsTakenException | NoSuchFolderFoundException e) {
-            throw new InvalidJsonException();
+        // MODIFIES: this, folder
+        // EFFECTS: reads an array of folders' JSON representations and adds the folders they represent to folder
+        // throws InvalidJsonException if any of the folders is invalid (see loadSubfolder)
+        private void loadSubfolders(Folder folder) throws IOException, InvalidJsonException {
+            json.beginArray();
+            while (json.hasNext()) {
+                loadSubfolder(folder);
+            }
+            json.endArray();
         }
-    }
 
+        // MODIFIES: this, parentFolder
+        // EFFECTS: reads a folder's JSON representation and adds the folder it represents to parentFolder. Since its
+        // name may come after its contents, the folder is built on its own and only then added to parentFolder
+        // throws InvalidJsonException if the folder has no name or its name (or a name within it) is a duplicate
+        private void loadSubfolder(Folder parentFolder) throws IOException, InvalidJsonException {
+            Folder folder = new Folder(UNNAMED_FOLDER_NAME);
+            String name = loadFolderContents(folder);
+            if (name == null || name.isBlank()) {
+                throw new InvalidJsonException();
+            }
+            folder.setName(name);
+            try {
+                parentFolder.addExistingSubfolder(folder);
+                numFolders++;
+            } catch (NameIsTakenException e) {
+                throw new InvalidJsonException();
+            }
+        }
 
-    /* 
-     *  Recently-opened Files:
-     */
+        // MODIFIES: this, folder
+        // EFFECTS: reads a file's JSON representation and creates the file it represents in folder
+        // throws InvalidJsonException if the file's name or path is missing, its name is a duplicate, or it is
+        // labelled with a Label that does not exist
+        private void loadSubfile(Folder folder) throws IOException, InvalidJsonException {
+            String name = null;
+            String path = null;
+            List<String> labelNames = new ArrayList<String>();
+            json.beginObject();
+            while (json.hasNext()) {
+                switch (json.nextName()) {
+                    case "name":
+                        name = json.nextString();
+                        break;
+                    case "filePath":
+                        path = json.nextString();
+                        break;
+                    case "labels":
+                        labelNames = readNameObjects();
+                        break;
+                    default:
+                        json.skipValue();
+                }
+            }
+            json.endObject();
+            createSubfile(folder, name, path, labelNames);
+        }
 
-    // MODIFIES: fileSystem
-    // EFFECTS: opens the files that were opened recently (and ensures their opening is tracked)
-    // throws InvalidJsonException if any of the file paths are not accurate
-    private void openRecentlyOpenedFiles(FileSystem fileSystem, JSONObject jsonObject) throws InvalidJsonException {
-        JSONArray jsonArray = jsonObject.getJSONArray("recentlyOpenedFilePaths");
-        for (int i = jsonArray.length() - 1; i >= 0; i--) {
-            JSONObject nextFilePath = jsonArray.getJSONObject(i);
+        // MODIFIES: this, folder
+        // EFFECTS: creates a file named name with path path in folder and labels it with the Labels named labelNames
+        // throws InvalidJsonException if name or path is missing (null), name is blank or a duplicate, or any of
+        // labelNames is not the name of a Label that exists
+        private void createSubfile(Folder folder, String name, String path, List<String> labelNames)
+                throws InvalidJsonException {
+            if (name == null || name.isBlank() || path == null) {
+                throw new InvalidJsonException();
+            }
+            File file;
             try {
-                openFile(fileSystem, nextFilePath);
-            } catch (NoSuchFolderFoundException | NoSuchFileFoundException e) {
+                file = fileSystem.loadFile(folder, name, path);
+                numFiles++;
+            } catch (NameIsTakenException e) {
                 throw new InvalidJsonException();
             }
+            for (String labelName : labelNames) {
+                labelFile(file, labelName);
+            }
         }
-    }
 
-    // MODIFIES: fileSystem
-    // EFFECTS: opens a file given its file path in fileSystem
-    // throws NoSuchFolderFoundException if any of the folders in filePath do not exist
-    // throws NoSuchFileFoundException if the file in filePath does not exist
-    // throws FilePathNoLongerValidException if the file in filePath does not exist
-    private void openFile(FileSystem fileSystem, JSONObject filePath) throws NoSuchFolderFoundException,
-            NoSuchFileFoundException {
-        fileSystem.openRootFolder();
-        JSONArray folderPath = filePath.getJSONArray("folderPath");
-        openFoldersFromPath(fileSystem, folderPath);
-        openFileAndTrack(fileSystem, filePath.getString("fileName"));
-        fileSystem.openRootFolder();
-    }
 
-    // MODIFIES: fileSystem
-    // EFFECTS: opens file with name fileName
-    // throws NoSuchFileFoundException if there is not file named fileName if fileSystem's current folder
-    private void openFileAndTrack(FileSystem fileSystem, String fileName) throws NoSuchFileFoundException {
-        fileSystem.startKeepingTrackOfRecents();
-        fileSystem.openFileButNotOnComputerEvenIfNoLongerValid(fileName);
-        fileSystem.stopKeepingTrackOfRecents();
-    }
+        /*
+         *  Recently-opened Files, Folders, and Labels:
+         */
 
+        // MODIFIES: this
+        // EFFECTS: reads an array of recently-opened items, each named by the field nameField
+        // throws InvalidJsonException if an item has no name
+        private List<SavedRecent> readRecents(String nameField) throws IOException, InvalidJsonException {
+            List<SavedRecent> recents = new ArrayList<SavedRecent>();
+            json.beginArray();
+            while (json.hasNext()) {
+                recents.add(readRecent(nameField));
+            }
+            json.endArray();
+            return recents;
+        }
 
-    /* 
-     *  Recently-opened Folders:
-     */
+        // MODIFIES: this
+        // EFFECTS: reads a recently-opened item, named by the field nameField
+        // throws InvalidJsonException if the item has no name
+        private SavedRecent readRecent(String nameField) throws IOException, InvalidJsonException {
+            SavedRecent recent = new SavedRecent();
+            json.beginObject();
+            while (json.hasNext()) {
+                String field = json.nextName();
+                if (field.equals(nameField)) {
+                    recent.name = json.nextString();
+                } else if (field.equals("folderPath")) {
+                    recent.folderPath = readStringArray();
+                } else if (field.equals("openCount")) {
+                    recent.openCount = (int) Math.max(1, json.nextLong());
+                } else if (field.equals("lastOpened")) {
+                    recent.lastOpened = json.nextLong();
+                } else {
+                    json.skipValue();
+                }
+            }
+            json.endObject();
+            if (recent.name == null) {
+                throw new InvalidJsonException();
+            }
+            return recent;
+        }
 
-    // MODIFIES: fileSystem
-    // EFFECTS: opens the folders that were opened recently (and ensures their opening is tracked)
-    // throws InvalidJsonException if any of the folder paths are not accurate
-    private void openRecentlyOpenedFolders(FileSystem fileSystem, JSONObject jsonObject) throws InvalidJsonException {
-        JSONArray jsonArray = jsonObject.getJSONArray("recentlyOpenedFolderPaths");
-        for (int i = jsonArray.length() - 1; i >= 0; i--) {
-            JSONObject nextFolderPath = jsonArray.getJSONObject(i);
+        // MODIFIES: this
+        // EFFECTS: restores the Files, Folders, and Labels that were opened recently (from most to least recent), along
+        // with how many times and when each was last opened
+        // throws InvalidJsonException if any of the paths are not accurate or any of the labels do not exist
+        private void restoreRecentlyOpened() throws InvalidJsonException {
             try {
-                openFolder(fileSystem, nextFolderPath);
-            } catch (NoSuchFolderFoundException e) {
+                for (SavedRecent recent : recentFiles) {
+                    File file = followPath(recent.folderPath).getSubfile(recent.name);
+                    fileSystem.restoreRecentlyOpenedFile(file, recent.openCount, recent.lastOpened);
+                }
+                for (SavedRecent recent : recentFolders) {
+                    Folder folder = followPath(recent.folderPath).getSubfolder(recent.name);
+                    fileSystem.restoreRecentlyOpenedFolder(folder, recent.openCount, recent.lastOpened);
+                }
+                for (SavedRecent recent : recentLabels) {
+                    fileSystem.restoreRecentlyOpenedLabel(recent.name, recent.openCount, recent.lastOpened);
+                }
+            } catch (NoSuchFolderFoundException | NoSuchFileFoundException | NoSuchLabelFoundException e) {
                 throw new InvalidJsonException();
             }
         }
-    }
 
-    // MODIFIES: fileSystem
-    // EFFECTS: opens a folder given its folder path in fileSystem
-    // throws NoSuchFolderFoundException if any of the folders in filePath do not exist
-    private void openFolder(FileSystem fileSystem, JSONObject folderPathJson) throws NoSuchFolderFoundException {
-        JSONArray folderPath = folderPathJson.getJSONArray("folderPath");
-        fileSystem.openRootFolder();
-        openFoldersFromPath(fileSystem, folderPath);
-        openFolderAndTrack(fileSystem, folderPathJson.getString("folderName"));
-        fileSystem.openRootFolder();
-    }
 
-    // MODIFIES: fileSystem
-    // EFFECTS: opens folder with name folderName
-    // throws NoSuchFileFoundException if there is not file named fileName if fileSystem's current folder
-    private void openFolderAndTrack(FileSystem fileSystem, String folderName) throws NoSuchFolderFoundException {
-        fileSystem.startKeepingTrackOfRecents();
-        fileSystem.openFolder(folderName);
-        fileSystem.stopKeepingTrackOfRecents();
-    }
+        /*
+         *  Current Folder:
+         */
 
-
-    /* 
-     *  Recently-opened labels:
-     */
-
-    // MODIFIES: fileSystem
-    // EFFECTS: opens the labels that were opened recently
-    // throws InvalidJsonException if any of the labels do not exist
-    private void openRecentlyOpenedLabels(FileSystem fileSystem, JSONObject jsonObject) throws InvalidJsonException {
-        JSONArray jsonArray = jsonObject.getJSONArray("recentlyOpenedLabels");
-        for (int i = jsonArray.length() - 1; i >= 0; i--) {
-            JSONObject nextLabel = (JSONObject) jsonArray.get(i);
+        // MODIFIES: this
+        // EFFECTS: opens the folder (or label) that the user had open when they saved the file system
+        // throws InvalidJsonException if the folder path saved for currentFolderPath was invalid
+        private void restoreCurrentFolder() throws InvalidJsonException {
+            if (currentFolderPath.isEmpty()) {
+                throw new InvalidJsonException();
+            }
             try {
-                openLabel(fileSystem, nextLabel);
-            } catch (NoSuchLabelFoundException e) {
+                if (!currentFolderPath.get(0).equals(ROOT_FOLDER_NAME)) {
+                    if (currentFolderPath.size() > 1) {
+                        throw new InvalidJsonException();
+                    }
+                    fileSystem.restoreCurrentLabel(currentFolderPath.get(0));
+                } else {
+                    fileSystem.restoreCurrentFolder(followPath(currentFolderPath));
+                }
+            } catch (NoSuchLabelFoundException | NoSuchFolderFoundException e) {
                 throw new InvalidJsonException();
             }
         }
-        fileSystem.openRootFolder();
-    }
 
-    // MODIFIES: fileSystem
-    // EFFECTS: opens a label given a JSONObject representation of it (of its name)
-    // throws NoSuchLabelFoundException if there is no label with the same name as label
-    private void openLabel(FileSystem fileSystem, JSONObject label) throws NoSuchLabelFoundException {
-        String labelName = label.getString("name");
-        openLabelAndTrack(fileSystem, labelName);
-    }
 
-    // MODIFIES: fileSystem
-    // EFFECTS: opens label with name labelName and ensures it is tracked as opened
-    // throws NoSuchLabelFoundException if there is no label with the same name as label
-    private void openLabelAndTrack(FileSystem fileSystem, String labelName) throws NoSuchLabelFoundException {
-        fileSystem.startKeepingTrackOfRecents();
-        fileSystem.openLabel(labelName);
-        fileSystem.stopKeepingTrackOfRecents();
-    }
+        /*
+         *  Common Helpers:
+         */
 
-    
-    
-    /* 
-     *  Current Folder:
-     */
-    // MODIFIES: fileSystem
-    // EFFECTS: opens the folder that the user had open when they saved the file system
-    // throws InvalidJsonException if the folder path saved for currentFolderPath was invalid
-    private void openCurrentFolder(FileSystem fileSystem, JSONObject jsonObject) throws InvalidJsonException {
-        JSONArray folderPath = jsonObject.getJSONArray("currentFolderPath");
-        String firstFolderInPathName = folderPath.getString(0);
+        // EFFECTS: returns the Folder that folderPath leads to (skipping the first name since it is the root folder)
+        // throws NoSuchFolderFoundException if any of the folders in folderPath do not exist
+        private Folder followPath(List<String> folderPath) throws NoSuchFolderFoundException {
+            Folder folder = fileSystem.getRootFolder();
+            for (int i = 1; i < folderPath.size(); i++) {
+                folder = folder.getSubfolder(folderPath.get(i));
+            }
+            return folder;
+        }
 
-        try {
-            if (!firstFolderInPathName.equals("root")) {
-                fileSystem.openLabel(firstFolderInPathName);
-            } else {
-                fileSystem.openRootFolder();
+        // MODIFIES: this
+        // EFFECTS: reads an array of strings
+        // throws InvalidJsonException if the next value is not an array of strings
+        private List<String> readStringArray() throws IOException, InvalidJsonException {
+            List<String> strings = new ArrayList<String>();
+            json.beginArray();
+            while (json.hasNext()) {
+                strings.add(json.nextString());
             }
-            openFoldersFromPath(fileSystem, folderPath);
-        } catch (NoSuchLabelFoundException | NoSuchFolderFoundException e) {
-            throw new InvalidJsonException();
+            json.endArray();
+            return strings;
         }
-    }
 
+        // MODIFIES: this
+        // EFFECTS: reads an array of objects holding names (see readNameObject) and returns the names
+        // throws InvalidJsonException if any of the objects has no name
+        private List<String> readNameObjects() throws IOException, InvalidJsonException {
+            List<String> names = new ArrayList<String>();
+            json.beginArray();
+            while (json.hasNext()) {
+                names.add(readNameObject());
+            }
+            json.endArray();
+            return names;
+        }
 
-    /* 
-     *  Common Helper:
-     */
-    // MODIFIES: fileSystem
-    // EFFECTS: opens all of the folders in jsonArray (skipping the first one since this is the root folder)
-    // throws NoSuchFolderFoundException if any of the folders in jsonArray do not exist
-    private void openFoldersFromPath(FileSystem fileSystem, JSONArray jsonArray) throws NoSuchFolderFoundException {
-        for (int i = 1; i < jsonArray.length(); i++) {
-            String folderName = jsonArray.getString(i);
-            fileSystem.openFolder(folderName);
+        // MODIFIES: this
+        // EFFECTS: reads an object holding a name (the JSON representation of a Label) and returns the name
+        // throws InvalidJsonException if the object has no name
+        private String readNameObject() throws IOException, InvalidJsonException {
+            String name = null;
+            json.beginObject();
+            while (json.hasNext()) {
+                if (json.nextName().equals("name")) {
+                    name = json.nextString();
+                } else {
+                    json.skipValue();
+                }
+            }
+            json.endObject();
+            if (name == null) {
+                throw new InvalidJsonException();
+            }
+            return name;
         }
     }
 }
@@ -0,0 +1,323 @@
+package persistence;
+
+import persistence.exceptions.InvalidJsonException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+// Represents a pull parser that reads JSON one token at a time from an underlying Reader, so that large files can be
+// loaded without first reading them into one big String or building them as JSONObjects. The caller asks for the
+// token it expects next (the start of an object, a name, a string, ...) and an InvalidJsonException is thrown if the
+// input has something else there
+public class JsonStreamReader {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int INITIAL_DEPTH_CAPACITY = 32;
+
+    private final Reader reader;
+    private final char[] buffer;
+    private int position;
+    private int limit;
+
+    private boolean[] isEmptyAtDepth;
+    private int depth;
+    private boolean separatorRead;
+    private final StringBuilder stringBuilder;
+
+    // EFFECTS: constructs a JsonStreamReader that reads from reader
+    public JsonStreamReader(Reader reader) {
+        this.reader = reader;
+        buffer = new char[BUFFER_SIZE];
+        position = 0;
+        limit = 0;
+        isEmptyAtDepth = new boolean[INITIAL_DEPTH_CAPACITY];
+        depth = 0;
+        separatorRead = false;
+        stringBuilder = new StringBuilder();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the start of an object
+    // throws InvalidJsonException if the next value is not an object
+    public void beginObject() throws IOException, InvalidJsonException {
+        open('{');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the end of the current object
+    // throws InvalidJsonException if the current object has more names and values left
+    public void endObject() throws IOException, InvalidJsonException {
+        close('}');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the start of an array
+    // throws InvalidJsonException if the next value is not an array
+    public void beginArray() throws IOException, InvalidJsonException {
+        open('[');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the end of the current array
+    // throws InvalidJsonException if the current array has more values left
+    public void endArray() throws IOException, InvalidJsonException {
+        close(']');
+    }
+
+    // EFFECTS: returns true if the current object or array has another name or value left
+    // throws InvalidJsonException if the input ends before the current object or array does
+    public boolean hasNext() throws IOException, InvalidJsonException {
+        int c = peekNonWhitespace();
+        if (c < 0) {
+            throw new InvalidJsonException();
+        }
+        return c != '}' && c != ']';
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads and returns the next name in the current object
+    // throws InvalidJsonException if the next token is not a name
+    public String nextName() throws IOException, InvalidJsonException {
+        beforeValue();
+        String name = readQuoted();
+        expect(':');
+        separatorRead = true;
+        return name;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads and returns the next value, which must be a string
+    // throws InvalidJsonException if the next value is not a string
+    public String nextString() throws IOException, InvalidJsonException {
+        beforeValue();
+        return readQuoted();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads and returns the next value, which must be a number. Any fractional part is dropped
+    // throws InvalidJsonException if the next value is not a number
+    public long nextLong() throws IOException, InvalidJsonException {
+        beforeValue();
+        String literal = readLiteral();
+        try {
+            return Long.parseLong(literal);
+        } catch (NumberFormatException e) {
+            try {
+                return (long) Double.parseDouble(literal);
+            } catch (NumberFormatException e2) {
+                throw new InvalidJsonException();
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads past the next value (including everything inside it if it is an object or array)
+    // throws InvalidJsonException if the next value is not well-formed
+    public void skipValue() throws IOException, InvalidJsonException {
+        beforeValue();
+        separatorRead = true;
+        int c = peekNonWhitespace();
+        if (c == '{') {
+            beginObject();
+            while (hasNext()) {
+                nextName();
+                skipValue();
+            }
+            endObject();
+        } else if (c == '[') {
+            beginArray();
+            while (hasNext()) {
+                skipValue();
+            }
+            endArray();
+        } else if (c == '"') {
+            nextString();
+        } else {
+            separatorRead = false;
+            readLiteral();
+        }
+    }
+
+
+    // Helper Methods:
+
+    // MODIFIES: this
+    // EFFECTS: reads bracket and goes one level deeper
+    // throws InvalidJsonException if the next value does not start with bracket
+    private void open(char bracket) throws IOException, InvalidJsonException {
+        beforeValue();
+        expect(bracket);
+        depth++;
+        if (depth == isEmptyAtDepth.length) {
+            isEmptyAtDepth = Arrays.copyOf(isEmptyAtDepth, depth * 2);
+        }
+        isEmptyAtDepth[depth] = true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads bracket and goes one level shallower
+    // throws InvalidJsonException if the next token is not bracket
+    private void close(char bracket) throws IOException, InvalidJsonException {
+        if (depth == 0 || separatorRead) {
+            throw new InvalidJsonException();
+        }
+        expect(bracket);
+        depth--;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads whatever has to come before the next value or name: nothing if it follows a name (or the comma
+    // before it has already been read), otherwise a comma if it is not the first in its object or array
+    // throws InvalidJsonException if an expected comma is missing
+    private void beforeValue() throws IOException, InvalidJsonException {
+        if (separatorRead) {
+            separatorRead = false;
+            return;
+        }
+        if (depth == 0) {
+            return;
+        }
+        if (!isEmptyAtDepth[depth]) {
+            expect(',');
+        }
+        isEmptyAtDepth[depth] = false;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: skips whitespace and reads c
+    // throws InvalidJsonException if the next character that is not whitespace is not c
+    private void expect(char c) throws IOException, InvalidJsonException {
+        if (peekNonWhitespace() != c) {
+            throw new InvalidJsonException();
+        }
+        position++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: skips whitespace and returns the next character without reading past it, or -1 if the input has ended
+    private int peekNonWhitespace() throws IOException {
+        while (true) {
+            if (position == limit && !fill()) {
+                return -1;
+            }
+            char c = buffer[position];
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return c;
+            }
+            position++;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the next chunk of input into the buffer. Returns false if the input has ended
+    private boolean fill() throws IOException {
+        int read = reader.read(buffer, 0, buffer.length);
+        while (read == 0) {
+            read = reader.read(buffer, 0, buffer.length);
+        }
+        if (read < 0) {
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads a string in double quotes and returns it with its escape sequences replaced
+    // throws InvalidJsonException if the next token is not a well-formed string
+    private String readQuoted() throws IOException, InvalidJsonException {
+        expect('"');
+        stringBuilder.setLength(0);
+        while (true) {
+            if (position == limit && !fill()) {
+                throw new InvalidJsonException();
+            }
+            int runStart = position;
+            while (position < limit && buffer[position] != '"' && buffer[position] != '\\') {
+                position++;
+            }
+            stringBuilder.append(buffer, runStart, position - runStart);
+            if (position == limit) {
+                continue;
+            }
+            char c = buffer[position++];
+            if (c == '"') {
+                return stringBuilder.toString();
+            }
+            stringBuilder.append(readEscaped());
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the rest of an escape sequence (after the backslash) and returns the character it stands for
+    // throws InvalidJsonException if the escape sequence is not valid
+    private char readEscaped() throws IOException, InvalidJsonException {
+        char c = nextChar();
+        switch (c) {
+            case '"':
+            case '\\':
+            case '/':
+                return c;
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'u':
+                return readHexEscape();
+            default:
+                throw new InvalidJsonException();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the four hexadecimal digits of an escape sequence and returns the character they stand for
+    // throws InvalidJsonException if any of them is not a hexadecimal digit
+    private char readHexEscape() throws IOException, InvalidJsonException {
+        int codeUnit = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(nextChar(), 16);
+            if (digit < 0) {
+                throw new InvalidJsonException();
+            }
+            codeUnit = codeUnit * 16 + digit;
+        }
+        return (char) codeUnit;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads and returns the next character
+    // throws InvalidJsonException if the input has ended
+    private char nextChar() throws IOException, InvalidJsonException {
+        if (position == limit && !fill()) {
+            throw new InvalidJsonException();
+        }
+        return buffer[position++];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads and returns an unquoted value (a number, true, false, or null)
+    // throws InvalidJsonException if there is no such value
+    private String readLiteral() throws IOException, InvalidJsonException {
+        peekNonWhitespace();
+        stringBuilder.setLength(0);
+        while (position < limit || fill()) {
+            char c = buffer[position];
+            if (c == ',' || c == '}' || c == ']' || c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                break;
+            }
+            stringBuilder.append(c);
+            position++;
+        }
+        if (stringBuilder.length() == 0) {
+            throw new InvalidJsonException();
+        }
+        return stringBuilder.toString();
+    }
+}
@@ -0,0 +1,222 @@
+package persistence;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+// Represents a writer that writes JSON one token at a time straight to an underlying Writer, so that large structures
+// can be saved without first building them as JSONObjects or as one big String. Output is either indented by
+// indentFactor spaces per level (like JSONObject.toString(indentFactor)) or, if indentFactor is 0, compact
+public class JsonStreamWriter {
+    private static final int INITIAL_DEPTH_CAPACITY = 32;
+    private static final char LINE_SEPARATOR = 0x2028;
+    private static final char PARAGRAPH_SEPARATOR = 0x2029;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final Writer writer;
+    private final int indentFactor;
+
+    private boolean[] isEmptyAtDepth;
+    private int depth;
+    private boolean afterName;
+
+    // REQUIRES: indentFactor >= 0
+    // EFFECTS: constructs a JsonStreamWriter that writes to writer, indenting by indentFactor spaces per level (or not
+    // at all if indentFactor is 0)
+    public JsonStreamWriter(Writer writer, int indentFactor) {
+        this.writer = writer;
+        this.indentFactor = indentFactor;
+        isEmptyAtDepth = new boolean[INITIAL_DEPTH_CAPACITY];
+        depth = 0;
+        afterName = false;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the start of a JSON object
+    public JsonStreamWriter beginObject() throws IOException {
+        return open('{');
+    }
+
+    // REQUIRES: an object has been begun and not yet ended
+    // MODIFIES: this
+    // EFFECTS: writes the end of the current JSON object
+    public JsonStreamWriter endObject() throws IOException {
+        return close('}');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the start of a JSON array
+    public JsonStreamWriter beginArray() throws IOException {
+        return open('[');
+    }
+
+    // REQUIRES: an array has been begun and not yet ended
+    // MODIFIES: this
+    // EFFECTS: writes the end of the current JSON array
+    public JsonStreamWriter endArray() throws IOException {
+        return close(']');
+    }
+
+    // REQUIRES: the current JSON value is an object
+    // MODIFIES: this
+    // EFFECTS: writes name as the key of the next value in the current object
+    public JsonStreamWriter name(String name) throws IOException {
+        beforeValue();
+        writeQuoted(name);
+        writer.write(indentFactor > 0 ? ": " : ":");
+        afterName = true;
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes value as a JSON string
+    public JsonStreamWriter value(String value) throws IOException {
+        beforeValue();
+        writeQuoted(value);
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes value as a JSON number
+    public JsonStreamWriter value(long value) throws IOException {
+        beforeValue();
+        writer.write(Long.toString(value));
+        return this;
+    }
+
+    // REQUIRES: isCompact() is true, the current JSON value is an object, and encodedFields is one or more
+    // comma-separated keys and values exactly as a compact JsonStreamWriter writes them
+    // MODIFIES: this
+    // EFFECTS: writes encodedFields as the next keys and values in the current object without re-encoding them
+    public JsonStreamWriter encodedFields(String encodedFields) throws IOException {
+        beforeValue();
+        writer.write(encodedFields);
+        return this;
+    }
+
+    // EFFECTS: returns true if output is compact (not indented), in which case how a value is written does not depend
+    // on how deep it is
+    public boolean isCompact() {
+        return indentFactor == 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes any buffered output to the underlying Writer
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+
+    // Helper Methods:
+
+    // MODIFIES: this
+    // EFFECTS: writes bracket and goes one level deeper
+    private JsonStreamWriter open(char bracket) throws IOException {
+        beforeValue();
+        writer.write(bracket);
+        depth++;
+        if (depth == isEmptyAtDepth.length) {
+            isEmptyAtDepth = Arrays.copyOf(isEmptyAtDepth, depth * 2);
+        }
+        isEmptyAtDepth[depth] = true;
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: goes one level shallower and writes bracket, on its own line if the level had anything in it
+    private JsonStreamWriter close(char bracket) throws IOException {
+        boolean wasEmpty = isEmptyAtDepth[depth];
+        depth--;
+        if (!wasEmpty) {
+            newLineAndIndent();
+        }
+        writer.write(bracket);
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes whatever has to come before the next value or key: nothing if it follows a key, otherwise a
+    // comma if it is not the first in its object or array, then a new line and indentation
+    private void beforeValue() throws IOException {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (depth == 0) {
+            return;
+        }
+        if (!isEmptyAtDepth[depth]) {
+            writer.write(',');
+        }
+        isEmptyAtDepth[depth] = false;
+        newLineAndIndent();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: if output is indented, writes a new line followed by the indentation for the current depth
+    private void newLineAndIndent() throws IOException {
+        if (indentFactor == 0) {
+            return;
+        }
+        writer.write('\n');
+        for (int i = depth * indentFactor; i > 0; i--) {
+            writer.write(' ');
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes string in double quotes, escaping quotes, backslashes, control characters, and line and paragraph
+    // separators. Runs of characters that do not need escaping are written at once
+    private void writeQuoted(String string) throws IOException {
+        writer.write('"');
+        int runStart = 0;
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            if (c == '"' || c == '\\' || c < 0x20 || c == LINE_SEPARATOR || c == PARAGRAPH_SEPARATOR) {
+                writer.write(string, runStart, i - runStart);
+                writeEscaped(c);
+                runStart = i + 1;
+            }
+        }
+        writer.write(string, runStart, string.length() - runStart);
+        writer.write('"');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the JSON escape sequence for c
+    private void writeEscaped(char c) throws IOException {
+        String shortEscape = getShortEscape(c);
+        if (shortEscape != null) {
+            writer.write(shortEscape);
+        } else {
+            writer.write("\\u");
+            writer.write(HEX_DIGITS[(c >> 12) & 0xF]);
+            writer.write(HEX_DIGITS[(c >> 8) & 0xF]);
+            writer.write(HEX_DIGITS[(c >> 4) & 0xF]);
+            writer.write(HEX_DIGITS[c & 0xF]);
+        }
+    }
+
+    // EFFECTS: returns the two-character JSON escape sequence for c, or null if c has none (and has to be written as a
+    // six-character hexadecimal escape instead)
+    private static String getShortEscape(char c) {
+        switch (c) {
+            case '"':
+                return "\\\"";
+            case '\\':
+                return "\\\\";
+            case '\n':
+                return "\\n";
+            case '\r':
+                return "\\r";
+            case '\t':
+                return "\\t";
+            case '\b':
+                return "\\b";
+            case '\f':
+                return "\\f";
+            default:
+                return null;
+        }
+    }
+}
@@ -1,42 +1,88 @@
 package persistence;
 
 import model.FileSystem;
+import model.MetricsRegistry;
+import model.OperationMetrics;
+import persistence.jfr.JsonWriteEvent;
 
-import java.io.PrintWriter;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 
-import org.json.JSONObject;
-
-import java.io.FileNotFoundException;
-
-// Represents a writer for writing all of the labels, files, and folders of the file system to a file, in JSON format
-// Based on [JsonSerializationDemo](https://github.students.cs.ubc.ca/CPSC210/JsonSerializationDemo) 
+// Represents a writer for writing all of the labels, files, and folders of the file system to a file, in JSON format.
+// The file system is streamed to the file as it is walked, so saving does not need memory for a second copy of it.
+// The file is only replaced once close is called (see AtomicFileWriter), so a save that fails or is cut off part way
+// leaves the previous save intact
+// Based on [JsonSerializationDemo](https://github.students.cs.ubc.ca/CPSC210/JsonSerializationDemo)
 public class JsonWriter {
     private static final int INDENT_FACTOR = 4;
-    private PrintWriter printWriter;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final OperationMetrics WRITE_METRICS =
+            MetricsRegistry.getInstance().getOperation("JsonWriter.write");
+
     private String destinationPath;
+    private Writer writer;
+    private FileChannel channel;
+    private AtomicFileWriter file;
+    private boolean compact;
 
-    // EFFECTS: constructs a new JsonWriter for writing a file to destinationPath
+    // EFFECTS: constructs a new JsonWriter for writing a file to destinationPath, indented to be human-readable
     public JsonWriter(String destinationPath) {
+        this(destinationPath, false);
+    }
+
+    // EFFECTS: constructs a new JsonWriter for writing a file to destinationPath. If compact is true, the JSON is
+    // written without any indentation or line breaks
+    public JsonWriter(String destinationPath, boolean compact) {
         this.destinationPath = destinationPath;
+        file = new AtomicFileWriter(destinationPath);
+        this.compact = compact;
     }
 
     // MODIFIES: this
     // EFFECTS: opens the writer such that writing to file can begin
-    public void open() throws FileNotFoundException {
-        printWriter = new PrintWriter(new java.io.File(destinationPath));
+    // throws IOException if the file could not be opened for writing
+    public void open() throws IOException {
+        channel = file.open();
+        writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), BUFFER_SIZE);
     }
 
     // MODIFIES: this
     // EFFECTS: writes fileSystem to file as a JSON representation
-    public void write(FileSystem fileSystem) {
-        JSONObject json = fileSystem.toJson();
-        String printableJson = json.toString(INDENT_FACTOR);
-        printWriter.print(printableJson);
+    // throws IOException if writing to the file failed
+    public void write(FileSystem fileSystem) throws IOException {
+        long start = System.nanoTime();
+        JsonWriteEvent event = new JsonWriteEvent();
+        event.begin();
+        try {
+            JsonStreamWriter jsonStreamWriter = new JsonStreamWriter(writer, compact ? 0 : INDENT_FACTOR);
+            fileSystem.writeJson(jsonStreamWriter);
+            jsonStreamWriter.flush();
+            event.commit(destinationPath, compact, channel);
+        } finally {
+            WRITE_METRICS.recordSince(start);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes the writer for when writing to file is over, replacing the file with what was written
+    // throws IOException if the rest of the JSON could not be written to the file, in which case it is left as it was
+    public void close() throws IOException {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            file.abort();
+            throw e;
+        }
+        file.commit();
     }
 
     // MODIFIES: this
-    // EFFECTS: closes the writer for when writing to file is over
-    public void close() {
-        printWriter.close();
+    // EFFECTS: closes the writer without replacing the file, for when writing to it failed
+    public void abort() {
+        file.abort();
     }
 }
@@ -0,0 +1,333 @@
+package persistence;
+
+import model.MetricsRegistry;
+import model.OperationMetrics;
+import model.TextIndex;
+import persistence.exceptions.InvalidNoteIndexException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Represents a full-text index of notes saved by NoteIndexWriter and memory-mapped, so opening it only reads its header
+// and checks its tables: terms are found by binary search over the sorted TERMS table, and postings (and the positions
+// in them) are only decoded from the mapped file as they are needed. The postings themselves are trusted to be as
+// NoteIndexWriter wrote them
+public class MappedNoteIndex implements TextIndex {
+    private static final OperationMetrics OPEN_METRICS =
+            MetricsRegistry.getInstance().getOperation("MappedNoteIndex.open");
+
+    private final int numDocuments;
+    private final int numTerms;
+    private final long totalLength;
+    private final ByteBuffer postings;
+    private final ByteBuffer strings;
+    private final ByteBuffer documents;
+    private final ByteBuffer terms;
+    private final String[] paths;
+
+    // EFFECTS: constructs an index over buffer, a whole index file whose header and tables have been checked
+    private MappedNoteIndex(ByteBuffer buffer) {
+        numDocuments = buffer.getInt(2 * Integer.BYTES);
+        numTerms = buffer.getInt(3 * Integer.BYTES);
+        totalLength = buffer.getLong(4 * Integer.BYTES);
+        postings = sectionOf(buffer, 0);
+        strings = sectionOf(buffer, 1);
+        documents = sectionOf(buffer, 2);
+        terms = sectionOf(buffer, 3);
+        paths = new String[numDocuments];
+    }
+
+    // EFFECTS: memory-maps the index saved at filePath and returns it
+    // throws IOException if there is a problem with the file
+    // throws InvalidNoteIndexException if the file is not an index of a supported version or its tables are not valid
+    public static MappedNoteIndex open(String filePath) throws IOException, InvalidNoteIndexException {
+        long start = System.nanoTime();
+        try {
+            ByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+                if (channel.size() < NoteIndexWriter.HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+                    throw new InvalidNoteIndexException();
+                }
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            checkHeader(buffer);
+            MappedNoteIndex index = new MappedNoteIndex(buffer);
+            index.checkTables();
+            return index;
+        } finally {
+            OPEN_METRICS.recordSince(start);
+        }
+    }
+
+    @Override
+    public int getNumDocuments() {
+        return numDocuments;
+    }
+
+    @Override
+    public int getNumLiveDocuments() {
+        return numDocuments;
+    }
+
+    @Override
+    public long getTotalLength() {
+        return totalLength;
+    }
+
+    // EFFECTS: returns false, since deleted documents are never saved
+    @Override
+    public boolean isDeleted(int docId) {
+        return false;
+    }
+
+    @Override
+    public int getLength(int docId) {
+        return documents.getInt(docId * NoteIndexWriter.DOCUMENT_ENTRY_SIZE);
+    }
+
+    // EFFECTS: returns the path of the note that is document docId, decoding it the first time it is needed
+    @Override
+    public String getPath(int docId) {
+        if (paths[docId] == null) {
+            paths[docId] = stringAt(documents.getInt(docId * NoteIndexWriter.DOCUMENT_ENTRY_SIZE + Integer.BYTES));
+        }
+        return paths[docId];
+    }
+
+    @Override
+    public long getSize(int docId) {
+        return documents.getLong(docId * NoteIndexWriter.DOCUMENT_ENTRY_SIZE + 2 * Integer.BYTES);
+    }
+
+    @Override
+    public long getLastModified(int docId) {
+        return documents.getLong(docId * NoteIndexWriter.DOCUMENT_ENTRY_SIZE + 2 * Integer.BYTES + Long.BYTES);
+    }
+
+    @Override
+    public long getContentHash(int docId) {
+        return documents.getLong(docId * NoteIndexWriter.DOCUMENT_ENTRY_SIZE + 2 * Integer.BYTES + 2 * Long.BYTES);
+    }
+
+    @Override
+    public Postings getPostings(String term) {
+        byte[] bytes = term.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = numTerms - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compareTermAt(middle, bytes);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                int entry = middle * NoteIndexWriter.TERM_ENTRY_SIZE;
+                return new Cursor(terms.getInt(entry + Integer.BYTES), (int) terms.getLong(entry + 2 * Integer.BYTES));
+            }
+        }
+        return null;
+    }
+
+    // EFFECTS: returns every term in the index, in order of their UTF-8 bytes
+    @Override
+    public Iterator<String> getTerms() {
+        return new Iterator<String>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < numTerms;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return stringAt(terms.getInt(next++ * NoteIndexWriter.TERM_ENTRY_SIZE));
+            }
+        };
+    }
+
+    // Represents a cursor over the postings of one term, decoded from the POSTINGS section as it moves
+    private class Cursor implements Postings {
+        private final int documentFrequency;
+        private int remaining;
+        private int offset;
+        private int docId;
+        private int frequency;
+        private int positionsOffset;
+
+        // EFFECTS: constructs a cursor over the documentFrequency documents whose postings start at offset
+        Cursor(int documentFrequency, int offset) {
+            this.documentFrequency = documentFrequency;
+            remaining = documentFrequency;
+            this.offset = offset;
+            docId = 0;
+        }
+
+        @Override
+        public int getDocumentFrequency() {
+            return documentFrequency;
+        }
+
+        @Override
+        public boolean next() {
+            if (remaining == 0) {
+                return false;
+            }
+            remaining--;
+            docId += readVarint();
+            frequency = readVarint();
+            int positionsLength = readVarint();
+            positionsOffset = offset;
+            offset += positionsLength;
+            return true;
+        }
+
+        @Override
+        public int getDocId() {
+            return docId;
+        }
+
+        @Override
+        public int getFrequency() {
+            return frequency;
+        }
+
+        @Override
+        public int[] getPositions() {
+            int[] positions = new int[frequency];
+            int savedOffset = offset;
+            offset = positionsOffset;
+            int position = 0;
+            for (int i = 0; i < frequency; i++) {
+                position += readVarint();
+                positions[i] = position;
+            }
+            offset = savedOffset;
+            return positions;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: reads the varint at offset and moves past it
+        private int readVarint() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = postings.get(offset++);
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+    }
+
+
+    // Helper Methods:
+
+    // EFFECTS: checks that buffer starts with a header of a supported version whose sections are in order and end at
+    // the end of the file
+    // throws InvalidNoteIndexException if it does not
+    private static void checkHeader(ByteBuffer buffer) throws InvalidNoteIndexException {
+        if (buffer.getInt(0) != NoteIndexWriter.MAGIC || buffer.getInt(Integer.BYTES) != NoteIndexWriter.VERSION) {
+            throw new InvalidNoteIndexException();
+        }
+        int numDocuments = buffer.getInt(2 * Integer.BYTES);
+        int numTerms = buffer.getInt(3 * Integer.BYTES);
+        if (numDocuments < 0 || numTerms < 0 || buffer.getLong(4 * Integer.BYTES) < 0) {
+            throw new InvalidNoteIndexException();
+        }
+        long previousOffset = NoteIndexWriter.HEADER_SIZE;
+        for (int section = 0; section <= 4; section++) {
+            long offset = getSectionOffset(buffer, section);
+            if (offset < previousOffset) {
+                throw new InvalidNoteIndexException();
+            }
+            previousOffset = offset;
+        }
+        if (getSectionOffset(buffer, 0) != NoteIndexWriter.HEADER_SIZE || previousOffset != buffer.limit()
+                || getSectionOffset(buffer, 3) - getSectionOffset(buffer, 2)
+                        != (long) numDocuments * NoteIndexWriter.DOCUMENT_ENTRY_SIZE
+                || previousOffset - getSectionOffset(buffer, 3) != (long) numTerms * NoteIndexWriter.TERM_ENTRY_SIZE) {
+            throw new InvalidNoteIndexException();
+        }
+    }
+
+    // EFFECTS: checks that every document's path and every term is in the STRINGS section, and that every term's
+    // postings start in the POSTINGS section
+    // throws InvalidNoteIndexException if any are not
+    private void checkTables() throws InvalidNoteIndexException {
+        for (int docId = 0; docId < numDocuments; docId++) {
+            int entry = docId * NoteIndexWriter.DOCUMENT_ENTRY_SIZE;
+            if (documents.getInt(entry) < 0) {
+                throw new InvalidNoteIndexException();
+            }
+            checkString(documents.getInt(entry + Integer.BYTES));
+        }
+        for (int i = 0; i < numTerms; i++) {
+            int entry = i * NoteIndexWriter.TERM_ENTRY_SIZE;
+            checkString(terms.getInt(entry));
+            long postingsOffset = terms.getLong(entry + 2 * Integer.BYTES);
+            if (terms.getInt(entry + Integer.BYTES) < 0 || postingsOffset < 0 || postingsOffset > postings.limit()) {
+                throw new InvalidNoteIndexException();
+            }
+        }
+    }
+
+    // EFFECTS: checks that the string at offset lies within the STRINGS section
+    // throws InvalidNoteIndexException if it does not
+    private void checkString(int offset) throws InvalidNoteIndexException {
+        if (offset < 0 || offset > strings.limit() - Integer.BYTES) {
+            throw new InvalidNoteIndexException();
+        }
+        int length = strings.getInt(offset);
+        if (length < 0 || length > strings.limit() - Integer.BYTES - offset) {
+            throw new InvalidNoteIndexException();
+        }
+    }
+
+    // EFFECTS: returns the string at offset in the STRINGS section
+    private String stringAt(int offset) {
+        byte[] bytes = new byte[strings.getInt(offset)];
+        strings.get(offset + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // EFFECTS: compares the term at index i in the TERMS table to bytes, as unsigned bytes, returning a negative
+    // number, zero, or a positive number if it comes before, is equal to, or comes after bytes
+    private int compareTermAt(int i, byte[] bytes) {
+        int offset = terms.getInt(i * NoteIndexWriter.TERM_ENTRY_SIZE);
+        int length = strings.getInt(offset);
+        offset += Integer.BYTES;
+        int commonLength = Math.min(length, bytes.length);
+        for (int j = 0; j < commonLength; j++) {
+            int comparison = Byte.toUnsignedInt(strings.get(offset + j)) - Byte.toUnsignedInt(bytes[j]);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return length - bytes.length;
+    }
+
+    // EFFECTS: returns the offset in buffer of the section-th section (0 is POSTINGS, 1 STRINGS, 2 DOCUMENTS, 3 TERMS,
+    // and 4 is the end of the file)
+    private static long getSectionOffset(ByteBuffer buffer, int section) {
+        return buffer.getLong(4 * Integer.BYTES + (1 + section) * Long.BYTES);
+    }
+
+    // REQUIRES: buffer has a valid header and 0 <= section < 4
+    // EFFECTS: returns a buffer over just the section-th section of buffer
+    private static ByteBuffer sectionOf(ByteBuffer buffer, int section) {
+        int offset = (int) getSectionOffset(buffer, section);
+        return buffer.slice(offset, (int) getSectionOffset(buffer, section + 1) - offset);
+    }
+}
@@ -0,0 +1,126 @@
+package persistence;
+
+import model.TextIndex;
+import persistence.exceptions.InvalidNoteIndexException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Represents a pointer file through which a full-text index of notes is saved in generations, so that a saved index
+// that is still memory-mapped (see MappedNoteIndex) never has to be replaced or deleted before it is unmapped, which
+// Windows does not allow. Each save writes the index to a new generation file beside the pointer (Autosave.3.index for
+// the pointer Autosave.index), then replaces the pointer (a line of text naming the generation's number), and only
+// then deletes the older generations; one that is still mapped is left to be deleted by a later save
+public class NoteIndexPointer {
+    public static final String POINTER_PREFIX = "generation ";
+
+    private final Path pointerPath;
+    private final Pattern generationFileName;
+
+    // EFFECTS: constructs a pointer at pointerPath, whose file name must end in ".index"
+    // throws IllegalArgumentException if it does not
+    public NoteIndexPointer(String pointerPath) {
+        this.pointerPath = Paths.get(pointerPath).toAbsolutePath();
+        String fileName = this.pointerPath.getFileName().toString();
+        if (!fileName.endsWith(".index")) {
+            throw new IllegalArgumentException(pointerPath);
+        }
+        generationFileName = Pattern.compile(Pattern.quote(getBaseName()) + "\\.([0-9]+)\\.index");
+    }
+
+    // EFFECTS: memory-maps the generation the pointer names and returns it
+    // throws IOException if there is a problem with the pointer or the generation file
+    // throws InvalidNoteIndexException if the pointer does not name a generation or the generation is not a valid index
+    public MappedNoteIndex open() throws IOException, InvalidNoteIndexException {
+        long generation = readGeneration();
+        if (generation < 0) {
+            throw new InvalidNoteIndexException();
+        }
+        return MappedNoteIndex.open(getGenerationPath(generation).toString());
+    }
+
+    // EFFECTS: saves index as a new generation, points the pointer at it, and deletes every older generation that can
+    // be deleted
+    // throws IOException if the generation or the pointer could not be written, in which case the pointer is left as
+    // it was
+    public void write(TextIndex index) throws IOException {
+        long generation = readGeneration() + 1;
+        Path generationPath = getGenerationPath(generation);
+        try {
+            new NoteIndexWriter(generationPath.toString()).write(index);
+            AtomicFileWriter.write(pointerPath.toString(),
+                    (POINTER_PREFIX + generation + "\n").getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            Files.deleteIfExists(generationPath);
+            throw e;
+        }
+        deleteGenerationsBefore(generation);
+    }
+
+
+    // Helper Methods:
+
+    // EFFECTS: returns the number of the generation the pointer names, or -1 if there is no pointer or it does not
+    // name one (e.g. it is an index saved before indexes were saved in generations)
+    // throws IOException if the pointer exists but could not be read
+    private long readGeneration() throws IOException {
+        if (!Files.exists(pointerPath)) {
+            return -1;
+        }
+        byte[] bytes = Files.readAllBytes(pointerPath);
+        String pointer = new String(bytes, StandardCharsets.UTF_8).trim();
+        if (!pointer.startsWith(POINTER_PREFIX)) {
+            return -1;
+        }
+        try {
+            return Math.max(-1, Long.parseLong(pointer.substring(POINTER_PREFIX.length())));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // EFFECTS: returns the path of the file the given generation is saved in
+    private Path getGenerationPath(long generation) {
+        return pointerPath.resolveSibling(getBaseName() + "." + generation + ".index");
+    }
+
+    // EFFECTS: returns the name of the pointer file without ".index"
+    private String getBaseName() {
+        String fileName = pointerPath.getFileName().toString();
+        return fileName.substring(0, fileName.length() - ".index".length());
+    }
+
+    // EFFECTS: deletes every generation file beside the pointer older than generation, leaving any that cannot be
+    // deleted (e.g. because it is still memory-mapped on Windows)
+    private void deleteGenerationsBefore(long generation) {
+        try (Stream<Path> siblings = Files.list(pointerPath.getParent())) {
+            siblings.forEach(sibling -> {
+                Matcher matcher = generationFileName.matcher(sibling.getFileName().toString());
+                if (matcher.matches() && isBefore(matcher.group(1), generation)) {
+                    try {
+                        Files.deleteIfExists(sibling);
+                    } catch (IOException e) {
+                        // left to be deleted by a later save
+                    }
+                }
+            });
+        } catch (IOException e) {
+            // left to be deleted by a later save
+        }
+    }
+
+    // EFFECTS: returns true if the generation numbered by digits is older than generation
+    private static boolean isBefore(String digits, long generation) {
+        try {
+            return Long.parseLong(digits) < generation;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
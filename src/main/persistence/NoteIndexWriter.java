@@ -0,0 +1,300 @@
+package persistence;
+
+import model.MetricsRegistry;
+import model.OperationMetrics;
+import model.TextIndex;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+// Represents a writer for saving a full-text index of notes (see TextIndex) to a file that MappedNoteIndex can
+// memory-map and search without reading the notes again. The file is laid out as:
+//   header:    MAGIC, VERSION, the number of documents and terms, the total length of the documents, and the offset
+//              of each of the sections below and of the end of the file
+//   POSTINGS:  each term's postings, one document after another: the gap from the previous document's id (or the id
+//              itself, for the first), the term's frequency in the document, the number of bytes its positions take,
+//              and the gaps between its positions, all as varints (7 bits a byte, low bits first)
+//   STRINGS:   each document's path and then each term, as a UTF-8 length and bytes
+//   DOCUMENTS: an entry of DOCUMENT_ENTRY_SIZE bytes for each document: its length, the offset of its path in
+//              STRINGS, and its size, last-modified time, and content hash when it was indexed
+//   TERMS:     an entry of TERM_ENTRY_SIZE bytes for each term, sorted by the term's UTF-8 bytes: the offset of the
+//              term in STRINGS, its document frequency, and the offset of its postings in POSTINGS
+// Ints and longs are big-endian. Deleted documents are left out, and the rest are numbered again from 0 with no gaps.
+// Like SnapshotWriter, the file is only replaced once it has been completely written
+public class NoteIndexWriter {
+    public static final int MAGIC = 0x54464149;
+    public static final int VERSION = 2;
+
+    static final int HEADER_SIZE = 4 * Integer.BYTES + 6 * Long.BYTES;
+    static final int DOCUMENT_ENTRY_SIZE = 2 * Integer.BYTES + 3 * Long.BYTES;
+    static final int TERM_ENTRY_SIZE = 2 * Integer.BYTES + Long.BYTES;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final OperationMetrics WRITE_METRICS =
+            MetricsRegistry.getInstance().getOperation("NoteIndexWriter.write");
+
+    private String destinationPath;
+    private DataOutputStream out;
+    private long position;
+    private int[] newDocIds;
+
+    // Represents the terms written to the POSTINGS section: the first count of terms, in order, with their document
+    // frequencies and the offsets of their postings in the section
+    private static class TermEntries {
+        private final byte[][] terms;
+        private final long[] postingsOffsets;
+        private final int[] documentFrequencies;
+        private int count;
+
+        // EFFECTS: constructs the entries of terms, none of which have been written yet
+        TermEntries(byte[][] terms) {
+            this.terms = terms;
+            postingsOffsets = new long[terms.length];
+            documentFrequencies = new int[terms.length];
+            count = 0;
+        }
+    }
+
+    // EFFECTS: constructs a new NoteIndexWriter for writing an index to destinationPath
+    public NoteIndexWriter(String destinationPath) {
+        this.destinationPath = destinationPath;
+    }
+
+    // EFFECTS: replaces the file at destinationPath with index
+    // throws IOException if the file could not be written, in which case it is left as it was
+    public void write(TextIndex index) throws IOException {
+        long start = System.nanoTime();
+        AtomicFileWriter file = new AtomicFileWriter(destinationPath);
+        try {
+            FileChannel channel = file.open();
+            channel.position(HEADER_SIZE);
+            out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+            position = HEADER_SIZE;
+
+            List<Integer> liveDocIds = numberLiveDocuments(index);
+            long[] sectionOffsets = new long[5];
+            int numTerms = writeSections(index, liveDocIds, sectionOffsets);
+            out.flush();
+            writeHeader(channel, index, liveDocIds.size(), numTerms, sectionOffsets);
+            file.commit();
+        } catch (IOException e) {
+            file.abort();
+            throw e;
+        } finally {
+            WRITE_METRICS.recordSince(start);
+        }
+    }
+
+
+    // Helper Methods:
+
+    // MODIFIES: this
+    // EFFECTS: numbers the documents of index that are not deleted again from 0, recording the new id of each in
+    // newDocIds, and returns their old ids in order
+    private List<Integer> numberLiveDocuments(TextIndex index) {
+        List<Integer> liveDocIds = new ArrayList<Integer>();
+        newDocIds = new int[index.getNumDocuments()];
+        for (int docId = 0; docId < index.getNumDocuments(); docId++) {
+            if (!index.isDeleted(docId)) {
+                newDocIds[docId] = liveDocIds.size();
+                liveDocIds.add(docId);
+            }
+        }
+        return liveDocIds;
+    }
+
+    // MODIFIES: this, sectionOffsets
+    // EFFECTS: writes every section for the documents of index with ids liveDocIds, records the offset each starts at
+    // (and then the offset of the end of the file) in sectionOffsets, and returns the number of terms written
+    private int writeSections(TextIndex index, List<Integer> liveDocIds, long[] sectionOffsets) throws IOException {
+        sectionOffsets[0] = position;
+        TermEntries termEntries = writePostingsSection(index);
+        sectionOffsets[1] = position;
+        long[] pathOffsets = writeStrings(index, liveDocIds, sectionOffsets[1]);
+        long[] termOffsets = writeStrings(termEntries, sectionOffsets[1]);
+        sectionOffsets[2] = position;
+        writeDocumentsSection(index, liveDocIds, pathOffsets);
+        sectionOffsets[3] = position;
+        writeTermsSection(termEntries, termOffsets);
+        sectionOffsets[4] = position;
+        return termEntries.count;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the POSTINGS section: the postings of every term of index that is in any document that is not
+    // deleted, sorted by the term's UTF-8 bytes, and returns those terms
+    private TermEntries writePostingsSection(TextIndex index) throws IOException {
+        long postingsOffset = position;
+        TermEntries entries = new TermEntries(getSortedTerms(index));
+        for (byte[] term : entries.terms) {
+            entries.postingsOffsets[entries.count] = position - postingsOffset;
+            entries.documentFrequencies[entries.count] = writePostings(index.getPostings(new String(term,
+                    StandardCharsets.UTF_8)));
+            if (entries.documentFrequencies[entries.count] > 0) {
+                entries.terms[entries.count++] = term;
+            }
+        }
+        return entries;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the path of each of liveDocIds to the STRINGS section, which starts at stringsOffset, and
+    // returns the offset of each in the section
+    // throws IOException if the section has grown too large
+    private long[] writeStrings(TextIndex index, List<Integer> liveDocIds, long stringsOffset) throws IOException {
+        long[] pathOffsets = new long[liveDocIds.size()];
+        for (int i = 0; i < liveDocIds.size(); i++) {
+            pathOffsets[i] = position - stringsOffset;
+            writeBytes(index.getPath(liveDocIds.get(i)).getBytes(StandardCharsets.UTF_8));
+        }
+        checkStringsSize(stringsOffset);
+        return pathOffsets;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes each of entries' terms to the STRINGS section, which starts at stringsOffset, and returns the
+    // offset of each in the section
+    // throws IOException if the section has grown too large
+    private long[] writeStrings(TermEntries entries, long stringsOffset) throws IOException {
+        long[] termOffsets = new long[entries.count];
+        for (int i = 0; i < entries.count; i++) {
+            termOffsets[i] = position - stringsOffset;
+            writeBytes(entries.terms[i]);
+        }
+        checkStringsSize(stringsOffset);
+        return termOffsets;
+    }
+
+    // EFFECTS: throws IOException if the STRINGS section, which starts at stringsOffset, has grown too large for its
+    // offsets to fit in an int
+    private void checkStringsSize(long stringsOffset) throws IOException {
+        if (position - stringsOffset > Integer.MAX_VALUE) {
+            throw new IOException("The index is too large to save");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the DOCUMENTS section: an entry for each of liveDocIds, whose paths are at pathOffsets in
+    // STRINGS
+    private void writeDocumentsSection(TextIndex index, List<Integer> liveDocIds, long[] pathOffsets)
+            throws IOException {
+        for (int i = 0; i < liveDocIds.size(); i++) {
+            int docId = liveDocIds.get(i);
+            out.writeInt(index.getLength(docId));
+            out.writeInt((int) pathOffsets[i]);
+            out.writeLong(index.getSize(docId));
+            out.writeLong(index.getLastModified(docId));
+            out.writeLong(index.getContentHash(docId));
+        }
+        position += (long) liveDocIds.size() * DOCUMENT_ENTRY_SIZE;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the TERMS section: an entry for each of entries' terms, which are at termOffsets in STRINGS
+    private void writeTermsSection(TermEntries entries, long[] termOffsets) throws IOException {
+        for (int i = 0; i < entries.count; i++) {
+            out.writeInt((int) termOffsets[i]);
+            out.writeInt(entries.documentFrequencies[i]);
+            out.writeLong(entries.postingsOffsets[i]);
+        }
+        position += (long) entries.count * TERM_ENTRY_SIZE;
+    }
+
+    // MODIFIES: channel
+    // EFFECTS: writes the header to the start of channel, for an index of numDocuments documents and numTerms terms
+    // with index's total length, whose sections start at the first four of sectionOffsets and end at the last
+    private static void writeHeader(FileChannel channel, TextIndex index, int numDocuments, int numTerms,
+                                    long[] sectionOffsets) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putInt(numDocuments).putInt(numTerms);
+        header.putLong(index.getTotalLength());
+        for (long offset : sectionOffsets) {
+            header.putLong(offset);
+        }
+        header.rewind();
+        long writePosition = 0;
+        while (header.hasRemaining()) {
+            writePosition += channel.write(header, writePosition);
+        }
+    }
+
+    // EFFECTS: returns every term of index as UTF-8, sorted by those bytes (compared as unsigned)
+    private static byte[][] getSortedTerms(TextIndex index) {
+        List<byte[]> terms = new ArrayList<byte[]>();
+        for (Iterator<String> iterator = index.getTerms(); iterator.hasNext(); ) {
+            terms.add(iterator.next().getBytes(StandardCharsets.UTF_8));
+        }
+        byte[][] sortedTerms = terms.toArray(new byte[0][]);
+        Arrays.sort(sortedTerms, Arrays::compareUnsigned);
+        return sortedTerms;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes every document of postings (numbered again, without the deleted documents) to the POSTINGS
+    // section and returns how many there were
+    private int writePostings(TextIndex.Postings postings) throws IOException {
+        ByteArrayOutputStream positionBytes = new ByteArrayOutputStream();
+        int numDocuments = 0;
+        int previousDocId = 0;
+        while (postings.next()) {
+            positionBytes.reset();
+            int previousPosition = 0;
+            for (int termPosition : postings.getPositions()) {
+                writeVarint(positionBytes, termPosition - previousPosition);
+                previousPosition = termPosition;
+            }
+            int docId = newDocIds[postings.getDocId()];
+            writeVarint(docId - previousDocId);
+            writeVarint(postings.getFrequency());
+            writeVarint(positionBytes.size());
+            positionBytes.writeTo(out);
+            position += positionBytes.size();
+            previousDocId = docId;
+            numDocuments++;
+        }
+        return numDocuments;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the length of bytes followed by bytes
+    private void writeBytes(byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+        position += Integer.BYTES + bytes.length;
+    }
+
+    // REQUIRES: value >= 0
+    // MODIFIES: this
+    // EFFECTS: writes value as a varint
+    private void writeVarint(int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+            position++;
+        }
+        out.write(value);
+        position++;
+    }
+
+    // REQUIRES: value >= 0
+    // MODIFIES: bytes
+    // EFFECTS: writes value to bytes as a varint
+    private static void writeVarint(ByteArrayOutputStream bytes, int value) {
+        while ((value & ~0x7F) != 0) {
+            bytes.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes.write(value);
+    }
+}
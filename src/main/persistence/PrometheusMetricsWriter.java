@@ -0,0 +1,123 @@
+package persistence;
+
+import model.LatencyHistogram;
+import model.MetricsRegistry;
+import model.OperationMetrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Represents a writer that keeps a text file of a MetricsRegistry's metrics up to date, in the Prometheus text
+// exposition format, so they can be read (or scraped by a node exporter's textfile collector) without attaching to the
+// running app. Each operation's latencies are written as a summary with the quantiles in QUANTILES, its sum, and its
+// count (the rate of which is the operation's throughput), plus a gauge of the longest it has taken. The file is
+// replaced all at once (see AtomicFileWriter), every intervalMillis on a background thread and once more when closed
+public class PrometheusMetricsWriter {
+    public static final String DEFAULT_FILE_PATH = "data/metrics.prom";
+    public static final long DEFAULT_INTERVAL_MILLIS = 15 * 1000;
+
+    static final String METRIC_NAME = "text_file_app_operation_duration_seconds";
+    static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final MetricsRegistry registry;
+    private final String filePath;
+    private final long intervalMillis;
+    private ScheduledExecutorService timer;
+
+    // REQUIRES: intervalMillis > 0
+    // EFFECTS: constructs a writer that will write registry's metrics to filePath every intervalMillis once started
+    public PrometheusMetricsWriter(MetricsRegistry registry, String filePath, long intervalMillis) {
+        this.registry = registry;
+        this.filePath = filePath;
+        this.intervalMillis = intervalMillis;
+        timer = null;
+    }
+
+    // REQUIRES: start has not been called before
+    // MODIFIES: this
+    // EFFECTS: starts writing the metrics to the file every intervalMillis on a background (daemon) thread. A write
+    // that fails is skipped; the next one tries again
+    public void start() {
+        timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Metrics writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.scheduleWithFixedDelay(() -> {
+            try {
+                write();
+            } catch (IOException e) {
+                // the next write will try again
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops writing the metrics in the background (if it was started) and writes them one last time
+    // throws IOException if the last write failed
+    public void close() throws IOException {
+        if (timer != null) {
+            timer.shutdown();
+            try {
+                timer.awaitTermination(intervalMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            timer = null;
+        }
+        write();
+    }
+
+    // EFFECTS: replaces the file with the metrics as they are now
+    // throws IOException if it could not be written
+    public void write() throws IOException {
+        AtomicFileWriter.write(filePath, format(registry).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // EFFECTS: returns registry's metrics in the Prometheus text exposition format
+    public static String format(MetricsRegistry registry) {
+        StringBuilder text = new StringBuilder();
+        text.append("# HELP ").append(METRIC_NAME)
+                .append(" How long file system and persistence operations took, in seconds\n");
+        text.append("# TYPE ").append(METRIC_NAME).append(" summary\n");
+        for (OperationMetrics operation : registry.getOperations()) {
+            LatencyHistogram latencies = operation.getLatencies();
+            String label = "operation=\"" + escapeLabelValue(operation.getName()) + "\"";
+            for (double quantile : QUANTILES) {
+                appendSample(text, METRIC_NAME, label + ",quantile=\"" + quantile + "\"",
+                        latencies.getPercentileNanos(quantile * 100) / NANOS_PER_SECOND);
+            }
+            appendSample(text, METRIC_NAME + "_sum", label, latencies.getTotalNanos() / NANOS_PER_SECOND);
+            text.append(METRIC_NAME).append("_count{").append(label).append("} ").append(latencies.getCount())
+                    .append('\n');
+        }
+
+        text.append("# HELP ").append(METRIC_NAME).append("_max")
+                .append(" The longest file system and persistence operations took, in seconds\n");
+        text.append("# TYPE ").append(METRIC_NAME).append("_max gauge\n");
+        for (OperationMetrics operation : registry.getOperations()) {
+            appendSample(text, METRIC_NAME + "_max", "operation=\"" + escapeLabelValue(operation.getName()) + "\"",
+                    operation.getLatencies().getMaxNanos() / NANOS_PER_SECOND);
+        }
+        return text.toString();
+    }
+
+
+    // Helper Methods:
+
+    // MODIFIES: text
+    // EFFECTS: appends a line for the sample of the metric named name with labels and value to text
+    private static void appendSample(StringBuilder text, String name, String labels, double value) {
+        text.append(name).append('{').append(labels).append("} ").append(value).append('\n');
+    }
+
+    // EFFECTS: returns value with backslashes, double quotes, and newlines escaped, as a label value must be
+    static String escapeLabelValue(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,108 @@
+package persistence;
+
+import model.Folder;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Represents the manifest of a sharded save (see ShardedWriter): the directory it is in, the name of the file holding
+// everything that is not in any top-level Folder, and the shard (file) each top-level Folder is saved in, along with
+// how many changes had been made within that Folder when its shard was written or read, so that only the top-level
+// Folders that have changed since have to be written again
+public class ShardManifest {
+    public static final String FILE_NAME = "manifest.json";
+    public static final int VERSION = 1;
+
+    private final Path directory;
+    private int nextShardNumber;
+    private String stateFileName;
+    private final Map<Folder, Shard> shards;
+
+    // Represents the file one top-level Folder is saved in
+    public static class Shard {
+        private final String fileName;
+        private long savedChangeCount;
+
+        // EFFECTS: constructs a shard saved in the file named fileName, written or read when savedChangeCount changes
+        // had been made within its Folder
+        Shard(String fileName, long savedChangeCount) {
+            this.fileName = fileName;
+            this.savedChangeCount = savedChangeCount;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public long getSavedChangeCount() {
+            return savedChangeCount;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: records that this shard matches its Folder as it was when savedChangeCount changes had been made
+        // within it
+        void setSavedChangeCount(long savedChangeCount) {
+            this.savedChangeCount = savedChangeCount;
+        }
+    }
+
+    // EFFECTS: constructs a manifest with no shards for a sharded save in the directory at directoryPath, whose next
+    // new file will be numbered nextShardNumber
+    ShardManifest(String directoryPath, int nextShardNumber) {
+        directory = Paths.get(directoryPath).toAbsolutePath().normalize();
+        this.nextShardNumber = nextShardNumber;
+        stateFileName = null;
+        shards = new LinkedHashMap<Folder, Shard>();
+    }
+
+    // EFFECTS: returns true if this is the manifest of a sharded save in the directory at directoryPath
+    public boolean isIn(String directoryPath) {
+        return directory.equals(Paths.get(directoryPath).toAbsolutePath().normalize());
+    }
+
+    // EFFECTS: returns the path of the file named fileName in this sharded save's directory
+    Path resolve(String fileName) {
+        return directory.resolve(fileName);
+    }
+
+    // EFFECTS: returns the number the next new file in this sharded save will be numbered
+    int getNextShardNumber() {
+        return nextShardNumber;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns a name that no file in this sharded save has had yet, starting with prefix
+    String nextFileName(String prefix) {
+        return prefix + "-" + nextShardNumber++ + ".json";
+    }
+
+    // EFFECTS: returns the name of the file holding everything that is not in any top-level Folder
+    public String getStateFileName() {
+        return stateFileName;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the name of the file holding everything that is not in any top-level Folder
+    void setStateFileName(String stateFileName) {
+        this.stateFileName = stateFileName;
+    }
+
+    // EFFECTS: returns the shard folder is saved in, or null if it is not saved in one
+    public Shard getShard(Folder folder) {
+        return shards.get(folder);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that folder is saved in shard
+    void putShard(Folder folder, Shard shard) {
+        shards.put(folder, shard);
+    }
+
+    // EFFECTS: returns every top-level Folder and the shard it is saved in, in the order they were added
+    public Map<Folder, Shard> getShards() {
+        return Collections.unmodifiableMap(shards);
+    }
+}
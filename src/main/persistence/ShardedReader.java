@@ -0,0 +1,217 @@
+package persistence;
+
+import model.FileSystem;
+import model.Folder;
+import model.MetricsRegistry;
+import model.OperationMetrics;
+import model.exceptions.FolderNotLoadedRuntimeException;
+import model.exceptions.NameIsTakenException;
+import persistence.exceptions.InvalidJsonException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+// Represents a reader for loading the file system from a sharded save written by ShardedWriter. Only the manifest and
+// the state file are read straight away: each top-level Folder is added empty and its shard is only read once the
+// Folder's contents are first needed (e.g. when it is opened, or when something that was open when the file system
+// was saved is in it)
+public class ShardedReader {
+    private static final OperationMetrics READ_METRICS =
+            MetricsRegistry.getInstance().getOperation("ShardedReader.read");
+
+    private String directoryPath;
+
+    // EFFECTS: constructs a new ShardedReader for loading the sharded save in the directory at directoryPath
+    public ShardedReader(String directoryPath) {
+        this.directoryPath = directoryPath;
+    }
+
+    // EFFECTS: reads the manifest and the state file and returns the file system they represent, recording the
+    // manifest in it
+    // throws IOException if there is a problem with the manifest or the state file
+    // throws InvalidJsonException if the manifest is not a supported version, does not represent a valid sharded
+    // save, or the file system it represents could not be made (including if one of the shards needed to restore
+    // what was open is not valid)
+    public FileSystem read() throws IOException, InvalidJsonException {
+        long start = System.nanoTime();
+        try {
+            FileSystem fileSystem = new FileSystem();
+            ShardManifest manifest = readManifest(fileSystem);
+            fileSystem.setShardManifest(manifest);
+            fileSystem.markHasUnloadedFolders();
+            try {
+                return new JsonReader(manifest.resolve(manifest.getStateFileName()).toString()).read(fileSystem);
+            } catch (FolderNotLoadedRuntimeException e) {
+                throw new InvalidJsonException();
+            }
+        } finally {
+            READ_METRICS.recordSince(start);
+        }
+    }
+
+    // Represents the loading of a top-level Folder's contents from its shard
+    private static class ShardLoader implements Folder.ContentsLoader {
+        private final String filePath;
+        private final FileSystem fileSystem;
+        private final ShardManifest.Shard shard;
+
+        // EFFECTS: constructs a ShardLoader that loads a Folder of fileSystem from shard, found at filePath
+        ShardLoader(String filePath, FileSystem fileSystem, ShardManifest.Shard shard) {
+            this.filePath = filePath;
+            this.fileSystem = fileSystem;
+            this.shard = shard;
+        }
+
+        // MODIFIES: this, folder
+        // EFFECTS: reads the shard into folder and records that the shard matches folder as it is now
+        @Override
+        public void loadContents(Folder folder) throws IOException, InvalidJsonException {
+            new JsonReader(filePath).readFolder(fileSystem, folder);
+            shard.setSavedChangeCount(folder.getChangeCount());
+        }
+    }
+
+
+    // Helper Methods:
+
+    // MODIFIES: fileSystem
+    // EFFECTS: reads the manifest, adds an unloaded Folder to fileSystem's root Folder for each shard in it, and
+    // returns it
+    // throws InvalidJsonException if the manifest is malformed, is not a supported version, or has a blank or
+    // duplicate Folder name or a file name that is not in the directory
+    private ShardManifest readManifest(FileSystem fileSystem) throws IOException, InvalidJsonException {
+        ManifestFields fields = new ManifestFields();
+        String manifestPath = Paths.get(directoryPath, ShardManifest.FILE_NAME).toString();
+        try (Reader reader = Channels.newReader(FileChannel.open(Paths.get(manifestPath)), StandardCharsets.UTF_8)) {
+            JsonStreamReader json = new JsonStreamReader(reader);
+            json.beginObject();
+            while (json.hasNext()) {
+                readManifestField(json, fields);
+            }
+            json.endObject();
+        }
+
+        if (fields.version != ShardManifest.VERSION || fields.nextShardNumber < 1
+                || !isFileName(fields.stateFileName)) {
+            throw new InvalidJsonException();
+        }
+        ShardManifest manifest = new ShardManifest(directoryPath, fields.nextShardNumber);
+        manifest.setStateFileName(fields.stateFileName);
+        for (int i = 0; i < fields.folderNames.size(); i++) {
+            addUnloadedFolder(fileSystem, manifest, fields.folderNames.get(i), fields.shardFileNames.get(i));
+        }
+        return manifest;
+    }
+
+    // Represents the fields read from the manifest so far
+    private static class ManifestFields {
+        private int version = -1;
+        private int nextShardNumber = -1;
+        private String stateFileName = null;
+        private final List<String> folderNames = new ArrayList<String>();
+        private final List<String> shardFileNames = new ArrayList<String>();
+    }
+
+    // MODIFIES: fields
+    // EFFECTS: reads the manifest's next field into fields, skipping it if it is not one this version knows
+    // throws InvalidJsonException if it is malformed
+    private void readManifestField(JsonStreamReader json, ManifestFields fields)
+            throws IOException, InvalidJsonException {
+        switch (json.nextName()) {
+            case "version":
+                fields.version = (int) json.nextLong();
+                break;
+            case "nextShardNumber":
+                fields.nextShardNumber = (int) json.nextLong();
+                break;
+            case "stateFile":
+                fields.stateFileName = json.nextString();
+                break;
+            case "folders":
+                readFolders(json, fields.folderNames, fields.shardFileNames);
+                break;
+            default:
+                json.skipValue();
+        }
+    }
+
+    // MODIFIES: folderNames, shardFileNames
+    // EFFECTS: reads the manifest's array of top-level Folders, adding each one's name and shard file name
+    // throws InvalidJsonException if it is malformed or an entry is missing either name
+    private void readFolders(JsonStreamReader json, List<String> folderNames, List<String> shardFileNames)
+            throws IOException, InvalidJsonException {
+        json.beginArray();
+        while (json.hasNext()) {
+            readFolder(json, folderNames, shardFileNames);
+        }
+        json.endArray();
+    }
+
+    // MODIFIES: folderNames, shardFileNames
+    // EFFECTS: reads one entry of the manifest's array of top-level Folders, adding its name and shard file name
+    // throws InvalidJsonException if it is malformed or missing either name
+    private void readFolder(JsonStreamReader json, List<String> folderNames, List<String> shardFileNames)
+            throws IOException, InvalidJsonException {
+        String name = null;
+        String shardFileName = null;
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "name":
+                    name = json.nextString();
+                    break;
+                case "shardFile":
+                    shardFileName = json.nextString();
+                    break;
+                default:
+                    json.skipValue();
+            }
+        }
+        json.endObject();
+        if (name == null || shardFileName == null) {
+            throw new InvalidJsonException();
+        }
+        folderNames.add(name);
+        shardFileNames.add(shardFileName);
+    }
+
+    // MODIFIES: fileSystem, manifest
+    // EFFECTS: adds a Folder named name to fileSystem's root Folder whose contents are loaded from the shard file
+    // named shardFileName once they are first needed
+    // throws InvalidJsonException if name is blank or taken or shardFileName is not the name of a file in the directory
+    private void addUnloadedFolder(FileSystem fileSystem, ShardManifest manifest, String name, String shardFileName)
+            throws InvalidJsonException {
+        if (name.isBlank() || !isFileName(shardFileName)) {
+            throw new InvalidJsonException();
+        }
+        Folder folder = new Folder(name);
+        ShardManifest.Shard shard = new ShardManifest.Shard(shardFileName, 0);
+        folder.setContentsLoader(new ShardLoader(manifest.resolve(shardFileName).toString(), fileSystem, shard));
+        try {
+            fileSystem.getRootFolder().addExistingSubfolder(folder);
+        } catch (NameIsTakenException e) {
+            throw new InvalidJsonException();
+        }
+        manifest.putShard(folder, shard);
+    }
+
+    // EFFECTS: returns true if fileName is the name of a file directly in a directory (rather than a path that could
+    // lead outside of it)
+    private static boolean isFileName(String fileName) {
+        if (fileName == null || fileName.isBlank()) {
+            return false;
+        }
+        try {
+            return Paths.get(fileName).getFileName().toString().equals(fileName) && !fileName.equals("..");
+        } catch (InvalidPathException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package persistence;
+
+import model.FileSystem;
+import model.Folder;
+import model.MetricsRegistry;
+import model.OperationMetrics;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+// Represents a writer for saving the file system as a sharded save: a directory holding
+//   manifest.json:  the version, the number the next new file will be numbered, the name of the state file, and
+//                   the name and shard file of each top-level Folder (see ShardManifest)
+//   folder-N.json:  one shard per top-level Folder, holding the same JSON representation of it as a full save
+//   state-N.json:   the same JSON representation as a full save, except that the root Folder has no subfolders
+// Every file is written under a name no earlier file had, and the manifest is replaced last (see AtomicFileWriter),
+// so a save that is cut off part way leaves the previous one intact. Files the new manifest does not refer to are
+// deleted afterwards. When saving to the directory the file system was last saved to or loaded from, the shards of
+// top-level Folders that have not changed (or were never loaded) are kept as they are instead of being written again
+public class ShardedWriter {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String FOLDER_SHARD_PREFIX = "folder";
+    private static final String STATE_FILE_PREFIX = "state";
+
+    private static final OperationMetrics WRITE_METRICS =
+            MetricsRegistry.getInstance().getOperation("ShardedWriter.write");
+
+    private String directoryPath;
+
+    // Represents what to write to one of the files of a sharded save
+    private interface Contents {
+        // MODIFIES: writer
+        // EFFECTS: writes the contents of the file to writer
+        void write(JsonStreamWriter writer) throws IOException;
+    }
+
+    // EFFECTS: constructs a new ShardedWriter for saving to the directory at directoryPath
+    public ShardedWriter(String directoryPath) {
+        this.directoryPath = directoryPath;
+    }
+
+    // MODIFIES: fileSystem
+    // EFFECTS: saves fileSystem to the directory, creating it if it does not exist, and records the new manifest in
+    // fileSystem
+    // throws IOException if the directory or any of the files in it could not be written, in which case the previous
+    // save in the directory (if there is one) is left as it was
+    public void write(FileSystem fileSystem) throws IOException {
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(Paths.get(directoryPath));
+            ShardManifest previousManifest = fileSystem.getShardManifest();
+            if (previousManifest != null && !previousManifest.isIn(directoryPath)) {
+                previousManifest = null;
+            }
+            ShardManifest manifest = new ShardManifest(directoryPath,
+                    previousManifest == null ? 1 : previousManifest.getNextShardNumber());
+
+            for (Folder folder : fileSystem.getRootFolder().getSubfolders()) {
+                writeShardIfChanged(folder, previousManifest, manifest);
+            }
+
+            manifest.setStateFileName(manifest.nextFileName(STATE_FILE_PREFIX));
+            writeFile(manifest.resolve(manifest.getStateFileName()), fileSystem::writeJsonWithoutSubfoldersOfRoot);
+            writeFile(manifest.resolve(ShardManifest.FILE_NAME), writer -> writeManifest(writer, manifest));
+            fileSystem.setShardManifest(manifest);
+
+            deleteUnusedFiles(manifest);
+        } finally {
+            WRITE_METRICS.recordSince(start);
+        }
+    }
+
+
+    // Helper Methods:
+
+    // MODIFIES: manifest
+    // EFFECTS: records folder's shard in manifest, reusing the one previousManifest (if it is not null) records for it
+    // unless folder has changed since it was written, in which case a new shard is written
+    // throws IOException if the new shard could not be written
+    private void writeShardIfChanged(Folder folder, ShardManifest previousManifest, ShardManifest manifest)
+            throws IOException {
+        ShardManifest.Shard shard = previousManifest == null ? null : previousManifest.getShard(folder);
+        if (shard == null || (folder.isLoaded() && folder.getChangeCount() != shard.getSavedChangeCount())) {
+            shard = new ShardManifest.Shard(manifest.nextFileName(FOLDER_SHARD_PREFIX), 0);
+            writeFile(manifest.resolve(shard.getFileName()), folder::writeJson);
+            shard.setSavedChangeCount(folder.getChangeCount());
+        }
+        manifest.putShard(folder, shard);
+    }
+
+    // EFFECTS: writes contents to a file at path in compact JSON, replacing the file only once all of it is written
+    // throws IOException if the file could not be written
+    private void writeFile(Path path, Contents contents) throws IOException {
+        AtomicFileWriter file = new AtomicFileWriter(path.toString());
+        Writer writer = new BufferedWriter(Channels.newWriter(file.open(), StandardCharsets.UTF_8), BUFFER_SIZE);
+        try {
+            JsonStreamWriter jsonStreamWriter = new JsonStreamWriter(writer, 0);
+            contents.write(jsonStreamWriter);
+            jsonStreamWriter.flush();
+        } catch (IOException e) {
+            file.abort();
+            throw e;
+        }
+        file.commit();
+    }
+
+    // MODIFIES: writer
+    // EFFECTS: writes manifest to writer
+    private void writeManifest(JsonStreamWriter writer, ShardManifest manifest) throws IOException {
+        writer.beginObject();
+        writer.name("version").value(ShardManifest.VERSION);
+        writer.name("nextShardNumber").value(manifest.getNextShardNumber());
+        writer.name("stateFile").value(manifest.getStateFileName());
+        writer.name("folders").beginArray();
+        for (Map.Entry<Folder, ShardManifest.Shard> entry : manifest.getShards().entrySet()) {
+            writer.beginObject();
+            writer.name("name").value(entry.getKey().getName());
+            writer.name("shardFile").value(entry.getValue().getFileName());
+            writer.endObject();
+        }
+        writer.endArray();
+        writer.endObject();
+    }
+
+    // EFFECTS: deletes every folder shard and state file in the directory that manifest does not refer to. Files that
+    // cannot be deleted are left behind, since they do no harm
+    private void deleteUnusedFiles(ShardManifest manifest) {
+        Set<String> usedFileNames = new HashSet<String>();
+        usedFileNames.add(manifest.getStateFileName());
+        for (ShardManifest.Shard shard : manifest.getShards().values()) {
+            usedFileNames.add(shard.getFileName());
+        }
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(manifest.resolve(""),
+                "{" + FOLDER_SHARD_PREFIX + "," + STATE_FILE_PREFIX + "}-*.json")) {
+            for (Path file : files) {
+                if (!usedFileNames.contains(file.getFileName().toString())) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            // leave the unused files behind
+        }
+    }
+}
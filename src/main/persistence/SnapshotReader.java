@@ -0,0 +1,654 @@
+package persistence;
+
+import model.File;
+import model.FileSystem;
+import model.Folder;
+import model.Label;
+import model.MetricsRegistry;
+import model.OperationMetrics;
+import model.exceptions.FolderNotLoadedRuntimeException;
+import model.exceptions.NameIsTakenException;
+import model.exceptions.NoSuchLabelFoundException;
+import persistence.exceptions.InvalidSnapshotException;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// Represents a reader for loading the file system from a binary snapshot written by SnapshotWriter. The file is
+// either memory-mapped and the Folders, Files, and Labels are rebuilt in a single pass over its sections (read), or
+// only the parts needed to show the file system are built straight away and every other Folder's contents are built
+// from its part of the snapshot once they are first needed (readLazily)
+public class SnapshotReader {
+    private static final OperationMetrics READ_METRICS =
+            MetricsRegistry.getInstance().getOperation("SnapshotReader.read");
+    private static final OperationMetrics READ_LAZILY_METRICS =
+            MetricsRegistry.getInstance().getOperation("SnapshotReader.readLazily");
+
+    private String filePath;
+
+    // EFFECTS: constructs a new SnapshotReader for reading the snapshot located at filePath
+    public SnapshotReader(String filePath) {
+        this.filePath = filePath;
+    }
+
+    // EFFECTS: reads the snapshot at filePath and returns the file system it represents
+    // throws IOException if there is a problem with the file
+    // throws InvalidSnapshotException if the file is not a snapshot of a supported version or does not represent a
+    // valid file system
+    public FileSystem read() throws IOException, InvalidSnapshotException {
+        long start = System.nanoTime();
+        try {
+            MappedByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+                if (channel.size() < SnapshotWriter.HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+                    throw new InvalidSnapshotException();
+                }
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+
+            try {
+                return new EagerLoader(buffer).load();
+            } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+                throw new InvalidSnapshotException();
+            }
+        } finally {
+            READ_METRICS.recordSince(start);
+        }
+    }
+
+    // EFFECTS: reads the snapshot at filePath and returns the file system it represents, building only the Labels, the
+    // current Folder, the recently-opened Files and Folders, and the Folders that lead to them. Every other Folder is
+    // left unloaded and its contents are read from the snapshot once they are first needed (see
+    // Folder.setContentsLoader), and only the strings those need are decoded (found through the STRING_OFFSETS
+    // section). The file is still copied into memory in one read, which takes time proportional to its size, rather
+    // than mapped, so that it can be replaced (e.g. by the next autosave) while Folders are still unloaded; nothing
+    // else done straight away depends on how big the file system is. Snapshots written without a FOLDER_INDEX
+    // section are read all at once, like read, and snapshots written without a STRING_OFFSETS section have the start
+    // of each string found by stepping over every string once
+    // throws IOException if there is a problem with the file
+    // throws InvalidSnapshotException if the file is not a snapshot of a supported version or the parts of it that
+    // are read straight away do not represent a valid file system
+    public FileSystem readLazily() throws IOException, InvalidSnapshotException {
+        long start = System.nanoTime();
+        try {
+            byte[] bytes = Files.readAllBytes(Paths.get(filePath));
+            if (bytes.length < SnapshotWriter.HEADER_SIZE) {
+                throw new InvalidSnapshotException();
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+            try {
+                if (findSection(buffer, SnapshotWriter.SECTION_FOLDER_INDEX) == null) {
+                    return new EagerLoader(buffer).load();
+                }
+                return new LazyLoader(buffer).load();
+            } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException
+                    | FolderNotLoadedRuntimeException e) {
+                throw new InvalidSnapshotException();
+            }
+        } finally {
+            READ_LAZILY_METRICS.recordSince(start);
+        }
+    }
+
+    // Represents the loading of one snapshot. Subclasses decide when the strings, Folders, and Files are built
+    private abstract static class Loader {
+        protected final ByteBuffer buffer;
+        protected final FileSystem fileSystem;
+        protected List<Label> labels;
+
+        // EFFECTS: constructs a Loader that builds a new FileSystem from buffer
+        Loader(ByteBuffer buffer) {
+            this.buffer = buffer;
+            fileSystem = new FileSystem();
+        }
+
+        // MODIFIES: this
+        // EFFECTS: reads every section (or as much as is needed straight away) and returns the file system they
+        // represent
+        // throws InvalidSnapshotException if the snapshot is not valid (including if any section lies outside the
+        // file, even one this version does not read)
+        FileSystem load() throws InvalidSnapshotException {
+            if (buffer.getInt(0) != SnapshotWriter.MAGIC || buffer.getInt(Integer.BYTES) != SnapshotWriter.VERSION) {
+                throw new InvalidSnapshotException();
+            }
+            readStrings(section(buffer, SnapshotWriter.SECTION_STRINGS));
+            readLabels(section(buffer, SnapshotWriter.SECTION_LABELS));
+            readFolders(section(buffer, SnapshotWriter.SECTION_FOLDERS));
+            readFiles(section(buffer, SnapshotWriter.SECTION_FILES));
+            readState(section(buffer, SnapshotWriter.SECTION_STATE));
+            ByteBuffer journalSection = findSection(buffer, SnapshotWriter.SECTION_JOURNAL);
+            if (journalSection != null) {
+                fileSystem.restoreJournalSequence(journalSection.getLong());
+            }
+            return fileSystem;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: reads the string table
+        protected abstract void readStrings(ByteBuffer section) throws InvalidSnapshotException;
+
+        // MODIFIES: this
+        // EFFECTS: reads the Folders
+        protected abstract void readFolders(ByteBuffer section) throws InvalidSnapshotException;
+
+        // MODIFIES: this
+        // EFFECTS: reads the Files
+        protected abstract void readFiles(ByteBuffer section) throws InvalidSnapshotException;
+
+        // EFFECTS: returns the string at index in the string table
+        // throws InvalidSnapshotException if there is no such string
+        protected abstract String stringAt(int index) throws InvalidSnapshotException;
+
+        // MODIFIES: this
+        // EFFECTS: returns the Folder at index, building it (and the Folders leading to it) if need be
+        // throws InvalidSnapshotException if there is no such Folder
+        protected abstract Folder folderAt(int index) throws InvalidSnapshotException;
+
+        // MODIFIES: this
+        // EFFECTS: returns the File at index, building it (and the Folders leading to it) if need be
+        // throws InvalidSnapshotException if there is no such File
+        protected abstract File fileAt(int index) throws InvalidSnapshotException;
+
+        // MODIFIES: this
+        // EFFECTS: creates the Labels
+        // throws InvalidSnapshotException if a label name is blank or a duplicate
+        private void readLabels(ByteBuffer section) throws InvalidSnapshotException {
+            labels = new ArrayList<Label>();
+            while (section.hasRemaining()) {
+                String name = nextName(section);
+                try {
+                    labels.add(fileSystem.loadLabel(name));
+                } catch (NameIsTakenException e) {
+                    throw new InvalidSnapshotException();
+                }
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: restores the current Folder (or Label) and the recently-opened Files, Folders, and Labels
+        // throws InvalidSnapshotException if any of them refer to something that does not exist
+        private void readState(ByteBuffer section) throws InvalidSnapshotException {
+            try {
+                int currentKind = section.getInt();
+                if (currentKind == 0) {
+                    fileSystem.restoreCurrentFolder(folderAt(section.getInt()));
+                } else {
+                    fileSystem.restoreCurrentLabel(nextLabel(section).getName());
+                }
+                readRecentlyOpened(section);
+            } catch (NoSuchLabelFoundException e) {
+                throw new InvalidSnapshotException();
+            }
+        }
+
+        // MODIFIES: this, section
+        // EFFECTS: restores the recently-opened Files, Folders, and Labels from section
+        // throws InvalidSnapshotException if any of them refer to a File or Folder that does not exist
+        // throws NoSuchLabelFoundException if one of them refers to a Label that does not exist
+        private void readRecentlyOpened(ByteBuffer section) throws InvalidSnapshotException, NoSuchLabelFoundException {
+            int numRecentFiles = section.getInt();
+            for (int i = 0; i < numRecentFiles; i++) {
+                File file = fileAt(section.getInt());
+                fileSystem.restoreRecentlyOpenedFile(file, nextOpenCount(section), section.getLong());
+            }
+            int numRecentFolders = section.getInt();
+            for (int i = 0; i < numRecentFolders; i++) {
+                Folder folder = folderAt(section.getInt());
+                fileSystem.restoreRecentlyOpenedFolder(folder, nextOpenCount(section), section.getLong());
+            }
+            int numRecentLabels = section.getInt();
+            for (int i = 0; i < numRecentLabels; i++) {
+                String labelName = nextLabel(section).getName();
+                fileSystem.restoreRecentlyOpenedLabel(labelName, nextOpenCount(section), section.getLong());
+            }
+        }
+
+
+        // Helper Methods:
+
+        // MODIFIES: section
+        // EFFECTS: reads a string table index and returns the string it refers to
+        protected String nextString(ByteBuffer section) throws InvalidSnapshotException {
+            return stringAt(section.getInt());
+        }
+
+        // MODIFIES: section
+        // EFFECTS: reads a string table index and returns the name it refers to
+        // throws InvalidSnapshotException if the name is blank
+        protected String nextName(ByteBuffer section) throws InvalidSnapshotException {
+            String name = nextString(section);
+            if (name.isBlank()) {
+                throw new InvalidSnapshotException();
+            }
+            return name;
+        }
+
+        // MODIFIES: section
+        // EFFECTS: reads a Label index and returns the Label it refers to
+        protected Label nextLabel(ByteBuffer section) throws InvalidSnapshotException {
+            return labels.get(nextIndex(section, labels.size()));
+        }
+
+        // MODIFIES: section
+        // EFFECTS: reads an open count, which must be at least 1
+        private int nextOpenCount(ByteBuffer section) throws InvalidSnapshotException {
+            int openCount = section.getInt();
+            if (openCount < 1) {
+                throw new InvalidSnapshotException();
+            }
+            return openCount;
+        }
+    }
+
+    // Represents the loading of a whole snapshot in a single pass over its sections
+    private static class EagerLoader extends Loader {
+        private String[] strings;
+        private List<Folder> folders;
+        private List<File> files;
+
+        // EFFECTS: constructs an EagerLoader that builds a new FileSystem from buffer
+        EagerLoader(ByteBuffer buffer) {
+            super(buffer);
+        }
+
+        // MODIFIES: this
+        // EFFECTS: reads the string table
+        @Override
+        protected void readStrings(ByteBuffer section) throws InvalidSnapshotException {
+            int numStrings = section.getInt();
+            if (numStrings < 0) {
+                throw new InvalidSnapshotException();
+            }
+            strings = new String[numStrings];
+            byte[] bytes = new byte[256];
+            for (int i = 0; i < numStrings; i++) {
+                int length = section.getInt();
+                if (length > bytes.length) {
+                    bytes = new byte[Math.max(length, bytes.length * 2)];
+                }
+                section.get(bytes, 0, length);
+                strings[i] = new String(bytes, 0, length, StandardCharsets.UTF_8);
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: creates the Folders, each in the Folder before it that is its parent
+        // throws InvalidSnapshotException if the first Folder is not the root, a parent index does not refer to an
+        // earlier Folder, or a folder name is blank or a duplicate
+        @Override
+        protected void readFolders(ByteBuffer section) throws InvalidSnapshotException {
+            folders = new ArrayList<Folder>();
+            nextName(section);
+            if (section.getInt() != -1) {
+                throw new InvalidSnapshotException();
+            }
+            folders.add(fileSystem.getRootFolder());
+            while (section.hasRemaining()) {
+                Folder folder = new Folder(nextName(section));
+                Folder parentFolder = folders.get(nextIndex(section, folders.size()));
+                try {
+                    parentFolder.addExistingSubfolder(folder);
+                } catch (NameIsTakenException e) {
+                    throw new InvalidSnapshotException();
+                }
+                folders.add(folder);
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: creates the Files in their Folders and labels them
+        // throws InvalidSnapshotException if a Folder or Label index is out of range or a file name is blank or a
+        // duplicate
+        @Override
+        protected void readFiles(ByteBuffer section) throws InvalidSnapshotException {
+            files = new ArrayList<File>();
+            while (section.hasRemaining()) {
+                String name = nextName(section);
+                String path = nextString(section);
+                Folder folder = folderAt(section.getInt());
+                File file;
+                try {
+                    file = fileSystem.loadFile(folder, name, path);
+                } catch (NameIsTakenException e) {
+                    throw new InvalidSnapshotException();
+                }
+                int numLabels = section.getInt();
+                for (int i = 0; i < numLabels; i++) {
+                    nextLabel(section).labelFile(file);
+                }
+                files.add(file);
+            }
+        }
+
+        @Override
+        protected String stringAt(int index) throws InvalidSnapshotException {
+            return strings[checkIndex(index, strings.length)];
+        }
+
+        @Override
+        protected Folder folderAt(int index) throws InvalidSnapshotException {
+            return folders.get(checkIndex(index, folders.size()));
+        }
+
+        @Override
+        protected File fileAt(int index) throws InvalidSnapshotException {
+            return files.get(checkIndex(index, files.size()));
+        }
+    }
+
+    // Represents the lazy loading of a snapshot that has a FOLDER_INDEX section. Strings are only decoded, and
+    // Folders and Files only built, once they are needed: the root Folder and every Folder built after it are given
+    // a loader that builds their subfolders and Files from their entries in FOLDER_INDEX the first time their
+    // contents are needed
+    private static class LazyLoader extends Loader {
+        private static final int FOLDER_ENTRY_SIZE = 2 * Integer.BYTES;
+
+        private ByteBuffer stringsSection;
+        private ByteBuffer stringOffsets;
+        private String[] strings;
+
+        private ByteBuffer foldersSection;
+        private ByteBuffer folderIndexSection;
+        private Folder[] folders;
+
+        private ByteBuffer filesSection;
+        private File[] files;
+
+        // EFFECTS: constructs a LazyLoader that builds a new FileSystem from buffer
+        LazyLoader(ByteBuffer buffer) {
+            super(buffer);
+        }
+
+        // MODIFIES: this
+        // EFFECTS: finds where each string in the string table starts (from the STRING_OFFSETS section if there is
+        // one), without decoding any of them
+        // throws InvalidSnapshotException if the STRING_OFFSETS section does not have an entry for every string, or
+        // there is none and a string's length is negative
+        @Override
+        protected void readStrings(ByteBuffer section) throws InvalidSnapshotException {
+            stringsSection = section;
+            int numStrings = section.getInt();
+            if (numStrings < 0 || numStrings > section.remaining() / Integer.BYTES) {
+                throw new InvalidSnapshotException();
+            }
+            strings = new String[numStrings];
+            stringOffsets = findSection(buffer, SnapshotWriter.SECTION_STRING_OFFSETS);
+            if (stringOffsets == null) {
+                stringOffsets = findStringOffsets(section, numStrings);
+            } else if (stringOffsets.remaining() != numStrings * Integer.BYTES) {
+                throw new InvalidSnapshotException();
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: makes the root Folder the first Folder and leaves its contents unloaded
+        // throws InvalidSnapshotException if the first Folder is not the root or the FOLDER_INDEX section does not
+        // have an entry for every Folder
+        @Override
+        protected void readFolders(ByteBuffer section) throws InvalidSnapshotException {
+            foldersSection = section;
+            folderIndexSection = section(buffer, SnapshotWriter.SECTION_FOLDER_INDEX);
+            int numFolders = section.remaining() / FOLDER_ENTRY_SIZE;
+            if (numFolders == 0 || section.remaining() % FOLDER_ENTRY_SIZE != 0 || section.getInt(Integer.BYTES) != -1
+                    || folderIndexSection.remaining() != (long) numFolders * SnapshotWriter.FOLDER_INDEX_ENTRY_SIZE) {
+                throw new InvalidSnapshotException();
+            }
+            folders = new Folder[numFolders];
+            folders[0] = fileSystem.getRootFolder();
+            leaveUnloaded(folders[0], 0);
+            fileSystem.markHasUnloadedFolders();
+        }
+
+        // MODIFIES: this
+        // EFFECTS: finds out how many Files there are, without building any of them
+        // throws InvalidSnapshotException if the last Folder's entry in FOLDER_INDEX says there is a negative number
+        @Override
+        protected void readFiles(ByteBuffer section) throws InvalidSnapshotException {
+            filesSection = section;
+            int lastEntry = (folders.length - 1) * SnapshotWriter.FOLDER_INDEX_ENTRY_SIZE;
+            long numFiles = (long) folderIndexSection.getInt(lastEntry + 2 * Integer.BYTES)
+                    + folderIndexSection.getInt(lastEntry + 3 * Integer.BYTES);
+            if (numFiles < 0 || numFiles > section.remaining()) {
+                throw new InvalidSnapshotException();
+            }
+            files = new File[(int) numFiles];
+        }
+
+        // EFFECTS: returns the string at index in the string table, decoding it the first time it is needed
+        // throws InvalidSnapshotException if there is no such string or its length is negative
+        @Override
+        protected String stringAt(int index) throws InvalidSnapshotException {
+            checkIndex(index, strings.length);
+            if (strings[index] == null) {
+                int offset = stringOffsets.getInt(index * Integer.BYTES);
+                int length = stringsSection.getInt(offset);
+                if (length < 0) {
+                    throw new InvalidSnapshotException();
+                }
+                byte[] bytes = new byte[length];
+                stringsSection.get(offset + Integer.BYTES, bytes);
+                strings[index] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            return strings[index];
+        }
+
+        // EFFECTS: returns the Folder at index, first loading the contents of the Folders that lead to it if it has not
+        // been built yet
+        @Override
+        protected Folder folderAt(int index) throws InvalidSnapshotException {
+            checkIndex(index, folders.length);
+            if (folders[index] == null) {
+                int parentIndex = foldersSection.getInt(index * FOLDER_ENTRY_SIZE + Integer.BYTES);
+                if (parentIndex < 0 || parentIndex >= index) {
+                    throw new InvalidSnapshotException();
+                }
+                // loads the parent's contents, which builds this Folder
+                folderAt(parentIndex).getSubfolders();
+                if (folders[index] == null) {
+                    throw new InvalidSnapshotException();
+                }
+            }
+            return folders[index];
+        }
+
+        // EFFECTS: returns the File at index, first loading the contents of the Folder it is in (and the Folders that
+        // lead to it) if it has not been built yet
+        @Override
+        protected File fileAt(int index) throws InvalidSnapshotException {
+            checkIndex(index, files.length);
+            if (files[index] == null) {
+                folderAt(findFolderOfFile(index)).getSubfiles();
+                if (files[index] == null) {
+                    throw new InvalidSnapshotException();
+                }
+            }
+            return files[index];
+        }
+
+        // MODIFIES: this, folder
+        // EFFECTS: builds the subfolders (leaving their contents unloaded) and Files of folder, which is the Folder at
+        // index, from its entry in FOLDER_INDEX
+        // throws IOException if the entry or the Folders and Files it refers to are not valid
+        private void loadFolder(int index, Folder folder) throws IOException {
+            try {
+                int entry = index * SnapshotWriter.FOLDER_INDEX_ENTRY_SIZE;
+                int firstSubfolderIndex = folderIndexSection.getInt(entry);
+                int numSubfolders = folderIndexSection.getInt(entry + Integer.BYTES);
+                if (firstSubfolderIndex <= index || numSubfolders < 0
+                        || (long) firstSubfolderIndex + numSubfolders > folders.length) {
+                    throw new InvalidSnapshotException();
+                }
+                for (int i = firstSubfolderIndex; i < firstSubfolderIndex + numSubfolders; i++) {
+                    loadSubfolder(i, index, folder);
+                }
+                loadFiles(entry, index, folder);
+            } catch (InvalidSnapshotException | NameIsTakenException | BufferUnderflowException
+                    | IndexOutOfBoundsException | IllegalArgumentException e) {
+                throw new IOException(e);
+            }
+        }
+
+        // MODIFIES: this, folder
+        // EFFECTS: builds the Files of folder, which is the Folder at index, from its entry in FOLDER_INDEX (which
+        // starts at entry)
+        // throws InvalidSnapshotException if the entry or the Files it refers to are not valid
+        // throws NameIsTakenException if two of the Files have the same name
+        private void loadFiles(int entry, int index, Folder folder)
+                throws InvalidSnapshotException, NameIsTakenException {
+            int firstFileIndex = folderIndexSection.getInt(entry + 2 * Integer.BYTES);
+            int numFiles = folderIndexSection.getInt(entry + 3 * Integer.BYTES);
+            long firstFileOffset = folderIndexSection.getLong(entry + 4 * Integer.BYTES);
+            if (firstFileIndex < 0 || numFiles < 0 || (long) firstFileIndex + numFiles > files.length
+                    || firstFileOffset < 0 || firstFileOffset > filesSection.limit()) {
+                throw new InvalidSnapshotException();
+            }
+            ByteBuffer fileEntries = filesSection.duplicate();
+            fileEntries.position((int) firstFileOffset);
+            for (int i = firstFileIndex; i < firstFileIndex + numFiles; i++) {
+                files[i] = loadFile(fileEntries, index, folder);
+            }
+        }
+
+        // MODIFIES: this, parentFolder
+        // EFFECTS: builds the Folder at index in parentFolder (the Folder at parentIndex), leaving its contents
+        // unloaded
+        // throws InvalidSnapshotException if the Folder is not parentFolder's or its name is blank
+        // throws NameIsTakenException if parentFolder already has a subfolder with its name
+        private void loadSubfolder(int index, int parentIndex, Folder parentFolder)
+                throws InvalidSnapshotException, NameIsTakenException {
+            int entry = index * FOLDER_ENTRY_SIZE;
+            if (foldersSection.getInt(entry + Integer.BYTES) != parentIndex || folders[index] != null) {
+                throw new InvalidSnapshotException();
+            }
+            Folder folder = new Folder(nextName(foldersSection.duplicate().position(entry)));
+            leaveUnloaded(folder, index);
+            parentFolder.addExistingSubfolder(folder);
+            folders[index] = folder;
+        }
+
+        // MODIFIES: this, fileEntries, folder
+        // EFFECTS: reads the next File from fileEntries, builds it in folder (the Folder at folderIndex), labels it,
+        // and returns it
+        // throws InvalidSnapshotException if the File is not folder's or has a blank name or a Label that does not
+        // exist
+        // throws NameIsTakenException if folder already has a File with its name
+        private File loadFile(ByteBuffer fileEntries, int folderIndex, Folder folder)
+                throws InvalidSnapshotException, NameIsTakenException {
+            String name = nextName(fileEntries);
+            String path = nextString(fileEntries);
+            if (fileEntries.getInt() != folderIndex) {
+                throw new InvalidSnapshotException();
+            }
+            File file = fileSystem.loadFile(folder, name, path);
+            int numLabels = fileEntries.getInt();
+            for (int i = 0; i < numLabels; i++) {
+                nextLabel(fileEntries).labelFile(file);
+            }
+            return file;
+        }
+
+        // MODIFIES: folder
+        // EFFECTS: leaves the contents of folder, the Folder at index, to be loaded once they are first needed
+        private void leaveUnloaded(Folder folder, int index) {
+            folder.setContentsLoader(loadedFolder -> loadFolder(index, loadedFolder));
+        }
+
+        // EFFECTS: returns where each of the numStrings strings in section (the string table, positioned just after its
+        // count) starts, found by stepping over each one in turn. Used for snapshots written without STRING_OFFSETS
+        // throws InvalidSnapshotException if a string's length is negative
+        private static ByteBuffer findStringOffsets(ByteBuffer section, int numStrings)
+                throws InvalidSnapshotException {
+            ByteBuffer offsets = ByteBuffer.allocate(numStrings * Integer.BYTES);
+            for (int i = 0; i < numStrings; i++) {
+                offsets.putInt(section.position());
+                int length = section.getInt();
+                if (length < 0) {
+                    throw new InvalidSnapshotException();
+                }
+                section.position(section.position() + length);
+            }
+            return offsets.flip();
+        }
+
+        // EFFECTS: returns the index of the Folder whose Files include the File at fileIndex: the last Folder whose
+        // first File is at or before it (Folders' Files are contiguous and in Folder order)
+        private int findFolderOfFile(int fileIndex) {
+            int low = 0;
+            int high = folders.length - 1;
+            while (low < high) {
+                int middle = (low + high + 1) >>> 1;
+                int firstFileIndex = folderIndexSection.getInt(
+                        middle * SnapshotWriter.FOLDER_INDEX_ENTRY_SIZE + 2 * Integer.BYTES);
+                if (firstFileIndex <= fileIndex) {
+                    low = middle;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return low;
+        }
+    }
+
+
+    // Helper Methods:
+
+    // EFFECTS: returns a buffer over just the section of buffer with id sectionId
+    // throws InvalidSnapshotException if the directory has no such section or it lies outside the file
+    private static ByteBuffer section(ByteBuffer buffer, int sectionId) throws InvalidSnapshotException {
+        ByteBuffer section = findSection(buffer, sectionId);
+        if (section == null) {
+            throw new InvalidSnapshotException();
+        }
+        return section;
+    }
+
+    // EFFECTS: returns a buffer over just the section of buffer with id sectionId, or null if the directory has no
+    // such section (e.g. one that was added to the format after the snapshot was written)
+    // throws InvalidSnapshotException if the directory has too many sections or any section in it (not just the one
+    // with id sectionId) lies outside the file
+    private static ByteBuffer findSection(ByteBuffer buffer, int sectionId) throws InvalidSnapshotException {
+        int numSections = buffer.getInt(2 * Integer.BYTES);
+        if (numSections < 0 || numSections > SnapshotWriter.MAX_SECTIONS) {
+            throw new InvalidSnapshotException();
+        }
+        ByteBuffer section = null;
+        for (int i = 0; i < numSections; i++) {
+            int entry = 3 * Integer.BYTES + i * SnapshotWriter.DIRECTORY_ENTRY_SIZE;
+            long offset = buffer.getLong(entry + Integer.BYTES);
+            long length = buffer.getLong(entry + Integer.BYTES + Long.BYTES);
+            if (offset < SnapshotWriter.HEADER_SIZE || length < 0 || offset + length > buffer.limit()) {
+                throw new InvalidSnapshotException();
+            }
+            if (section == null && buffer.getInt(entry) == sectionId) {
+                section = buffer.slice((int) offset, (int) length);
+            }
+        }
+        return section;
+    }
+
+    // EFFECTS: returns index if it is in [0, bound)
+    // throws InvalidSnapshotException if it is not
+    private static int checkIndex(int index, int bound) throws InvalidSnapshotException {
+        if (index < 0 || index >= bound) {
+            throw new InvalidSnapshotException();
+        }
+        return index;
+    }
+
+    // MODIFIES: section
+    // EFFECTS: reads an index and checks that it is in [0, bound)
+    // throws InvalidSnapshotException if it is not
+    private static int nextIndex(ByteBuffer section, int bound) throws InvalidSnapshotException {
+        return checkIndex(section.getInt(), bound);
+    }
+}
@@ -0,0 +1,238 @@
+package persistence;
+
+import model.FileSystem;
+import model.MetricsRegistry;
+import model.OperationMetrics;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Represents a writer for writing the file system to a file in a compact binary snapshot format that SnapshotReader
+// can load much faster than JSON. A snapshot is laid out as:
+//   header:    MAGIC, VERSION, the number of sections, and a directory of MAX_SECTIONS (id, offset, length) entries
+//   sections:  the sections themselves, in any order
+// Every name and path is written once to the STRINGS section (which is written last, once every string is known) and
+// referred to elsewhere by its index in it. STRINGS is followed by STRING_OFFSETS, which records where each string
+// starts within STRINGS so that one string can be read without reading every string before it. Ints and longs are
+// big-endian. Like JsonWriter, the file is only replaced once close is called. A SnapshotWriter can also write the
+// snapshot into memory instead (see toByteArray)
+public class SnapshotWriter {
+    public static final int MAGIC = 0x54464153;
+    public static final int VERSION = 1;
+
+    public static final int SECTION_STRINGS = 1;
+    public static final int SECTION_LABELS = 2;
+    public static final int SECTION_FOLDERS = 3;
+    public static final int SECTION_FILES = 4;
+    public static final int SECTION_STATE = 5;
+    public static final int SECTION_JOURNAL = 6;
+    public static final int SECTION_FOLDER_INDEX = 7;
+    public static final int SECTION_STRING_OFFSETS = 8;
+
+    public static final int FOLDER_INDEX_ENTRY_SIZE = 4 * Integer.BYTES + Long.BYTES;
+
+    static final int MAX_SECTIONS = 16;
+    static final int DIRECTORY_ENTRY_SIZE = Integer.BYTES + 2 * Long.BYTES;
+    static final int HEADER_SIZE = 3 * Integer.BYTES + MAX_SECTIONS * DIRECTORY_ENTRY_SIZE;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final OperationMetrics WRITE_METRICS =
+            MetricsRegistry.getInstance().getOperation("SnapshotWriter.write");
+
+    private AtomicFileWriter file;
+    private FileChannel channel;
+    private ByteArrayOutputStream memory;
+    private byte[] memoryHeader;
+    private DataOutputStream out;
+    private long position;
+
+    private Map<String, Integer> stringIndices;
+    private List<String> strings;
+    private List<long[]> directory;
+    private long sectionStart;
+
+    // EFFECTS: constructs a new SnapshotWriter for writing a snapshot to destinationPath
+    public SnapshotWriter(String destinationPath) {
+        file = new AtomicFileWriter(destinationPath);
+    }
+
+    // EFFECTS: constructs a new SnapshotWriter for writing a snapshot into memory, to be retrieved with toByteArray
+    public SnapshotWriter() {
+        file = null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens the writer such that writing to file (or memory) can begin
+    // throws IOException if the file could not be opened for writing
+    public void open() throws IOException {
+        if (file == null) {
+            memory = new ByteArrayOutputStream(BUFFER_SIZE);
+            memory.write(new byte[HEADER_SIZE]);
+            out = new DataOutputStream(memory);
+        } else {
+            channel = file.open();
+            channel.position(HEADER_SIZE);
+            out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+        }
+        position = HEADER_SIZE;
+        stringIndices = new HashMap<String, Integer>();
+        strings = new ArrayList<String>();
+        directory = new ArrayList<long[]>();
+        sectionStart = -1;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes fileSystem to file as a snapshot
+    // throws IOException if writing to the file failed
+    public void write(FileSystem fileSystem) throws IOException {
+        long start = System.nanoTime();
+        try {
+            fileSystem.writeSnapshot(this);
+        } finally {
+            WRITE_METRICS.recordSince(start);
+        }
+    }
+
+    // REQUIRES: no section has been begun and not yet ended, and fewer than MAX_SECTIONS - 2 sections have been written
+    // MODIFIES: this
+    // EFFECTS: starts the section with id sectionId; everything written until endSection is part of it
+    public void beginSection(int sectionId) {
+        directory.add(new long[] {sectionId, position, 0});
+        sectionStart = position;
+    }
+
+    // REQUIRES: a section has been begun and not yet ended
+    // MODIFIES: this
+    // EFFECTS: ends the current section
+    public void endSection() {
+        directory.get(directory.size() - 1)[2] = position - sectionStart;
+        sectionStart = -1;
+    }
+
+    // REQUIRES: a section has been begun and not yet ended
+    // EFFECTS: returns how many bytes have been written to the current section so far
+    public long getSectionPosition() {
+        return position - sectionStart;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes value to the current section
+    public void writeInt(int value) throws IOException {
+        out.writeInt(value);
+        position += Integer.BYTES;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes value to the current section
+    public void writeLong(long value) throws IOException {
+        out.writeLong(value);
+        position += Long.BYTES;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds string to the string table (if it is not already in it) and writes its index to the current section
+    public void writeString(String string) throws IOException {
+        Integer index = stringIndices.get(string);
+        if (index == null) {
+            index = strings.size();
+            stringIndices.put(string, index);
+            strings.add(string);
+        }
+        writeInt(index);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the string table and where each string starts in it, then the header and directory at the start
+    // of the file, and closes the file, replacing the file with what was written
+    // throws IOException if the rest of the snapshot could not be written to the file, in which case it is left as it
+    // was
+    public void close() throws IOException {
+        try {
+            writeStrings();
+            out.flush();
+            writeHeader();
+        } catch (IOException e) {
+            abort();
+            throw e;
+        }
+        if (file != null) {
+            file.commit();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes the writer without replacing the file, for when writing to it failed
+    public void abort() {
+        if (file != null) {
+            file.abort();
+        }
+    }
+
+    // REQUIRES: this was constructed to write into memory, and close has been called
+    // EFFECTS: returns the snapshot that was written
+    public byte[] toByteArray() {
+        byte[] bytes = memory.toByteArray();
+        System.arraycopy(memoryHeader, 0, bytes, 0, HEADER_SIZE);
+        return bytes;
+    }
+
+
+    // Helper Methods:
+
+    // MODIFIES: this
+    // EFFECTS: writes the STRINGS section (the number of strings followed by each one's UTF-8 length and bytes), then
+    // the STRING_OFFSETS section (the position within STRINGS of each string's length, in the same order)
+    private void writeStrings() throws IOException {
+        int[] offsets = new int[strings.size()];
+        beginSection(SECTION_STRINGS);
+        writeInt(strings.size());
+        for (int i = 0; i < strings.size(); i++) {
+            offsets[i] = (int) getSectionPosition();
+            byte[] bytes = strings.get(i).getBytes(StandardCharsets.UTF_8);
+            writeInt(bytes.length);
+            out.write(bytes);
+            position += bytes.length;
+        }
+        endSection();
+
+        beginSection(SECTION_STRING_OFFSETS);
+        for (int offset : offsets) {
+            writeInt(offset);
+        }
+        endSection();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the header and section directory at the start of the file (or memory)
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC);
+        header.putInt(VERSION);
+        header.putInt(directory.size());
+        for (long[] entry : directory) {
+            header.putInt((int) entry[0]);
+            header.putLong(entry[1]);
+            header.putLong(entry[2]);
+        }
+        header.rewind();
+        if (file == null) {
+            memoryHeader = header.array();
+            return;
+        }
+        long writePosition = 0;
+        while (header.hasRemaining()) {
+            writePosition += channel.write(header, writePosition);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package persistence;
 
+import java.io.IOException;
+
 import org.json.JSONObject;
 
 // Implemented by classes that should be saved and loaded.
@@ -7,4 +9,8 @@ import org.json.JSONObject;
 public interface Writable {
     // EFFECTS: returns this as JSON object
     JSONObject toJson();
+
+    // MODIFIES: writer
+    // EFFECTS: writes the same JSON representation as toJson to writer, without building it in memory first
+    void writeJson(JsonStreamWriter writer) throws IOException;
 }
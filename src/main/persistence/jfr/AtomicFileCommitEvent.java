@@ -0,0 +1,49 @@
+package persistence.jfr;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// Represents a JFR event for committing a file written with AtomicFileWriter: forcing the temporary file to disk and
+// renaming it over the destination. Its duration is mostly how long the disk took to sync
+@Name("pine.AtomicFileCommit")
+@Label("Atomic File Commit")
+@Category({"Pine", "Persistence"})
+@Description("A file was forced to disk and renamed over the file it replaces")
+public class AtomicFileCommitEvent extends Event {
+    @Label("File Path")
+    String filePath;
+
+    @Label("Bytes Written")
+    @DataAmount
+    long bytesWritten;
+
+    // MODIFIES: this
+    // EFFECTS: if this event should be recorded, records the size of the temporary file open on channel, which will
+    // replace destination (the event is ended and committed by commit(destination))
+    public void recordSize(FileChannel channel) {
+        if (shouldCommit()) {
+            try {
+                bytesWritten = channel.size();
+            } catch (IOException e) {
+                bytesWritten = -1;
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: if this event should be recorded, ends it and records it as committing the file at destination
+    public void commit(Path destination) {
+        if (shouldCommit()) {
+            filePath = destination.toString();
+            commit();
+        }
+    }
+}
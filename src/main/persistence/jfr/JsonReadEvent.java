@@ -0,0 +1,61 @@
+package persistence.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// Represents a JFR event for one phase of reading a JSON file into a FileSystem:
+//   PHASE_PARSE:   streaming through the JSON and building the Folders, Files, and Labels in it
+//   PHASE_RESTORE: finding the recently-opened Files, Folders, and Labels and the current Folder once they are built
+//   PHASE_FOLDER:  streaming through and building the contents of a single Folder (e.g. a shard of a sharded save)
+// Like every event in this package, it costs next to nothing while no recording has it enabled: its fields are only
+// filled in if shouldCommit() is true when it is committed
+@Name("pine.JsonRead")
+@Label("JSON Read")
+@Category({"Pine", "Persistence"})
+@Description("A phase of reading a JSON file")
+public class JsonReadEvent extends Event {
+    public static final String PHASE_PARSE = "parse";
+    public static final String PHASE_RESTORE = "restore";
+    public static final String PHASE_FOLDER = "folder";
+
+    @Label("File Path")
+    String filePath;
+
+    @Label("Phase")
+    String phase;
+
+    @Label("File Size")
+    @DataAmount
+    long fileSize;
+
+    @Label("Folder Count")
+    @Description("The number of Folders built so far")
+    int folderCount;
+
+    @Label("File Count")
+    @Description("The number of Files built so far")
+    int fileCount;
+
+    @Label("Label Count")
+    @Description("The number of Labels built so far")
+    int labelCount;
+
+    // MODIFIES: this
+    // EFFECTS: if this event should be recorded, ends it and records it as phase of reading the file at filePath,
+    // after which folderCount Folders, fileCount Files, and labelCount Labels had been built
+    public void commit(String filePath, String phase, int folderCount, int fileCount, int labelCount) {
+        if (shouldCommit()) {
+            this.filePath = filePath;
+            this.phase = phase;
+            fileSize = new java.io.File(filePath).length();
+            this.folderCount = folderCount;
+            this.fileCount = fileCount;
+            this.labelCount = labelCount;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package persistence.jfr;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// Represents a JFR event for walking a FileSystem and streaming it to a temporary file as JSON, the first phase of
+// saving it. The second phase, forcing that file to disk and renaming it over the save, is an AtomicFileCommitEvent
+@Name("pine.JsonWrite")
+@Label("JSON Write")
+@Category({"Pine", "Persistence"})
+@Description("A file system was streamed to a file as JSON")
+public class JsonWriteEvent extends Event {
+    @Label("File Path")
+    @Description("The path of the file being replaced")
+    String filePath;
+
+    @Label("Compact")
+    @Description("Whether the JSON was written without indentation or line breaks")
+    boolean compact;
+
+    @Label("Bytes Written")
+    @DataAmount
+    long bytesWritten;
+
+    // MODIFIES: this
+    // EFFECTS: if this event should be recorded, ends it and records it as streaming JSON (compactly, if compact is
+    // true) through channel to the temporary file that will replace the file at filePath
+    public void commit(String filePath, boolean compact, FileChannel channel) {
+        if (shouldCommit()) {
+            this.filePath = filePath;
+            this.compact = compact;
+            try {
+                bytesWritten = channel.size();
+            } catch (IOException e) {
+                bytesWritten = -1;
+            }
+            commit();
+        }
+    }
+}
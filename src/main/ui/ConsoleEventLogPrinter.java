@@ -5,7 +5,8 @@ import model.EventLog;
 
 // Represents a console printer for printing all of the events in the EventLog to the console
 public class ConsoleEventLogPrinter {
-    // EFFECTS: prints out each event in the EventLog to the console with space between each one
+    // EFFECTS: prints out each event the EventLog still has to the console with space between each one, formatting
+    // each one's description as it is printed
     public static void printEvents() {
         for (Event event : EventLog.getInstance()) {
             System.out.println(event.toString());
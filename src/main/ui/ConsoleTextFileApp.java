@@ -2,24 +2,31 @@ package ui;
 
 import model.*;
 import model.exceptions.*;
+import persistence.EventLogAppender;
+import persistence.PrometheusMetricsWriter;
 import persistence.exceptions.InvalidJsonException;
 import ui.exceptions.*;
 
 import java.util.Scanner;
-import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.util.Comparator;
 import java.util.List;
+import javax.management.JMException;
 
 // Represents an application that allows users to add .txt files from their computer to the program and sort and
 // browse through them. Structure design based on [TellerApp](https://github.students.cs.ubc.ca/CPSC210/TellerApp)
 // This is the console version of the application in which the user interacts via text
 public class ConsoleTextFileApp {
     public static final String appName = "Pine";
+    private static final int MAX_NUM_COMPLETIONS_SHOWN = 5;
 
     private Scanner scanner;
 
     FileSystem fileSystem;
+    private AutoSaveScheduler autoSaveScheduler;
+    private EventLogAppender eventLogAppender;
+    private PrometheusMetricsWriter metricsWriter;
 
     // EFFECTS: starts the Text File application
     public ConsoleTextFileApp() {
@@ -92,8 +99,12 @@ public class ConsoleTextFileApp {
     // MODIFIES: this
     // EFFECTS: initializes the application: instantiates fileSystem and instantiates and sets settings for the scanner
     // in order to get user input correctly
-    // Additionally, attempts to load previous file system from disk in default location
+    // Additionally, starts writing logged events and metrics to disk (and showing the metrics through JMX) and attempts
+    // to load previous file system from disk in default location
     private void initialize() {
+        eventLogAppender = new EventLogAppender(EventLog.getInstance(), EventLogAppender.DEFAULT_DIRECTORY_PATH);
+        eventLogAppender.start();
+        startMetrics();
         try {
             System.out.println("Attempting to load previous file system");
             fileSystem = FileSystem.autoLoad();
@@ -102,6 +113,7 @@ public class ConsoleTextFileApp {
             System.out.println("Loading previous file system failed. Creating new file system");
             fileSystem = new FileSystem();
         }
+        autoSaveScheduler = new AutoSaveScheduler(fileSystem, AutoSaveScheduler.DEFAULT_MAX_PENDING_CHANGES);
 
         scanner = new Scanner(System.in);
 
@@ -123,16 +135,37 @@ public class ConsoleTextFileApp {
         System.out.println("Thank you for using " + appName + "!");
     }
 
-    // EFFECTS: attempts to save current file system to disk in default location
+    // EFFECTS: stops autosaving in the background, attempts to save current file system to disk in default location,
+    // and writes the last logged events and metrics to disk
     private void quit() {
+        autoSaveScheduler.close();
         System.out.println();
         try {
             System.out.println("Attempting to save current file system");
             fileSystem.autoSave();
             System.out.println("Saving current file system succeeded!");
-        } catch (FileNotFoundException e) {
+        } catch (IOException e) {
             System.out.println("Saving current file system failed");
         }
+        eventLogAppender.close();
+        try {
+            metricsWriter.close();
+        } catch (IOException e) {
+            // the metrics are only for watching the app while it runs, so there is nothing to lose
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts writing the metrics of every operation to disk every so often and shows them through JMX
+    private void startMetrics() {
+        metricsWriter = new PrometheusMetricsWriter(MetricsRegistry.getInstance(),
+                PrometheusMetricsWriter.DEFAULT_FILE_PATH, PrometheusMetricsWriter.DEFAULT_INTERVAL_MILLIS);
+        metricsWriter.start();
+        try {
+            MetricsRegistry.getInstance().registerMBean(ManagementFactory.getPlatformMBeanServer());
+        } catch (JMException e) {
+            // the metrics can still be read from the file metricsWriter writes
+        }
     }
 
     // EFFECTS: prints all of the events that occured while the program was running
@@ -1017,6 +1050,7 @@ public class ConsoleTextFileApp {
                 break;
             } else {
                 System.out.println("There is no label named \"" + input + "\"");
+                suggestCompletions(input, NameCompletion.Kind.LABEL);
             }
         }
     }
@@ -1222,6 +1256,7 @@ public class ConsoleTextFileApp {
         try {
             FileSystem loadedFileSystem = FileSystem.autoLoad();
             this.fileSystem = loadedFileSystem;
+            autoSaveScheduler.setFileSystem(loadedFileSystem);
             System.out.println("File system successfully loaded from autosave!");
             throw new NewFolderOpenedException();
         } catch (IOException e) {
@@ -1262,6 +1297,7 @@ public class ConsoleTextFileApp {
             try {
                 FileSystem loadedFileSystem = FileSystem.manuallyLoad(path);
                 this.fileSystem = loadedFileSystem;
+                autoSaveScheduler.setFileSystem(loadedFileSystem);
                 System.out.println("File system successfully loaded from save file at " + path + "!");
                 throw new NewFolderOpenedException();
             } catch (IOException e) {
@@ -1434,6 +1470,7 @@ public class ConsoleTextFileApp {
                 }
             } else {
                 tellUserThisFolder("does not contain a file named " + input);
+                suggestCompletions(input, NameCompletion.Kind.FILE);
             }
         }
     }
@@ -1733,6 +1770,7 @@ public class ConsoleTextFileApp {
             throw new NewFolderOpenedException();
         } catch (NoSuchFolderFoundException e) {
             tellUserThisFolderDoesNotContainFolderNamed(folderName);
+            suggestCompletions(folderName, NameCompletion.Kind.FOLDER);
         }
     }
 
@@ -1777,6 +1815,7 @@ public class ConsoleTextFileApp {
             throw new NewFolderOpenedException();
         } catch (NoSuchLabelFoundException e) {
             System.out.println("There is no label named \"" + labelName + "\"");
+            suggestCompletions(labelName, NameCompletion.Kind.LABEL);
         }
     }
 
@@ -2055,6 +2094,28 @@ public class ConsoleTextFileApp {
         return input;
     }
 
+    // EFFECTS: lists up to MAX_NUM_COMPLETIONS_SHOWN names of the given kind anywhere in the file system that begin
+    // with input (ignoring case), along with the folders Files and Folders are in, and says how many more there are.
+    // Prints nothing if there are none
+    private void suggestCompletions(String input, NameCompletion.Kind kind) {
+        List<NameCompletion> completions = fileSystem.completeName(input, MAX_NUM_COMPLETIONS_SHOWN, kind);
+        if (completions.isEmpty()) {
+            return;
+        }
+        System.out.println("Did you mean:");
+        for (NameCompletion completion : completions) {
+            if (completion.getKind() == NameCompletion.Kind.LABEL) {
+                System.out.println("    " + completion.getName());
+            } else {
+                System.out.println("    " + completion.getName() + " (in " + completion.getFolderPath() + ")");
+            }
+        }
+        int numNotShown = fileSystem.countNameCompletions(input, kind) - completions.size();
+        if (numNotShown > 0) {
+            System.out.println("    and " + numNotShown + " more");
+        }
+    }
+
     // EFFECTS: prints "This folder (folderName) + message"
     private void tellUserThisFolder(String message) {
         System.out.println("This folder (" + fileSystem.getCurrentFolderName() + ") " + message);
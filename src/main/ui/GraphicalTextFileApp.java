@@ -1,11 +1,17 @@
 package ui;
 
+import model.AutoSaveScheduler;
+import model.EventLog;
 import model.FileSystem;
+import model.MetricsRegistry;
+import model.NameCompletion;
 import model.exceptions.FilePathNoLongerValidException;
 import model.exceptions.NameIsBlankException;
 import model.exceptions.NameIsTakenException;
 import model.exceptions.NoSuchFileFoundException;
 import model.exceptions.NoSuchFolderFoundException;
+import persistence.EventLogAppender;
+import persistence.PrometheusMetricsWriter;
 import persistence.exceptions.InvalidJsonException;
 
 import java.util.Comparator;
@@ -19,8 +25,10 @@ import java.awt.event.WindowAdapter;
 import java.awt.event.WindowListener;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
 
 import javax.imageio.ImageIO;
+import javax.management.JMException;
 import javax.swing.*;
 
 // Represents an application that allows users to add .txt files from their computer to the program and browse through
@@ -29,14 +37,21 @@ import javax.swing.*;
 public class GraphicalTextFileApp extends JFrame {
     private static final int WIDTH = 960;
     private static final int HEIGHT = 600;
+    private static final int MAX_NUM_COMPLETIONS_SHOWN = 5;
 
     private FileSystem fileSystem;
+    private AutoSaveScheduler autoSaveScheduler;
+    private EventLogAppender eventLogAppender;
+    private PrometheusMetricsWriter metricsWriter;
 
     private JDesktopPane desktop;
     private JPanel currentFolderPanel;
 
     // EFFECTS: sets up the main panel and the buttons on it and adds the folders and files
     public GraphicalTextFileApp() {
+        eventLogAppender = new EventLogAppender(EventLog.getInstance(), EventLogAppender.DEFAULT_DIRECTORY_PATH);
+        eventLogAppender.start();
+        startMetrics();
         fileSystem = new FileSystem();
 
         desktop = new JDesktopPane();
@@ -215,7 +230,8 @@ public class GraphicalTextFileApp extends JFrame {
             try {
                 fileSystem.openFile(fileName);
             } catch (NoSuchFileFoundException e1) {
-                showErrorMessage("There is no file with that name in this folder", "Error Opening");
+                showErrorMessage(withCompletions("There is no file with that name in this folder", fileName,
+                        NameCompletion.Kind.FILE), "Error Opening");
             } catch (FilePathNoLongerValidException e1) {
                 showErrorMessage("There is no file at that location anymore", "Error Opening");
             }
@@ -247,7 +263,8 @@ public class GraphicalTextFileApp extends JFrame {
                 fileSystem.openFolder(folderName);
                 updateFoldersAndFiles();
             } catch (NoSuchFolderFoundException e1) {
-                showErrorMessage("There is no folder with that name in this folder", "Error Opening");
+                showErrorMessage(withCompletions("There is no folder with that name in this folder", folderName,
+                        NameCompletion.Kind.FOLDER), "Error Opening");
             }
         }
     }
@@ -291,6 +308,7 @@ public class GraphicalTextFileApp extends JFrame {
         public void actionPerformed(ActionEvent e) {
             try {
                 fileSystem = FileSystem.autoLoad();
+                keepAutoSaved();
                 updateFoldersAndFiles();
                 JOptionPane.showMessageDialog(null, "Loading Succeeded!", "Load",
                         JOptionPane.INFORMATION_MESSAGE);
@@ -308,18 +326,33 @@ public class GraphicalTextFileApp extends JFrame {
             super("Save File System");
         }
 
-        // EFFECTS: attempts to save this file system to the default save location.
-        // Tells the user if it failed or if
-        // it suceeded
+        // MODIFIES: this
+        // EFFECTS: starts saving this file system to the default save location in the background (and keeping it
+        // saved there as it changes). Tells the user if it failed or if it suceeded once it is done
         @Override
         public void actionPerformed(ActionEvent e) {
-            try {
-                fileSystem.autoSave();
-                JOptionPane.showMessageDialog(null, "Saving Succeeded!", "Save",
-                        JOptionPane.INFORMATION_MESSAGE);
-            } catch (IOException e1) {
-                showErrorMessage("Saving Failed", "Save Error");
-            }
+            keepAutoSaved();
+            autoSaveScheduler.saveNow().whenComplete((ignored, exception) -> SwingUtilities.invokeLater(() -> {
+                if (exception == null) {
+                    JOptionPane.showMessageDialog(null, "Saving Succeeded!", "Save",
+                            JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    showErrorMessage("Saving Failed", "Save Error");
+                }
+            }));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: autosaves fileSystem in the background from now on whenever it changes. Only done once the user has
+    // loaded from or saved to the default save location, so that the empty file system the app starts with never
+    // replaces what was saved there
+    private void keepAutoSaved() {
+        if (autoSaveScheduler == null) {
+            autoSaveScheduler = new AutoSaveScheduler(fileSystem, AutoSaveScheduler.DEFAULT_MAX_PENDING_CHANGES,
+                    AutoSaveScheduler.DEFAULT_IDLE_MILLIS, SwingUtilities::invokeLater);
+        } else {
+            autoSaveScheduler.setFileSystem(fileSystem);
         }
     }
 
@@ -329,6 +362,22 @@ public class GraphicalTextFileApp extends JFrame {
         JOptionPane.showMessageDialog(null, message, title, JOptionPane.ERROR_MESSAGE);
     }
 
+    // EFFECTS: returns message followed by up to MAX_NUM_COMPLETIONS_SHOWN names of the given kind anywhere in the
+    // file system that begin with input (ignoring case), each with the folder it is in, or just message if there are
+    // none
+    private String withCompletions(String message, String input, NameCompletion.Kind kind) {
+        List<NameCompletion> completions = fileSystem.completeName(input, MAX_NUM_COMPLETIONS_SHOWN, kind);
+        if (completions.isEmpty()) {
+            return message;
+        }
+        StringBuilder messageWithCompletions = new StringBuilder(message).append("\nDid you mean:");
+        for (NameCompletion completion : completions) {
+            messageWithCompletions.append("\n    ").append(completion.getName()).append(" (in ")
+                    .append(completion.getFolderPath()).append(")");
+        }
+        return messageWithCompletions.toString();
+    }
+
     // MODIFIES: this
     // EFFECTS: adds the folders and the files to new panels and adds them to the
     // main window
@@ -397,6 +446,19 @@ public class GraphicalTextFileApp extends JFrame {
         return filePanel;
     }
 
+    // MODIFIES: this
+    // EFFECTS: starts writing the metrics of every operation to disk every so often and shows them through JMX
+    private void startMetrics() {
+        metricsWriter = new PrometheusMetricsWriter(MetricsRegistry.getInstance(),
+                PrometheusMetricsWriter.DEFAULT_FILE_PATH, PrometheusMetricsWriter.DEFAULT_INTERVAL_MILLIS);
+        metricsWriter.start();
+        try {
+            MetricsRegistry.getInstance().registerMBean(ManagementFactory.getPlatformMBeanServer());
+        } catch (JMException e) {
+            // the metrics can still be read from the file metricsWriter writes
+        }
+    }
+
     // MODIFIES: this
     // EFFECTS: sets up an event listener to print logged events when the application is closed
     // Based on https://www.tutorialspoint.com/java-program-to-determine-when-a-frame-or-window-is-closing-in-java
@@ -405,6 +467,16 @@ public class GraphicalTextFileApp extends JFrame {
 
         WindowListener listener = new WindowAdapter() {
             public void windowClosing(WindowEvent evt) {
+                if (autoSaveScheduler != null) {
+                    // the app is exiting, so wait for the last changes to be written rather than losing them
+                    autoSaveScheduler.close().exceptionally(exception -> null).join();
+                }
+                eventLogAppender.close();
+                try {
+                    metricsWriter.close();
+                } catch (IOException e) {
+                    // the metrics are only for watching the app while it runs, so there is nothing to lose
+                }
                 System.out.println();
                 System.out.println("Event Log:");
                 ConsoleEventLogPrinter.printEvents();
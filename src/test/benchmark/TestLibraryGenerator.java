@@ -0,0 +1,90 @@
+package benchmark;
+
+import model.FileSystem;
+import persistence.JsonReader;
+import persistence.exceptions.InvalidJsonException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class TestLibraryGenerator {
+    @Test
+    void testSameSeedSameLibrary() {
+        try {
+            FileSystem first = new LibraryGenerator(210).withFiles(2000).generateFileSystem();
+            FileSystem second = new LibraryGenerator(210).withFiles(2000).generateFileSystem();
+            FileSystem other = new LibraryGenerator(211).withFiles(2000).generateFileSystem();
+            assertSameLibrary(first, second);
+            assertNotEquals(describe(first), describe(other));
+        } catch (IOException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testSaveFileMatchesFileSystem() {
+        try {
+            LibraryGenerator generator = new LibraryGenerator(210).withFiles(2000).withLabels(20, 1.0);
+            String filePath = "data\\test\\testLibraryGeneratorSave.json";
+            generator.generateSaveFile(filePath, false);
+            FileSystem loaded = new JsonReader(filePath).read();
+            assertSameLibrary(generator.generateFileSystem(), loaded);
+
+            String compactFilePath = "data\\test\\testLibraryGeneratorCompactSave.json";
+            generator.generateSaveFile(compactFilePath, true);
+            assertSameLibrary(loaded, new JsonReader(compactFilePath).read());
+        } catch (IOException | InvalidJsonException e) {
+            fail();
+        }
+    }
+
+    // EFFECTS: fails unless expected and actual have the same folders, files, labels, and history of recently-opened
+    // files, folders, and labels (a Folder's subfolders and files may be in any order)
+    private void assertSameLibrary(FileSystem expected, FileSystem actual) {
+        JSONObject expectedJson = expected.toJson();
+        JSONObject actualJson = actual.toJson();
+        assertEquals(describe(expected), describe(actual));
+        expectedJson.remove("rootFolder");
+        actualJson.remove("rootFolder");
+        assertTrue(expectedJson.similar(actualJson));
+    }
+
+    // EFFECTS: returns a line for each folder and file in fileSystem (its path, and a file's file path and sorted label
+    // names), in sorted order
+    private List<String> describe(FileSystem fileSystem) {
+        List<String> lines = new ArrayList<String>();
+        describe(fileSystem.toJson().getJSONObject("rootFolder"), "", lines);
+        Collections.sort(lines);
+        return lines;
+    }
+
+    // MODIFIES: lines
+    // EFFECTS: adds a line for the folder represented by json, whose parent's path is parentPath, and for each folder
+    // and file within it, to lines
+    private void describe(JSONObject json, String parentPath, List<String> lines) {
+        String path = parentPath + "\\" + json.getString("name");
+        lines.add(path);
+        JSONArray subfiles = json.getJSONArray("subfiles");
+        for (int i = 0; i < subfiles.length(); i++) {
+            JSONObject file = subfiles.getJSONObject(i);
+            List<String> labelNames = new ArrayList<String>();
+            for (int j = 0; j < file.getJSONArray("labels").length(); j++) {
+                labelNames.add(file.getJSONArray("labels").getJSONObject(j).getString("name"));
+            }
+            Collections.sort(labelNames);
+            lines.add(path + "\\" + file.getString("name") + " " + file.getString("filePath") + " " + labelNames);
+        }
+        JSONArray subfolders = json.getJSONArray("subfolders");
+        for (int i = 0; i < subfolders.length(); i++) {
+            describe(subfolders.getJSONObject(i), path, lines);
+        }
+    }
+}
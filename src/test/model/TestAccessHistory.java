@@ -0,0 +1,138 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TestAccessHistory {
+    static final long DAY = 24 * 60 * 60 * 1000;
+
+    long now;
+    AccessHistory<String> history;
+
+    @BeforeEach
+    void runBefore() {
+        now = 100 * DAY;
+        history = new AccessHistory<String>(3, () -> now);
+    }
+
+    @Test
+    void testConstructor() {
+        assertEquals(0, history.size());
+        assertTrue(history.getEntries().isEmpty());
+        assertTrue(history.getMostRecent(10).isEmpty());
+        assertTrue(history.getMostFrecent(10).isEmpty());
+        assertNull(history.getEntry("a"));
+    }
+
+    @Test
+    void testRecordOpen() {
+        history.recordOpen("a");
+        now += 5;
+        history.recordOpen("b");
+        now += 5;
+        history.recordOpen("a");
+
+        assertEquals(2, history.size());
+        assertEquals(List.of("a", "b"), history.getMostRecent(10));
+        assertEquals(List.of("a"), history.getMostRecent(1));
+        assertEquals(2, history.getEntry("a").getOpenCount());
+        assertEquals(now, history.getEntry("a").getLastOpenedMillis());
+        assertEquals(1, history.getEntry("b").getOpenCount());
+        assertEquals(now - 5, history.getEntry("b").getLastOpenedMillis());
+    }
+
+    @Test
+    void testRecordOpenEvictsLeastRecent() {
+        history.recordOpen("a");
+        history.recordOpen("b");
+        history.recordOpen("c");
+        history.recordOpen("a");
+        history.recordOpen("d");
+
+        assertEquals(3, history.size());
+        assertFalse(history.contains("b"));
+        assertEquals(List.of("d", "a", "c"), history.getMostRecent(10));
+    }
+
+    @Test
+    void testRemove() {
+        history.recordOpen("a");
+        history.recordOpen("b");
+        history.recordOpen("c");
+
+        history.remove("b");
+        history.remove("not there");
+        assertEquals(List.of("c", "a"), history.getMostRecent(10));
+
+        history.remove("c");
+        history.remove("a");
+        assertEquals(0, history.size());
+        assertTrue(history.getMostRecent(10).isEmpty());
+
+        history.recordOpen("b");
+        assertEquals(List.of("b"), history.getMostRecent(10));
+        assertEquals(1, history.getEntry("b").getOpenCount());
+    }
+
+    @Test
+    void testRestore() {
+        history.restore("a", 4, 10);
+        history.restore("b", 2, 5);
+        history.restore("a", 9, 9);
+        history.restore("c", 1, 1);
+        history.restore("d", 1, 0);
+
+        assertEquals(List.of("a", "b", "c"), history.getMostRecent(10));
+        assertEquals(4, history.getEntry("a").getOpenCount());
+        assertEquals(10, history.getEntry("a").getLastOpenedMillis());
+
+        history.recordOpen("c");
+        assertEquals(List.of("c", "a", "b"), history.getMostRecent(10));
+        assertEquals(2, history.getEntry("c").getOpenCount());
+    }
+
+    @Test
+    void testGetEntries() {
+        history.recordOpen("a");
+        history.recordOpen("b");
+        List<AccessHistory.Entry<String>> entries = history.getEntries();
+        assertEquals(2, entries.size());
+        assertEquals("b", entries.get(0).getItem());
+        assertEquals("a", entries.get(1).getItem());
+    }
+
+    @Test
+    void testGetMostFrecentFavoursFrequentlyOpened() {
+        history.recordOpen("often");
+        history.recordOpen("often");
+        history.recordOpen("often");
+        now += DAY;
+        history.recordOpen("once");
+
+        assertEquals(List.of("once", "often"), history.getMostRecent(10));
+        assertEquals(List.of("often", "once"), history.getMostFrecent(10));
+        assertEquals(List.of("often"), history.getMostFrecent(1));
+    }
+
+    @Test
+    void testGetMostFrecentDecaysWithAge() {
+        history.restore("old", 3, now - 3 * AccessHistory.FRECENCY_HALF_LIFE_MILLIS);
+        history.recordOpen("new");
+
+        assertEquals(List.of("new", "old"), history.getMostFrecent(10));
+    }
+
+    @Test
+    void testGetMostFrecentTiesBrokenByRecency() {
+        history.recordOpen("a");
+        history.recordOpen("b");
+        history.recordOpen("c");
+
+        assertEquals(List.of("c", "b", "a"), history.getMostFrecent(10));
+        assertEquals(List.of("c", "b"), history.getMostFrecent(2));
+    }
+}
@@ -0,0 +1,121 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import model.exceptions.NameIsTakenException;
+import persistence.exceptions.InvalidJsonException;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class TestAutoSaveScheduler {
+    FileSystem fileSystem;
+
+    @BeforeEach
+    void runBefore() {
+        fileSystem = new FileSystem();
+        try {
+            fileSystem.autoSave();
+        } catch (IOException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testSavesAfterMaxPendingChanges() {
+        AutoSaveScheduler autoSaveScheduler = new AutoSaveScheduler(fileSystem, 3);
+        try {
+            fileSystem.createFolder("One");
+            fileSystem.createFolder("Two");
+            assertEquals(2, autoSaveScheduler.getPendingChanges());
+            fileSystem.createFolder("Three");
+            assertEquals(0, autoSaveScheduler.getPendingChanges());
+            fileSystem.createFolder("Four");
+            assertEquals(1, autoSaveScheduler.getPendingChanges());
+            FileSystem.awaitBackgroundSaves();
+
+            FileSystem loadedFileSystem = FileSystem.manuallyLoad(FileSystem.AUTOSAVE_FILE_PATH);
+            assertTrue(loadedFileSystem.containsFolder("Three"));
+            assertFalse(loadedFileSystem.containsFolder("Four"));
+        } catch (IOException | InvalidJsonException | NameIsTakenException e) {
+            fail();
+        }
+        autoSaveScheduler.close().join();
+    }
+
+    @Test
+    void testSavesWhenIdle() {
+        LinkedBlockingQueue<Runnable> ownerTasks = new LinkedBlockingQueue<Runnable>();
+        AutoSaveScheduler autoSaveScheduler = new AutoSaveScheduler(fileSystem, 100, 50, ownerTasks::add);
+        try {
+            fileSystem.createFolder("One");
+            fileSystem.createFolder("Two");
+            assertEquals(2, autoSaveScheduler.getPendingChanges());
+
+            Runnable idleSave = ownerTasks.poll(5, TimeUnit.SECONDS);
+            assertNotNull(idleSave);
+            idleSave.run();
+            assertEquals(0, autoSaveScheduler.getPendingChanges());
+            FileSystem.awaitBackgroundSaves();
+
+            FileSystem loadedFileSystem = FileSystem.manuallyLoad(FileSystem.AUTOSAVE_FILE_PATH);
+            assertTrue(loadedFileSystem.containsFolder("One"));
+            assertTrue(loadedFileSystem.containsFolder("Two"));
+        } catch (IOException | InvalidJsonException | NameIsTakenException | InterruptedException e) {
+            fail();
+        }
+        autoSaveScheduler.close().join();
+    }
+
+    @Test
+    void testSetFileSystem() {
+        AutoSaveScheduler autoSaveScheduler = new AutoSaveScheduler(fileSystem, 2);
+        FileSystem otherFileSystem = new FileSystem();
+        try {
+            fileSystem.createFolder("Dropped");
+            autoSaveScheduler.setFileSystem(otherFileSystem);
+            assertEquals(0, autoSaveScheduler.getPendingChanges());
+            fileSystem.createFolder("Not watched");
+            assertEquals(0, autoSaveScheduler.getPendingChanges());
+            otherFileSystem.createFolder("Watched");
+            assertEquals(1, autoSaveScheduler.getPendingChanges());
+        } catch (NameIsTakenException e) {
+            fail();
+        }
+        autoSaveScheduler.close().join();
+    }
+
+    @Test
+    void testCloseSavesPendingChanges() {
+        AutoSaveScheduler autoSaveScheduler = new AutoSaveScheduler(fileSystem, 100);
+        try {
+            fileSystem.createFolder("Pending");
+            autoSaveScheduler.close().get();
+            fileSystem.createFolder("After close");
+            assertEquals(0, autoSaveScheduler.getPendingChanges());
+
+            FileSystem loadedFileSystem = FileSystem.manuallyLoad(FileSystem.AUTOSAVE_FILE_PATH);
+            assertTrue(loadedFileSystem.containsFolder("Pending"));
+            assertFalse(loadedFileSystem.containsFolder("After close"));
+        } catch (IOException | InvalidJsonException | NameIsTakenException | InterruptedException
+                | ExecutionException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testSaveNow() {
+        AutoSaveScheduler autoSaveScheduler = new AutoSaveScheduler(fileSystem, 100);
+        CompletableFuture<Void> saved = autoSaveScheduler.saveNow();
+        saved.join();
+        assertFalse(saved.isCompletedExceptionally());
+        assertEquals(0, autoSaveScheduler.getPendingChanges());
+        autoSaveScheduler.close().join();
+    }
+}
@@ -0,0 +1,235 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TestEventLog {
+    EventLog eventLog;
+
+    @BeforeEach
+    void runBefore() {
+        eventLog = new EventLog(4);
+    }
+
+    @Test
+    void testConstructor() {
+        assertEquals(4, eventLog.getCapacity());
+        assertEquals(0, eventLog.getNumLogged());
+        assertFalse(eventLog.iterator().hasNext());
+        try {
+            new EventLog(3);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    void testLogEvent() {
+        Event created = new Event(Event.Operation.FILE_CREATED, "a");
+        Event renamed = new Event(Event.Operation.FILE_RENAMED, "a", "b");
+        eventLog.logEvent(created);
+        eventLog.logEvent(renamed);
+
+        assertEquals(2, eventLog.getNumLogged());
+        assertEquals(0, created.getSequence());
+        assertEquals(1, renamed.getSequence());
+        assertEquals(List.of(created, renamed), getEvents(eventLog.iterator()));
+        assertEquals(List.of(renamed), getEvents(eventLog.iterator(1)));
+    }
+
+    @Test
+    void testLogEventOverwritesOldest() {
+        List<Event> events = new ArrayList<Event>();
+        for (int i = 0; i < 6; i++) {
+            Event event = new Event(Event.Operation.FOLDER_CREATED, "Folder " + i);
+            events.add(event);
+            eventLog.logEvent(event);
+        }
+
+        assertEquals(6, eventLog.getNumLogged());
+        assertEquals(events.subList(2, 6), getEvents(eventLog.iterator()));
+        assertEquals(events.subList(2, 6), getEvents(eventLog.iterator(0)));
+        assertEquals(events.subList(5, 6), getEvents(eventLog.iterator(5)));
+    }
+
+    @Test
+    void testIteratorSkipsEventsOverwrittenWhileIterating() {
+        for (int i = 0; i < 4; i++) {
+            eventLog.logEvent(new Event(Event.Operation.LABEL_CREATED, "Label " + i));
+        }
+        Iterator<Event> iterator = eventLog.iterator();
+        assertEquals("Label 0", iterator.next().getSubject());
+        eventLog.logEvent(new Event(Event.Operation.LABEL_CREATED, "Label 4"));
+        eventLog.logEvent(new Event(Event.Operation.LABEL_CREATED, "Label 5"));
+
+        assertEquals("Label 2", iterator.next().getSubject());
+        assertEquals("Label 3", iterator.next().getSubject());
+        assertFalse(iterator.hasNext());
+        try {
+            iterator.next();
+            fail("NoSuchElementException expected");
+        } catch (NoSuchElementException e) {
+            // expected
+        }
+    }
+
+    @Test
+    void testClear() {
+        eventLog.logEvent(new Event(Event.Operation.FILE_CREATED, "a"));
+        eventLog.logEvent(new Event(Event.Operation.FILE_DELETED, "a"));
+        eventLog.clear();
+
+        List<Event> events = getEvents(eventLog.iterator());
+        assertEquals(1, events.size());
+        assertEquals(Event.Operation.EVENT_LOG_CLEARED, events.get(0).getOperation());
+        assertEquals("Event log cleared.", events.get(0).getDescription());
+    }
+
+    @Test
+    @SuppressWarnings("methodlength")
+    void testConcurrentProducers() {
+        EventLog bigLog = new EventLog(1 << 16);
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int t = 0; t < 4; t++) {
+            String name = "Thread " + t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 5000; i++) {
+                    bigLog.logEvent(new Event(Event.Operation.FILE_OPENED, name, "path"));
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        try {
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            fail();
+        }
+
+        List<Event> events = getEvents(bigLog.iterator());
+        assertEquals(20000, bigLog.getNumLogged());
+        assertEquals(20000, events.size());
+        Set<Long> sequences = new HashSet<Long>();
+        for (Event event : events) {
+            sequences.add(event.getSequence());
+        }
+        assertEquals(20000, sequences.size());
+    }
+
+    @Test
+    void testEventDescription() {
+        Event event = new Event(Event.Operation.FILE_OPENED, "Notes", "C:\\Notes.txt");
+        assertEquals(Event.Operation.FILE_OPENED, event.getOperation());
+        assertEquals("Notes", event.getSubject());
+        assertEquals("C:\\Notes.txt", event.getDetail());
+        assertEquals(-1, event.getSequence());
+        assertEquals("File named \"Notes\" with path on this computer \"C:\\Notes.txt\" opened",
+                event.getDescription());
+        assertEquals("Root folder opened", new Event(Event.Operation.ROOT_FOLDER_OPENED).getDescription());
+        assertTrue(event.toString().endsWith("\n" + event.getDescription()));
+        assertTrue(Math.abs(event.getDate().getTime() - System.currentTimeMillis()) < 60 * 1000);
+    }
+
+    @Test
+    void testEventEquals() {
+        Event event = new Event(Event.Operation.LABEL_RENAMED, "a", "b");
+        Event other = new Event(Event.Operation.LABEL_RENAMED, "a", "b");
+        assertEquals(event, event);
+        assertEquals(event.hashCode(), event.hashCode());
+        assertNotEquals(event, null);
+        assertNotEquals(event, "a");
+        assertEquals(other.getNanoTime() == event.getNanoTime(), event.equals(other));
+    }
+
+    @Test
+    void testQueryByTime() {
+        EventLog bigLog = new EventLog(16);
+        long start = 1_000_000_000L;
+        for (int i = 0; i < 10; i++) {
+            bigLog.logEvent(new Event(0, start + i * 60_000L, Event.Operation.FILE_CREATED, "File " + i, null));
+        }
+
+        assertEquals(List.of("File 3", "File 4", "File 5"),
+                getSubjects(bigLog.query(new EventQuery().between(start + 3 * 60_000L, start + 6 * 60_000L))));
+        assertEquals(10, bigLog.query(new EventQuery()).count());
+        assertEquals(0, bigLog.query(new EventQuery().between(start - 60_000L, start)).count());
+        assertEquals(0, bigLog.query(new EventQuery().between(start + 10 * 60_000L, Long.MAX_VALUE)).count());
+    }
+
+    @Test
+    void testQueryByKindAndName() {
+        eventLog.logEvent(new Event(Event.Operation.FILE_OPENED, "Notes", "C:\\Notes.txt"));
+        eventLog.logEvent(new Event(Event.Operation.FOLDER_OPENED, "School"));
+        eventLog.logEvent(new Event(Event.Operation.FILE_RENAMED, "Draft", "notes"));
+        eventLog.logEvent(new Event(Event.Operation.FILE_OPENED, "Draft", "C:\\Draft.txt"));
+
+        assertEquals(List.of("Notes", "School", "Draft"),
+                getSubjects(eventLog.query(new EventQuery().ofKind(Event.Kind.OPENED))));
+        assertEquals(List.of("Notes", "Draft"), getSubjects(eventLog.query(new EventQuery().about("NOTES"))));
+        assertEquals(List.of("Notes"),
+                getSubjects(eventLog.query(new EventQuery().ofKind(Event.Kind.OPENED).about("notes"))));
+        assertEquals(List.of("Draft"), getSubjects(eventLog.query(
+                new EventQuery().ofKind(Event.Kind.OPENED, Event.Kind.RENAMED).ofOperation(Event.Operation.FILE_RENAMED)
+                        .about("Notes"))));
+        assertEquals(0, eventLog.query(new EventQuery().ofKind(Event.Kind.DELETED)).count());
+    }
+
+    @Test
+    void testEventQuery() {
+        EventQuery query = new EventQuery();
+        assertEquals(Long.MIN_VALUE, query.getFromMillis());
+        assertEquals(Long.MAX_VALUE, query.getToMillis());
+        assertEquals((1 << Event.Operation.values().length) - 1, query.getOperationMask());
+
+        query.between(100, 200).ofOperation(Event.Operation.LABEL_CREATED);
+        assertEquals(1 << Event.Operation.LABEL_CREATED.ordinal(), query.getOperationMask());
+        assertTrue(query.overlaps(0, 100));
+        assertTrue(query.overlaps(199, 300));
+        assertFalse(query.overlaps(0, 99));
+        assertFalse(query.overlaps(200, 300));
+        assertTrue(query.matches(new Event(0, 150, Event.Operation.LABEL_CREATED, "School", null)));
+        assertFalse(query.matches(new Event(0, 200, Event.Operation.LABEL_CREATED, "School", null)));
+        assertFalse(query.matches(new Event(0, 150, Event.Operation.LABEL_DELETED, "School", null)));
+    }
+
+    @Test
+    void testRecreatedEvent() {
+        Event event = new Event(7, 1_234_567_890_123L, Event.Operation.FOLDER_RENAMED, "a", "b");
+        assertEquals(7, event.getSequence());
+        assertEquals(1_234_567_890_123L, event.getMillis());
+        assertEquals(1_234_567_890_123L, event.getDate().getTime());
+        assertEquals(Event.Kind.RENAMED, event.getOperation().getKind());
+    }
+
+
+    // Helper Methods:
+
+    // EFFECTS: returns the subjects of the events in events, in order
+    private List<String> getSubjects(Stream<Event> events) {
+        return events.map(Event::getSubject).collect(Collectors.toList());
+    }
+
+    // EFFECTS: returns the events iterator has left, in order
+    private List<Event> getEvents(Iterator<Event> iterator) {
+        List<Event> events = new ArrayList<Event>();
+        while (iterator.hasNext()) {
+            events.add(iterator.next());
+        }
+        return events;
+    }
+}
@@ -48,6 +48,18 @@ public class TestFile extends TestNamedObject {
         }
     }
 
+    @Test
+    void testReleasedIdIsReused() {
+        File discardedFile = new File("Discarded", "C:\\Users\\You\\discarded.txt", rootFolder);
+        FileIdBitmap ids = new FileIdBitmap();
+        ids.add(discardedFile.getId());
+        File.releaseIds(ids);
+
+        File newFile = new File("New", "C:\\Users\\You\\new.txt", rootFolder);
+        assertEquals(discardedFile.getId(), newFile.getId());
+        assertNotEquals(newFile.getId(), new File("Newer", "C:\\Users\\You\\newer.txt", rootFolder).getId());
+    }
+
     @Test
     void testConstructor() {
         assertEquals("C#", ceeSharpFile.getName());
@@ -0,0 +1,131 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TestFileIdBitmap {
+    FileIdBitmap emptyBitmap;
+    FileIdBitmap evens;
+    FileIdBitmap multiplesOfThree;
+
+    @BeforeEach
+    void runBefore() {
+        emptyBitmap = new FileIdBitmap();
+        evens = new FileIdBitmap();
+        multiplesOfThree = new FileIdBitmap();
+        for (int i = 0; i < 10000; i++) {
+            if (i % 2 == 0) {
+                evens.add(i);
+            }
+            if (i % 3 == 0) {
+                multiplesOfThree.add(i);
+            }
+        }
+    }
+
+    @Test
+    void testConstructor() {
+        assertTrue(emptyBitmap.isEmpty());
+        assertEquals(0, emptyBitmap.cardinality());
+        assertEquals(-1, emptyBitmap.nextId(0));
+    }
+
+    @Test
+    void testAddAndContains() {
+        emptyBitmap.add(5);
+        emptyBitmap.add(1000000);
+        emptyBitmap.add(5);
+
+        assertFalse(emptyBitmap.isEmpty());
+        assertEquals(2, emptyBitmap.cardinality());
+        assertTrue(emptyBitmap.contains(5));
+        assertTrue(emptyBitmap.contains(1000000));
+        assertFalse(emptyBitmap.contains(4));
+        assertFalse(emptyBitmap.contains(999999));
+
+        assertEquals(5000, evens.cardinality());
+        assertTrue(evens.contains(9998));
+        assertFalse(evens.contains(9999));
+    }
+
+    @Test
+    void testRemove() {
+        emptyBitmap.add(7);
+        emptyBitmap.remove(7);
+        emptyBitmap.remove(123456);
+        assertTrue(emptyBitmap.isEmpty());
+        assertFalse(emptyBitmap.contains(7));
+
+        evens.remove(0);
+        evens.remove(1);
+        assertEquals(4999, evens.cardinality());
+        assertFalse(evens.contains(0));
+    }
+
+    @Test
+    void testClear() {
+        evens.clear();
+        assertTrue(evens.isEmpty());
+        evens.add(3);
+        assertEquals(1, evens.cardinality());
+    }
+
+    @Test
+    void testNextId() {
+        emptyBitmap.add(3);
+        emptyBitmap.add(64);
+        emptyBitmap.add(70000);
+
+        assertEquals(3, emptyBitmap.nextId(0));
+        assertEquals(3, emptyBitmap.nextId(3));
+        assertEquals(64, emptyBitmap.nextId(4));
+        assertEquals(70000, emptyBitmap.nextId(65));
+        assertEquals(-1, emptyBitmap.nextId(70001));
+    }
+
+    @Test
+    void testAnd() {
+        FileIdBitmap multiplesOfSix = evens.and(multiplesOfThree);
+        assertEquals(1667, multiplesOfSix.cardinality());
+        assertTrue(multiplesOfSix.contains(6));
+        assertFalse(multiplesOfSix.contains(4));
+        assertFalse(multiplesOfSix.contains(9));
+
+        assertTrue(evens.and(emptyBitmap).isEmpty());
+        assertEquals(5000, evens.cardinality());
+    }
+
+    @Test
+    void testOr() {
+        FileIdBitmap union = evens.or(multiplesOfThree);
+        assertEquals(5000 + 3334 - 1667, union.cardinality());
+        assertTrue(union.contains(4));
+        assertTrue(union.contains(9));
+        assertFalse(union.contains(5));
+
+        emptyBitmap.add(50000);
+        assertEquals(5001, evens.or(emptyBitmap).cardinality());
+    }
+
+    @Test
+    void testAndNot() {
+        FileIdBitmap evensNotMultiplesOfThree = evens.andNot(multiplesOfThree);
+        assertEquals(5000 - 1667, evensNotMultiplesOfThree.cardinality());
+        assertTrue(evensNotMultiplesOfThree.contains(4));
+        assertFalse(evensNotMultiplesOfThree.contains(6));
+
+        assertEquals(5000, evens.andNot(emptyBitmap).cardinality());
+        assertTrue(evens.andNot(evens).isEmpty());
+    }
+
+    @Test
+    void testCopy() {
+        FileIdBitmap copy = evens.copy();
+        copy.add(1);
+        assertTrue(copy.contains(1));
+        assertFalse(evens.contains(1));
+        assertEquals(5001, copy.cardinality());
+    }
+}
@@ -11,11 +11,23 @@ import model.exceptions.NoSuchFileFoundException;
 import model.exceptions.NoSuchFolderFoundException;
 import model.exceptions.NoSuchLabelFoundException;
 import model.exceptions.FilePathNoLongerValidException;
+import model.exceptions.InvalidLabelQueryException;
+import model.exceptions.InvalidGrepPatternException;
 import model.exceptions.RequiresClauseNotMetRuntimeException;
 import persistence.JsonReader;
+import persistence.SnapshotReader;
 import persistence.exceptions.InvalidJsonException;
+import persistence.exceptions.InvalidNoteIndexException;
+import persistence.exceptions.InvalidSnapshotException;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class TestFileSystem {
@@ -780,6 +792,29 @@ public class TestFileSystem {
         assertTrue(subfileNames.contains("Personal Project Ideas"));
     }
 
+    @Test
+    void testSetFileNameTakenInFolderOfLabelView() {
+        try {
+            fileSystem.openLabel("Personal Project");
+            fileSystem.setFileName("Personal Project Ideas", "a");
+            fail();
+        } catch (NameIsTakenException e) {
+            // expected
+            assertEquals("A", e.getCapitalizationOfTakenName());
+        } catch (NoSuchLabelFoundException | NoSuchFileFoundException e) {
+            fail();
+        }
+        assertEquals(List.of("Personal Project Ideas"), fileSystem.getNamesOfSubfiles());
+
+        fileSystem.openRootFolder();
+        openFolderFailIfFailed("Education");
+        openFolderFailIfFailed("CPSC 210");
+        List<String> subfileNames = fileSystem.getNamesOfSubfiles();
+        assertEquals(2, subfileNames.size());
+        assertTrue(subfileNames.contains("A"));
+        assertTrue(subfileNames.contains("Personal Project Ideas"));
+    }
+
     @Test
     void testSetFileNameTakenAndNotFound() {
         try {
@@ -2362,6 +2397,78 @@ public class TestFileSystem {
         assertThrows(NoSuchFolderFoundException.class, () -> fileSystem.openRecentlyOpenedFolder("15"));
     }
 
+    @Test
+    void testGetNamesOfFrecentlyOpenedFolders() {
+        try {
+            createNumberedFolders();
+        } catch (NameIsTakenException e) {
+            fail();
+        }
+        assertFalse(fileSystem.getNamesOfFrecentlyOpenedFolders().contains("1"));
+
+        openFolderFailIfFailed("1");
+        fileSystem.openRootFolder();
+        openFolderFailIfFailed("1");
+        fileSystem.openRootFolder();
+        openFolderFailIfFailed("2");
+        fileSystem.openRootFolder();
+
+        List<String> frecentlyOpenedFolders = fileSystem.getNamesOfFrecentlyOpenedFolders();
+        assertEquals(4, frecentlyOpenedFolders.size());
+        assertEquals("1", frecentlyOpenedFolders.get(0));
+        assertEquals("2", frecentlyOpenedFolders.get(1));
+        assertEquals("2", fileSystem.getNamesOfRecentlyOpenedFolders().get(0));
+    }
+
+    @Test
+    void testOpenRecentlyOpenedFolderFrecentButNotRecent() {
+        try {
+            createNumberedFolders();
+        } catch (NameIsTakenException e) {
+            fail();
+        }
+
+        for (int i = 0; i < 3; i++) {
+            openFolderFailIfFailed("1");
+            fileSystem.openRootFolder();
+        }
+        for (int i = 2; i <= 11; i++) {
+            openFolderFailIfFailed(String.valueOf(i));
+            fileSystem.openRootFolder();
+        }
+
+        assertFalse(fileSystem.getNamesOfRecentlyOpenedFolders().contains("1"));
+        assertEquals("1", fileSystem.getNamesOfFrecentlyOpenedFolders().get(0));
+        try {
+            fileSystem.openRecentlyOpenedFolder("1");
+        } catch (NoSuchFolderFoundException e) {
+            fail();
+        }
+        assertEquals("1", fileSystem.getCurrentFolderName());
+        assertEquals("1", fileSystem.getNamesOfRecentlyOpenedFolders().get(0));
+    }
+
+    @Test
+    void testDeleteFolderForgetsRecentsWithin() {
+        try {
+            fileSystem.createFolder("Outer");
+            fileSystem.openFolder("Outer");
+            fileSystem.createFolder("Inner");
+            fileSystem.createFile("Inner File", VALID_FILE_PATH);
+            fileSystem.openFileButNotOnComputerEvenIfNoLongerValid("Inner File");
+            fileSystem.openFolder("Inner");
+            fileSystem.openRootFolder();
+            fileSystem.deleteFolder("Outer");
+        } catch (NameIsTakenException | NoSuchFolderFoundException | NoSuchFileFoundException e) {
+            fail();
+        }
+
+        assertFalse(fileSystem.getNamesOfRecentlyOpenedFiles().contains("Inner File"));
+        assertFalse(fileSystem.getNamesOfRecentlyOpenedFolders().contains("Outer"));
+        assertFalse(fileSystem.getNamesOfRecentlyOpenedFolders().contains("Inner"));
+        assertFalse(fileSystem.getNamesOfFrecentlyOpenedFolders().contains("Inner"));
+    }
+
 
     /* 
      *  Tests for Label Methods:
@@ -2595,6 +2702,35 @@ public class TestFileSystem {
         assertTrue(labelledFiles.contains("File Name (2)"));
         assertTrue(labelledFiles.contains("File Name (3)"));
         assertFalse(labelledFiles.contains("File Name (4)"));
+
+        fileSystem.openRootFolder();
+        assertTrue(fileSystem.getNamesOfSubfiles().contains("File Name"));
+        openFolderFailIfFailed("Hobbies");
+        assertTrue(fileSystem.getNamesOfSubfiles().contains("File Name"));
+    }
+
+    @Test
+    void testOpenLabelStaysUpToDate() {
+        try {
+            fileSystem.openLabel("Personal Project");
+            fileSystem.labelFile("Personal Project Ideas", "School");
+            fileSystem.setFileName("Personal Project Ideas", "Ideas");
+            assertTrue(fileSystem.getNamesOfSubfiles().contains("Ideas"));
+
+            fileSystem.unlabelFile("Ideas", "Personal Project");
+        } catch (NoSuchFileFoundException | NoSuchLabelFoundException | NameIsTakenException e) {
+            fail();
+        }
+        assertTrue(fileSystem.getNamesOfSubfiles().isEmpty());
+        assertFalse(fileSystem.containsFile("Ideas"));
+
+        try {
+            fileSystem.openLabel("School");
+            fileSystem.deleteFile("Ideas");
+        } catch (NoSuchFileFoundException | NoSuchLabelFoundException e) {
+            fail();
+        }
+        assertEquals(2, fileSystem.getNamesOfSubfiles().size());
     }
 
     @Test
@@ -3018,6 +3154,21 @@ public class TestFileSystem {
         assertTrue(fileSystem.labelExists("Future Plans"));
     }
 
+    @Test
+    void testSetLabelNameThenUseNewName() {
+        try {
+            fileSystem.setLabelName("School", "University");
+            fileSystem.createLabel("School");
+            fileSystem.labelFile("File", "uNIVERSITY");
+            assertTrue(fileSystem.fileLabelled("File", "University"));
+            assertFalse(fileSystem.fileLabelled("File", "School"));
+        } catch (NoSuchLabelFoundException | NameIsTakenException | NoSuchFileFoundException e) {
+            fail();
+        }
+        assertEquals("University", fileSystem.getCapitalizationOfLabel("university"));
+        assertEquals(3, fileSystem.getNumLabels());
+    }
+
     @Test
     @SuppressWarnings("methodlength")
     void testSetLabelNameNameIsTaken() {
@@ -3991,6 +4142,488 @@ public class TestFileSystem {
         testFileSystemConstruction();
     }
 
+    @Test
+    @SuppressWarnings("methodlength")
+    void testAutoLoadReplaysJournal() {
+        try {
+            fileSystem.autoSave();
+            fileSystem.createLabel("Urgent");
+            fileSystem.setLabelName("Personal Project", "Side Project");
+            fileSystem.deleteLabel("School");
+            fileSystem.setFolderName("Hobbies", "Fun");
+            fileSystem.openFolder("Education");
+            fileSystem.createFile("Notes", "C:\\Notes.txt");
+            fileSystem.labelFile("Notes", "Urgent");
+            fileSystem.setFileName("test", "renamed");
+            fileSystem.deleteFolder("CPSC 210");
+            fileSystem.openLabel("Urgent");
+            fileSystem.labelFile("Notes", "Side Project");
+            fileSystem.unlabelFile("Notes", "Urgent");
+            fileSystem.openRootFolder();
+            fileSystem.createFolder("New");
+            fileSystem.deleteFile("File");
+
+            FileSystem loadedFileSystem = FileSystem.autoLoad();
+            assertTrue(loadedFileSystem.getNamesOfSubfiles().isEmpty());
+            assertEquals(3, loadedFileSystem.getNamesOfSubfolders().size());
+            assertTrue(loadedFileSystem.containsFolder("Fun"));
+            assertFalse(loadedFileSystem.containsFolder("Hobbies"));
+            assertEquals(2, loadedFileSystem.getNumLabels());
+            assertTrue(loadedFileSystem.labelExists("Urgent"));
+            assertTrue(loadedFileSystem.labelExists("Side Project"));
+
+            loadedFileSystem.openFolder("Education");
+            assertFalse(loadedFileSystem.containsFolder("CPSC 210"));
+            assertFalse(loadedFileSystem.containsFile("test"));
+            assertEquals(0, loadedFileSystem.getNumLabelsOnFile("renamed"));
+            assertEquals("C:\\Notes.txt", loadedFileSystem.getFilePath("Notes"));
+            assertTrue(loadedFileSystem.fileLabelled("Notes", "Side Project"));
+            assertFalse(loadedFileSystem.fileLabelled("Notes", "Urgent"));
+        } catch (IOException | InvalidJsonException | NameIsTakenException | NoSuchLabelFoundException
+                | NoSuchFolderFoundException | NoSuchFileFoundException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testAutoLoadIgnoresTornJournalEntry() {
+        try {
+            fileSystem.autoSave();
+            fileSystem.createFolder("Kept");
+            Files.write(Paths.get(FileSystem.AUTOSAVE_JOURNAL_FILE_PATH),
+                    new byte[] {0, 0, 0, 100, 1, 2, 3}, StandardOpenOption.APPEND);
+
+            FileSystem loadedFileSystem = FileSystem.autoLoad();
+            assertTrue(loadedFileSystem.containsFolder("Kept"));
+            assertEquals(3, loadedFileSystem.getNamesOfSubfolders().size());
+        } catch (IOException | InvalidJsonException | NameIsTakenException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testJournalOnlyTracksAutoSavedFileSystem() {
+        try {
+            fileSystem.autoSave();
+            long journalLength = new java.io.File(FileSystem.AUTOSAVE_JOURNAL_FILE_PATH).length();
+            assertEquals(0, journalLength);
+
+            emptyFileSystem.createFolder("Not journaled");
+            assertEquals(0, new java.io.File(FileSystem.AUTOSAVE_JOURNAL_FILE_PATH).length());
+            fileSystem.createFolder("Journaled");
+            assertTrue(new java.io.File(FileSystem.AUTOSAVE_JOURNAL_FILE_PATH).length() > 0);
+
+            emptyFileSystem.autoSave();
+            assertEquals(0, new java.io.File(FileSystem.AUTOSAVE_JOURNAL_FILE_PATH).length());
+            fileSystem.createFolder("No longer journaled");
+            assertEquals(0, new java.io.File(FileSystem.AUTOSAVE_JOURNAL_FILE_PATH).length());
+        } catch (IOException | NameIsTakenException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testJournalCompaction() {
+        try {
+            fileSystem.autoSave();
+            fileSystem.createFolder("Before compaction");
+            fileSystem.createLabel("Compacted");
+            fileSystem.startJournalCompaction();
+            fileSystem.createFolder("After compaction");
+            FileSystem.awaitBackgroundSaves();
+            assertFalse(new java.io.File(FileSystem.AUTOSAVE_JOURNAL_FILE_PATH + ".compacting").exists());
+
+            SnapshotReader snapshotReader = new SnapshotReader(FileSystem.AUTOSAVE_SNAPSHOT_FILE_PATH);
+            FileSystem compactedFileSystem = snapshotReader.read();
+            assertTrue(compactedFileSystem.containsFolder("Before compaction"));
+            assertTrue(compactedFileSystem.labelExists("Compacted"));
+            assertFalse(compactedFileSystem.containsFolder("After compaction"));
+
+            FileSystem loadedFileSystem = FileSystem.autoLoad();
+            assertTrue(loadedFileSystem.containsFolder("Before compaction"));
+            assertTrue(loadedFileSystem.containsFolder("After compaction"));
+            assertTrue(loadedFileSystem.labelExists("Compacted"));
+        } catch (IOException | NameIsTakenException | InvalidJsonException | InvalidSnapshotException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testAutoSaveInBackground() {
+        try {
+            fileSystem.autoSave();
+            fileSystem.createFolder("Saved in background");
+            fileSystem.autoSaveInBackground().join();
+            fileSystem.createFolder("Only journaled");
+
+            FileSystem snapshotFileSystem = new SnapshotReader(FileSystem.AUTOSAVE_SNAPSHOT_FILE_PATH).read();
+            assertTrue(snapshotFileSystem.containsFolder("Saved in background"));
+            assertFalse(snapshotFileSystem.containsFolder("Only journaled"));
+
+            FileSystem loadedFileSystem = FileSystem.autoLoad();
+            assertTrue(loadedFileSystem.containsFolder("Saved in background"));
+            assertTrue(loadedFileSystem.containsFolder("Only journaled"));
+        } catch (IOException | NameIsTakenException | InvalidJsonException | InvalidSnapshotException e) {
+            fail();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("methodlength")
+    void testAutoSaveInBackgroundFromJournal() {
+        try {
+            fileSystem.autoSave();
+            fileSystem.createLabel("Rebuilt");
+            fileSystem.openFolder("Hobbies");
+            fileSystem.openRootFolder();
+            fileSystem.openFolder("Education");
+            fileSystem.openFileButNotOnComputerEvenIfNoLongerValid("test");
+            fileSystem.autoSaveInBackground().join();
+            fileSystem.deleteFolder("CPSC 210");
+
+            FileSystem snapshotFileSystem = new SnapshotReader(FileSystem.AUTOSAVE_SNAPSHOT_FILE_PATH).read();
+            assertTrue(snapshotFileSystem.labelExists("Rebuilt"));
+            assertEquals("Education", snapshotFileSystem.getCurrentFolderName());
+            assertEquals(List.of("Education", "Hobbies", "CPSC 210"),
+                    snapshotFileSystem.getNamesOfRecentlyOpenedFolders());
+            assertEquals(List.of("test"), snapshotFileSystem.getNamesOfRecentlyOpenedFiles());
+            snapshotFileSystem.openFolder("CPSC 210");
+
+            FileSystem jsonFileSystem = FileSystem.manuallyLoad(FileSystem.AUTOSAVE_FILE_PATH);
+            assertTrue(jsonFileSystem.labelExists("Rebuilt"));
+            assertEquals("Education", jsonFileSystem.getCurrentFolderName());
+            assertEquals(List.of("test"), jsonFileSystem.getNamesOfRecentlyOpenedFiles());
+        } catch (IOException | NameIsTakenException | NoSuchFolderFoundException | NoSuchFileFoundException
+                | InvalidJsonException | InvalidSnapshotException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testAutoSaveInBackgroundFreesIds() {
+        try {
+            fileSystem.autoSave();
+            fileSystem.createFolder("Saved in background");
+            File probe = new File("Probe", "", new Folder("Probe"));
+            FileIdBitmap probeId = new FileIdBitmap();
+            probeId.add(probe.getId());
+            File.releaseIds(probeId);
+
+            for (int i = 0; i < 3; i++) {
+                fileSystem.autoSaveInBackground().join();
+            }
+            assertEquals(probe.getId(), new File("Probe", "", new Folder("Probe")).getId());
+            assertTrue(new SnapshotReader(FileSystem.AUTOSAVE_SNAPSHOT_FILE_PATH).read()
+                    .containsFolder("Saved in background"));
+        } catch (IOException | NameIsTakenException | InvalidSnapshotException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testSearchNotes() {
+        try {
+            writeNotesToSearch();
+            fileSystem.createFile("Groceries", "data\\test\\testSearchNotesGroceries.txt");
+            fileSystem.createFile("Recipe", "data\\test\\testSearchNotesRecipe.txt");
+            fileSystem.openFolder("Hobbies");
+            fileSystem.createFile("Same Recipe", "data\\test\\testSearchNotesRecipe.txt");
+
+            List<NoteSearchResult> results = fileSystem.searchNotes("milk", 10);
+            assertEquals(2, results.size());
+            assertEquals("data\\test\\testSearchNotesGroceries.txt", results.get(0).getNotePath());
+            assertEquals(1, results.get(0).getFiles().size());
+            assertEquals("Groceries", results.get(0).getFiles().get(0).getName());
+            assertEquals(2, results.get(1).getFiles().size());
+            assertTrue(results.get(0).getScore() > results.get(1).getScore());
+
+            results = fileSystem.searchNotes("\"bake the bread\"", 10);
+            assertEquals(1, results.size());
+            assertEquals("data\\test\\testSearchNotesRecipe.txt", results.get(0).getNotePath());
+            assertTrue(fileSystem.searchNotes("giraffe", 10).isEmpty());
+            assertTrue(fileSystem.searchNotes("milk", 0).isEmpty());
+        } catch (IOException | NameIsTakenException | NoSuchFolderFoundException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testSearchNotesLeavesOutNotesWithoutFiles() {
+        try {
+            writeNotesToSearch();
+            fileSystem.createFile("Groceries", "data\\test\\testSearchNotesGroceries.txt");
+            fileSystem.createFile("Recipe", "data\\test\\testSearchNotesRecipe.txt");
+            assertEquals(2, fileSystem.searchNotes("milk", 10).size());
+
+            fileSystem.deleteFile("Recipe");
+            List<NoteSearchResult> results = fileSystem.searchNotes("milk", 10);
+            assertEquals(1, results.size());
+            assertEquals("Groceries", results.get(0).getFiles().get(0).getName());
+
+            fileSystem.indexNotes();
+            assertEquals(1, fileSystem.searchNotes("milk", 10).size());
+            assertTrue(fileSystem.searchNotes("whisk", 10).isEmpty());
+        } catch (IOException | NameIsTakenException | NoSuchFileFoundException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testSearchNotesAfterFilePathChanged() {
+        try {
+            writeNotesToSearch();
+            fileSystem.createFile("Groceries", "data\\test\\testSearchNotesGroceries.txt");
+            fileSystem.createFile("Recipe", "data\\test\\testSearchNotesGroceries.txt");
+            assertEquals(2, fileSystem.searchNotes("milk", 10).get(0).getFiles().size());
+            assertTrue(fileSystem.searchNotes("whisk", 10).isEmpty());
+
+            fileSystem.getRootFolder().getSubfile("Recipe").setFilePath("data\\test\\testSearchNotesRecipe.txt");
+            fileSystem.updateNoteIndex().join();
+            List<NoteSearchResult> results = fileSystem.searchNotes("whisk", 10);
+            assertEquals(1, results.size());
+            assertEquals("Recipe", results.get(0).getFiles().get(0).getName());
+            results = fileSystem.searchNotes("milk", 10);
+            assertEquals(2, results.size());
+            assertEquals(1, results.get(0).getFiles().size());
+            assertEquals(1, results.get(1).getFiles().size());
+        } catch (IOException | NameIsTakenException | NoSuchFileFoundException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testSaveAndLoadNoteIndex() {
+        try {
+            writeNotesToSearch();
+            fileSystem.createFile("Groceries", "data\\test\\testSearchNotesGroceries.txt");
+            fileSystem.saveNoteIndex("data\\test\\testSaveNoteIndex.index");
+            overwriteKeepingMetadata("data\\test\\testSearchNotesGroceries.txt");
+
+            emptyFileSystem.createFile("Groceries", "data\\test\\testSearchNotesGroceries.txt");
+            emptyFileSystem.loadNoteIndex("data\\test\\testSaveNoteIndex.index");
+            List<NoteSearchResult> results = emptyFileSystem.searchNotes("eggs", 10);
+            assertEquals(1, results.size());
+            assertEquals("Groceries", results.get(0).getFiles().get(0).getName());
+        } catch (IOException | NameIsTakenException | InvalidNoteIndexException e) {
+            fail();
+        }
+
+        try {
+            emptyFileSystem.loadNoteIndex("data\\test\\noSuchIndex.index");
+            fail("IOException expected");
+        } catch (IOException e) {
+            // expected
+        } catch (InvalidNoteIndexException e) {
+            fail("Wrong exception thrown");
+        }
+    }
+
+    @Test
+    void testAutoLoadNoteIndex() {
+        try {
+            writeNotesToSearch();
+            fileSystem.createFile("Recipe", "data\\test\\testSearchNotesRecipe.txt");
+            Files.deleteIfExists(Paths.get(FileSystem.AUTOSAVE_INDEX_FILE_PATH));
+            fileSystem.autoSave();
+            assertFalse(Files.exists(Paths.get(FileSystem.AUTOSAVE_INDEX_FILE_PATH)));
+
+            assertEquals(1, fileSystem.searchNotes("whisk", 10).size());
+            fileSystem.autoSave();
+            assertTrue(Files.exists(Paths.get(FileSystem.AUTOSAVE_INDEX_FILE_PATH)));
+            overwriteKeepingMetadata("data\\test\\testSearchNotesRecipe.txt");
+
+            FileSystem loadedFileSystem = FileSystem.autoLoad();
+            List<NoteSearchResult> results = loadedFileSystem.searchNotes("whisk", 10);
+            assertEquals(1, results.size());
+            assertEquals("Recipe", results.get(0).getFiles().get(0).getName());
+        } catch (IOException | NameIsTakenException | InvalidJsonException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testAutoSaveInBackgroundRetriesNoteIndex() {
+        Path indexPath = Paths.get(FileSystem.AUTOSAVE_INDEX_FILE_PATH);
+        Path blockingPath = indexPath.resolve("blocking");
+        try {
+            writeNotesToSearch();
+            fileSystem.createFile("Recipe", "data\\test\\testSearchNotesRecipe.txt");
+            assertEquals(1, fileSystem.searchNotes("whisk", 10).size());
+            Files.deleteIfExists(indexPath);
+            Files.createDirectories(indexPath);
+            Files.createFile(blockingPath);
+            try {
+                fileSystem.autoSaveInBackground().join();
+            } finally {
+                Files.deleteIfExists(blockingPath);
+                Files.deleteIfExists(indexPath);
+            }
+
+            fileSystem.autoSave();
+            assertTrue(Files.isRegularFile(indexPath));
+            assertEquals(1, FileSystem.autoLoad().searchNotes("whisk", 10).size());
+        } catch (IOException | NameIsTakenException | InvalidJsonException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testUpdateNoteIndex() {
+        try {
+            writeNotesToSearch();
+            fileSystem.createFile("Groceries", "data\\test\\testSearchNotesGroceries.txt");
+            assertEquals(1, fileSystem.searchNotes("eggs", 10).size());
+
+            Files.writeString(Paths.get("data\\test\\testSearchNotesGroceries.txt"), "Buy apples and pears");
+            Files.setLastModifiedTime(Paths.get("data\\test\\testSearchNotesGroceries.txt"),
+                    FileTime.fromMillis(System.currentTimeMillis() + 60000));
+            assertEquals(1, fileSystem.searchNotes("eggs", 10).size());
+            fileSystem.updateNoteIndex().join();
+            assertTrue(fileSystem.searchNotes("eggs", 10).isEmpty());
+            assertEquals(1, fileSystem.searchNotes("pears", 10).size());
+
+            fileSystem.createFile("Recipe", "data\\test\\testSearchNotesRecipe.txt");
+            fileSystem.updateNoteIndex().join();
+            assertEquals(1, fileSystem.searchNotes("whisk", 10).size());
+        } catch (IOException | NameIsTakenException e) {
+            fail();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("methodlength")
+    void testGrepNotes() {
+        try {
+            writeNotesToSearch();
+            fileSystem.createFile("Groceries", "data\\test\\testSearchNotesGroceries.txt");
+            fileSystem.openFolder("Education");
+            fileSystem.openFolder("CPSC 210");
+            fileSystem.createFile("Recipe", "data\\test\\testSearchNotesRecipe.txt");
+            fileSystem.openRootFolder();
+
+            List<GrepMatch> matches = Collections.synchronizedList(new ArrayList<GrepMatch>());
+            NoteGrep.Search search = fileSystem.grepNotes(new NoteGrep("bread", false), matches::add);
+            search.await();
+            assertEquals(2, matches.size());
+            assertEquals(2, search.getNumNotesScanned());
+            assertEquals(4, search.getSkippedFiles().size());
+
+            matches.clear();
+            fileSystem.openFolder("Education");
+            fileSystem.grepNotes(new NoteGrep("b[a-z]+d", true), matches::add).await();
+            assertEquals(1, matches.size());
+            assertEquals("Recipe", matches.get(0).getFile().getName());
+            assertEquals(1, matches.get(0).getLineNumber());
+            assertEquals("Whisk the eggs with milk and bake the bread for an hour", matches.get(0).getSnippet());
+
+            matches.clear();
+            fileSystem.openFolder("CPSC 210");
+            fileSystem.labelFile("Recipe", "Personal Project");
+            fileSystem.openLabel("Personal Project");
+            fileSystem.grepNotes(new NoteGrep("milk", false), matches::add).await();
+            assertEquals(1, matches.size());
+            assertEquals("Recipe", matches.get(0).getFile().getName());
+        } catch (IOException | NameIsTakenException | NoSuchFolderFoundException | NoSuchFileFoundException
+                | NoSuchLabelFoundException | InvalidGrepPatternException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testGrepLabel() {
+        try {
+            writeNotesToSearch();
+            fileSystem.createFile("Groceries", "data\\test\\testSearchNotesGroceries.txt");
+            fileSystem.labelFile("Groceries", "School");
+            List<GrepMatch> matches = Collections.synchronizedList(new ArrayList<GrepMatch>());
+            NoteGrep.Search search = fileSystem.grepLabel("school", new NoteGrep("Milk", false), matches::add);
+            search.await();
+            assertEquals(1, matches.size());
+            assertEquals("Groceries", matches.get(0).getFile().getName());
+            assertEquals(1, search.getNumNotesScanned());
+            assertEquals(3, search.getSkippedFiles().size());
+        } catch (IOException | NameIsTakenException | NoSuchFileFoundException | NoSuchLabelFoundException
+                | InvalidGrepPatternException e) {
+            fail();
+        }
+
+        try {
+            fileSystem.grepLabel("No such label", new NoteGrep("milk", false), match -> { });
+            fail("NoSuchLabelFoundException expected");
+        } catch (NoSuchLabelFoundException e) {
+            // expected
+        } catch (InvalidGrepPatternException e) {
+            fail("Wrong exception thrown");
+        }
+    }
+
+    @Test
+    void testCompleteName() {
+        List<NameCompletion> completions = fileSystem.completeName("p", 10, null);
+        assertEquals(2, completions.size());
+        assertEquals("Personal Project", completions.get(0).getName());
+        assertEquals(NameCompletion.Kind.LABEL, completions.get(0).getKind());
+        assertEquals("Personal Project Ideas", completions.get(1).getName());
+        assertEquals(NameCompletion.Kind.FILE, completions.get(1).getKind());
+        assertEquals("root\\Education\\CPSC 210\\", completions.get(1).getFolderPath());
+
+        completions = fileSystem.completeName("", 10, NameCompletion.Kind.FOLDER);
+        assertEquals(3, completions.size());
+        assertEquals("CPSC 210", completions.get(0).getName());
+        assertEquals("root\\Education\\", completions.get(0).getFolderPath());
+        assertEquals("Education", completions.get(1).getName());
+        assertEquals("Hobbies", completions.get(2).getName());
+
+        assertEquals(9, fileSystem.countNameCompletions("", null));
+        assertEquals(4, fileSystem.countNameCompletions("", NameCompletion.Kind.FILE));
+        assertEquals(2, fileSystem.completeName("", 2, null).size());
+        assertTrue(fileSystem.completeName("q", 10, null).isEmpty());
+        assertTrue(emptyFileSystem.completeName("", 10, null).isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("methodlength")
+    void testCompleteNameAfterChanges() {
+        fileSystem.completeName("", 10, null);
+        try {
+            fileSystem.createFile("Phone Numbers", VALID_FILE_PATH);
+            assertEquals(2, fileSystem.countNameCompletions("P", NameCompletion.Kind.FILE));
+            fileSystem.setFileName("Phone Numbers", "Recipes");
+            assertEquals(1, fileSystem.countNameCompletions("p", NameCompletion.Kind.FILE));
+            assertEquals("root\\", fileSystem.completeName("rec", 10, null).get(0).getFolderPath());
+            fileSystem.deleteFile("Recipes");
+            assertEquals(0, fileSystem.countNameCompletions("rec", null));
+
+            fileSystem.setFolderName("Hobbies", "Pastimes");
+            assertEquals(0, fileSystem.countNameCompletions("h", null));
+            assertEquals("Pastimes", fileSystem.completeName("pa", 10, NameCompletion.Kind.FOLDER).get(0).getName());
+            fileSystem.openFolder("Pastimes");
+            fileSystem.createFolder("Piano");
+            assertEquals("root\\Pastimes\\", fileSystem.completeName("pi", 10, null).get(0).getFolderPath());
+            fileSystem.openRootFolder();
+
+            fileSystem.createLabel("Pets");
+            fileSystem.setLabelName("School", "University");
+            assertEquals(2, fileSystem.countNameCompletions("p", NameCompletion.Kind.LABEL));
+            assertEquals(0, fileSystem.countNameCompletions("s", null));
+            assertEquals(1, fileSystem.countNameCompletions("u", null));
+            fileSystem.deleteLabel("Pets");
+            assertEquals(1, fileSystem.countNameCompletions("p", NameCompletion.Kind.LABEL));
+
+            fileSystem.deleteFolder("Education");
+            assertEquals(1, fileSystem.countNameCompletions("", NameCompletion.Kind.FILE));
+            assertEquals(0, fileSystem.countNameCompletions("cpsc", null));
+            assertEquals(0, fileSystem.countNameCompletions("e", null));
+            List<NameCompletion> folders = fileSystem.completeName("", 10, NameCompletion.Kind.FOLDER);
+            assertEquals(2, folders.size());
+            assertEquals("Pastimes", folders.get(0).getName());
+            assertEquals("Piano", folders.get(1).getName());
+        } catch (NameIsTakenException | NoSuchFileFoundException | NoSuchFolderFoundException
+                | NoSuchLabelFoundException e) {
+            fail();
+        }
+    }
+
     @Test
     void testManuallyLoad() {
         try {
@@ -4068,6 +4701,77 @@ public class TestFileSystem {
     }
 
 
+    @Test
+    void testOpenLabelQueryAnd() {
+        openLabelQueryFailIfFailed("School AND Personal Project");
+        assertEquals("School AND Personal Project", fileSystem.getCurrentFolderName());
+        assertFalse(fileSystem.currentFolderHasParent());
+
+        List<String> matchingFiles = fileSystem.getNamesOfSubfiles();
+        assertEquals(1, matchingFiles.size());
+        assertTrue(matchingFiles.contains("Personal Project Ideas"));
+        assertTrue(fileSystem.getNamesOfRecentlyOpenedLabels().isEmpty());
+    }
+
+    @Test
+    void testOpenLabelQueryOrAndNot() {
+        openLabelQueryFailIfFailed("NOT school");
+        List<String> matchingFiles = fileSystem.getNamesOfSubfiles();
+        assertEquals(1, matchingFiles.size());
+        assertTrue(matchingFiles.contains("File"));
+
+        openLabelQueryFailIfFailed("School AND NOT \"Personal Project\"");
+        matchingFiles = fileSystem.getNamesOfSubfiles();
+        assertEquals(2, matchingFiles.size());
+        assertTrue(matchingFiles.contains("test"));
+        assertTrue(matchingFiles.contains("A"));
+
+        openLabelQueryFailIfFailed("(Personal Project OR NOT School) AND NOT Personal Project");
+        matchingFiles = fileSystem.getNamesOfSubfiles();
+        assertEquals(1, matchingFiles.size());
+        assertTrue(matchingFiles.contains("File"));
+    }
+
+    @Test
+    void testOpenLabelQueryDeletedFilesExcluded() {
+        try {
+            fileSystem.deleteFile("File");
+            fileSystem.deleteFolder("Education");
+        } catch (NoSuchFileFoundException | NoSuchFolderFoundException e) {
+            fail();
+        }
+
+        openLabelQueryFailIfFailed("School OR NOT School");
+        assertTrue(fileSystem.getNamesOfSubfiles().isEmpty());
+    }
+
+    @Test
+    void testOpenLabelQueryInvalid() {
+        String[] invalidQueries = {"", "   ", "School AND", "AND School", "(School", "School)", "NOT", "\"School"};
+        for (String query : invalidQueries) {
+            try {
+                fileSystem.openLabelQuery(query);
+                fail("InvalidLabelQueryException not thrown for query: " + query);
+            } catch (InvalidLabelQueryException e) {
+                // expected
+            } catch (NoSuchLabelFoundException e) {
+                fail("NoSuchLabelFoundException thrown for query: " + query);
+            }
+        }
+        assertEquals("root", fileSystem.getCurrentFolderName());
+
+        try {
+            fileSystem.openLabelQuery("School AND Urgent");
+            fail("NoSuchLabelFoundException not thrown when query names a nonexistent label");
+        } catch (InvalidLabelQueryException e) {
+            fail();
+        } catch (NoSuchLabelFoundException e) {
+            // expected
+        }
+        assertEquals("root", fileSystem.getCurrentFolderName());
+    }
+
+
     /* 
      *  Test for Static Method:
      */
@@ -4081,6 +4785,16 @@ public class TestFileSystem {
 
     // Helper Methods:
 
+    // MODIFIES: fileSystem
+    // EFFECTS: opens the label query in fileSystem. Fails if the query is invalid or names a nonexistent label
+    private void openLabelQueryFailIfFailed(String query) {
+        try {
+            fileSystem.openLabelQuery(query);
+        } catch (InvalidLabelQueryException | NoSuchLabelFoundException e) {
+            fail();
+        }
+    }
+
     // MODIFIES: fileSystem
     // EFFECTS: opens Folder named folderName in fileSystem. Fails if none is found
     private void openFolderFailIfFailed(String folderName) {
@@ -4111,6 +4825,23 @@ public class TestFileSystem {
         assertTrue(labelNames.contains("Personal Project"));
     }
 
+    // EFFECTS: writes two notes to search among the test data
+    private void writeNotesToSearch() throws IOException {
+        Files.writeString(Paths.get("data\\test\\testSearchNotesGroceries.txt"),
+                "Buy milk, eggs, and bread. Milk is on sale.");
+        Files.writeString(Paths.get("data\\test\\testSearchNotesRecipe.txt"),
+                "Whisk the eggs with milk and bake the bread for an hour");
+    }
+
+    // EFFECTS: overwrites the note at notePath with different words of the same length, keeping its last-modified time,
+    // so it looks unchanged to an index that only checks notes' size and last-modified time
+    private void overwriteKeepingMetadata(String notePath) throws IOException {
+        Path path = Paths.get(notePath);
+        FileTime lastModified = Files.getLastModifiedTime(path);
+        Files.writeString(path, "x".repeat((int) Files.size(path)));
+        Files.setLastModifiedTime(path, lastModified);
+    }
+
     // MODIFIES: fileSystem
     // EFFECTS: creates Files named "1", "2", "3", ..., "10", "11" in fileSystem's current directory
     private void createNumberedFiles() throws NameIsTakenException {
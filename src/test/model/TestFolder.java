@@ -5,13 +5,20 @@ import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import model.exceptions.FolderNotLoadedRuntimeException;
 import model.exceptions.NameIsBlankException;
 import model.exceptions.NameIsTakenException;
 import model.exceptions.NoSuchFileFoundException;
 import model.exceptions.NoSuchFolderFoundException;
+import model.exceptions.RequiresClauseNotMetRuntimeException;
+import persistence.JsonStreamWriter;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.*;
 
+import org.json.JSONObject;
+
 public class TestFolder extends TestNamedObject {
     Folder emptyFolder;
     Folder educationFolder;
@@ -912,8 +919,197 @@ public class TestFolder extends TestNamedObject {
         assertFalse(mathTwoHundredFolder.hasSubfile(ceeZeroOneQuestionsFile.getName()));
     }
 
+    @Test
+    void testGetSubfileAfterRename() {
+        goalsFile.setName("Aspirations");
+
+        assertTrue(educationFolder.hasSubfile("aspirations"));
+        assertFalse(educationFolder.hasSubfile("Goals"));
+        try {
+            assertEquals(goalsFile, educationFolder.getSubfile("ASPIRATIONS"));
+        } catch (NoSuchFileFoundException e) {
+            fail("Renamed file not found under its new name");
+        }
+
+        try {
+            educationFolder.makeSubfile("Goals", "C:\\");
+        } catch (NameIsTakenException e) {
+            fail("Old name of renamed file still taken");
+        }
+        assertEquals(2, educationFolder.getSubfiles().size());
+    }
+
+    @Test
+    void testGetSubfolderAfterRename() {
+        cpscTwoTenFolder.setName("CPSC 213");
+
+        assertTrue(educationFolder.hasSubfolder("cpsc 213"));
+        assertFalse(educationFolder.hasSubfolder("CPSC 210"));
+        assertEquals(cpscTwoTenFolder, getSubfolderJustCreated(educationFolder, "CPSC 213"));
+
+        removeSubfolderJustCreated(educationFolder, "CPSC 213");
+        assertEquals(1, educationFolder.getSubfolders().size());
+        assertFalse(educationFolder.hasSubfolder("CPSC 213"));
+    }
+
+    @Test
+    void testRenameFileNotInParentFolder() {
+        File fileNotInFolder = new File("Goals", "", cpscTwoTenFolder);
+        fileNotInFolder.setName("Personal Project Ideas");
+
+        try {
+            assertEquals(personalProjectIdeasFile, cpscTwoTenFolder.getSubfile("Personal Project Ideas"));
+        } catch (NoSuchFileFoundException e) {
+            fail("Renaming a file the folder doesn't contain removed a different file from its index");
+        }
+        assertEquals(2, cpscTwoTenFolder.getSubfiles().size());
+    }
+
+    @Test
+    void testRenameToTakenName() {
+        try {
+            personalProjectIdeasFile.setName("c01 oh questions");
+            fail();
+        } catch (RequiresClauseNotMetRuntimeException e) {
+            // expected
+        }
+        try {
+            mathTwoHundredFolder.setName("cpsc 210");
+            fail();
+        } catch (RequiresClauseNotMetRuntimeException e) {
+            // expected
+        }
+        assertEquals(2, cpscTwoTenFolder.getSubfiles().size());
+        assertTrue(cpscTwoTenFolder.hasSubfile("Personal Project Ideas"));
+        assertTrue(cpscTwoTenFolder.hasSubfile("C01 OH Questions"));
+        assertEquals(cpscTwoTenFolder, getSubfolderJustCreated(educationFolder, "CPSC 210"));
+        assertTrue(educationFolder.hasSubfolder("MATH 200"));
+    }
+
+    @Test
+    void testCompactSaveCachesOwnFields() {
+        String json = writeCompactJson(educationFolder);
+        assertTrue(educationFolder.hasEncodedFields());
+        assertTrue(cpscTwoTenFolder.hasEncodedFields());
+        assertTrue(mathTwoHundredFolder.hasEncodedFields());
+        assertTrue(educationFolder.toJson().similar(new JSONObject(json)));
+        assertEquals(json, writeCompactJson(educationFolder));
+    }
+
+    @Test
+    void testIndentedSaveDoesNotCache() {
+        StringWriter stringWriter = new StringWriter();
+        try {
+            educationFolder.writeJson(new JsonStreamWriter(stringWriter, 4));
+        } catch (IOException e) {
+            fail();
+        }
+        assertFalse(educationFolder.hasEncodedFields());
+        assertTrue(educationFolder.toJson().similar(new JSONObject(stringWriter.toString())));
+    }
+
+    @Test
+    void testChangesOnlyInvalidateChangedFolder() {
+        writeCompactJson(educationFolder);
+        try {
+            cpscTwoTenFolder.makeSubfile("New", "C:\\210\\New.txt");
+            mathTwoHundredFolder.makeSubfolder("Midterms");
+        } catch (NameIsTakenException e) {
+            fail();
+        }
+        assertTrue(educationFolder.hasEncodedFields());
+        assertFalse(cpscTwoTenFolder.hasEncodedFields());
+        assertTrue(mathTwoHundredFolder.hasEncodedFields());
+        assertTrue(educationFolder.toJson().similar(new JSONObject(writeCompactJson(educationFolder))));
+    }
+
+    @Test
+    void testRenamesAndLabelsInvalidateCache() {
+        Label label = new Label("School");
+        writeCompactJson(educationFolder);
+        cpscTwoTenFolder.setName("CPSC 213");
+        goalsFile.setName("Aims");
+        label.labelFile(mywebworkOneAnswersFile);
+        assertFalse(cpscTwoTenFolder.hasEncodedFields());
+        assertFalse(educationFolder.hasEncodedFields());
+        assertFalse(mathTwoHundredFolder.hasEncodedFields());
+        assertTrue(educationFolder.toJson().similar(new JSONObject(writeCompactJson(educationFolder))));
+
+        label.setName("University");
+        assertFalse(mathTwoHundredFolder.hasEncodedFields());
+        assertTrue(educationFolder.hasEncodedFields());
+        assertTrue(educationFolder.toJson().similar(new JSONObject(writeCompactJson(educationFolder))));
+
+        label.unlabelFile(mywebworkOneAnswersFile);
+        assertFalse(mathTwoHundredFolder.hasEncodedFields());
+        removeSubfileCreatedInRunBefore(cpscTwoTenFolder, "C01 OH Questions");
+        assertFalse(cpscTwoTenFolder.hasEncodedFields());
+        assertTrue(educationFolder.toJson().similar(new JSONObject(writeCompactJson(educationFolder))));
+    }
+
+    @Test
+    void testContentsLoadedWhenFirstNeeded() {
+        List<Folder> loadedFolders = new ArrayList<Folder>();
+        emptyFolder.setContentsLoader(folder -> {
+            loadedFolders.add(folder);
+            try {
+                folder.makeSubfile("Loaded", "C:\\Loaded.txt");
+            } catch (NameIsTakenException e) {
+                fail();
+            }
+        });
+        assertFalse(emptyFolder.isLoaded());
+        assertTrue(loadedFolders.isEmpty());
+
+        assertTrue(emptyFolder.hasSubfile("Loaded"));
+        assertTrue(emptyFolder.isLoaded());
+        assertEquals(1, emptyFolder.getSubfiles().size());
+        assertEquals(List.of(emptyFolder), loadedFolders);
+    }
+
+    @Test
+    void testContentsNotLoaded() {
+        emptyFolder.setContentsLoader(folder -> {
+            throw new IOException();
+        });
+        long changeCount = emptyFolder.getChangeCount();
+        try {
+            emptyFolder.getSubfolders();
+            fail("FolderNotLoadedRuntimeException expected");
+        } catch (FolderNotLoadedRuntimeException e) {
+            // expected
+        }
+        assertFalse(emptyFolder.isLoaded());
+        assertEquals(changeCount, emptyFolder.getChangeCount());
+    }
+
+    @Test
+    void testChangeCountCountsChangesWithinSubfolders() {
+        long educationChangeCount = educationFolder.getChangeCount();
+        long mathChangeCount = mathTwoHundredFolder.getChangeCount();
+        try {
+            cpscTwoTenFolder.makeSubfolder("Labs");
+        } catch (NameIsTakenException e) {
+            fail();
+        }
+        goalsFile.setName("Aims");
+        assertEquals(educationChangeCount + 2, educationFolder.getChangeCount());
+        assertEquals(mathChangeCount, mathTwoHundredFolder.getChangeCount());
+    }
+
     // Helper methods (for dealing with exceptions that shouldn't reasonably be thrown)
 
+    // EFFECTS: returns folder's compact JSON representation, failing if it could not be written
+    private String writeCompactJson(Folder folder) {
+        StringWriter stringWriter = new StringWriter();
+        try {
+            folder.writeJson(new JsonStreamWriter(stringWriter, 0));
+        } catch (IOException e) {
+            fail();
+        }
+        return stringWriter.toString();
+    }
+
     // EFFECTS: returns folder named name from parent, fails if none exist
     private Folder getSubfolderJustCreated(Folder parent, String name) {
         try {
@@ -0,0 +1,128 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import model.exceptions.NameIsTakenException;
+import model.exceptions.NoSuchFileFoundException;
+
+public class TestLabelView extends TestNamedObject {
+    Folder schoolFolder;
+    Folder workFolder;
+
+    Label notesLabel;
+    LabelView notesView;
+
+    File schoolNotesFile;
+    File workNotesFile;
+    File workNotesOneFile;
+    File schoolTodoFile;
+
+    @BeforeEach
+    void runBefore() {
+        namedObject = new LabelView(new Label("name"));
+
+        schoolFolder = new Folder("School");
+        workFolder = new Folder("Work");
+        try {
+            schoolNotesFile = schoolFolder.makeSubfile("Notes", "C:\\school notes.txt");
+            schoolTodoFile = schoolFolder.makeSubfile("Todo", "C:\\school todo.txt");
+            workNotesFile = workFolder.makeSubfile("notes", "C:\\work notes.txt");
+            workNotesOneFile = workFolder.makeSubfile("Notes (1)", "C:\\work notes 1.txt");
+        } catch (NameIsTakenException e) {
+            fail("runBefore() made two files with the same name in one folder");
+        }
+
+        notesLabel = new Label("Notes");
+        notesLabel.labelFile(schoolNotesFile);
+        notesLabel.labelFile(workNotesFile);
+        notesLabel.labelFile(workNotesOneFile);
+        notesView = new LabelView(notesLabel);
+    }
+
+    @Test
+    void testConstructor() {
+        assertEquals("Notes", notesView.getName());
+        assertTrue(notesView.isViewOfLabel());
+        assertTrue(notesView.getSubfolders().isEmpty());
+        assertEquals(notesLabel.getLabelledFiles(), notesView.getSubfiles());
+        assertFalse(notesView.hasSubfolder("School"));
+
+        LabelView queryView = new LabelView("Query", new LinkedHashSet<File>());
+        assertFalse(queryView.isViewOfLabel());
+        assertTrue(queryView.getNamesOfSubfiles().isEmpty());
+    }
+
+    @Test
+    void testDuplicateNamesAreDisplayedDifferently() {
+        List<String> names = notesView.getNamesOfSubfiles();
+        assertEquals(3, names.size());
+        assertTrue(names.contains("Notes (1)"));
+        assertTrue(names.contains("Notes (2)") || names.contains("notes (2)"));
+
+        try {
+            File notesTwo = notesView.getSubfile("NOTES (2)");
+            File notes = notesView.getSubfile("notes");
+            assertNotEquals(notes, notesTwo);
+            assertEquals(workNotesOneFile, notesView.getSubfile("Notes (1)"));
+        } catch (NoSuchFileFoundException e) {
+            fail("File not found under its displayed name");
+        }
+
+        assertEquals("Notes", schoolNotesFile.getName());
+        assertEquals("notes", workNotesFile.getName());
+        assertEquals("Notes (1)", workNotesOneFile.getName());
+    }
+
+    @Test
+    void testLabellingAndUnlabellingUpdatesView() {
+        assertFalse(notesView.hasSubfile("Todo"));
+        notesLabel.labelFile(schoolTodoFile);
+        assertTrue(notesView.hasSubfile("Todo"));
+        assertEquals(4, notesView.getNamesOfSubfiles().size());
+
+        notesLabel.unlabelFile(schoolNotesFile);
+        notesLabel.unlabelFile(workNotesOneFile);
+        List<String> names = notesView.getNamesOfSubfiles();
+        assertEquals(2, names.size());
+        assertTrue(names.contains("notes"));
+        assertTrue(names.contains("Todo"));
+    }
+
+    @Test
+    void testSubfileRenamed() {
+        try {
+            File file = notesView.getSubfile("Notes (1)");
+            String previousNameKey = file.getNameKey();
+            file.setName("Meeting Notes");
+            notesView.subfileRenamed(file, previousNameKey);
+
+            assertEquals(file, notesView.getSubfile("meeting notes"));
+            assertTrue(workFolder.hasSubfile("Meeting Notes"));
+        } catch (NoSuchFileFoundException e) {
+            fail("Renamed file not found under its new name");
+        }
+        assertEquals(3, notesView.getNamesOfSubfiles().size());
+    }
+
+    @Test
+    void testRemoveSubfile() {
+        notesView.removeSubfile(schoolNotesFile);
+        assertEquals(3, notesView.getNamesOfSubfiles().size());
+
+        Set<File> files = new LinkedHashSet<File>();
+        files.add(schoolNotesFile);
+        files.add(schoolTodoFile);
+        LabelView queryView = new LabelView("Query", files);
+        queryView.removeSubfile(schoolNotesFile);
+        assertEquals(1, queryView.getNamesOfSubfiles().size());
+        assertFalse(queryView.hasSubfile("Notes"));
+        assertTrue(queryView.hasSubfile("todo"));
+    }
+}
@@ -0,0 +1,112 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TestLatencyHistogram {
+    LatencyHistogram histogram;
+
+    @BeforeEach
+    void runBefore() {
+        histogram = new LatencyHistogram();
+    }
+
+    @Test
+    void testConstructor() {
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getTotalNanos());
+        assertEquals(0, histogram.getMaxNanos());
+        assertEquals(0, histogram.getPercentileNanos(50));
+        assertEquals(0, histogram.getPercentileNanos(100));
+    }
+
+    @Test
+    void testRecordSmallValuesExactly() {
+        for (int i = 1; i <= 10; i++) {
+            histogram.record(i);
+        }
+        assertEquals(10, histogram.getCount());
+        assertEquals(55, histogram.getTotalNanos());
+        assertEquals(10, histogram.getMaxNanos());
+        assertEquals(5, histogram.getPercentileNanos(50));
+        assertEquals(9, histogram.getPercentileNanos(90));
+        assertEquals(10, histogram.getPercentileNanos(100));
+        assertEquals(1, histogram.getPercentileNanos(0));
+    }
+
+    @Test
+    void testRecordLargeValuesWithinPrecision() {
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1_000_000L);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1_000_000_000L, histogram.getMaxNanos());
+        assertWithinPrecision(500_000_000L, histogram.getPercentileNanos(50));
+        assertWithinPrecision(990_000_000L, histogram.getPercentileNanos(99));
+        assertEquals(1_000_000_000L, histogram.getPercentileNanos(100));
+    }
+
+    @Test
+    void testRecordOutOfRange() {
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE / 2);
+        assertEquals(2, histogram.getCount());
+        assertEquals(0, histogram.getPercentileNanos(50));
+        assertEquals(Long.MAX_VALUE / 2, histogram.getMaxNanos());
+        assertEquals((1L << LatencyHistogram.MAX_EXPONENT) - 1, histogram.getPercentileNanos(100));
+    }
+
+    @Test
+    void testBuckets() {
+        long previousHighest = -1;
+        for (int index = 0; index <= LatencyHistogram.bucketIndex((1L << LatencyHistogram.MAX_EXPONENT) - 1);
+                index++) {
+            long highest = LatencyHistogram.highestValueInBucket(index);
+            assertEquals(index, LatencyHistogram.bucketIndex(previousHighest + 1));
+            assertEquals(index, LatencyHistogram.bucketIndex(highest));
+            long maxWidth = Math.max(1, highest >> (LatencyHistogram.SUB_BUCKET_BITS - 1));
+            assertTrue(highest - previousHighest <= maxWidth);
+            previousHighest = highest;
+        }
+    }
+
+    @Test
+    void testConcurrentRecording() {
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 1; i <= 10000; i++) {
+                    histogram.record(i);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        try {
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            fail();
+        }
+
+        assertEquals(40000, histogram.getCount());
+        assertEquals(4 * 10000L * 10001 / 2, histogram.getTotalNanos());
+        assertEquals(10000, histogram.getMaxNanos());
+        assertWithinPrecision(5000, histogram.getPercentileNanos(50));
+    }
+
+
+    // Helper Methods:
+
+    // EFFECTS: fails unless actual is within the histogram's precision of expected
+    private void assertWithinPrecision(long expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected / 16, expected + " expected but was " + actual);
+    }
+}
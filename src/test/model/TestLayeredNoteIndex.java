@@ -0,0 +1,157 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+public class TestLayeredNoteIndex {
+    NoteIndex base;
+    LayeredNoteIndex index;
+
+    @BeforeEach
+    void runBefore() {
+        base = new NoteIndex();
+        base.addDocument("a.txt", 10, 100, "the cat sat on the mat");
+        base.addDocument("b.txt", 20, 200, "The dog");
+        index = new LayeredNoteIndex(base);
+    }
+
+    @Test
+    void testConstructor() {
+        assertEquals(2, index.getNumDocuments());
+        assertEquals(2, index.getNumLiveDocuments());
+        assertEquals(0, index.getNumDeleted());
+        assertEquals(8, index.getTotalLength());
+        assertEquals(0, index.getDocId("a.txt"));
+        assertEquals(1, index.getDocId("b.txt"));
+        assertEquals(-1, index.getDocId("c.txt"));
+        assertEquals(Set.of("a.txt", "b.txt"), Set.copyOf(index.getPaths()));
+        assertEquals("b.txt", index.getPath(1));
+        assertEquals(20, index.getSize(1));
+        assertEquals(200, index.getLastModified(1));
+        assertEquals(base.getContentHash(0), index.getContentHash(0));
+        assertFalse(index.isDeleted(0));
+    }
+
+    @Test
+    void testConstructorWithDeletedDocuments() {
+        index.deleteDocument("a.txt");
+        LayeredNoteIndex layeredAgain = new LayeredNoteIndex(index);
+        assertEquals(2, layeredAgain.getNumDocuments());
+        assertEquals(1, layeredAgain.getNumLiveDocuments());
+        assertEquals(1, layeredAgain.getNumDeleted());
+        assertTrue(layeredAgain.isDeleted(0));
+        assertEquals(-1, layeredAgain.getDocId("a.txt"));
+    }
+
+    @Test
+    void testAddDocument() {
+        assertEquals(2, index.addDocument("c.txt", 30, 300, 3, List.of("cat", "nap")));
+        assertEquals(3, index.getNumDocuments());
+        assertEquals(10, index.getTotalLength());
+        assertEquals(2, index.getDocId("c.txt"));
+        assertEquals("c.txt", index.getPath(2));
+        assertEquals(2, index.getLength(2));
+        assertEquals(30, index.getSize(2));
+        assertEquals(300, index.getLastModified(2));
+        assertEquals(3, index.getContentHash(2));
+
+        TextIndex.Postings postings = index.getPostings("cat");
+        assertEquals(2, postings.getDocumentFrequency());
+        assertTrue(postings.next());
+        assertEquals(0, postings.getDocId());
+        assertArrayEquals(new int[] {1}, postings.getPositions());
+        assertTrue(postings.next());
+        assertEquals(2, postings.getDocId());
+        assertEquals(1, postings.getFrequency());
+        assertArrayEquals(new int[] {0}, postings.getPositions());
+        assertFalse(postings.next());
+        assertFalse(postings.next());
+        assertNull(base.getPostings("nap"));
+    }
+
+    @Test
+    void testAddDocumentReplacesNote() {
+        assertEquals(2, index.addDocument("a.txt", 11, 101, 4, List.of("dog")));
+        assertEquals(3, index.getNumDocuments());
+        assertEquals(2, index.getNumLiveDocuments());
+        assertEquals(3, index.getTotalLength());
+        assertTrue(index.isDeleted(0));
+        assertEquals(2, index.getDocId("a.txt"));
+        assertNull(nextDocId(index.getPostings("cat")));
+        assertEquals(1, nextDocId(index.getPostings("the")));
+
+        TextIndex.Postings postings = index.getPostings("dog");
+        assertEquals(1, nextDocId(postings));
+        assertEquals(2, nextDocId(postings));
+        assertNull(nextDocId(postings));
+    }
+
+    @Test
+    void testDeleteDocument() {
+        assertTrue(index.deleteDocument("b.txt"));
+        assertFalse(index.deleteDocument("b.txt"));
+        assertFalse(index.deleteDocument("c.txt"));
+        assertEquals(2, index.getNumDocuments());
+        assertEquals(1, index.getNumLiveDocuments());
+        assertEquals(1, index.getNumDeleted());
+        assertEquals(6, index.getTotalLength());
+        assertTrue(index.isDeleted(1));
+        assertEquals(List.of("a.txt"), index.getPaths());
+
+        TextIndex.Postings postings = index.getPostings("dog");
+        assertNotNull(postings);
+        assertFalse(postings.next());
+        assertEquals(0, nextDocId(index.getPostings("the")));
+    }
+
+    @Test
+    void testUpdateMetadata() {
+        index.updateMetadata(0, 12, 120);
+        assertEquals(12, index.getSize(0));
+        assertEquals(120, index.getLastModified(0));
+        assertEquals(10, base.getSize(0));
+        assertEquals(20, index.getSize(1));
+
+        index.addDocument("a.txt", 13, 130, 5, List.of("cat"));
+        assertEquals(13, index.getSize(2));
+        assertEquals(130, index.getLastModified(2));
+        index.updateMetadata(2, 14, 140);
+        assertEquals(14, index.getSize(2));
+        assertEquals(140, index.getLastModified(2));
+    }
+
+    @Test
+    void testGetTerms() {
+        index.addDocument("c.txt", 30, 300, 3, List.of("cat", "nap"));
+        List<String> terms = new ArrayList<String>();
+        for (Iterator<String> iterator = index.getTerms(); iterator.hasNext(); ) {
+            terms.add(iterator.next());
+        }
+        assertEquals(7, terms.size());
+        assertEquals(Set.of("the", "cat", "sat", "on", "mat", "dog", "nap"), Set.copyOf(terms));
+        assertEquals("nap", terms.get(6));
+    }
+
+    @Test
+    void testSearch() {
+        index.addDocument("b.txt", 21, 201, 6, List.of("a", "cat", "and", "a", "dog"));
+        List<NoteSearcher.Hit> hits = new NoteSearcher(index).search("dog", 10);
+        assertEquals(1, hits.size());
+        assertEquals("b.txt", hits.get(0).getPath());
+        assertEquals(2, hits.get(0).getDocId());
+        assertEquals(1, new NoteSearcher(index).search("\"a dog\"", 10).size());
+        assertTrue(new NoteSearcher(index).search("\"the dog\"", 10).isEmpty());
+    }
+
+    // EFFECTS: moves postings to its next document and returns its id, or returns null if there is none
+    private Integer nextDocId(TextIndex.Postings postings) {
+        return postings.next() ? postings.getDocId() : null;
+    }
+}
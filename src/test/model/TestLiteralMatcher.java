@@ -0,0 +1,110 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+public class TestLiteralMatcher {
+    @Test
+    void testIndexOf() {
+        ByteBuffer buffer = bufferOf("the cat sat on the mat with another cat");
+        LiteralMatcher matcher = matcherOf("cat");
+        assertEquals(3, matcher.length());
+        assertEquals(4, matcher.indexOf(buffer, 0, buffer.limit()));
+        assertEquals(36, matcher.indexOf(buffer, 5, buffer.limit()));
+        assertEquals(-1, matcher.indexOf(buffer, 5, 38));
+        assertEquals(36, matcher.indexOf(buffer, 36, 39));
+        assertEquals(-1, matcher.indexOf(buffer, 37, 39));
+        assertEquals(-1, matcherOf("dog").indexOf(buffer, 0, buffer.limit()));
+    }
+
+    @Test
+    void testIndexOfOneByte() {
+        ByteBuffer buffer = bufferOf("first line\nsecond line\n");
+        LiteralMatcher newline = matcherOf("\n");
+        assertEquals(10, newline.indexOf(buffer, 0, buffer.limit()));
+        assertEquals(22, newline.indexOf(buffer, 11, buffer.limit()));
+        assertEquals(-1, newline.indexOf(buffer, 23, buffer.limit()));
+    }
+
+    @Test
+    void testIndexOfShortBuffers() {
+        assertEquals(-1, matcherOf("needle").indexOf(bufferOf(""), 0, 0));
+        assertEquals(-1, matcherOf("needle").indexOf(bufferOf("need"), 0, 4));
+        assertEquals(0, matcherOf("needle").indexOf(bufferOf("needle"), 0, 6));
+        assertEquals(1, matcherOf("x").indexOf(bufferOf("ax"), 0, 2));
+    }
+
+    @Test
+    void testIndexOfFalseCandidates() {
+        // most positions hold the first byte, so most words have several candidates that are not the whole needle
+        String text = "aaaaaaaaaaaaaaaaaaaaaaaabaaaaaaaaabaaaaaaaacaaab";
+        assertEquals(21, matcherOf("aaab").indexOf(bufferOf(text), 0, text.length()));
+        assertEquals(-1, matcherOf("aaaaaaaaac").indexOf(bufferOf(text), 0, text.length()));
+        assertEquals(34, matcherOf("baaaaaaaac").indexOf(bufferOf(text), 0, text.length()));
+
+        // a byte of 0x01 just above a match is marked as a candidate too
+        ByteBuffer buffer = ByteBuffer.wrap(new byte[] {5, 1, 5, 1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0});
+        assertEquals(2, new LiteralMatcher(new byte[] {5, 1, 0}).indexOf(buffer, 0, buffer.limit()));
+    }
+
+    @Test
+    void testIndexOfUtf8() {
+        String text = "caf\u00e9 na\u00efve \u65e5\u672c\u8a9e caf\u00e9"; // accented letters and Japanese
+        ByteBuffer buffer = bufferOf(text);
+        assertEquals(0, matcherOf("caf\u00e9").indexOf(buffer, 0, buffer.limit())); // an accented e
+        assertEquals(23, matcherOf("caf\u00e9").indexOf(buffer, 1, buffer.limit())); // an accented e
+        assertEquals(13, matcherOf("\u65e5\u672c").indexOf(buffer, 0, buffer.limit())); // two Japanese characters
+        assertEquals(-1, matcherOf("cafe").indexOf(buffer, 0, buffer.limit()));
+    }
+
+    @Test
+    void testIndexOfSameAsScalarInBothByteOrders() {
+        Random random = new Random(210);
+        byte[] bytes = new byte[4096];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) ('a' + random.nextInt(3));
+        }
+        ByteBuffer bigEndian = ByteBuffer.wrap(bytes);
+        ByteBuffer littleEndian = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        for (int trial = 0; trial < 500; trial++) {
+            byte[] needle = new byte[1 + random.nextInt(12)];
+            for (int i = 0; i < needle.length; i++) {
+                needle[i] = (byte) ('a' + random.nextInt(3));
+            }
+            LiteralMatcher matcher = new LiteralMatcher(needle);
+            int from = random.nextInt(bytes.length);
+            int to = from + random.nextInt(bytes.length - from + 1);
+            int expected = matcher.indexOfScalar(bigEndian, from, to);
+            assertEquals(expected, matcher.indexOf(bigEndian, from, to));
+            assertEquals(expected, matcher.indexOf(littleEndian, from, to));
+            if (expected >= 0) {
+                assertEquals(expected, new String(bytes, StandardCharsets.ISO_8859_1).indexOf(
+                        new String(needle, StandardCharsets.ISO_8859_1), from));
+            }
+        }
+    }
+
+    @Test
+    void testNeedleIsCopied() {
+        byte[] needle = "cat".getBytes(StandardCharsets.UTF_8);
+        LiteralMatcher matcher = new LiteralMatcher(needle);
+        needle[0] = 'b';
+        assertEquals(0, matcher.indexOf(bufferOf("cat"), 0, 3));
+    }
+
+    // EFFECTS: returns a buffer of text encoded as UTF-8
+    private ByteBuffer bufferOf(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // EFFECTS: returns a matcher of needle encoded as UTF-8
+    private LiteralMatcher matcherOf(String needle) {
+        return new LiteralMatcher(needle.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,142 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import model.exceptions.NameIsTakenException;
+import model.exceptions.NoSuchFolderFoundException;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.management.Attribute;
+import javax.management.AttributeNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TestMetricsRegistry {
+    MetricsRegistry registry;
+
+    @BeforeEach
+    void runBefore() {
+        registry = new MetricsRegistry();
+    }
+
+    @Test
+    void testGetOperation() {
+        assertTrue(registry.getOperations().isEmpty());
+        assertNull(registry.findOperation("b"));
+        OperationMetrics b = registry.getOperation("b");
+        OperationMetrics a = registry.getOperation("a");
+
+        assertEquals("b", b.getName());
+        assertSame(b, registry.getOperation("b"));
+        assertSame(b, registry.findOperation("b"));
+        assertEquals(List.of(a, b), registry.getOperations());
+        assertEquals(0, b.getCount());
+    }
+
+    @Test
+    void testRecordSince() {
+        OperationMetrics operation = registry.getOperation("a");
+        long start = System.nanoTime();
+        operation.recordSince(start);
+        operation.recordSince(start);
+
+        assertEquals(2, operation.getCount());
+        assertEquals(2, operation.getLatencies().getCount());
+        assertTrue(operation.getLatencies().getMaxNanos() <= System.nanoTime() - start);
+    }
+
+    @Test
+    void testFileSystemOperationsRecorded() {
+        OperationMetrics openFolder = MetricsRegistry.getInstance().findOperation("FileSystem.openFolder");
+        assertNotNull(openFolder);
+        long count = openFolder.getCount();
+
+        FileSystem fileSystem = new FileSystem();
+        try {
+            fileSystem.createFolder("School");
+            fileSystem.openFolder("School");
+        } catch (NameIsTakenException | NoSuchFolderFoundException e) {
+            fail();
+        }
+        try {
+            fileSystem.openFolder("No Such Folder");
+            fail("NoSuchFolderFoundException expected");
+        } catch (NoSuchFolderFoundException e) {
+            // expected
+        }
+
+        assertTrue(openFolder.getCount() >= count + 2);
+        assertNotNull(MetricsRegistry.getInstance().findOperation("JsonReader.read"));
+    }
+
+    @Test
+    void testMBeanAttributes() {
+        for (int i = 1; i <= 100; i++) {
+            registry.getOperation("FileSystem.openLabel").getLatencies().record(i * 1_000_000L);
+        }
+        registry.getOperation("FileSystem.openFolder");
+        MetricsMBean mbean = new MetricsMBean(registry);
+
+        try {
+            assertEquals(100L, mbean.getAttribute("FileSystem.openLabel.count"));
+            assertEquals(50.5, (double) mbean.getAttribute("FileSystem.openLabel.meanMillis"), 1e-9);
+            assertEquals(50.0, (double) mbean.getAttribute("FileSystem.openLabel.p50Millis"), 50.0 / 16);
+            assertEquals(99.0, (double) mbean.getAttribute("FileSystem.openLabel.p99Millis"), 99.0 / 16);
+            assertEquals(100.0, (double) mbean.getAttribute("FileSystem.openLabel.maxMillis"), 1e-9);
+            assertEquals(0L, mbean.getAttribute("FileSystem.openFolder.count"));
+            assertEquals(0.0, mbean.getAttribute("FileSystem.openFolder.meanMillis"));
+        } catch (AttributeNotFoundException e) {
+            fail();
+        }
+        assertEquals(2, mbean.getAttributes(new String[] {"FileSystem.openLabel.count", "FileSystem.openLabel.none",
+                "FileSystem.openFolder.p90Millis", "none", "No.such.count"}).size());
+
+        List<String> names = List.of(mbean.getMBeanInfo().getAttributes()).stream().map(MBeanAttributeInfo::getName)
+                .collect(Collectors.toList());
+        assertEquals(2 * MetricsMBean.STATISTICS.length, names.size());
+        assertTrue(names.contains("FileSystem.openFolder.p999Millis"));
+        assertTrue(names.contains("FileSystem.openLabel.count"));
+    }
+
+    @Test
+    void testMBeanIsReadOnly() {
+        MetricsMBean mbean = new MetricsMBean(registry);
+        registry.getOperation("a");
+        try {
+            mbean.setAttribute(new Attribute("a.count", 5L));
+            fail("AttributeNotFoundException expected");
+        } catch (AttributeNotFoundException e) {
+            // expected
+        }
+        assertTrue(mbean.setAttributes(new javax.management.AttributeList()).isEmpty());
+        try {
+            mbean.invoke("reset", new Object[0], new String[0]);
+            fail("ReflectionException expected");
+        } catch (ReflectionException e) {
+            // expected
+        }
+    }
+
+    @Test
+    void testRegisterMBean() {
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        registry.getOperation("FileSystem.autoSave").getLatencies().record(3);
+        try {
+            registry.registerMBean(server);
+            registry.registerMBean(server);
+            ObjectName name = new ObjectName(MetricsRegistry.MBEAN_NAME);
+            assertTrue(server.isRegistered(name));
+            assertEquals(1L, server.getAttribute(name, "FileSystem.autoSave.count"));
+        } catch (JMException e) {
+            fail();
+        }
+    }
+}
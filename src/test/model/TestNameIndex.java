@@ -0,0 +1,105 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import model.exceptions.NameIsTakenException;
+
+import java.util.List;
+
+public class TestNameIndex {
+    Folder root;
+    Folder education;
+    File notes;
+    Label news;
+    NameIndex index;
+
+    @BeforeEach
+    void runBefore() throws NameIsTakenException {
+        root = new Folder("root");
+        notes = root.makeSubfile("Notes", "notes.txt");
+        education = root.makeSubfolder("Education");
+        education.makeSubfolder("CPSC 210").makeSubfile("notes", "cpsc 210 notes.txt");
+        news = new Label("News");
+        index = new NameIndex(root, List.of(news));
+    }
+
+    @Test
+    void testConstructor() {
+        assertEquals(5, index.countCompletions("", null));
+        assertEquals(2, index.countCompletions("", NameCompletion.Kind.FILE));
+        assertEquals(2, index.countCompletions("", NameCompletion.Kind.FOLDER));
+        assertEquals(1, index.countCompletions("", NameCompletion.Kind.LABEL));
+        assertEquals(0, index.countCompletions("root", null));
+    }
+
+    @Test
+    void testComplete() {
+        List<NameCompletion> completions = index.complete("N", 10, null);
+        assertEquals(3, completions.size());
+        assertEquals("News", completions.get(0).getName());
+        assertEquals(NameCompletion.Kind.LABEL, completions.get(0).getKind());
+        assertEquals("", completions.get(0).getFolderPath());
+        assertEquals("Notes", completions.get(1).getName());
+        assertEquals(NameCompletion.Kind.FILE, completions.get(1).getKind());
+        assertEquals("root\\", completions.get(1).getFolderPath());
+        assertEquals("notes", completions.get(2).getName());
+        assertEquals("root\\Education\\CPSC 210\\", completions.get(2).getFolderPath());
+
+        completions = index.complete("e", 10, NameCompletion.Kind.FOLDER);
+        assertEquals(1, completions.size());
+        assertEquals("Education", completions.get(0).getName());
+        assertEquals(NameCompletion.Kind.FOLDER, completions.get(0).getKind());
+        assertEquals("root\\", completions.get(0).getFolderPath());
+
+        assertTrue(index.complete("e", 10, NameCompletion.Kind.FILE).isEmpty());
+        assertTrue(index.complete("n", 10, NameCompletion.Kind.FOLDER).isEmpty());
+    }
+
+    @Test
+    void testCompleteMaxResults() {
+        List<NameCompletion> completions = index.complete("", 2, null);
+        assertEquals(2, completions.size());
+        assertEquals("CPSC 210", completions.get(0).getName());
+        assertEquals("Education", completions.get(1).getName());
+        assertEquals(1, index.complete("n", 1, NameCompletion.Kind.FILE).size());
+    }
+
+    @Test
+    void testAddedAndRemoved() throws NameIsTakenException {
+        index.added(education.makeSubfolder("Notebooks"));
+        index.added(new Label("Next"));
+        assertEquals(5, index.countCompletions("n", null));
+        assertEquals(1, index.countCompletions("n", NameCompletion.Kind.FOLDER));
+        assertEquals(2, index.countCompletions("n", NameCompletion.Kind.LABEL));
+
+        index.removed(notes);
+        index.removed(news);
+        index.removed(education);
+        List<NameCompletion> completions = index.complete("notes", 10, null);
+        assertEquals(1, completions.size());
+        assertEquals("root\\Education\\CPSC 210\\", completions.get(0).getFolderPath());
+        assertEquals(3, index.countCompletions("n", null));
+        assertEquals(0, index.countCompletions("e", null));
+    }
+
+    @Test
+    void testRenamed() {
+        String previousNameKey = notes.getNameKey();
+        notes.setName("Groceries");
+        index.renamed(notes, previousNameKey);
+        previousNameKey = news.getNameKey();
+        news.setName("Gardening");
+        index.renamed(news, previousNameKey);
+        previousNameKey = education.getNameKey();
+        education.setName("School");
+        index.renamed(education, previousNameKey);
+
+        assertEquals(1, index.countCompletions("n", null));
+        assertEquals(2, index.countCompletions("g", null));
+        assertEquals("root\\School\\CPSC 210\\", index.complete("notes", 10, null).get(0).getFolderPath());
+        assertEquals("School", index.complete("s", 10, NameCompletion.Kind.FOLDER).get(0).getName());
+    }
+}
@@ -0,0 +1,189 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class TestNameTrie {
+    NameTrie<Label> trie;
+    Label notes;
+    Label notebook;
+    Label note;
+    Label school;
+
+    @BeforeEach
+    void runBefore() {
+        trie = new NameTrie<Label>();
+        notes = new Label("Notes");
+        notebook = new Label("notebook");
+        note = new Label("NOTE");
+        school = new Label("School");
+        trie.add(notes);
+        trie.add(notebook);
+        trie.add(note);
+        trie.add(school);
+    }
+
+    @Test
+    void testConstructor() {
+        NameTrie<Label> emptyTrie = new NameTrie<Label>();
+        assertEquals(0, emptyTrie.size());
+        assertTrue(emptyTrie.complete("", 10).isEmpty());
+        assertEquals(0, emptyTrie.countCompletions(""));
+        assertFalse(emptyTrie.contains(notes));
+    }
+
+    @Test
+    void testAdd() {
+        assertEquals(4, trie.size());
+        assertTrue(trie.contains(notes));
+        assertTrue(trie.contains(school));
+        assertFalse(trie.contains(new Label("Notes")));
+
+        trie.add(notes);
+        assertEquals(4, trie.size());
+    }
+
+    @Test
+    void testComplete() {
+        assertEquals(List.of(note, notebook, notes), trie.complete("note", 10));
+        assertEquals(List.of(note, notebook, notes), trie.complete("nOtE", 10));
+        assertEquals(List.of(notebook), trie.complete("noteB", 10));
+        assertEquals(List.of(notebook), trie.complete("NOTEBOOK", 10));
+        assertEquals(List.of(note, notebook, notes, school), trie.complete("", 10));
+        assertEquals(List.of(school), trie.complete("sch", 10));
+        assertTrue(trie.complete("notebooks", 10).isEmpty());
+        assertTrue(trie.complete("nota", 10).isEmpty());
+        assertTrue(trie.complete("x", 10).isEmpty());
+    }
+
+    @Test
+    void testCompleteMaxResults() {
+        assertEquals(List.of(note, notebook), trie.complete("n", 2));
+        assertEquals(List.of(note), trie.complete("", 1));
+        assertTrue(trie.complete("n", 0).isEmpty());
+    }
+
+    @Test
+    void testCountCompletions() {
+        assertEquals(4, trie.countCompletions(""));
+        assertEquals(3, trie.countCompletions("NO"));
+        assertEquals(1, trie.countCompletions("notes"));
+        assertEquals(0, trie.countCompletions("notess"));
+        assertEquals(0, trie.countCompletions("p"));
+    }
+
+    @Test
+    void testSameName() {
+        Label otherNotes = new Label("NOTES");
+        trie.add(otherNotes);
+        assertEquals(5, trie.size());
+        assertEquals(List.of(notes, otherNotes), trie.complete("notes", 10));
+        assertEquals(2, trie.countCompletions("notes"));
+
+        assertTrue(trie.remove(notes));
+        assertEquals(List.of(otherNotes), trie.complete("notes", 10));
+        assertEquals(4, trie.size());
+    }
+
+    @Test
+    void testRemove() {
+        assertTrue(trie.remove(note));
+        assertFalse(trie.remove(note));
+        assertFalse(trie.contains(note));
+        assertEquals(List.of(notebook, notes), trie.complete("note", 10));
+        assertEquals(3, trie.size());
+
+        assertTrue(trie.remove(notebook));
+        assertEquals(List.of(notes), trie.complete("n", 10));
+        assertEquals(List.of(notes), trie.complete("notes", 10));
+
+        assertTrue(trie.remove(notes));
+        assertTrue(trie.remove(school));
+        assertFalse(trie.remove(new Label("Notes")));
+        assertEquals(0, trie.size());
+        assertTrue(trie.complete("", 10).isEmpty());
+
+        trie.add(notes);
+        assertEquals(List.of(notes), trie.complete("note", 10));
+    }
+
+    @Test
+    void testRenamed() {
+        String previousNameKey = notebook.getNameKey();
+        notebook.setName("Sketchbook");
+        assertFalse(trie.contains(notebook));
+        trie.renamed(notebook, previousNameKey);
+        assertTrue(trie.contains(notebook));
+        assertEquals(List.of(note, notes), trie.complete("note", 10));
+        assertEquals(List.of(school, notebook), trie.complete("s", 10));
+        assertEquals(4, trie.size());
+
+        Label notInTrie = new Label("Elsewhere");
+        previousNameKey = notInTrie.getNameKey();
+        notInTrie.setName("Nowhere");
+        trie.renamed(notInTrie, previousNameKey);
+        assertFalse(trie.contains(notInTrie));
+        assertEquals(4, trie.size());
+    }
+
+    @Test
+    @SuppressWarnings("methodlength")
+    void testSameAsLinearScan() {
+        Random random = new Random(210);
+        NameTrie<Label> randomTrie = new NameTrie<Label>();
+        List<Label> added = new ArrayList<Label>();
+        for (int i = 0; i < 2000; i++) {
+            if (!added.isEmpty() && random.nextInt(3) == 0) {
+                Label removed = added.remove(random.nextInt(added.size()));
+                assertTrue(randomTrie.remove(removed));
+            } else {
+                Label label = new Label(randomName(random, 1 + random.nextInt(6)));
+                randomTrie.add(label);
+                added.add(label);
+            }
+        }
+        assertEquals(added.size(), randomTrie.size());
+        for (int trial = 0; trial < 200; trial++) {
+            String prefix = randomName(random, random.nextInt(4));
+            List<String> expected = new ArrayList<String>();
+            for (Label label : added) {
+                if (label.isBeginningOfName(prefix)) {
+                    expected.add(label.getNameKey());
+                }
+            }
+            expected.sort(null);
+            List<String> actual = new ArrayList<String>();
+            for (Label label : randomTrie.complete(prefix, Integer.MAX_VALUE)) {
+                actual.add(label.getNameKey());
+            }
+            assertEquals(expected, actual);
+            assertEquals(expected.size(), randomTrie.countCompletions(prefix));
+            assertEquals(expected.subList(0, Math.min(5, expected.size())), keysOf(randomTrie.complete(prefix, 5)));
+        }
+    }
+
+    // EFFECTS: returns a name of the given length made of the letters a to c in either case
+    private String randomName(Random random, int length) {
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            char c = (char) ('a' + random.nextInt(3));
+            name.append(random.nextBoolean() ? Character.toUpperCase(c) : c);
+        }
+        return name.toString();
+    }
+
+    // EFFECTS: returns the name keys of labels, in order
+    private List<String> keysOf(List<Label> labels) {
+        List<String> keys = new ArrayList<String>();
+        for (Label label : labels) {
+            keys.add(label.getNameKey());
+        }
+        return keys;
+    }
+}
@@ -191,4 +191,15 @@ public abstract class TestNamedObject {
         setNamedObjectNameFailIfExceptionThrown("Orange");
         assertTrue(namedObject.isBeginningOfName("orange"));
     }
+
+    @Test
+    void testGetNameKey() {
+        setNamedObjectNameFailIfExceptionThrown("OrAnGe");
+        assertEquals("orange", namedObject.getNameKey());
+        assertEquals(NamedObject.toNameKey("ORANGE"), namedObject.getNameKey());
+
+        setNamedObjectNameFailIfExceptionThrown("Apple");
+        assertEquals("apple", namedObject.getNameKey());
+        assertNotEquals(NamedObject.toNameKey("Orange"), namedObject.getNameKey());
+    }
 }
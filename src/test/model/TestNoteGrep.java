@@ -0,0 +1,234 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import model.exceptions.InvalidGrepPatternException;
+import model.exceptions.NameIsTakenException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class TestNoteGrep {
+    static final String FIRST_NOTE = "data\\test\\testNoteGrepFirst.txt";
+    static final String SECOND_NOTE = "data\\test\\testNoteGrepSecond.txt";
+
+    Folder folder;
+    File first;
+    File second;
+    List<GrepMatch> matches;
+
+    @BeforeEach
+    void runBefore() throws IOException, NameIsTakenException {
+        Files.writeString(Paths.get(FIRST_NOTE), "Buy milk\r\nCall Sam at 555-1234\r\nbuy eggs.\r\n");
+        Files.writeString(Paths.get(SECOND_NOTE), "Whisk the eggs (gently)\nBake for 1 hour");
+        folder = new Folder("root");
+        first = folder.makeSubfile("First", FIRST_NOTE);
+        second = folder.makeSubfile("Second", SECOND_NOTE);
+        matches = Collections.synchronizedList(new ArrayList<GrepMatch>());
+    }
+
+    @Test
+    void testExactSearch() throws InvalidGrepPatternException {
+        NoteGrep.Search search = new NoteGrep("eggs", false).start(List.of(first, second), matches::add);
+        search.await();
+        assertTrue(search.isDone());
+        assertFalse(search.isCancelled());
+        assertFalse(search.isTimedOut());
+        assertEquals(2, search.getNumNotesScanned());
+        assertEquals(2, search.getNumMatches());
+        assertTrue(search.getSkippedFiles().isEmpty());
+
+        GrepMatch firstMatch = findMatch(first);
+        assertEquals(3, firstMatch.getLineNumber());
+        assertEquals("buy eggs.", firstMatch.getSnippet());
+        GrepMatch secondMatch = findMatch(second);
+        assertEquals(1, secondMatch.getLineNumber());
+        assertEquals("Whisk the eggs (gently)", secondMatch.getSnippet());
+    }
+
+    @Test
+    void testExactSearchIsLiteral() throws InvalidGrepPatternException {
+        new NoteGrep("(gently)", false).start(List.of(first, second), matches::add).await();
+        assertEquals(1, matches.size());
+        assertSame(second, matches.get(0).getFile());
+
+        matches.clear();
+        new NoteGrep("buy", false).start(List.of(first, second), matches::add).await();
+        assertEquals(1, matches.size());
+        assertEquals(3, matches.get(0).getLineNumber());
+    }
+
+    @Test
+    void testRegexSearch() throws InvalidGrepPatternException {
+        new NoteGrep("\\d{3}-\\d{4}", true).start(List.of(first, second), matches::add).await();
+        assertEquals(1, matches.size());
+        assertEquals(2, matches.get(0).getLineNumber());
+        assertEquals("Call Sam at 555-1234", matches.get(0).getSnippet());
+
+        matches.clear();
+        new NoteGrep("(?i)^buy", true).start(List.of(first, second), matches::add).await();
+        assertEquals(2, matches.size());
+    }
+
+    @Test
+    void testExactSearchPastManyLines() throws IOException, InvalidGrepPatternException {
+        String filler = "nothing to see on this line at all\r\n".repeat(100000);
+        Files.writeString(Paths.get(FIRST_NOTE), filler + "caf\u00e9 au lait, then the needle\n" // an accented e
+                + filler + "needle again");
+        NoteGrep.Search search = new NoteGrep("needle", false).start(List.of(first), matches::add);
+        search.await();
+        assertEquals(1, search.getNumNotesScanned());
+        assertEquals(2, matches.size());
+        assertEquals(100001, matches.get(0).getLineNumber());
+        assertEquals("caf\u00e9 au lait, then the needle", matches.get(0).getSnippet()); // an accented e
+        assertEquals(200002, matches.get(1).getLineNumber());
+        assertEquals("needle again", matches.get(1).getSnippet());
+    }
+
+    @Test
+    void testInvalidRegex() {
+        try {
+            new NoteGrep("(unclosed", true);
+            fail("InvalidGrepPatternException expected");
+        } catch (InvalidGrepPatternException e) {
+            // expected
+        }
+        try {
+            new NoteGrep("(unclosed", false);
+        } catch (InvalidGrepPatternException e) {
+            fail("No exception expected");
+        }
+    }
+
+    @Test
+    void testNoteScannedOnceForEveryFile() throws InvalidGrepPatternException, NameIsTakenException {
+        File sameNote = folder.makeSubfile("Same", SECOND_NOTE);
+        NoteGrep.Search search = new NoteGrep("Bake", false).start(List.of(first, second, sameNote), matches::add);
+        search.await();
+        assertEquals(2, search.getNumNotesScanned());
+        assertEquals(2, matches.size());
+        assertEquals(2, matches.get(0).getLineNumber());
+        assertEquals(2, matches.get(1).getLineNumber());
+        assertNotSame(matches.get(0).getFile(), matches.get(1).getFile());
+    }
+
+    @Test
+    void testSkipsLargeAndUnreadableNotes() throws InvalidGrepPatternException, NameIsTakenException {
+        File missing = folder.makeSubfile("Missing", "data\\test\\noSuchNote.txt");
+        File invalid = folder.makeSubfile("Invalid", "\u0000");
+        NoteGrep.Search search = new NoteGrep("e", false, 40, NoteGrep.DEFAULT_TIMEOUT_MILLIS)
+                .start(List.of(first, second, missing, invalid), matches::add);
+        search.await();
+        assertEquals(1, search.getNumNotesScanned());
+        assertEquals(3, search.getSkippedFiles().size());
+        assertFalse(search.getSkippedFiles().contains(second));
+        assertEquals(2, matches.size());
+    }
+
+    @Test
+    void testEmptyNoteAndNoFiles() throws IOException, InvalidGrepPatternException {
+        Files.writeString(Paths.get(FIRST_NOTE), "");
+        NoteGrep.Search search = new NoteGrep("", true).start(List.of(first), matches::add);
+        search.await();
+        assertEquals(1, search.getNumNotesScanned());
+        assertTrue(matches.isEmpty());
+
+        search = new NoteGrep("milk", false).start(List.of(), matches::add);
+        search.await();
+        assertTrue(search.isDone());
+        assertEquals(0, search.getNumNotesScanned());
+    }
+
+    @Test
+    void testCancel() throws IOException, InvalidGrepPatternException {
+        Files.writeString(Paths.get(FIRST_NOTE), "match\n".repeat(10000));
+        List<NoteGrep.Search> searches = new ArrayList<NoteGrep.Search>();
+        NoteGrep.Search search = new NoteGrep("match", false).start(List.of(first), match -> {
+            matches.add(match);
+            synchronized (searches) {
+                while (searches.isEmpty()) {
+                    try {
+                        searches.wait();
+                    } catch (InterruptedException e) {
+                        // keep waiting for the search to be started
+                    }
+                }
+            }
+            searches.get(0).cancel();
+        });
+        synchronized (searches) {
+            searches.add(search);
+            searches.notifyAll();
+        }
+        search.await();
+        assertTrue(search.isCancelled());
+        assertEquals(1, matches.size());
+        assertEquals(1, search.getNumMatches());
+        assertEquals(0, search.getNumNotesScanned());
+    }
+
+    @Test
+    void testTimeout() throws IOException, InvalidGrepPatternException {
+        Files.writeString(Paths.get(FIRST_NOTE), "match\n".repeat(10000));
+        NoteGrep.Search search = new NoteGrep("match", false, NoteGrep.DEFAULT_MAX_FILE_BYTES, 50)
+                .start(List.of(first), match -> {
+                    try {
+                        Thread.sleep(20);
+                    } catch (InterruptedException e) {
+                        // slowing the search down is all that matters
+                    }
+                    matches.add(match);
+                });
+        long start = System.nanoTime();
+        search.await();
+        assertTrue(System.nanoTime() - start < 5_000_000_000L);
+        assertTrue(search.isTimedOut());
+        assertFalse(search.isCancelled());
+        assertTrue(matches.size() < 10000);
+        assertEquals(0, search.getNumNotesScanned());
+    }
+
+    @Test
+    void testListenerThrows() throws InvalidGrepPatternException {
+        NoteGrep.Search search = new NoteGrep("milk", false).start(List.of(first), match -> {
+            throw new IllegalStateException();
+        });
+        try {
+            search.await();
+            fail("IllegalStateException expected");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    @Test
+    void testSnippet() {
+        assertEquals("short line", NoteGrep.snippet("  short line ", 2));
+        String longLine = "a".repeat(500) + "needle" + "b".repeat(500);
+        String snippet = NoteGrep.snippet(longLine, 500);
+        assertEquals(NoteGrep.MAX_SNIPPET_LENGTH, snippet.length());
+        assertEquals(40, snippet.indexOf("needle"));
+        assertEquals("a".repeat(NoteGrep.MAX_SNIPPET_LENGTH), NoteGrep.snippet(longLine, 0));
+        assertTrue(NoteGrep.snippet(longLine, 995).endsWith("b"));
+    }
+
+    // EFFECTS: returns the only match for file, failing the test if there is not exactly one
+    private GrepMatch findMatch(File file) {
+        GrepMatch found = null;
+        for (GrepMatch match : matches) {
+            if (match.getFile() == file) {
+                assertNull(found);
+                found = match;
+            }
+        }
+        assertNotNull(found);
+        return found;
+    }
+}
@@ -0,0 +1,155 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+public class TestNoteIndex {
+    NoteIndex index;
+
+    @BeforeEach
+    void runBefore() {
+        index = new NoteIndex();
+        index.addDocument("a.txt", 10, 100, "the cat sat on the mat");
+        index.addDocument("b.txt", 20, 200, "The dog");
+        index.addDocument("c.txt", 30, 300, "");
+    }
+
+    @Test
+    void testConstructor() {
+        NoteIndex emptyIndex = new NoteIndex();
+        assertEquals(0, emptyIndex.getNumDocuments());
+        assertEquals(0, emptyIndex.getTotalLength());
+        assertNull(emptyIndex.getPostings("the"));
+        assertFalse(emptyIndex.getTerms().hasNext());
+    }
+
+    @Test
+    void testAddDocument() {
+        assertEquals(3, index.addDocument("d.txt", 40, 400, "cat"));
+        assertEquals(4, index.getNumDocuments());
+        assertEquals(9, index.getTotalLength());
+        assertEquals(6, index.getLength(0));
+        assertEquals(0, index.getLength(2));
+        assertEquals("b.txt", index.getPath(1));
+        assertEquals(40, index.getSize(3));
+        assertEquals(400, index.getLastModified(3));
+    }
+
+    @Test
+    void testAddManyDocuments() {
+        for (int i = 3; i < 1000; i++) {
+            assertEquals(i, index.addDocument(i + ".txt", i, i, "common word" + i % 7));
+        }
+        assertEquals(1000, index.getNumDocuments());
+        assertEquals("999.txt", index.getPath(999));
+        assertEquals(997, index.getPostings("common").getDocumentFrequency());
+    }
+
+    @Test
+    void testGetPostings() {
+        TextIndex.Postings postings = index.getPostings("the");
+        assertEquals(2, postings.getDocumentFrequency());
+        assertTrue(postings.next());
+        assertEquals(0, postings.getDocId());
+        assertEquals(2, postings.getFrequency());
+        assertArrayEquals(new int[] {0, 4}, postings.getPositions());
+        assertTrue(postings.next());
+        assertEquals(1, postings.getDocId());
+        assertEquals(1, postings.getFrequency());
+        assertArrayEquals(new int[] {0}, postings.getPositions());
+        assertFalse(postings.next());
+        assertFalse(postings.next());
+
+        assertNull(index.getPostings("bird"));
+        assertNull(index.getPostings("The"));
+    }
+
+    @Test
+    void testGetPostingsIndependentCursors() {
+        TextIndex.Postings first = index.getPostings("cat");
+        TextIndex.Postings second = index.getPostings("cat");
+        assertTrue(first.next());
+        assertFalse(first.next());
+        assertTrue(second.next());
+        assertEquals(0, second.getDocId());
+    }
+
+    @Test
+    void testGetTerms() {
+        Set<String> terms = new HashSet<String>();
+        for (Iterator<String> iterator = index.getTerms(); iterator.hasNext(); ) {
+            assertTrue(terms.add(iterator.next()));
+        }
+        assertEquals(Set.of("the", "cat", "sat", "on", "mat", "dog"), terms);
+    }
+
+    @Test
+    void testBuild() throws IOException {
+        Path note = Paths.get("data\\test\\testNoteIndexBuild.txt");
+        Files.write(note, "Hello world".getBytes(StandardCharsets.UTF_8));
+        NoteIndex builtIndex = NoteIndex.build(List.of("data\\test\\noSuchNote.txt", note.toString()));
+        assertEquals(1, builtIndex.getNumDocuments());
+        assertEquals(note.toString(), builtIndex.getPath(0));
+        assertEquals(11, builtIndex.getSize(0));
+        assertEquals(Files.getLastModifiedTime(note).toMillis(), builtIndex.getLastModified(0));
+        assertEquals(2, builtIndex.getLength(0));
+        assertNotNull(builtIndex.getPostings("world"));
+    }
+
+    @Test
+    void testHash() {
+        assertEquals(0xcbf29ce484222325L, NoteIndex.hash(new byte[0]));
+        assertEquals(0xaf63dc4c8601ec8cL, NoteIndex.hash("a".getBytes(StandardCharsets.UTF_8)));
+        assertNotEquals(NoteIndex.hash("ab".getBytes(StandardCharsets.UTF_8)),
+                NoteIndex.hash("ba".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(NoteIndex.hash("The dog".getBytes(StandardCharsets.UTF_8)), index.getContentHash(1));
+    }
+
+    @Test
+    void testCopyOf() {
+        LayeredNoteIndex layered = new LayeredNoteIndex(index);
+        layered.deleteDocument("a.txt");
+        layered.addDocument("d.txt", 40, 400, 7, List.of("cat", "and", "dog"));
+
+        NoteIndex copy = NoteIndex.copyOf(layered);
+        assertEquals(3, copy.getNumDocuments());
+        assertEquals(3, copy.getNumLiveDocuments());
+        assertEquals(5, copy.getTotalLength());
+        assertEquals("b.txt", copy.getPath(0));
+        assertEquals("d.txt", copy.getPath(2));
+        assertEquals(20, copy.getSize(0));
+        assertEquals(400, copy.getLastModified(2));
+        assertEquals(7, copy.getContentHash(2));
+        assertEquals(index.getContentHash(1), copy.getContentHash(0));
+        assertNull(copy.getPostings("mat"));
+
+        TextIndex.Postings postings = copy.getPostings("dog");
+        assertEquals(2, postings.getDocumentFrequency());
+        assertTrue(postings.next());
+        assertEquals(0, postings.getDocId());
+        assertArrayEquals(new int[] {1}, postings.getPositions());
+        assertTrue(postings.next());
+        assertEquals(2, postings.getDocId());
+        assertArrayEquals(new int[] {2}, postings.getPositions());
+        assertFalse(postings.next());
+    }
+
+    @Test
+    void testAddNoteCannotBeRead() {
+        assertEquals(-1, index.addNote("data\\test\\noSuchNote.txt"));
+        assertEquals(-1, index.addNote("\u0000"));
+        assertEquals(3, index.getNumDocuments());
+    }
+}
@@ -0,0 +1,188 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class TestNoteIndexer {
+    static final String FIRST_NOTE = "data\\test\\testNoteIndexerFirst.txt";
+    static final String SECOND_NOTE = "data\\test\\testNoteIndexerSecond.txt";
+
+    NoteIndexer indexer;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        Files.writeString(Paths.get(FIRST_NOTE), "Buy milk and eggs");
+        Files.writeString(Paths.get(SECOND_NOTE), "Walk the dog");
+        indexer = new NoteIndexer(new NoteIndex(), List.of(FIRST_NOTE, "data\\test\\noSuchNote.txt"),
+                NoteIndexer.DEFAULT_MAX_BYTES_PER_SECOND);
+        indexer.updateNow();
+    }
+
+    @Test
+    void testUpdateNow() throws IOException {
+        assertEquals(1, indexer.search("milk", 10).size());
+        assertEquals(FIRST_NOTE, indexer.search("milk", 10).get(0).getPath());
+        assertTrue(indexer.search("dog", 10).isEmpty());
+        assertEquals(1, readNumLiveDocuments());
+        assertTrue(indexer.getVersion() > 0);
+    }
+
+    @Test
+    void testUpdateNowUnchanged() {
+        long version = indexer.getVersion();
+        indexer.updateNow();
+        assertEquals(version, indexer.getVersion());
+    }
+
+    @Test
+    void testStartsFromBase() throws IOException {
+        NoteIndex base = new NoteIndex();
+        base.addDocument(FIRST_NOTE, 17, Files.getLastModifiedTime(Paths.get(FIRST_NOTE)).toMillis(), "stale words");
+        base.addDocument("data\\test\\noSuchNote.txt", 1, 1, "gone");
+        NoteIndexer baseIndexer = new NoteIndexer(base, List.of(FIRST_NOTE),
+                NoteIndexer.DEFAULT_MAX_BYTES_PER_SECOND);
+        assertEquals(1, baseIndexer.search("gone", 10).size());
+
+        baseIndexer.updateNow();
+        assertTrue(baseIndexer.search("gone", 10).isEmpty());
+        assertEquals(1, baseIndexer.search("stale", 10).size());
+        assertTrue(baseIndexer.search("milk", 10).isEmpty());
+    }
+
+    @Test
+    void testNoteAddedAndRemoved() {
+        indexer.noteAdded(SECOND_NOTE);
+        indexer.noteAdded(SECOND_NOTE);
+        indexer.update().join();
+        assertEquals(1, indexer.search("dog", 10).size());
+
+        indexer.noteRemoved(SECOND_NOTE);
+        indexer.update().join();
+        assertEquals(1, indexer.search("dog", 10).size());
+
+        indexer.noteRemoved(SECOND_NOTE);
+        indexer.noteRemoved(SECOND_NOTE);
+        indexer.update().join();
+        assertTrue(indexer.search("dog", 10).isEmpty());
+        assertEquals(1, indexer.search("milk", 10).size());
+    }
+
+    @Test
+    void testUpdateChangedNote() throws IOException {
+        Files.writeString(Paths.get(FIRST_NOTE), "Buy bread");
+        indexer.update().join();
+        assertTrue(indexer.search("milk", 10).isEmpty());
+        assertEquals(1, indexer.search("bread", 10).size());
+        assertEquals(1, readNumLiveDocuments());
+    }
+
+    @Test
+    void testUpdateOnlyNotesWithChangedMetadata() throws IOException {
+        Path path = Paths.get(FIRST_NOTE);
+        FileTime lastModified = Files.getLastModifiedTime(path);
+        Files.writeString(path, "Buy milk and beer");
+        Files.setLastModifiedTime(path, lastModified);
+        long version = indexer.getVersion();
+        indexer.update().join();
+        assertEquals(version, indexer.getVersion());
+        assertEquals(1, indexer.search("eggs", 10).size());
+    }
+
+    @Test
+    void testUpdateMetadataOnlyWhenContentsUnchanged() throws IOException {
+        Path path = Paths.get(FIRST_NOTE);
+        FileTime lastModified = FileTime.fromMillis(Files.getLastModifiedTime(path).toMillis() + 60000);
+        Files.setLastModifiedTime(path, lastModified);
+        long version = indexer.getVersion();
+        indexer.update().join();
+        assertTrue(indexer.getVersion() > version);
+        int docId = indexer.search("milk", 10).get(0).getDocId();
+        assertEquals(0, docId);
+        indexer.read(index -> assertEquals(lastModified.toMillis(), index.getLastModified(docId)));
+        indexer.read(index -> assertEquals(1, index.getNumDocuments()));
+    }
+
+    @Test
+    void testNoteDeletedFromDisk() throws IOException {
+        Files.delete(Paths.get(FIRST_NOTE));
+        indexer.update().join();
+        assertTrue(indexer.search("milk", 10).isEmpty());
+        assertEquals(0, readNumLiveDocuments());
+    }
+
+    @Test
+    @SuppressWarnings("methodlength")
+    void testCompaction() throws IOException {
+        List<String> notePaths = new ArrayList<String>();
+        for (int i = 0; i < 100; i++) {
+            String notePath = "data\\test\\testNoteIndexerCompaction" + i + ".txt";
+            Files.writeString(Paths.get(notePath), "note number" + i);
+            notePaths.add(notePath);
+        }
+        NoteIndexer manyIndexer = new NoteIndexer(new NoteIndex(), notePaths, NoteIndexer.DEFAULT_MAX_BYTES_PER_SECOND);
+        manyIndexer.updateNow();
+        for (int i = 0; i < 70; i++) {
+            manyIndexer.noteRemoved(notePaths.get(i));
+        }
+        manyIndexer.update().join();
+
+        manyIndexer.read(index -> {
+            assertEquals(30, index.getNumDocuments());
+            assertEquals(30, index.getNumLiveDocuments());
+            Set<String> paths = new HashSet<String>();
+            for (int docId = 0; docId < index.getNumDocuments(); docId++) {
+                paths.add(index.getPath(docId));
+            }
+            assertEquals(Set.copyOf(notePaths.subList(70, 100)), paths);
+        });
+        assertEquals(30, manyIndexer.search("note", 100).size());
+        assertEquals(1, manyIndexer.search("number99", 10).size());
+        assertTrue(manyIndexer.search("number0", 10).isEmpty());
+    }
+
+    @Test
+    void testUpdateThrottled() throws IOException {
+        Files.writeString(Paths.get(SECOND_NOTE), "word ".repeat(40));
+        NoteIndexer slowIndexer = new NoteIndexer(new NoteIndex(), List.of(SECOND_NOTE), 1000);
+        long start = System.nanoTime();
+        slowIndexer.update().join();
+        assertTrue(System.nanoTime() - start >= 150_000_000L);
+        assertEquals(1, slowIndexer.search("word", 10).size());
+
+        start = System.nanoTime();
+        NoteIndexer fastIndexer = new NoteIndexer(new NoteIndex(), List.of(SECOND_NOTE), 1000);
+        fastIndexer.updateNow();
+        assertTrue(System.nanoTime() - start < 150_000_000L);
+    }
+
+    @Test
+    void testReadThrowsIOException() {
+        try {
+            indexer.read(index -> {
+                throw new IOException();
+            });
+            fail("IOException expected");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    // EFFECTS: returns the number of documents in the index that have not been deleted
+    private int readNumLiveDocuments() throws IOException {
+        int[] numLiveDocuments = new int[1];
+        indexer.read(index -> numLiveDocuments[0] = index.getNumLiveDocuments());
+        return numLiveDocuments[0];
+    }
+}
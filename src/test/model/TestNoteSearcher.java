@@ -0,0 +1,138 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class TestNoteSearcher {
+    NoteIndex index;
+    NoteSearcher searcher;
+
+    @BeforeEach
+    void runBefore() {
+        index = new NoteIndex();
+        index.addDocument("groceries.txt", 0, 0, "Buy milk, eggs, and bread. Milk is on sale.");
+        index.addDocument("homework.txt", 0, 0, "Finish the CPSC 210 project before the deadline");
+        index.addDocument("recipe.txt", 0, 0, "Whisk the eggs with milk and bake the bread for an hour");
+        index.addDocument("journal.txt", 0, 0, "Today I went for a walk and forgot to buy bread");
+        searcher = new NoteSearcher(index);
+    }
+
+    @Test
+    void testSearchNoMatches() {
+        assertTrue(searcher.search("giraffe", 10).isEmpty());
+        assertTrue(searcher.search("", 10).isEmpty());
+        assertTrue(searcher.search("  ,.! ", 10).isEmpty());
+        assertTrue(searcher.search("milk", 0).isEmpty());
+        assertTrue(new NoteSearcher(new NoteIndex()).search("milk", 10).isEmpty());
+    }
+
+    @Test
+    void testSearchOneTerm() {
+        List<NoteSearcher.Hit> hits = searcher.search("MILK", 10);
+        assertEquals(2, hits.size());
+        assertEquals("groceries.txt", hits.get(0).getPath());
+        assertEquals(0, hits.get(0).getDocId());
+        assertEquals("recipe.txt", hits.get(1).getPath());
+        assertTrue(hits.get(0).getScore() > hits.get(1).getScore());
+    }
+
+    @Test
+    void testSearchRarerTermsCountForMore() {
+        // "bread" is in three notes but "walk" only in one, so the note with "walk" ranks first
+        List<NoteSearcher.Hit> hits = searcher.search("bread walk", 10);
+        assertEquals(3, hits.size());
+        assertEquals("journal.txt", hits.get(0).getPath());
+    }
+
+    @Test
+    void testSearchScore() {
+        double idf = Math.log(1 + (4 - 1 + 0.5) / (1 + 0.5));
+        double averageLength = (double) index.getTotalLength() / 4;
+        double norm = NoteSearcher.K1 * (1 - NoteSearcher.B + NoteSearcher.B * 8 / averageLength);
+        double expected = idf * (NoteSearcher.K1 + 1) / (1 + norm);
+        List<NoteSearcher.Hit> hits = searcher.search("deadline", 10);
+        assertEquals(1, hits.size());
+        assertEquals(expected, hits.get(0).getScore(), 1e-9);
+    }
+
+    @Test
+    void testSearchMaxResults() {
+        List<NoteSearcher.Hit> hits = searcher.search("bread", 2);
+        assertEquals(2, hits.size());
+        List<NoteSearcher.Hit> allHits = searcher.search("bread", 10);
+        assertEquals(3, allHits.size());
+        assertEquals(allHits.get(0).getPath(), hits.get(0).getPath());
+        assertEquals(allHits.get(1).getPath(), hits.get(1).getPath());
+    }
+
+    @Test
+    void testSearchTiesInOrderOfId() {
+        NoteIndex tiedIndex = new NoteIndex();
+        for (int i = 0; i < 5; i++) {
+            tiedIndex.addDocument(i + ".txt", 0, 0, "same words");
+        }
+        List<NoteSearcher.Hit> hits = new NoteSearcher(tiedIndex).search("words", 3);
+        assertEquals(3, hits.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(i, hits.get(i).getDocId());
+        }
+    }
+
+    @Test
+    void testSearchPhrase() {
+        List<NoteSearcher.Hit> hits = searcher.search("\"buy milk\"", 10);
+        assertEquals(1, hits.size());
+        assertEquals("groceries.txt", hits.get(0).getPath());
+
+        hits = searcher.search("\"milk buy\"", 10);
+        assertTrue(hits.isEmpty());
+        hits = searcher.search("\"the bread\"", 10);
+        assertEquals(1, hits.size());
+        assertEquals("recipe.txt", hits.get(0).getPath());
+    }
+
+    @Test
+    void testSearchPhraseTermNotInIndex() {
+        assertTrue(searcher.search("milk \"buy giraffes\"", 10).isEmpty());
+    }
+
+    @Test
+    void testSearchPhraseWithOtherTerms() {
+        // every hit must have the phrase, but the other terms still affect the ranking
+        List<NoteSearcher.Hit> hits = searcher.search("\"the eggs\" hour", 10);
+        assertEquals(1, hits.size());
+        assertEquals("recipe.txt", hits.get(0).getPath());
+
+        hits = searcher.search("walk \"buy\"", 10);
+        assertEquals(2, hits.size());
+        assertEquals("journal.txt", hits.get(0).getPath());
+        assertEquals("groceries.txt", hits.get(1).getPath());
+    }
+
+    @Test
+    void testSearchSeveralPhrases() {
+        assertEquals(1, searcher.search("\"eggs and\" \"is on sale\"", 10).size());
+        assertTrue(searcher.search("\"eggs and\" \"went for\"", 10).isEmpty());
+    }
+
+    @Test
+    void testSearchUnterminatedPhrase() {
+        List<NoteSearcher.Hit> hits = searcher.search("bread \"forgot to", 10);
+        assertEquals(1, hits.size());
+        assertEquals("journal.txt", hits.get(0).getPath());
+    }
+
+    @Test
+    void testSearchPhraseWithRepeatedTerm() {
+        NoteIndex repeatedIndex = new NoteIndex();
+        repeatedIndex.addDocument("a.txt", 0, 0, "very very good");
+        repeatedIndex.addDocument("b.txt", 0, 0, "very good very");
+        List<NoteSearcher.Hit> hits = new NoteSearcher(repeatedIndex).search("\"very very\"", 10);
+        assertEquals(1, hits.size());
+        assertEquals("a.txt", hits.get(0).getPath());
+    }
+}
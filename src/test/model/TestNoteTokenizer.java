@@ -0,0 +1,42 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class TestNoteTokenizer {
+    @Test
+    void testTokenizeEmpty() {
+        assertTrue(NoteTokenizer.tokenize("").isEmpty());
+        assertTrue(NoteTokenizer.tokenize("  --- !?\n\t").isEmpty());
+    }
+
+    @Test
+    void testTokenizeSplitsAndLowerCases() {
+        assertEquals(List.of("buy", "milk", "and", "2", "eggs"), NoteTokenizer.tokenize("Buy MILK, and 2 eggs!"));
+        assertEquals(List.of("cpsc", "210", "notes"), NoteTokenizer.tokenize("CPSC-210\nnotes"));
+    }
+
+    @Test
+    void testTokenizeLettersOtherThanEnglish() {
+        assertEquals(List.of("caf\u00e9", "\u00fcber", "\u65e5\u672c"), // an accented e, a u with an umlaut, "Japan"
+                NoteTokenizer.tokenize("Caf\u00e9 \u00dcBER \u65e5\u672c")); // the same, capitalized
+    }
+
+    @Test
+    void testTokenizeLongTerm() {
+        String longTerm = "a".repeat(NoteTokenizer.MAX_TERM_LENGTH + 10);
+        List<String> terms = NoteTokenizer.tokenize(longTerm + " b");
+        assertEquals(List.of("a".repeat(NoteTokenizer.MAX_TERM_LENGTH), "b"), terms);
+    }
+
+    @Test
+    void testTokenizeLongTermDoesNotSplitSurrogatePair() {
+        String longTerm = "a".repeat(NoteTokenizer.MAX_TERM_LENGTH - 1) + "\ud835\udc00" + "a"; // a surrogate pair
+        List<String> terms = NoteTokenizer.tokenize(longTerm);
+        assertEquals(1, terms.size());
+        assertEquals("a".repeat(NoteTokenizer.MAX_TERM_LENGTH - 1), terms.get(0));
+    }
+}
@@ -0,0 +1,167 @@
+package model.jfr;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import model.FileSystem;
+import model.exceptions.InvalidLabelQueryException;
+import model.exceptions.NameIsTakenException;
+import model.exceptions.NoSuchFileFoundException;
+import model.exceptions.NoSuchFolderFoundException;
+import model.exceptions.NoSuchLabelFoundException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class TestModelEvents {
+    private static final String RECORDING_PATH = "data\\test\\testModelEvents.jfr";
+
+    @Test
+    @SuppressWarnings("methodlength")
+    void testMutationsAndOpens() {
+        List<RecordedEvent> events = record(new Recording(), () -> {
+            FileSystem fileSystem = createFileSystem();
+            fileSystem.openFolder("School");
+            fileSystem.goUpOneDirectoryLevel();
+            fileSystem.openLabel("Urgent");
+            fileSystem.openLabelQuery("Urgent AND NOT Urgent");
+            fileSystem.openRootFolder();
+        });
+
+        List<RecordedEvent> mutations = getEvents(events, "pine.FileSystemMutation");
+        assertEquals(List.of("FOLDER_CREATED", "LABEL_CREATED", "FILE_CREATED", "FILE_CREATED", "FILE_LABELLED"),
+                mutations.stream().map(event -> event.getString("operation")).collect(Collectors.toList()));
+        assertEquals("Urgent", mutations.get(1).getString("name"));
+        assertEquals(0, mutations.get(1).getInt("labelledFileCount"));
+        assertEquals(-1, mutations.get(2).getInt("labelledFileCount"));
+        assertEquals(3, mutations.get(3).getInt("childCount"));
+        assertEquals(1, mutations.get(4).getInt("labelledFileCount"));
+
+        List<RecordedEvent> folderOpens = getEvents(events, "pine.FolderOpen");
+        assertEquals(List.of("root\\School\\", "root\\", "root\\"),
+                folderOpens.stream().map(event -> event.getString("path")).collect(Collectors.toList()));
+        assertEquals(1, folderOpens.get(1).getInt("subfolderCount"));
+        assertEquals(2, folderOpens.get(1).getInt("subfileCount"));
+        assertEquals(0, folderOpens.get(0).getInt("subfileCount"));
+
+        List<RecordedEvent> labelOpens = getEvents(events, "pine.LabelOpen");
+        assertEquals(2, labelOpens.size());
+        assertEquals("Urgent", labelOpens.get(0).getString("name"));
+        assertFalse(labelOpens.get(0).getBoolean("query"));
+        assertEquals(1, labelOpens.get(0).getInt("labelledFileCount"));
+        assertTrue(labelOpens.get(1).getBoolean("query"));
+        assertEquals(0, labelOpens.get(1).getInt("labelledFileCount"));
+
+        assertTrue(getEvents(events, "pine.FolderLookup").isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("methodlength")
+    void testLookupsOnlyWhenEnabled() {
+        Recording recording;
+        try {
+            recording = new Recording(Configuration.getConfiguration("default"));
+        } catch (IOException | ParseException e) {
+            fail();
+            return;
+        }
+        List<RecordedEvent> events = record(recording, () -> createFileSystem().openFolder("School"));
+        assertFalse(getEvents(events, "pine.FileSystemMutation").isEmpty());
+        assertTrue(getEvents(events, "pine.FolderLookup").isEmpty());
+
+        recording = new Recording();
+        recording.enable(FolderLookupEvent.class);
+        events = record(recording, () -> {
+            FileSystem fileSystem = createFileSystem();
+            fileSystem.openFolder("School");
+            try {
+                fileSystem.openFolder("No Such Folder");
+                fail("NoSuchFolderFoundException expected");
+            } catch (NoSuchFolderFoundException e) {
+                // expected
+            }
+        });
+        List<RecordedEvent> lookups = getEvents(events, "pine.FolderLookup");
+        RecordedEvent found = lookups.get(lookups.size() - 2);
+        assertEquals("root", found.getString("folder"));
+        assertEquals("School", found.getString("name"));
+        assertTrue(found.getBoolean("subfolder"));
+        assertEquals(1, found.getInt("childCount"));
+        assertTrue(found.getBoolean("found"));
+        assertFalse(lookups.get(lookups.size() - 1).getBoolean("found"));
+    }
+
+    @Test
+    void testDesktopOpen() {
+        String filePath = "data\\test\\File for testing.txt";
+        List<RecordedEvent> events = record(new Recording(), () -> {
+            DesktopOpenEvent event = new DesktopOpenEvent();
+            event.begin();
+            event.commit(filePath);
+        });
+        List<RecordedEvent> opens = getEvents(events, "pine.DesktopOpen");
+        assertEquals(1, opens.size());
+        assertEquals(filePath, opens.get(0).getString("filePath"));
+        assertEquals(new java.io.File(filePath).length(), opens.get(0).getLong("fileSize"));
+    }
+
+
+    // Helper Methods:
+
+    // Represents something done while recording that may throw any of the exceptions the file system throws
+    private interface Workload {
+        void run() throws NameIsTakenException, NoSuchFileFoundException, NoSuchFolderFoundException,
+                NoSuchLabelFoundException, InvalidLabelQueryException;
+    }
+
+    // EFFECTS: returns a file system with a Folder named "School" (with nothing in it), a Label named "Urgent", and
+    // two Files, one of which is labelled "Urgent"
+    private FileSystem createFileSystem() throws NameIsTakenException, NoSuchFileFoundException,
+            NoSuchLabelFoundException {
+        FileSystem fileSystem = new FileSystem();
+        fileSystem.createFolder("School");
+        fileSystem.createLabel("Urgent");
+        fileSystem.createFile("Essay", "C:\\Essay.txt");
+        fileSystem.createFile("Notes", "C:\\Notes.txt");
+        fileSystem.labelFile("Essay", "Urgent");
+        return fileSystem;
+    }
+
+    // MODIFIES: recording
+    // EFFECTS: runs workload while recording with recording (whose settings leave every event that is not mentioned
+    // in them as its annotations say) and returns the events from this package that were recorded
+    private List<RecordedEvent> record(Recording recording, Workload workload) {
+        Path file = Paths.get(RECORDING_PATH);
+        try (recording) {
+            recording.start();
+            workload.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().startsWith("pine."))
+                    .collect(Collectors.toList());
+        } catch (IOException | NameIsTakenException | NoSuchFileFoundException | NoSuchFolderFoundException
+                | NoSuchLabelFoundException | InvalidLabelQueryException e) {
+            fail();
+            return null;
+        }
+    }
+
+    // EFFECTS: returns the events named name in events, in the order they were recorded
+    private List<RecordedEvent> getEvents(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+                .collect(Collectors.toList());
+    }
+}
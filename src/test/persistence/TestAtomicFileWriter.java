@@ -0,0 +1,88 @@
+package persistence;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.stream.Stream;
+
+public class TestAtomicFileWriter {
+    @Test
+    void testWrite() {
+        try {
+            String filePath = "data\\test\\testAtomicFileWriterWrite.txt";
+            Files.writeString(Paths.get(filePath), "Before");
+            AtomicFileWriter.write(filePath, "After".getBytes(StandardCharsets.UTF_8));
+            assertEquals("After", Files.readString(Paths.get(filePath)));
+            assertFalse(hasTemporaryFile(filePath));
+        } catch (IOException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testAbortLeavesDestination() {
+        try {
+            String filePath = "data\\test\\testAtomicFileWriterAbort.txt";
+            Files.writeString(Paths.get(filePath), "Before");
+            AtomicFileWriter writer = new AtomicFileWriter(filePath);
+            writeString(writer.open(), "After");
+            assertTrue(hasTemporaryFile(filePath));
+
+            writer.abort();
+            assertEquals("Before", Files.readString(Paths.get(filePath)));
+            assertFalse(hasTemporaryFile(filePath));
+        } catch (IOException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testFailedCommitLeavesDestination() {
+        try {
+            String directoryPath = "data\\test\\testAtomicFileWriterCommit";
+            Path keptFile = Paths.get(directoryPath, "kept.txt");
+            Files.createDirectories(Paths.get(directoryPath));
+            Files.writeString(keptFile, "Before");
+            AtomicFileWriter writer = new AtomicFileWriter(directoryPath);
+            writeString(writer.open(), "After");
+
+            assertThrows(IOException.class, writer::commit);
+            assertTrue(Files.isDirectory(Paths.get(directoryPath)));
+            assertEquals("Before", Files.readString(keptFile));
+            assertFalse(hasTemporaryFile(directoryPath));
+        } catch (IOException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testOpenInvalidPath() {
+        assertThrows(IOException.class, () -> new AtomicFileWriter("data\\test\\invalid\u0000.txt").open()); // a NUL
+    }
+
+    // MODIFIES: channel
+    // EFFECTS: writes string to channel, encoded as UTF-8
+    private void writeString(FileChannel channel, String string) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(string.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    // EFFECTS: returns true if there is a temporary file left beside the file at filePath by an AtomicFileWriter
+    private boolean hasTemporaryFile(String filePath) throws IOException {
+        Path destination = Paths.get(filePath).toAbsolutePath();
+        String prefix = destination.getFileName() + ".";
+        try (Stream<Path> siblings = Files.list(destination.getParent())) {
+            return siblings.anyMatch(sibling -> sibling.getFileName().toString().startsWith(prefix)
+                    && sibling.getFileName().toString().endsWith(".tmp"));
+        }
+    }
+}
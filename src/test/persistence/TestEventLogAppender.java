@@ -0,0 +1,145 @@
+package persistence;
+
+import model.Event;
+import model.EventLog;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class TestEventLogAppender {
+    @Test
+    void testFlushWritesEvents() {
+        String directoryPath = emptyDirectory("data\\test\\testAppenderFlush");
+        EventLogAppender appender = new EventLogAppender(EventLog.getInstance(), directoryPath);
+        EventLog.getInstance().logEvent(new Event(Event.Operation.FILE_CREATED, "Notes"));
+        EventLog.getInstance().logEvent(new Event(Event.Operation.FILE_RENAMED, "Notes", "Tab\there\\"));
+        appender.flush();
+
+        List<String> lines = readLines(appender.getFilePath());
+        assertEquals(2, lines.size());
+        String[] fields = lines.get(0).split("\t", -1);
+        assertEquals(5, fields.length);
+        assertEquals("FILE_CREATED", fields[2]);
+        assertEquals("Notes", fields[3]);
+        assertEquals("", fields[4]);
+        assertTrue(lines.get(1).endsWith("\tFILE_RENAMED\tNotes\tTab\\there\\\\"));
+        assertEquals(2, appender.getNumWritten());
+        assertEquals(0, appender.getNumDropped());
+
+        appender.flush();
+        assertEquals(2, readLines(appender.getFilePath()).size());
+        appender.close();
+    }
+
+    @Test
+    void testOnlyWritesEventsLoggedAfterConstruction() {
+        String directoryPath = emptyDirectory("data\\test\\testAppenderAfterConstruction");
+        EventLog.getInstance().logEvent(new Event(Event.Operation.FOLDER_CREATED, "Before"));
+        EventLogAppender appender = new EventLogAppender(EventLog.getInstance(), directoryPath);
+        EventLog.getInstance().logEvent(new Event(Event.Operation.FOLDER_CREATED, "After"));
+        appender.close();
+
+        List<String> lines = readLines(appender.getFilePath());
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).endsWith("\tFOLDER_CREATED\tAfter\t"));
+    }
+
+    @Test
+    void testBackgroundThreadWritesEvents() {
+        String directoryPath = emptyDirectory("data\\test\\testAppenderBackground");
+        EventLogAppender appender = new EventLogAppender(EventLog.getInstance(), directoryPath,
+                EventLogAppender.DEFAULT_MAX_FILE_BYTES, EventLogAppender.DEFAULT_MAX_ROTATED_FILES, 10);
+        appender.start();
+        appender.start();
+        EventLog.getInstance().logEvent(new Event(Event.Operation.LABEL_CREATED, "School"));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (appender.getNumWritten() < 1 && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(1, appender.getNumWritten());
+        appender.close();
+        assertEquals(1, readLines(appender.getFilePath()).size());
+    }
+
+    @Test
+    void testRotation() {
+        String directoryPath = emptyDirectory("data\\test\\testAppenderRotation");
+        EventLogAppender appender = new EventLogAppender(EventLog.getInstance(), directoryPath, 100, 2, 1000);
+        for (int i = 0; i < 20; i++) {
+            EventLog.getInstance().logEvent(new Event(Event.Operation.FILE_CREATED, "File " + i));
+        }
+        appender.close();
+
+        Path directory = Paths.get(directoryPath);
+        assertTrue(Files.exists(directory.resolve(EventLogFile.FILE_NAME)));
+        assertTrue(Files.exists(directory.resolve(EventLogFile.rotatedFileName(1))));
+        assertTrue(Files.exists(directory.resolve(EventLogFile.rotatedFileName(2))));
+        assertFalse(Files.exists(directory.resolve(EventLogFile.rotatedFileName(3))));
+        try {
+            assertTrue(Files.size(directory.resolve(EventLogFile.rotatedFileName(1))) <= 100);
+        } catch (IOException e) {
+            fail();
+        }
+        List<String> lines = readLines(directory.resolve(EventLogFile.FILE_NAME));
+        assertTrue(lines.get(lines.size() - 1).endsWith("\tFile 19\t"));
+        assertEquals(20, appender.getNumWritten());
+    }
+
+    @Test
+    void testDropsOverwrittenEvents() {
+        String directoryPath = emptyDirectory("data\\test\\testAppenderDrops");
+        EventLogAppender appender = new EventLogAppender(EventLog.getInstance(), directoryPath,
+                Long.MAX_VALUE, 0, 1000);
+        int numLogged = EventLog.getInstance().getCapacity() + 10;
+        for (int i = 0; i < numLogged; i++) {
+            EventLog.getInstance().logEvent(new Event(Event.Operation.FOLDER_OPENED, "Folder"));
+        }
+        appender.close();
+
+        assertEquals(10, appender.getNumDropped());
+        assertEquals(EventLog.getInstance().getCapacity(), appender.getNumWritten());
+    }
+
+    @Test
+    void testInvalidDirectoryDropsEvents() {
+        EventLogAppender appender = new EventLogAppender(EventLog.getInstance(), "data\\my\0illegal:directory");
+        EventLog.getInstance().logEvent(new Event(Event.Operation.FILE_DELETED, "Notes"));
+        appender.close();
+
+        assertEquals(0, appender.getNumWritten());
+        assertEquals(1, appender.getNumDropped());
+    }
+
+
+    // Helper Methods:
+
+    // EFFECTS: deletes the log files in directoryPath, if there are any, and returns directoryPath
+    private String emptyDirectory(String directoryPath) {
+        try (Stream<Path> files = Files.list(Paths.get(directoryPath))) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        } catch (IOException e) {
+            // the directory does not exist yet
+        }
+        return directoryPath;
+    }
+
+    // EFFECTS: returns the lines of the file at filePath
+    private List<String> readLines(Path filePath) {
+        try {
+            return Files.readAllLines(filePath);
+        } catch (IOException e) {
+            fail();
+            return null;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package persistence;
+
+import model.Event;
+import model.EventLog;
+import model.EventQuery;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class TestEventLogReader {
+    static final long START = 1_700_000_000_000L;
+    static final long MINUTE = 60 * 1000;
+
+    @Test
+    void testQueryNoLogFiles() {
+        EventLogReader reader = new EventLogReader("data\\test\\testLogReaderNoSuchDirectory");
+        try {
+            assertTrue(reader.getFilesOldestFirst().isEmpty());
+            assertEquals(0, reader.query(new EventQuery()).count());
+        } catch (IOException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testQueryByTimeAcrossRotatedFiles() {
+        String directoryPath = writeLog("data\\test\\testLogReaderRotated", 200);
+        EventLogReader reader = new EventLogReader(directoryPath);
+        try {
+            assertTrue(reader.getFilesOldestFirst().size() > 1);
+            assertEquals(Paths.get(directoryPath, EventLogFile.FILE_NAME),
+                    reader.getFilesOldestFirst().get(reader.getFilesOldestFirst().size() - 1));
+
+            assertEquals(List.of("Notes 10", "Notes 11", "Notes 12"),
+                    getSubjects(reader.query(new EventQuery().between(START + 10 * MINUTE, START + 13 * MINUTE))));
+            assertEquals(30, reader.query(new EventQuery()).count());
+            assertEquals(List.of("Notes 29"),
+                    getSubjects(reader.query(new EventQuery().between(START + 29 * MINUTE, Long.MAX_VALUE))));
+        } catch (IOException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testQueryByKindAndName() {
+        String directoryPath = writeLog("data\\test\\testLogReaderKind", EventLogAppender.DEFAULT_MAX_FILE_BYTES);
+        EventLogReader reader = new EventLogReader(directoryPath);
+        try {
+            List<Event> opens = reader.query(new EventQuery().ofKind(Event.Kind.OPENED).about("notes 4"))
+                    .collect(Collectors.toList());
+            assertEquals(1, opens.size());
+            assertEquals(Event.Operation.FILE_OPENED, opens.get(0).getOperation());
+            assertEquals(START + 4 * MINUTE, opens.get(0).getMillis());
+            assertEquals("C:\\Notes\t4.txt", opens.get(0).getDetail());
+
+            assertEquals(10, reader.query(new EventQuery().ofKind(Event.Kind.OPENED)).count());
+            assertEquals(0, reader.query(new EventQuery().ofKind(Event.Kind.DELETED)).count());
+            assertEquals(List.of("Notes 0", "Notes 3"),
+                    getSubjects(reader.query(new EventQuery().ofKind(Event.Kind.LABELLED).about("School"))
+                            .filter(event -> event.getMillis() < START + 5 * MINUTE)));
+        } catch (IOException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testQuerySkipsMalformedLines() {
+        String directoryPath = writeLog("data\\test\\testLogReaderMalformed", EventLogAppender.DEFAULT_MAX_FILE_BYTES);
+        Path file = Paths.get(directoryPath, EventLogFile.FILE_NAME);
+        try {
+            Files.write(file, ("not an event\n" + (START + 40 * MINUTE) + "\t1\tNO_SUCH_OPERATION\ta\t\n"
+                    + (START + 41 * MINUTE) + "\t2\tFILE_CREATED\tbad\\escape\t\n"
+                    + (START + 42 * MINUTE) + "\t3\tFILE_CREATED\tTorn\t").getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.APPEND);
+
+            EventLogReader reader = new EventLogReader(directoryPath);
+            assertEquals(30, reader.query(new EventQuery()).count());
+            assertEquals(0, reader.query(new EventQuery().between(START + 30 * MINUTE, Long.MAX_VALUE)).count());
+
+            Files.write(file, "\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+            assertEquals(List.of("Torn"),
+                    getSubjects(reader.query(new EventQuery().between(START + 30 * MINUTE, Long.MAX_VALUE))));
+        } catch (IOException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testQueryClosesFiles() {
+        String directoryPath = writeLog("data\\test\\testLogReaderClose", 200);
+        EventLogReader reader = new EventLogReader(directoryPath);
+        try (Stream<Event> events = reader.query(new EventQuery())) {
+            assertEquals("Notes 0", events.findFirst().get().getSubject());
+        } catch (IOException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testParseLine() {
+        Event event = new Event(5, START, Event.Operation.FILE_RENAMED, "a\\b\tc", "d\r\ne");
+        Event parsed = EventLogFile.parseLine(EventLogFile.formatLine(event).trim());
+        assertEquals(event, parsed);
+        assertEquals(5, parsed.getSequence());
+        assertNull(EventLogFile.parseLine(START + "\t5\tFILE_CREATED\ta\\"));
+        assertNull(EventLogFile.parseLine("x\t5\tFILE_CREATED\ta\t"));
+        assertNull(EventLogFile.parseLine(START + "\t5\tFILE_CREATED"));
+    }
+
+
+    // Helper Methods:
+
+    // EFFECTS: writes 30 events, a minute apart, to log files in directoryPath (deleting any that are already there)
+    // that are rotated once they would grow past maxFileBytes, and returns directoryPath. Every third event is the
+    // opening of a file, every third the labelling of a file, and the rest the creation of a file, and event i is about
+    // "Notes i"
+    private String writeLog(String directoryPath, long maxFileBytes) {
+        try (Stream<Path> files = Files.list(Paths.get(directoryPath))) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        } catch (IOException e) {
+            // the directory does not exist yet
+        }
+
+        EventLogAppender appender = new EventLogAppender(EventLog.getInstance(), directoryPath, maxFileBytes, 100,
+                1000);
+        for (int i = 0; i < 30; i++) {
+            String name = "Notes " + i;
+            long millis = START + i * MINUTE;
+            Event event;
+            if (i % 3 == 1) {
+                event = new Event(0, millis, Event.Operation.FILE_OPENED, name, "C:\\Notes\t" + i + ".txt");
+            } else if (i % 3 == 0) {
+                event = new Event(0, millis, Event.Operation.FILE_LABELLED, name, "School");
+            } else {
+                event = new Event(0, millis, Event.Operation.FILE_CREATED, name, null);
+            }
+            EventLog.getInstance().logEvent(event);
+        }
+        appender.close();
+        return directoryPath;
+    }
+
+    // EFFECTS: returns the subjects of the events in events, in order
+    private List<String> getSubjects(Stream<Event> events) {
+        return events.map(Event::getSubject).collect(Collectors.toList());
+    }
+}
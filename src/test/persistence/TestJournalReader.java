@@ -0,0 +1,96 @@
+package persistence;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+public class TestJournalReader {
+    @Test
+    void testReaderNonExistentFile() {
+        try {
+            assertTrue(new JournalReader("data\\noSuchFile.journal").read().isEmpty());
+        } catch (IOException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testReaderRoundTrip() {
+        try {
+            List<JournalEntry> entries = writeJournal("data\\test\\testJournalRoundTrip.journal");
+            assertEquals(2, entries.size());
+
+            assertEquals(1, entries.get(0).getSequence());
+            assertEquals(JournalEntry.CREATE_FILE, entries.get(0).getType());
+            assertEquals(List.of("Education", "Caf\u00e9"), entries.get(0).getFolderPath()); // an accented e
+            assertEquals(List.of("Notes", "C:\\Notes.txt"), entries.get(0).getArguments());
+
+            assertEquals(2, entries.get(1).getSequence());
+            assertEquals(JournalEntry.CREATE_LABEL, entries.get(1).getType());
+            assertTrue(entries.get(1).getFolderPath().isEmpty());
+            assertEquals("School", entries.get(1).getArgument(0));
+        } catch (IOException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testReaderStopsAtTornRecord() {
+        try {
+            String filePath = "data\\test\\testJournalTorn.journal";
+            writeJournal(filePath);
+            byte[] bytes = Files.readAllBytes(Paths.get(filePath));
+            Files.write(Paths.get(filePath), new byte[] {0, 0, 0, 8, 0, 0, 0, 0, 1, 2, 3},
+                    StandardOpenOption.APPEND);
+            assertEquals(2, new JournalReader(filePath).read().size());
+
+            bytes[bytes.length - 1]++;
+            Files.write(Paths.get(filePath), bytes);
+            assertEquals(1, new JournalReader(filePath).read().size());
+        } catch (IOException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testWriterClear() {
+        try {
+            String filePath = "data\\test\\testJournalClear.journal";
+            JournalWriter journalWriter = new JournalWriter(filePath);
+            journalWriter.open();
+            journalWriter.append(new JournalEntry(1, JournalEntry.CREATE_LABEL, List.of(), List.of("School")));
+            assertTrue(journalWriter.size() > 0);
+            journalWriter.clear();
+            assertEquals(0, journalWriter.size());
+            journalWriter.append(new JournalEntry(2, JournalEntry.DELETE_LABEL, List.of(), List.of("School")));
+            journalWriter.close();
+
+            List<JournalEntry> entries = new JournalReader(filePath).read();
+            assertEquals(1, entries.size());
+            assertEquals(JournalEntry.DELETE_LABEL, entries.get(0).getType());
+        } catch (IOException e) {
+            fail();
+        }
+    }
+
+
+    // Helper Methods:
+
+    // EFFECTS: replaces the journal at filePath with two entries and returns what JournalReader reads back from it
+    private List<JournalEntry> writeJournal(String filePath) throws IOException {
+        Files.deleteIfExists(Paths.get(filePath));
+        JournalWriter journalWriter = new JournalWriter(filePath);
+        journalWriter.open();
+        List<String> folderPath = List.of("Education", "Caf\u00e9"); // an accented e
+        journalWriter.append(new JournalEntry(1, JournalEntry.CREATE_FILE, folderPath,
+                List.of("Notes", "C:\\Notes.txt")));
+        journalWriter.append(new JournalEntry(2, JournalEntry.CREATE_LABEL, List.of(), List.of("School")));
+        journalWriter.close();
+        return new JournalReader(filePath).read();
+    }
+}
@@ -167,6 +167,35 @@ public class TestJsonReader {
         assertThrows(InvalidJsonException.class, () -> jsonReader10.read());
     }
 
+    @Test
+    void testReaderOutOfOrder() {
+        JsonReader jsonReader = new JsonReader("data\\test\\testReaderOutOfOrderFileSystem.json");
+
+        FileSystem fileSystem = null;
+        try {
+            fileSystem = jsonReader.read();
+        } catch (IOException | InvalidJsonException e) {
+            fail("Read of premade JSON file failed");
+        }
+
+        assertEquals("CPSC 210", fileSystem.getCurrentFolderName());
+        assertEquals(List.of("test"), fileSystem.getNamesOfRecentlyOpenedFiles());
+        assertEquals(List.of("Education"), fileSystem.getNamesOfRecentlyOpenedFolders());
+        assertEquals(List.of("School"), fileSystem.getNamesOfRecentlyOpenedLabels());
+        try {
+            fileSystem.openLabel("School");
+        } catch (NoSuchLabelFoundException e) {
+            fail();
+        }
+        assertEquals(List.of("test"), fileSystem.getNamesOfSubfiles());
+    }
+
+    @Test
+    void testReaderMalformedJson() {
+        JsonReader jsonReader = new JsonReader("data\\test\\testReaderMalformed.json");
+        assertThrows(InvalidJsonException.class, () -> jsonReader.read());
+    }
+
     @Test
     void testReaderLabelOpen() {
         JsonReader jsonReader = new JsonReader("data\\test\\testReaderRegularFileSystemSchoolLabelOpen.json");
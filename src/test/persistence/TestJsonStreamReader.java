@@ -0,0 +1,109 @@
+package persistence;
+
+import persistence.exceptions.InvalidJsonException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+public class TestJsonStreamReader {
+    @Test
+    void testReadObject() {
+        JsonStreamReader reader = new JsonStreamReader(new StringReader(
+                " { \"a\" : \"b\", \"n\": -12, \"skipped\": {\"x\": [1, true, null, {}]}, \"list\": [\"c\", 3.5] } "));
+        try {
+            reader.beginObject();
+            assertTrue(reader.hasNext());
+            assertEquals("a", reader.nextName());
+            assertEquals("b", reader.nextString());
+            assertEquals("n", reader.nextName());
+            assertEquals(-12, reader.nextLong());
+            assertEquals("skipped", reader.nextName());
+            reader.skipValue();
+            assertEquals("list", reader.nextName());
+            reader.beginArray();
+            assertEquals("c", reader.nextString());
+            assertEquals(3, reader.nextLong());
+            assertFalse(reader.hasNext());
+            reader.endArray();
+            assertFalse(reader.hasNext());
+            reader.endObject();
+        } catch (IOException | InvalidJsonException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testReadEscapes() {
+        JsonStreamReader reader = new JsonStreamReader(new StringReader(
+                "[\"quote\\\" backslash\\\\ slash\\/ newline\\n tab\\t accent\\u00e9\"]"));
+        try {
+            reader.beginArray();
+            String accented = "accent\u00e9"; // ends with an e with an acute accent
+            assertEquals("quote\" backslash\\ slash/ newline\n tab\t " + accented, reader.nextString());
+            reader.endArray();
+        } catch (IOException | InvalidJsonException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testReadWhatWasWritten() {
+        StringBuilder longString = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            longString.append(i % 7 == 0 ? '"' : 'x');
+        }
+        StringWriter stringWriter = new StringWriter();
+        JsonStreamWriter writer = new JsonStreamWriter(stringWriter, 4);
+        try {
+            writer.beginObject().name("long").value(longString.toString()).name("empty").beginArray().endArray();
+            writer.endObject();
+
+            JsonStreamReader reader = new JsonStreamReader(new StringReader(stringWriter.toString()));
+            reader.beginObject();
+            assertEquals("long", reader.nextName());
+            assertEquals(longString.toString(), reader.nextString());
+            assertEquals("empty", reader.nextName());
+            reader.beginArray();
+            assertFalse(reader.hasNext());
+            reader.endArray();
+            reader.endObject();
+        } catch (IOException | InvalidJsonException e) {
+            fail();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("methodlength")
+    void testMalformed() {
+        assertThrows(InvalidJsonException.class, () -> {
+            JsonStreamReader reader = new JsonStreamReader(new StringReader("{\"a\" \"b\"}"));
+            reader.beginObject();
+            reader.nextName();
+        });
+        assertThrows(InvalidJsonException.class, () -> {
+            JsonStreamReader reader = new JsonStreamReader(new StringReader("[1 2]"));
+            reader.beginArray();
+            reader.nextLong();
+            reader.nextLong();
+        });
+        assertThrows(InvalidJsonException.class, () -> {
+            JsonStreamReader reader = new JsonStreamReader(new StringReader("[\"unterminated"));
+            reader.beginArray();
+            reader.nextString();
+        });
+        assertThrows(InvalidJsonException.class, () -> {
+            JsonStreamReader reader = new JsonStreamReader(new StringReader("[\"a\""));
+            reader.beginArray();
+            reader.nextString();
+            reader.hasNext();
+        });
+        assertThrows(InvalidJsonException.class, () -> {
+            JsonStreamReader reader = new JsonStreamReader(new StringReader("{\"a\": \"b\"}"));
+            reader.beginArray();
+        });
+    }
+}
@@ -0,0 +1,97 @@
+package persistence;
+
+import model.FileSystem;
+import model.exceptions.NameIsTakenException;
+import model.exceptions.NoSuchFileFoundException;
+import model.exceptions.NoSuchFolderFoundException;
+import model.exceptions.NoSuchLabelFoundException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+public class TestJsonStreamWriter {
+    @Test
+    void testCompact() {
+        StringWriter stringWriter = new StringWriter();
+        JsonStreamWriter writer = new JsonStreamWriter(stringWriter, 0);
+        try {
+            writer.beginObject();
+            writer.name("a").value("b");
+            writer.name("n").value(-12);
+            writer.name("empty").beginArray().endArray();
+            writer.name("list").beginArray().value(1).beginObject().endObject().endArray();
+            writer.endObject();
+        } catch (IOException e) {
+            fail();
+        }
+        assertEquals("{\"a\":\"b\",\"n\":-12,\"empty\":[],\"list\":[1,{}]}", stringWriter.toString());
+    }
+
+    @Test
+    void testIndented() {
+        StringWriter stringWriter = new StringWriter();
+        JsonStreamWriter writer = new JsonStreamWriter(stringWriter, 2);
+        try {
+            writer.beginObject();
+            writer.name("a").value("b");
+            writer.name("list").beginArray().value(1).value(2).endArray();
+            writer.name("empty").beginObject().endObject();
+            writer.endObject();
+        } catch (IOException e) {
+            fail();
+        }
+        assertEquals("{\n  \"a\": \"b\",\n  \"list\": [\n    1,\n    2\n  ],\n  \"empty\": {}\n}",
+                stringWriter.toString());
+    }
+
+    @Test
+    void testEscaping() {
+        String tricky = "quote\" backslash\\ newline\n tab\t"
+                + " bell\u0007 separator\u2028 accent\u00e9"; // a bell, a line separator, and an e with an acute accent
+        StringWriter stringWriter = new StringWriter();
+        JsonStreamWriter writer = new JsonStreamWriter(stringWriter, 0);
+        try {
+            writer.beginArray().value(tricky).endArray();
+        } catch (IOException e) {
+            fail();
+        }
+        assertFalse(stringWriter.toString().contains("\n"));
+        assertEquals(tricky, new JSONArray(stringWriter.toString()).getString(0));
+    }
+
+    @Test
+    @SuppressWarnings("methodlength")
+    void testFileSystemSameAsToJson() {
+        FileSystem fileSystem = new FileSystem();
+        try {
+            fileSystem.createLabel("School");
+            fileSystem.createFolder("Education");
+            fileSystem.openFolder("Education");
+            fileSystem.createFolder("CPSC 210");
+            fileSystem.createFile("test", "C:\\test \"quoted\".txt");
+            fileSystem.labelFile("test", "School");
+            fileSystem.openFileButNotOnComputerEvenIfNoLongerValid("test");
+            fileSystem.openFolder("CPSC 210");
+            fileSystem.openLabel("School");
+        } catch (NameIsTakenException | NoSuchFolderFoundException | NoSuchFileFoundException
+                | NoSuchLabelFoundException e) {
+            fail();
+        }
+
+        for (int indentFactor : new int[] {0, 4}) {
+            StringWriter stringWriter = new StringWriter();
+            try {
+                fileSystem.writeJson(new JsonStreamWriter(stringWriter, indentFactor));
+            } catch (IOException e) {
+                fail();
+            }
+            assertTrue(fileSystem.toJson().similar(new JSONObject(stringWriter.toString())));
+        }
+    }
+}
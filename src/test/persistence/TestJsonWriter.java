@@ -80,6 +80,51 @@ public class TestJsonWriter {
         }
     }
 
+    @Test
+    void testJsonWriterCompact() {
+        try {
+            FileSystem fileSystem = new FileSystem();
+            createRegularFileSystem(fileSystem);
+
+            JsonWriter jsonWriter = new JsonWriter("data\\test\\testWriterCompactFileSystem.json", true);
+
+            jsonWriter.open();
+            jsonWriter.write(fileSystem);
+            jsonWriter.close();
+
+            JsonReader jsonReader = new JsonReader("data\\test\\testWriterCompactFileSystem.json");
+
+            FileSystem loadedFileSystem = jsonReader.read();
+            testIsRegularFileSystem(loadedFileSystem);
+        } catch (IOException | InvalidJsonException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testJsonWriterKeepsFrecency() {
+        try {
+            FileSystem fileSystem = new FileSystem();
+            createRegularFileSystem(fileSystem);
+            fileSystem.openLabel("School");
+            fileSystem.openLabel("School");
+            fileSystem.openLabel("Personal Project");
+            fileSystem.openRootFolder();
+
+            JsonWriter jsonWriter = new JsonWriter("data\\test\\testWriterFrecency.json");
+            jsonWriter.open();
+            jsonWriter.write(fileSystem);
+            jsonWriter.close();
+
+            JsonReader jsonReader = new JsonReader("data\\test\\testWriterFrecency.json");
+            FileSystem loadedFileSystem = jsonReader.read();
+            assertEquals(List.of("Personal Project", "School"), loadedFileSystem.getNamesOfRecentlyOpenedLabels());
+            assertEquals(List.of("School", "Personal Project"), loadedFileSystem.getNamesOfFrecentlyOpenedLabels());
+        } catch (IOException | InvalidJsonException | NoSuchLabelFoundException e) {
+            fail();
+        }
+    }
+
     // EFFECTS: creates a files, folders and labels in file system, some of which are nested
     private void createRegularFileSystem(FileSystem fileSystem) {
         try {
@@ -0,0 +1,244 @@
+package persistence;
+
+import model.NoteIndex;
+import model.NoteSearcher;
+import model.TextIndex;
+import persistence.exceptions.InvalidNoteIndexException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class TestMappedNoteIndex {
+    @Test
+    void testOpenNonExistentFile() {
+        try {
+            MappedNoteIndex.open("data\\noSuchFile.index");
+            fail("IOException expected");
+        } catch (IOException e) {
+            // expected
+        } catch (InvalidNoteIndexException e) {
+            fail("Wrong exception thrown");
+        }
+    }
+
+    @Test
+    void testOpenEmptyIndex() {
+        try {
+            new NoteIndexWriter("data\\test\\testMappedEmpty.index").write(new NoteIndex());
+            MappedNoteIndex index = MappedNoteIndex.open("data\\test\\testMappedEmpty.index");
+            assertEquals(0, index.getNumDocuments());
+            assertEquals(0, index.getTotalLength());
+            assertNull(index.getPostings("anything"));
+            assertFalse(index.getTerms().hasNext());
+        } catch (IOException | InvalidNoteIndexException e) {
+            fail("No exception expected");
+        }
+    }
+
+    @Test
+    @SuppressWarnings("methodlength")
+    void testOpenMatchesIndexWritten() {
+        NoteIndex written = makeIndex();
+        TextIndex index = writeAndOpen("data\\test\\testMappedMatches.index", written);
+        assertEquals(written.getNumDocuments(), index.getNumDocuments());
+        assertEquals(written.getTotalLength(), index.getTotalLength());
+        for (int docId = 0; docId < written.getNumDocuments(); docId++) {
+            assertEquals(written.getPath(docId), index.getPath(docId));
+            assertEquals(written.getLength(docId), index.getLength(docId));
+            assertEquals(written.getSize(docId), index.getSize(docId));
+            assertEquals(written.getLastModified(docId), index.getLastModified(docId));
+            assertEquals(written.getContentHash(docId), index.getContentHash(docId));
+            assertFalse(index.isDeleted(docId));
+        }
+        assertEquals(written.getNumDocuments(), index.getNumLiveDocuments());
+
+        Set<String> terms = new HashSet<String>();
+        for (Iterator<String> iterator = written.getTerms(); iterator.hasNext(); ) {
+            String term = iterator.next();
+            terms.add(term);
+            assertSamePostings(written.getPostings(term), index.getPostings(term));
+        }
+        Set<String> mappedTerms = new HashSet<String>();
+        for (Iterator<String> iterator = index.getTerms(); iterator.hasNext(); ) {
+            mappedTerms.add(iterator.next());
+        }
+        assertEquals(terms, mappedTerms);
+        assertNull(index.getPostings("zzzzzz"));
+        assertNull(index.getPostings(""));
+    }
+
+    @Test
+    void testTermsInOrderOfBytes() {
+        NoteIndex written = new NoteIndex();
+        written.addDocument("a.txt", 0, 0, "zebra \u00e9t\u00e9 apple \u65e5\u672c b 2 ab"); // French, Japanese
+        TextIndex index = writeAndOpen("data\\test\\testMappedTermOrder.index", written);
+        List<String> terms = new ArrayList<String>();
+        for (Iterator<String> iterator = index.getTerms(); iterator.hasNext(); ) {
+            terms.add(iterator.next());
+        }
+        List<String> expected = List.of("2", "ab", "apple", "b", "zebra", "\u00e9t\u00e9", "\u65e5\u672c"); // as above
+        assertEquals(expected, terms);
+        for (String term : terms) {
+            assertNotNull(index.getPostings(term));
+        }
+    }
+
+    @Test
+    void testSearchSameAsIndexWritten() {
+        NoteIndex written = makeIndex();
+        TextIndex index = writeAndOpen("data\\test\\testMappedSearch.index", written);
+        for (String query : List.of("w1", "w2 w17", "\"w3 w4\"", "w5 \"w1 w1\"", "w0")) {
+            List<NoteSearcher.Hit> expected = new NoteSearcher(written).search(query, 20);
+            List<NoteSearcher.Hit> actual = new NoteSearcher(index).search(query, 20);
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getDocId(), actual.get(i).getDocId());
+                assertEquals(expected.get(i).getScore(), actual.get(i).getScore(), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void testOpenNotAnIndex() {
+        testInvalid("data\\test\\testMappedNotAnIndex.index", new byte[] {1, 2, 3});
+        testInvalid("data\\test\\testMappedNotAnIndex.index", new byte[NoteIndexWriter.HEADER_SIZE]);
+    }
+
+    @Test
+    void testOpenWrongVersion() {
+        byte[] bytes = writeValidIndex("data\\test\\testMappedWrongVersion.index");
+        ByteBuffer.wrap(bytes).putInt(Integer.BYTES, NoteIndexWriter.VERSION + 1);
+        testInvalid("data\\test\\testMappedWrongVersion.index", bytes);
+    }
+
+    @Test
+    void testOpenTruncated() {
+        byte[] bytes = writeValidIndex("data\\test\\testMappedTruncated.index");
+        byte[] truncated = new byte[bytes.length - 1];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        testInvalid("data\\test\\testMappedTruncated.index", truncated);
+    }
+
+    @Test
+    void testOpenWrongCounts() {
+        byte[] bytes = writeValidIndex("data\\test\\testMappedWrongCounts.index");
+        ByteBuffer.wrap(bytes).putInt(2 * Integer.BYTES, -1);
+        testInvalid("data\\test\\testMappedWrongCounts.index", bytes);
+
+        bytes = writeValidIndex("data\\test\\testMappedWrongCounts.index");
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.putInt(3 * Integer.BYTES, buffer.getInt(3 * Integer.BYTES) + 1);
+        testInvalid("data\\test\\testMappedWrongCounts.index", bytes);
+    }
+
+    @Test
+    void testOpenSectionsOutOfOrder() {
+        byte[] bytes = writeValidIndex("data\\test\\testMappedOutOfOrder.index");
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int stringsEntry = 4 * Integer.BYTES + 2 * Long.BYTES;
+        buffer.putLong(stringsEntry, buffer.getLong(stringsEntry + Long.BYTES) + 1);
+        testInvalid("data\\test\\testMappedOutOfOrder.index", bytes);
+    }
+
+    @Test
+    void testOpenStringOutOfRange() {
+        byte[] bytes = writeValidIndex("data\\test\\testMappedStringOutOfRange.index");
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int documentsOffset = (int) buffer.getLong(4 * Integer.BYTES + 3 * Long.BYTES);
+        buffer.putInt(documentsOffset + Integer.BYTES, Integer.MAX_VALUE);
+        testInvalid("data\\test\\testMappedStringOutOfRange.index", bytes);
+
+        bytes = writeValidIndex("data\\test\\testMappedStringOutOfRange.index");
+        buffer = ByteBuffer.wrap(bytes);
+        int stringsOffset = (int) buffer.getLong(4 * Integer.BYTES + 2 * Long.BYTES);
+        buffer.putInt(stringsOffset, Integer.MAX_VALUE - 2);
+        testInvalid("data\\test\\testMappedStringOutOfRange.index", bytes);
+    }
+
+    @Test
+    void testOpenPostingsOutOfRange() {
+        byte[] bytes = writeValidIndex("data\\test\\testMappedPostingsOutOfRange.index");
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int termsOffset = (int) buffer.getLong(4 * Integer.BYTES + 4 * Long.BYTES);
+        buffer.putLong(termsOffset + 2 * Integer.BYTES, Long.MAX_VALUE);
+        testInvalid("data\\test\\testMappedPostingsOutOfRange.index", bytes);
+    }
+
+
+    // Helper Methods:
+
+    // EFFECTS: returns an index of 200 random documents of terms w0 to w19, where each document's terms are more likely
+    // to be low-numbered the lower its id is
+    private NoteIndex makeIndex() {
+        Random random = new Random(210);
+        NoteIndex index = new NoteIndex();
+        for (int docId = 0; docId < 200; docId++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(300);
+            for (int i = 0; i < length; i++) {
+                text.append("W").append(random.nextInt(1 + docId % 20)).append(' ');
+            }
+            index.addDocument("notes/" + docId + ".txt", random.nextInt(100000), random.nextLong(), text.toString());
+        }
+        return index;
+    }
+
+    // EFFECTS: writes index to filePath and opens it, failing the test if either fails
+    private TextIndex writeAndOpen(String filePath, TextIndex index) {
+        try {
+            new NoteIndexWriter(filePath).write(index);
+            return MappedNoteIndex.open(filePath);
+        } catch (IOException | InvalidNoteIndexException e) {
+            fail("No exception expected");
+            return null;
+        }
+    }
+
+    // EFFECTS: writes a valid index to filePath and returns its bytes
+    private byte[] writeValidIndex(String filePath) {
+        try {
+            new NoteIndexWriter(filePath).write(makeIndex());
+            return Files.readAllBytes(Paths.get(filePath));
+        } catch (IOException e) {
+            fail("No exception expected");
+            return null;
+        }
+    }
+
+    // EFFECTS: writes bytes to filePath and checks that opening it throws InvalidNoteIndexException
+    private void testInvalid(String filePath, byte[] bytes) {
+        try {
+            Files.write(Paths.get(filePath), bytes);
+            MappedNoteIndex.open(filePath);
+            fail("InvalidNoteIndexException expected");
+        } catch (IOException e) {
+            fail("Wrong exception thrown");
+        } catch (InvalidNoteIndexException e) {
+            // expected
+        }
+    }
+
+    // EFFECTS: checks that expected and actual have the same documents, frequencies, and positions
+    private void assertSamePostings(TextIndex.Postings expected, TextIndex.Postings actual) {
+        assertEquals(expected.getDocumentFrequency(), actual.getDocumentFrequency());
+        while (expected.next()) {
+            assertTrue(actual.next());
+            assertEquals(expected.getDocId(), actual.getDocId());
+            assertEquals(expected.getFrequency(), actual.getFrequency());
+            assertArrayEquals(expected.getPositions(), actual.getPositions());
+            assertArrayEquals(expected.getPositions(), actual.getPositions());
+        }
+        assertFalse(actual.next());
+    }
+}
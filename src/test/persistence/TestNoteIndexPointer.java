@@ -0,0 +1,93 @@
+package persistence;
+
+import model.NoteIndex;
+import persistence.exceptions.InvalidNoteIndexException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+public class TestNoteIndexPointer {
+    @Test
+    void testConstructorNotAnIndexPath() {
+        assertThrows(IllegalArgumentException.class, () -> new NoteIndexPointer("data\\test\\pointer.txt"));
+    }
+
+    @Test
+    void testOpenNoPointer() {
+        try {
+            Files.deleteIfExists(Paths.get("data\\test\\testPointerMissing.index"));
+            new NoteIndexPointer("data\\test\\testPointerMissing.index").open();
+            fail("InvalidNoteIndexException expected");
+        } catch (IOException e) {
+            fail("Wrong exception thrown");
+        } catch (InvalidNoteIndexException e) {
+            // expected
+        }
+    }
+
+    @Test
+    void testWriteAndOpen() {
+        try {
+            String pointerPath = "data\\test\\testPointerWrite.index";
+            Files.deleteIfExists(Paths.get(pointerPath));
+            NoteIndexPointer pointer = new NoteIndexPointer(pointerPath);
+            pointer.write(makeIndex("first.txt"));
+            MappedNoteIndex first = pointer.open();
+            assertEquals("first.txt", first.getPath(0));
+
+            pointer.write(makeIndex("second.txt"));
+            assertEquals("second.txt", pointer.open().getPath(0));
+            assertEquals("first.txt", first.getPath(0));
+            assertEquals(NoteIndexPointer.POINTER_PREFIX + "1", Files.readString(Paths.get(pointerPath)).trim());
+            assertTrue(Files.exists(Paths.get("data\\test\\testPointerWrite.1.index")));
+        } catch (IOException | InvalidNoteIndexException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testWriteDeletesOlderGenerations() {
+        try {
+            String pointerPath = "data\\test\\testPointerGenerations.index";
+            Files.deleteIfExists(Paths.get(pointerPath));
+            Files.writeString(Paths.get("data\\test\\testPointerGenerations.5.index"), "left by a crash");
+            NoteIndexPointer pointer = new NoteIndexPointer(pointerPath);
+            pointer.write(makeIndex("first.txt"));
+            assertTrue(Files.exists(Paths.get("data\\test\\testPointerGenerations.5.index")));
+
+            Files.writeString(Paths.get(pointerPath), NoteIndexPointer.POINTER_PREFIX + "5");
+            pointer.write(makeIndex("second.txt"));
+            assertFalse(Files.exists(Paths.get("data\\test\\testPointerGenerations.0.index")));
+            assertFalse(Files.exists(Paths.get("data\\test\\testPointerGenerations.5.index")));
+            assertEquals("second.txt", pointer.open().getPath(0));
+        } catch (IOException | InvalidNoteIndexException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testOpenIndexSavedWithoutGenerations() {
+        try {
+            String pointerPath = "data\\test\\testPointerLegacy.index";
+            new NoteIndexWriter(pointerPath).write(makeIndex("legacy.txt"));
+            NoteIndexPointer pointer = new NoteIndexPointer(pointerPath);
+            assertThrows(InvalidNoteIndexException.class, pointer::open);
+
+            pointer.write(makeIndex("new.txt"));
+            assertEquals("new.txt", pointer.open().getPath(0));
+        } catch (IOException | InvalidNoteIndexException e) {
+            fail();
+        }
+    }
+
+    // EFFECTS: returns an index of one document, the note at path
+    private NoteIndex makeIndex(String path) {
+        NoteIndex index = new NoteIndex();
+        index.addDocument(path, 10, 0, "some words");
+        return index;
+    }
+}
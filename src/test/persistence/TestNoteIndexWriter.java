@@ -0,0 +1,98 @@
+package persistence;
+
+import model.LayeredNoteIndex;
+import model.NoteIndex;
+import model.TextIndex;
+import persistence.exceptions.InvalidNoteIndexException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+public class TestNoteIndexWriter {
+    @Test
+    void testWriterInvalidFile() {
+        try {
+            new NoteIndexWriter("data\\this file name should also be invalid \0").write(new NoteIndex());
+            fail("IOException was expected");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    @Test
+    void testWriterHeader() {
+        NoteIndex index = new NoteIndex();
+        index.addDocument("a.txt", 1, 2, "one two two");
+        index.addDocument("b.txt", 3, 4, "three");
+        try {
+            new NoteIndexWriter("data\\test\\testWriterHeader.index").write(index);
+            byte[] bytes = Files.readAllBytes(Paths.get("data\\test\\testWriterHeader.index"));
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            assertEquals(NoteIndexWriter.MAGIC, buffer.getInt());
+            assertEquals(NoteIndexWriter.VERSION, buffer.getInt());
+            assertEquals(2, buffer.getInt());
+            assertEquals(3, buffer.getInt());
+            assertEquals(4, buffer.getLong());
+            assertEquals(NoteIndexWriter.HEADER_SIZE, buffer.getLong());
+            buffer.getLong();
+            long documentsOffset = buffer.getLong();
+            long termsOffset = buffer.getLong();
+            assertEquals(2 * NoteIndexWriter.DOCUMENT_ENTRY_SIZE, termsOffset - documentsOffset);
+            assertEquals(bytes.length, buffer.getLong());
+            assertEquals(3 * NoteIndexWriter.TERM_ENTRY_SIZE, bytes.length - termsOffset);
+        } catch (IOException e) {
+            fail("No exception expected");
+        }
+    }
+
+    @Test
+    void testWriterReplacesFile() {
+        try {
+            NoteIndex index = new NoteIndex();
+            index.addDocument("a.txt", 1, 2, "first");
+            new NoteIndexWriter("data\\test\\testWriterReplacesFile.index").write(index);
+            index.addDocument("b.txt", 3, 4, "second");
+            new NoteIndexWriter("data\\test\\testWriterReplacesFile.index").write(index);
+            assertEquals(2, MappedNoteIndex.open("data\\test\\testWriterReplacesFile.index").getNumDocuments());
+        } catch (IOException | InvalidNoteIndexException e) {
+            fail("No exception expected");
+        }
+    }
+
+    @Test
+    @SuppressWarnings("methodlength")
+    void testWriterSkipsDeletedDocuments() {
+        NoteIndex base = new NoteIndex();
+        base.addDocument("a.txt", 1, 2, "apple pie");
+        base.addDocument("b.txt", 3, 4, "banana pie");
+        LayeredNoteIndex index = new LayeredNoteIndex(base);
+        index.deleteDocument("a.txt");
+        index.addDocument("c.txt", 5, 6, 7, List.of("cherry", "pie"));
+        try {
+            new NoteIndexWriter("data\\test\\testWriterSkipsDeleted.index").write(index);
+            TextIndex written = MappedNoteIndex.open("data\\test\\testWriterSkipsDeleted.index");
+            assertEquals(2, written.getNumDocuments());
+            assertEquals(4, written.getTotalLength());
+            assertEquals("b.txt", written.getPath(0));
+            assertEquals("c.txt", written.getPath(1));
+            assertEquals(7, written.getContentHash(1));
+            assertNull(written.getPostings("apple"));
+
+            TextIndex.Postings postings = written.getPostings("pie");
+            assertEquals(2, postings.getDocumentFrequency());
+            assertTrue(postings.next());
+            assertEquals(0, postings.getDocId());
+            assertTrue(postings.next());
+            assertEquals(1, postings.getDocId());
+            assertArrayEquals(new int[] {1}, postings.getPositions());
+        } catch (IOException | InvalidNoteIndexException e) {
+            fail("No exception expected");
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package persistence;
+
+import model.MetricsRegistry;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+public class TestPrometheusMetricsWriter {
+    @Test
+    void testFormat() {
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        registry.getOperation("Test \"quoted\" op").getLatencies().record(2_000_000);
+
+        List<String> lines = List.of(PrometheusMetricsWriter.format(registry).split("\n"));
+        String name = PrometheusMetricsWriter.METRIC_NAME;
+        String label = "operation=\"Test \\\"quoted\\\" op\"";
+        assertEquals("# TYPE " + name + " summary", lines.get(1));
+        assertTrue(lines.contains(name + "{" + label + ",quantile=\"0.5\"} 0.002"));
+        assertTrue(lines.contains(name + "{" + label + ",quantile=\"0.999\"} 0.002"));
+        assertTrue(lines.contains(name + "_sum{" + label + "} 0.002"));
+        assertTrue(lines.contains(name + "_count{" + label + "} 1"));
+        assertTrue(lines.contains("# TYPE " + name + "_max gauge"));
+        assertTrue(lines.contains(name + "_max{" + label + "} 0.002"));
+        assertTrue(lines.indexOf(name + "_count{" + label + "} 1") < lines.indexOf("# TYPE " + name + "_max gauge"));
+    }
+
+    @Test
+    void testEscapeLabelValue() {
+        assertEquals("a\\\\b\\\"c\\nd", PrometheusMetricsWriter.escapeLabelValue("a\\b\"c\nd"));
+    }
+
+    @Test
+    void testWriteInBackgroundAndOnClose() {
+        String filePath = "data\\test\\testMetrics.prom";
+        try {
+            Files.deleteIfExists(Paths.get(filePath));
+            MetricsRegistry.getInstance().getOperation("Test.background");
+            PrometheusMetricsWriter writer = new PrometheusMetricsWriter(MetricsRegistry.getInstance(), filePath, 10);
+            writer.start();
+            for (int i = 0; i < 500 && !Files.exists(Paths.get(filePath)); i++) {
+                Thread.sleep(10);
+            }
+            assertTrue(Files.exists(Paths.get(filePath)));
+
+            MetricsRegistry.getInstance().getOperation("Test.close").getLatencies().record(1);
+            writer.close();
+            String text = new String(Files.readAllBytes(Paths.get(filePath)), StandardCharsets.UTF_8);
+            assertTrue(text.contains("operation=\"Test.background\""));
+            assertTrue(text.contains(PrometheusMetricsWriter.METRIC_NAME + "_count{operation=\"Test.close\"} 1"));
+        } catch (IOException | InterruptedException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testWriteInvalidPath() {
+        PrometheusMetricsWriter writer = new PrometheusMetricsWriter(MetricsRegistry.getInstance(),
+                "data\\test\\illegal\0name.prom", 1000);
+        try {
+            writer.write();
+            fail("IOException expected");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package persistence;
+
+import model.FileSystem;
+import model.Folder;
+import model.exceptions.NameIsTakenException;
+import model.exceptions.NoSuchFileFoundException;
+import model.exceptions.NoSuchFolderFoundException;
+import model.exceptions.NoSuchLabelFoundException;
+import persistence.exceptions.InvalidJsonException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+public class TestShardedReader {
+    FileSystem fileSystem;
+
+    @BeforeEach
+    void runBefore() {
+        fileSystem = new FileSystem();
+        try {
+            fileSystem.createLabel("School");
+            fileSystem.createFile("Root File", "C:\\Root.txt");
+            fileSystem.createFolder("Education");
+            fileSystem.createFolder("Hobbies");
+            fileSystem.openFolder("Hobbies");
+            fileSystem.createFile("Guitar", "C:\\Guitar.txt");
+            fileSystem.openRootFolder();
+            fileSystem.openFolder("Education");
+            fileSystem.createFile("Goals", "C:\\Goals.txt");
+            fileSystem.labelFile("Goals", "School");
+            fileSystem.createFolder("CPSC 210");
+            fileSystem.openRootFolder();
+        } catch (NameIsTakenException | NoSuchFolderFoundException | NoSuchFileFoundException
+                | NoSuchLabelFoundException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testReaderNoManifest() {
+        try {
+            new ShardedReader("data\\test\\noSuchShards").read();
+            fail("IOException expected");
+        } catch (IOException e) {
+            // expected
+        } catch (InvalidJsonException e) {
+            fail("Wrong exception thrown");
+        }
+    }
+
+    @Test
+    void testReaderFoldersOnlyLoadedWhenOpened() {
+        FileSystem loadedFileSystem = writeAndRead("data\\test\\testReaderLazyShards");
+        try {
+            Folder education = loadedFileSystem.getRootFolder().getSubfolder("Education");
+            Folder hobbies = loadedFileSystem.getRootFolder().getSubfolder("Hobbies");
+            assertFalse(education.isLoaded());
+            assertFalse(hobbies.isLoaded());
+            assertTrue(loadedFileSystem.containsFile("Root File"));
+            assertEquals(2, loadedFileSystem.getNamesOfSubfolders().size());
+
+            loadedFileSystem.openFolder("Education");
+            assertTrue(loadedFileSystem.containsFile("Goals"));
+            assertTrue(loadedFileSystem.fileLabelled("Goals", "School"));
+            assertTrue(loadedFileSystem.containsFolder("CPSC 210"));
+            assertTrue(education.isLoaded());
+            assertFalse(hobbies.isLoaded());
+        } catch (NoSuchFolderFoundException | NoSuchFileFoundException | NoSuchLabelFoundException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testReaderOpeningLabelLoadsEveryFolder() {
+        FileSystem loadedFileSystem = writeAndRead("data\\test\\testReaderLabelShards");
+        try {
+            loadedFileSystem.openLabel("School");
+            assertTrue(loadedFileSystem.containsFile("Goals"));
+            assertTrue(loadedFileSystem.getRootFolder().getSubfolder("Hobbies").isLoaded());
+        } catch (NoSuchLabelFoundException | NoSuchFolderFoundException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testReaderLoadsFolderThatWasOpen() {
+        try {
+            fileSystem.openFolder("Education");
+            fileSystem.openFolder("CPSC 210");
+        } catch (NoSuchFolderFoundException e) {
+            fail();
+        }
+        FileSystem loadedFileSystem = writeAndRead("data\\test\\testReaderOpenShards");
+        assertEquals("CPSC 210", loadedFileSystem.getCurrentFolderName());
+        try {
+            assertEquals("Education", loadedFileSystem.getParentFolderName());
+            assertFalse(loadedFileSystem.getRootFolder().getSubfolder("Hobbies").isLoaded());
+        } catch (NoSuchFolderFoundException e) {
+            fail();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("methodlength")
+    void testReaderUnloadedFoldersKeptOnSave() {
+        String directoryPath = "data\\test\\testReaderKeptShards";
+        FileSystem loadedFileSystem = writeAndRead(directoryPath);
+        try {
+            Folder hobbies = loadedFileSystem.getRootFolder().getSubfolder("Hobbies");
+            String hobbiesShard = loadedFileSystem.getShardManifest().getShard(hobbies).getFileName();
+            loadedFileSystem.setFolderName("Hobbies", "Fun");
+            loadedFileSystem.openFolder("Education");
+            loadedFileSystem.createFile("Notes", "C:\\Notes.txt");
+            loadedFileSystem.saveShards(directoryPath);
+            assertFalse(hobbies.isLoaded());
+            assertEquals(hobbiesShard, loadedFileSystem.getShardManifest().getShard(hobbies).getFileName());
+
+            FileSystem reloadedFileSystem = FileSystem.loadShards(directoryPath);
+            assertEquals("Education", reloadedFileSystem.getCurrentFolderName());
+            reloadedFileSystem.openRootFolder();
+            assertTrue(reloadedFileSystem.containsFolder("Fun"));
+            assertFalse(reloadedFileSystem.containsFolder("Hobbies"));
+            reloadedFileSystem.openFolder("Fun");
+            assertTrue(reloadedFileSystem.containsFile("Guitar"));
+            reloadedFileSystem.openRootFolder();
+            reloadedFileSystem.openFolder("Education");
+            assertTrue(reloadedFileSystem.containsFile("Notes"));
+        } catch (IOException | InvalidJsonException | NoSuchFolderFoundException | NameIsTakenException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testReaderWrongVersion() {
+        String directoryPath = "data\\test\\testReaderWrongVersionShards";
+        writeAndRead(directoryPath);
+        try {
+            String manifest = Files.readString(Paths.get(directoryPath, ShardManifest.FILE_NAME));
+            Files.writeString(Paths.get(directoryPath, ShardManifest.FILE_NAME),
+                    manifest.replace("\"version\":" + ShardManifest.VERSION, "\"version\":0"));
+        } catch (IOException e) {
+            fail();
+        }
+        testInvalid(directoryPath);
+    }
+
+    @Test
+    void testReaderShardFileOutsideDirectory() {
+        String directoryPath = "data\\test\\testReaderOutsideShards";
+        writeAndRead(directoryPath);
+        try {
+            String shardFileName = fileSystem.getShardManifest()
+                    .getShard(fileSystem.getRootFolder().getSubfolder("Hobbies")).getFileName();
+            String manifest = Files.readString(Paths.get(directoryPath, ShardManifest.FILE_NAME));
+            Files.writeString(Paths.get(directoryPath, ShardManifest.FILE_NAME),
+                    manifest.replace(shardFileName, "../" + shardFileName), StandardCharsets.UTF_8);
+        } catch (IOException | NoSuchFolderFoundException e) {
+            fail();
+        }
+        testInvalid(directoryPath);
+    }
+
+    @Test
+    void testReaderMissingShardOfOpenFolder() {
+        String directoryPath = "data\\test\\testReaderMissingShards";
+        try {
+            fileSystem.openFolder("Education");
+            fileSystem.openFolder("CPSC 210");
+            writeAndRead(directoryPath);
+            Files.delete(Paths.get(directoryPath, fileSystem.getShardManifest()
+                    .getShard(fileSystem.getRootFolder().getSubfolder("Education")).getFileName()));
+        } catch (IOException | NoSuchFolderFoundException e) {
+            fail();
+        }
+        testInvalid(directoryPath);
+    }
+
+
+    // Helper Methods:
+
+    // EFFECTS: saves fileSystem to directoryPath as a sharded save and returns what is loaded from it
+    private FileSystem writeAndRead(String directoryPath) {
+        try {
+            new ShardedWriter(directoryPath).write(fileSystem);
+            return new ShardedReader(directoryPath).read();
+        } catch (IOException | InvalidJsonException e) {
+            fail();
+            return null;
+        }
+    }
+
+    // EFFECTS: fails unless reading the sharded save in directoryPath throws InvalidJsonException
+    private void testInvalid(String directoryPath) {
+        try {
+            new ShardedReader(directoryPath).read();
+            fail("InvalidJsonException expected");
+        } catch (IOException e) {
+            fail("Wrong exception thrown");
+        } catch (InvalidJsonException e) {
+            // expected
+        }
+    }
+}
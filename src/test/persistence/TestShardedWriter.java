@@ -0,0 +1,161 @@
+package persistence;
+
+import model.FileSystem;
+import model.exceptions.NameIsTakenException;
+import model.exceptions.NoSuchFileFoundException;
+import model.exceptions.NoSuchFolderFoundException;
+import model.exceptions.NoSuchLabelFoundException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.stream.Stream;
+
+public class TestShardedWriter {
+    FileSystem fileSystem;
+
+    @BeforeEach
+    void runBefore() {
+        fileSystem = new FileSystem();
+        try {
+            fileSystem.createLabel("School");
+            fileSystem.createFile("Root File", "C:\\Root.txt");
+            fileSystem.createFolder("Education");
+            fileSystem.createFolder("Hobbies");
+            fileSystem.openFolder("Education");
+            fileSystem.createFile("Goals", "C:\\Goals.txt");
+            fileSystem.labelFile("Goals", "School");
+            fileSystem.createFolder("CPSC 210");
+            fileSystem.openRootFolder();
+        } catch (NameIsTakenException | NoSuchFolderFoundException | NoSuchFileFoundException
+                | NoSuchLabelFoundException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testWriterInvalidDirectory() {
+        try {
+            new ShardedWriter("data\\my\0illegal:directory").write(fileSystem);
+            fail("IOException was expected");
+        } catch (IOException | RuntimeException e) {
+            // pass
+        }
+    }
+
+    @Test
+    void testWriterWritesOneShardPerTopLevelFolder() {
+        String directoryPath = "data\\test\\testWriterShards";
+        try {
+            new ShardedWriter(directoryPath).write(fileSystem);
+        } catch (IOException e) {
+            fail();
+        }
+        ShardManifest manifest = fileSystem.getShardManifest();
+        assertTrue(manifest.isIn(directoryPath));
+        assertEquals(2, manifest.getShards().size());
+        assertTrue(Files.exists(Paths.get(directoryPath, ShardManifest.FILE_NAME)));
+        assertTrue(Files.exists(Paths.get(directoryPath, manifest.getStateFileName())));
+        for (ShardManifest.Shard shard : manifest.getShards().values()) {
+            assertTrue(Files.exists(Paths.get(directoryPath, shard.getFileName())));
+        }
+        assertEquals(3, countShardFiles(directoryPath));
+    }
+
+    @Test
+    @SuppressWarnings("methodlength")
+    void testWriterOnlyRewritesChangedShards() {
+        String directoryPath = "data\\test\\testWriterChangedShards";
+        try {
+            new ShardedWriter(directoryPath).write(fileSystem);
+            String educationShard = getShardFileName("Education");
+            String hobbiesShard = getShardFileName("Hobbies");
+            String stateFile = fileSystem.getShardManifest().getStateFileName();
+
+            fileSystem.openFolder("Education");
+            fileSystem.openFolder("CPSC 210");
+            fileSystem.createFile("Notes", "C:\\Notes.txt");
+            new ShardedWriter(directoryPath).write(fileSystem);
+
+            assertNotEquals(educationShard, getShardFileName("Education"));
+            assertEquals(hobbiesShard, getShardFileName("Hobbies"));
+            assertNotEquals(stateFile, fileSystem.getShardManifest().getStateFileName());
+            assertFalse(Files.exists(Paths.get(directoryPath, educationShard)));
+            assertFalse(Files.exists(Paths.get(directoryPath, stateFile)));
+            assertEquals(3, countShardFiles(directoryPath));
+
+            fileSystem.openRootFolder();
+            fileSystem.deleteFolder("Hobbies");
+            fileSystem.createFolder("New");
+            new ShardedWriter(directoryPath).write(fileSystem);
+            assertFalse(Files.exists(Paths.get(directoryPath, hobbiesShard)));
+            assertNull(getShardFileName("Hobbies"));
+            assertNotNull(getShardFileName("New"));
+            assertEquals(3, countShardFiles(directoryPath));
+        } catch (IOException | NameIsTakenException | NoSuchFolderFoundException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testWriterRenamingLabelRewritesShardsUsingIt() {
+        String directoryPath = "data\\test\\testWriterLabelShards";
+        try {
+            new ShardedWriter(directoryPath).write(fileSystem);
+            String educationShard = getShardFileName("Education");
+            String hobbiesShard = getShardFileName("Hobbies");
+
+            fileSystem.setLabelName("School", "University");
+            new ShardedWriter(directoryPath).write(fileSystem);
+            assertNotEquals(educationShard, getShardFileName("Education"));
+            assertEquals(hobbiesShard, getShardFileName("Hobbies"));
+        } catch (IOException | NameIsTakenException | NoSuchLabelFoundException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testWriterToOtherDirectoryWritesEveryShard() {
+        try {
+            new ShardedWriter("data\\test\\testWriterFirstShards").write(fileSystem);
+            String hobbiesShard = getShardFileName("Hobbies");
+            new ShardedWriter("data\\test\\testWriterSecondShards").write(fileSystem);
+            assertTrue(fileSystem.getShardManifest().isIn("data\\test\\testWriterSecondShards"));
+            assertTrue(Files.exists(Paths.get("data\\test\\testWriterSecondShards", getShardFileName("Hobbies"))));
+            assertTrue(Files.exists(Paths.get("data\\test\\testWriterFirstShards", hobbiesShard)));
+        } catch (IOException e) {
+            fail();
+        }
+    }
+
+
+    // Helper Methods:
+
+    // EFFECTS: returns the name of the shard file the top-level Folder named folderName was last saved in, or null if
+    // there is no such Folder or it was not saved
+    private String getShardFileName(String folderName) {
+        try {
+            ShardManifest.Shard shard = fileSystem.getShardManifest()
+                    .getShard(fileSystem.getRootFolder().getSubfolder(folderName));
+            return shard == null ? null : shard.getFileName();
+        } catch (NoSuchFolderFoundException e) {
+            return null;
+        }
+    }
+
+    // EFFECTS: returns the number of folder shard and state files in the directory at directoryPath
+    private long countShardFiles(String directoryPath) {
+        try (Stream<Path> files = Files.list(Paths.get(directoryPath))) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith("folder-") || name.startsWith("state-")).count();
+        } catch (IOException e) {
+            fail();
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package persistence;
+
+import model.FileSystem;
+import model.Folder;
+import model.exceptions.FolderNotLoadedRuntimeException;
+import model.exceptions.NameIsTakenException;
+import model.exceptions.NoSuchFileFoundException;
+import model.exceptions.NoSuchFolderFoundException;
+import model.exceptions.NoSuchLabelFoundException;
+import persistence.exceptions.InvalidSnapshotException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class TestSnapshotReader {
+    @Test
+    void testReaderNonExistentFile() {
+        SnapshotReader snapshotReader = new SnapshotReader("data\\noSuchFile.snapshot");
+        try {
+            snapshotReader.read();
+            fail("IOException expected");
+        } catch (IOException e) {
+            // expected
+        } catch (InvalidSnapshotException e) {
+            fail("Wrong exception thrown");
+        }
+    }
+
+    @Test
+    void testReaderNotASnapshot() {
+        testInvalid("data\\test\\testReaderNotASnapshot.snapshot", new byte[] {1, 2, 3});
+        testInvalid("data\\test\\testReaderNotASnapshot.snapshot", new byte[SnapshotWriter.HEADER_SIZE]);
+    }
+
+    @Test
+    void testReaderWrongVersion() {
+        byte[] bytes = writeValidSnapshot("data\\test\\testReaderWrongVersion.snapshot");
+        ByteBuffer.wrap(bytes).putInt(Integer.BYTES, SnapshotWriter.VERSION + 1);
+        testInvalid("data\\test\\testReaderWrongVersion.snapshot", bytes);
+    }
+
+    @Test
+    void testReaderTruncated() {
+        byte[] bytes = writeValidSnapshot("data\\test\\testReaderTruncated.snapshot");
+        byte[] truncated = new byte[bytes.length - 1];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        testInvalid("data\\test\\testReaderTruncated.snapshot", truncated);
+    }
+
+    @Test
+    void testReaderIndexOutOfRange() {
+        byte[] bytes = writeValidSnapshot("data\\test\\testReaderIndexOutOfRange.snapshot");
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        for (int i = 0; i < buffer.getInt(2 * Integer.BYTES); i++) {
+            int entry = 3 * Integer.BYTES + i * SnapshotWriter.DIRECTORY_ENTRY_SIZE;
+            if (buffer.getInt(entry) == SnapshotWriter.SECTION_FILES) {
+                // the first int of the first File is the index of its name in the string table
+                buffer.putInt((int) buffer.getLong(entry + Integer.BYTES), 1000);
+            }
+        }
+        testInvalid("data\\test\\testReaderIndexOutOfRange.snapshot", bytes);
+    }
+
+    @Test
+    void testReaderLazilyLeavesFoldersUnloaded() {
+        try {
+            FileSystem fileSystem = readLazily(createNestedFileSystem(),
+                    "data\\test\\testReaderLazilyUnloaded.snapshot");
+            Folder rootFolder = fileSystem.getRootFolder();
+            assertFalse(rootFolder.isLoaded());
+            assertEquals("root", fileSystem.getCurrentFolderName());
+            assertEquals(Set.of("Education", "Hobbies"), new HashSet<String>(fileSystem.getNamesOfSubfolders()));
+            assertTrue(rootFolder.isLoaded());
+            assertFalse(rootFolder.getSubfolder("Education").isLoaded());
+            assertFalse(rootFolder.getSubfolder("Hobbies").isLoaded());
+
+            assertEquals("C:\\", fileSystem.getFilePath("File"));
+            fileSystem.openFolder("Education");
+            assertTrue(fileSystem.fileLabelled("test", "School"));
+            fileSystem.openFolder("CPSC 210");
+            assertEquals(Set.of("A", "Personal Project Ideas"),
+                    new HashSet<String>(fileSystem.getNamesOfSubfiles()));
+            assertTrue(fileSystem.fileLabelled("Personal Project Ideas", "Personal Project"));
+            assertFalse(rootFolder.getSubfolder("Hobbies").isLoaded());
+        } catch (IOException | InvalidSnapshotException | NoSuchFolderFoundException | NoSuchFileFoundException
+                | NoSuchLabelFoundException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testReaderLazilyRestoresNestedState() {
+        try {
+            FileSystem fileSystem = createNestedFileSystem();
+            fileSystem.openFolder("Education");
+            fileSystem.openFolder("CPSC 210");
+            fileSystem.openFileButNotOnComputerEvenIfNoLongerValid("A");
+
+            FileSystem loadedFileSystem = readLazily(fileSystem, "data\\test\\testReaderLazilyNested.snapshot");
+            assertEquals("CPSC 210", loadedFileSystem.getCurrentFolderName());
+            assertEquals("Education", loadedFileSystem.getParentFolderName());
+            assertEquals(List.of("A"), loadedFileSystem.getNamesOfRecentlyOpenedFiles());
+            assertEquals(List.of("CPSC 210", "Education"), loadedFileSystem.getNamesOfRecentlyOpenedFolders());
+            Folder hobbies = loadedFileSystem.getRootFolder().getSubfolder("Hobbies");
+            assertFalse(hobbies.isLoaded());
+
+            loadedFileSystem.openLabel("School");
+            assertEquals(Set.of("A", "Personal Project Ideas", "test"),
+                    new HashSet<String>(loadedFileSystem.getNamesOfSubfiles()));
+            assertTrue(hobbies.isLoaded());
+        } catch (IOException | InvalidSnapshotException | NoSuchFolderFoundException | NoSuchFileFoundException
+                | NoSuchLabelFoundException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testReaderLazilyWithoutFolderIndex() {
+        String filePath = "data\\test\\testReaderLazilyNoIndex.snapshot";
+        try {
+            writeSnapshot(createNestedFileSystem(), filePath);
+            byte[] bytes = Files.readAllBytes(Paths.get(filePath));
+            // renumbering the FOLDER_INDEX section makes it look like a snapshot written before it was added
+            ByteBuffer.wrap(bytes).putInt(sectionEntry(bytes, SnapshotWriter.SECTION_FOLDER_INDEX), 100);
+            Files.write(Paths.get(filePath), bytes);
+
+            FileSystem fileSystem = new SnapshotReader(filePath).readLazily();
+            assertTrue(fileSystem.getRootFolder().isLoaded());
+            fileSystem.openFolder("Education");
+            fileSystem.openFolder("CPSC 210");
+            assertEquals(Set.of("A", "Personal Project Ideas"),
+                    new HashSet<String>(fileSystem.getNamesOfSubfiles()));
+        } catch (IOException | InvalidSnapshotException | NoSuchFolderFoundException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testReaderLazilyWithoutStringOffsets() {
+        String filePath = "data\\test\\testReaderLazilyNoOffsets.snapshot";
+        try {
+            writeSnapshot(createNestedFileSystem(), filePath);
+            byte[] bytes = Files.readAllBytes(Paths.get(filePath));
+            // renumbering the STRING_OFFSETS section makes it look like a snapshot written before it was added
+            ByteBuffer.wrap(bytes).putInt(sectionEntry(bytes, SnapshotWriter.SECTION_STRING_OFFSETS), 100);
+            Files.write(Paths.get(filePath), bytes);
+
+            FileSystem fileSystem = new SnapshotReader(filePath).readLazily();
+            assertFalse(fileSystem.getRootFolder().isLoaded());
+            fileSystem.openFolder("Education");
+            fileSystem.openFolder("CPSC 210");
+            assertEquals(Set.of("A", "Personal Project Ideas"),
+                    new HashSet<String>(fileSystem.getNamesOfSubfiles()));
+        } catch (IOException | InvalidSnapshotException | NoSuchFolderFoundException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testReaderLazilyInvalidStringOffsets() {
+        String filePath = "data\\test\\testReaderLazilyInvalidOffsets.snapshot";
+        byte[] bytes = writeValidSnapshot(filePath);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        // leaves out the last string's offset
+        int entry = sectionEntry(bytes, SnapshotWriter.SECTION_STRING_OFFSETS);
+        buffer.putLong(entry + Integer.BYTES + Long.BYTES, buffer.getLong(entry + Integer.BYTES + Long.BYTES) - 1);
+        testInvalidLazily(filePath, bytes);
+    }
+
+    @Test
+    void testReaderLazilyInvalid() {
+        byte[] bytes = writeValidSnapshot("data\\test\\testReaderLazilyInvalid.snapshot");
+        ByteBuffer.wrap(bytes).putInt(Integer.BYTES, SnapshotWriter.VERSION + 1);
+        testInvalidLazily("data\\test\\testReaderLazilyInvalid.snapshot", bytes);
+        testInvalidLazily("data\\test\\testReaderLazilyInvalid.snapshot", new byte[] {1, 2, 3});
+    }
+
+    @Test
+    void testReaderLazilyInvalidFolderIndex() {
+        String filePath = "data\\test\\testReaderLazilyInvalidIndex.snapshot";
+        byte[] bytes = writeValidSnapshot(filePath);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        // makes root's first subfolder root itself
+        int entry = sectionEntry(bytes, SnapshotWriter.SECTION_FOLDER_INDEX);
+        buffer.putInt((int) buffer.getLong(entry + Integer.BYTES), 0);
+        try {
+            Files.write(Paths.get(filePath), bytes);
+            FileSystem fileSystem = new SnapshotReader(filePath).readLazily();
+            fileSystem.getNamesOfSubfolders();
+            fail("FolderNotLoadedRuntimeException expected");
+        } catch (IOException | InvalidSnapshotException e) {
+            fail("Wrong exception thrown");
+        } catch (FolderNotLoadedRuntimeException e) {
+            // expected
+        }
+    }
+
+
+    // Helper Methods:
+
+    // EFFECTS: writes a small valid snapshot to filePath and returns its bytes
+    private byte[] writeValidSnapshot(String filePath) {
+        try {
+            FileSystem fileSystem = new FileSystem();
+            fileSystem.createLabel("School");
+            fileSystem.createFolder("Education");
+            fileSystem.createFile("File", "C:\\");
+
+            SnapshotWriter snapshotWriter = new SnapshotWriter(filePath);
+            snapshotWriter.open();
+            snapshotWriter.write(fileSystem);
+            snapshotWriter.close();
+            return Files.readAllBytes(Paths.get(filePath));
+        } catch (IOException | NameIsTakenException e) {
+            fail();
+            return null;
+        }
+    }
+
+    // EFFECTS: writes bytes to filePath and checks that reading it throws InvalidSnapshotException
+    private void testInvalid(String filePath, byte[] bytes) {
+        try {
+            Files.write(Paths.get(filePath), bytes);
+        } catch (IOException e) {
+            fail();
+        }
+        SnapshotReader snapshotReader = new SnapshotReader(filePath);
+        try {
+            snapshotReader.read();
+            fail("InvalidSnapshotException expected");
+        } catch (IOException e) {
+            fail("Wrong exception thrown");
+        } catch (InvalidSnapshotException e) {
+            // expected
+        }
+    }
+
+    // EFFECTS: writes bytes to filePath and checks that reading it lazily throws InvalidSnapshotException
+    private void testInvalidLazily(String filePath, byte[] bytes) {
+        try {
+            Files.write(Paths.get(filePath), bytes);
+        } catch (IOException e) {
+            fail();
+        }
+        SnapshotReader snapshotReader = new SnapshotReader(filePath);
+        try {
+            snapshotReader.readLazily();
+            fail("InvalidSnapshotException expected");
+        } catch (IOException e) {
+            fail("Wrong exception thrown");
+        } catch (InvalidSnapshotException e) {
+            // expected
+        }
+    }
+
+    // EFFECTS: writes fileSystem as a snapshot to filePath and returns the file system read lazily back from it
+    private FileSystem readLazily(FileSystem fileSystem, String filePath)
+            throws IOException, InvalidSnapshotException {
+        writeSnapshot(fileSystem, filePath);
+        return new SnapshotReader(filePath).readLazily();
+    }
+
+    // EFFECTS: writes fileSystem as a snapshot to filePath
+    private void writeSnapshot(FileSystem fileSystem, String filePath) throws IOException {
+        SnapshotWriter snapshotWriter = new SnapshotWriter(filePath);
+        snapshotWriter.open();
+        snapshotWriter.write(fileSystem);
+        snapshotWriter.close();
+    }
+
+    // EFFECTS: returns where the directory entry for the section with id sectionId starts in bytes
+    private int sectionEntry(byte[] bytes, int sectionId) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        for (int i = 0; i < buffer.getInt(2 * Integer.BYTES); i++) {
+            int entry = 3 * Integer.BYTES + i * SnapshotWriter.DIRECTORY_ENTRY_SIZE;
+            if (buffer.getInt(entry) == sectionId) {
+                return entry;
+            }
+        }
+        fail("No such section");
+        return -1;
+    }
+
+    // EFFECTS: returns a file system with files, folders and labels, some of which are nested, and nothing recently
+    // opened
+    @SuppressWarnings("methodlength")
+    private FileSystem createNestedFileSystem() {
+        FileSystem fileSystem = new FileSystem();
+        fileSystem.stopKeepingTrackOfRecents();
+        try {
+            fileSystem.createFile("File", "C:\\");
+            fileSystem.createLabel("School");
+            fileSystem.createLabel("Personal Project");
+            fileSystem.createFolder("Education");
+            fileSystem.createFolder("Hobbies");
+
+            fileSystem.openFolder("Education");
+            fileSystem.createFile("test", "invalid path");
+            fileSystem.labelFile("test", "School");
+            fileSystem.createFolder("CPSC 210");
+
+            fileSystem.openFolder("CPSC 210");
+            fileSystem.createFile("Personal Project Ideas",
+                    "D:\\Users\\User\\Documents\\Personal Project Ideas.txt");
+            fileSystem.labelFile("Personal Project Ideas", "School");
+            fileSystem.labelFile("Personal Project Ideas", "Personal Project");
+            fileSystem.createFile("A", "A, eh");
+            fileSystem.labelFile("A", "School");
+
+            fileSystem.openRootFolder();
+        } catch (NameIsTakenException | NoSuchFolderFoundException | NoSuchFileFoundException
+                | NoSuchLabelFoundException e) {
+            fail();
+        }
+        fileSystem.startKeepingTrackOfRecents();
+        return fileSystem;
+    }
+}
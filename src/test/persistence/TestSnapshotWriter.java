@@ -0,0 +1,195 @@
+package persistence;
+
+import model.FileSystem;
+import model.exceptions.NameIsTakenException;
+import model.exceptions.NoSuchFileFoundException;
+import model.exceptions.NoSuchFolderFoundException;
+import model.exceptions.NoSuchLabelFoundException;
+import persistence.exceptions.InvalidSnapshotException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class TestSnapshotWriter {
+    @Test
+    void testSnapshotWriterInvalidPath() {
+        SnapshotWriter snapshotWriter = new SnapshotWriter("data\\this file name should also be invalid \0");
+        try {
+            snapshotWriter.open();
+            fail("open did not throw IOException when opening an invalid file");
+        } catch (IOException | RuntimeException e) {
+            // expected
+        }
+    }
+
+    @Test
+    void testSnapshotWriterEmptyFileSystem() {
+        try {
+            FileSystem loadedFileSystem = writeAndRead(new FileSystem(), "data\\test\\testSnapshotEmpty.snapshot");
+            assertEquals("root", loadedFileSystem.getCurrentFolderName());
+            assertFalse(loadedFileSystem.currentFolderHasParent());
+            assertTrue(loadedFileSystem.getNamesOfSubfiles().isEmpty());
+            assertTrue(loadedFileSystem.getNamesOfSubfolders().isEmpty());
+            assertTrue(loadedFileSystem.getNamesOfLabels().isEmpty());
+            assertTrue(loadedFileSystem.getNamesOfRecentlyOpenedFiles().isEmpty());
+            assertTrue(loadedFileSystem.getNamesOfRecentlyOpenedFolders().isEmpty());
+            assertTrue(loadedFileSystem.getNamesOfRecentlyOpenedLabels().isEmpty());
+        } catch (IOException | InvalidSnapshotException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testSnapshotWriterRegularFileSystem() {
+        try {
+            FileSystem fileSystem = new FileSystem();
+            createRegularFileSystem(fileSystem);
+            testIsRegularFileSystem(writeAndRead(fileSystem, "data\\test\\testSnapshotRegular.snapshot"));
+        } catch (IOException | InvalidSnapshotException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testSnapshotWriterCurrentFolderNested() {
+        try {
+            FileSystem fileSystem = new FileSystem();
+            createRegularFileSystem(fileSystem);
+            fileSystem.openFolder("Education");
+            fileSystem.openFolder("CPSC 210");
+
+            FileSystem loadedFileSystem = writeAndRead(fileSystem, "data\\test\\testSnapshotNested.snapshot");
+            assertEquals("CPSC 210", loadedFileSystem.getCurrentFolderName());
+            assertEquals(Set.of("A", "Personal Project Ideas"),
+                    new HashSet<String>(loadedFileSystem.getNamesOfSubfiles()));
+            assertEquals("Education", loadedFileSystem.getParentFolderName());
+        } catch (IOException | InvalidSnapshotException | NoSuchFolderFoundException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testSnapshotWriterCurrentLabelAndFrecency() {
+        try {
+            FileSystem fileSystem = new FileSystem();
+            createRegularFileSystem(fileSystem);
+            fileSystem.openFileButNotOnComputerEvenIfNoLongerValid("File");
+            fileSystem.openLabel("Personal Project");
+            fileSystem.openLabel("Personal Project");
+            fileSystem.openLabel("School");
+
+            FileSystem loadedFileSystem = writeAndRead(fileSystem, "data\\test\\testSnapshotLabel.snapshot");
+            assertEquals("School", loadedFileSystem.getCurrentFolderName());
+            assertEquals(Set.of("A", "Personal Project Ideas", "test"),
+                    new HashSet<String>(loadedFileSystem.getNamesOfSubfiles()));
+            assertEquals(List.of("File"), loadedFileSystem.getNamesOfRecentlyOpenedFiles());
+            assertEquals(List.of("School", "Personal Project"), loadedFileSystem.getNamesOfRecentlyOpenedLabels());
+            assertEquals(List.of("Personal Project", "School"), loadedFileSystem.getNamesOfFrecentlyOpenedLabels());
+        } catch (IOException | InvalidSnapshotException | NoSuchFileFoundException
+                | NoSuchLabelFoundException e) {
+            fail();
+        }
+    }
+
+    @Test
+    void testSnapshotWriterSharedAndNonAsciiStrings() {
+        String summer = "\u00e9t\u00e9"; // "summer" in French, with two accented e's
+        String cafe = "Caf\u00e9 \u2603"; // "Cafe" with an accented e, then a snowman
+        try {
+            FileSystem fileSystem = new FileSystem();
+            fileSystem.createLabel(summer);
+            fileSystem.createFolder(cafe);
+            fileSystem.openFolder(cafe);
+            fileSystem.createFile(cafe, "same path");
+            fileSystem.createFile("Other", "same path");
+            fileSystem.labelFile("Other", summer);
+
+            FileSystem loadedFileSystem = writeAndRead(fileSystem, "data\\test\\testSnapshotStrings.snapshot");
+            assertEquals(cafe, loadedFileSystem.getCurrentFolderName());
+            assertEquals(Set.of(cafe, "Other"),
+                    new HashSet<String>(loadedFileSystem.getNamesOfSubfiles()));
+            assertEquals("same path", loadedFileSystem.getFilePath("Other"));
+            assertTrue(loadedFileSystem.fileLabelled("Other", summer));
+            assertFalse(loadedFileSystem.fileLabelled(cafe, summer));
+        } catch (IOException | InvalidSnapshotException | NameIsTakenException | NoSuchFolderFoundException
+                | NoSuchFileFoundException | NoSuchLabelFoundException e) {
+            fail();
+        }
+    }
+
+
+    // Helper Methods:
+
+    // EFFECTS: writes fileSystem as a snapshot to filePath and returns the file system read back from it
+    private FileSystem writeAndRead(FileSystem fileSystem, String filePath)
+            throws IOException, InvalidSnapshotException {
+        SnapshotWriter snapshotWriter = new SnapshotWriter(filePath);
+        snapshotWriter.open();
+        snapshotWriter.write(fileSystem);
+        snapshotWriter.close();
+
+        SnapshotReader snapshotReader = new SnapshotReader(filePath);
+        return snapshotReader.read();
+    }
+
+    // EFFECTS: creates a files, folders and labels in file system, some of which are nested
+    private void createRegularFileSystem(FileSystem fileSystem) {
+        try {
+            fileSystem.createFile("File", "C:\\");
+
+            fileSystem.createLabel("School");
+            fileSystem.createLabel("Personal Project");
+
+            fileSystem.createFolder("Education");
+            fileSystem.createFolder("Hobbies");
+
+            fileSystem.openFolder("Education");
+            fileSystem.createFile("test", "invalid path");
+            fileSystem.labelFile("test", "School");
+            fileSystem.createFolder("CPSC 210");
+
+            fileSystem.openFolder("CPSC 210");
+            fileSystem.createFile("Personal Project Ideas", "D:\\Users\\User\\Documents\\Personal Project Ideas.txt");
+            fileSystem.labelFile("Personal Project Ideas", "School");
+            fileSystem.labelFile("Personal Project Ideas", "Personal Project");
+            fileSystem.createFile("A", "A, eh");
+            fileSystem.labelFile("A", "School");
+
+            fileSystem.openRootFolder();
+        } catch (NameIsTakenException | NoSuchFolderFoundException | NoSuchFileFoundException
+                | NoSuchLabelFoundException e) {
+            fail();
+        }
+    }
+
+    // EFFECTS: confirms that fileSystem is the file system made by createRegularFileSystem
+    private void testIsRegularFileSystem(FileSystem fileSystem) {
+        assertEquals("root", fileSystem.getCurrentFolderName());
+        assertEquals(List.of("File"), fileSystem.getNamesOfSubfiles());
+        assertEquals(Set.of("Education", "Hobbies"), new HashSet<String>(fileSystem.getNamesOfSubfolders()));
+        assertEquals(2, fileSystem.getNumLabels());
+        assertTrue(fileSystem.getNamesOfRecentlyOpenedFiles().isEmpty());
+        assertEquals(List.of("CPSC 210", "Education"), fileSystem.getNamesOfRecentlyOpenedFolders());
+        assertTrue(fileSystem.getNamesOfRecentlyOpenedLabels().isEmpty());
+
+        try {
+            assertEquals("C:\\", fileSystem.getFilePath("File"));
+            fileSystem.openFolder("Education");
+            assertEquals(List.of("CPSC 210"), fileSystem.getNamesOfSubfolders());
+            assertTrue(fileSystem.fileLabelled("test", "School"));
+            fileSystem.openFolder("CPSC 210");
+            assertTrue(fileSystem.fileLabelled("Personal Project Ideas", "School"));
+            assertTrue(fileSystem.fileLabelled("Personal Project Ideas", "Personal Project"));
+            assertEquals("D:\\Users\\User\\Documents\\Personal Project Ideas.txt",
+                    fileSystem.getFilePath("Personal Project Ideas"));
+            assertEquals(1, fileSystem.getNumLabelsOnFile("A"));
+        } catch (NoSuchFileFoundException | NoSuchLabelFoundException | NoSuchFolderFoundException e) {
+            fail();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package persistence.jfr;
+
+import model.FileSystem;
+import model.exceptions.NameIsTakenException;
+import model.exceptions.NoSuchFileFoundException;
+import model.exceptions.NoSuchFolderFoundException;
+import model.exceptions.NoSuchLabelFoundException;
+import persistence.JsonReader;
+import persistence.exceptions.InvalidJsonException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class TestPersistenceEvents {
+    private static final String RECORDING_PATH = "data\\test\\testPersistenceEvents.jfr";
+
+    @Test
+    @SuppressWarnings("methodlength")
+    void testJsonRoundTrip() {
+        String filePath = "data\\test\\testPersistenceEventsSave.json";
+        List<RecordedEvent> events = record(() -> {
+            createFileSystem().manuallySave(filePath);
+            new JsonReader(filePath).read();
+        });
+        long fileSize = new java.io.File(filePath).length();
+
+        List<RecordedEvent> writes = getEvents(events, "pine.JsonWrite");
+        assertEquals(1, writes.size());
+        assertEquals(filePath, writes.get(0).getString("filePath"));
+        assertFalse(writes.get(0).getBoolean("compact"));
+        assertEquals(fileSize, writes.get(0).getLong("bytesWritten"));
+
+        List<RecordedEvent> commits = getEvents(events, "pine.AtomicFileCommit");
+        assertEquals(1, commits.size());
+        assertTrue(commits.get(0).getString("filePath").endsWith("testPersistenceEventsSave.json"));
+        assertEquals(fileSize, commits.get(0).getLong("bytesWritten"));
+
+        List<RecordedEvent> reads = getEvents(events, "pine.JsonRead");
+        assertEquals(List.of(JsonReadEvent.PHASE_PARSE, JsonReadEvent.PHASE_RESTORE),
+                reads.stream().map(event -> event.getString("phase")).collect(Collectors.toList()));
+        for (RecordedEvent read : reads) {
+            assertEquals(filePath, read.getString("filePath"));
+            assertEquals(fileSize, read.getLong("fileSize"));
+            assertEquals(2, read.getInt("folderCount"));
+            assertEquals(3, read.getInt("fileCount"));
+            assertEquals(2, read.getInt("labelCount"));
+        }
+    }
+
+    @Test
+    void testReadFolder() {
+        String directoryPath = "data\\test\\testPersistenceEventsShards";
+        List<RecordedEvent> events = record(() -> {
+            createFileSystem().saveShards(directoryPath);
+            FileSystem fileSystem = FileSystem.loadShards(directoryPath);
+            fileSystem.openFolder("School");
+            fileSystem.getNamesOfSubfiles();
+        });
+
+        List<RecordedEvent> folderReads = getEvents(events, "pine.JsonRead").stream()
+                .filter(event -> event.getString("phase").equals(JsonReadEvent.PHASE_FOLDER))
+                .collect(Collectors.toList());
+        assertEquals(1, folderReads.size());
+        assertEquals(1, folderReads.get(0).getInt("folderCount"));
+        assertEquals(2, folderReads.get(0).getInt("fileCount"));
+        assertFalse(getEvents(events, "pine.AtomicFileCommit").isEmpty());
+    }
+
+
+    // Helper Methods:
+
+    // Represents something done while recording that may throw any of the exceptions saving and loading throw
+    private interface Workload {
+        void run() throws IOException, InvalidJsonException, NameIsTakenException, NoSuchFileFoundException,
+                NoSuchFolderFoundException, NoSuchLabelFoundException;
+    }
+
+    // EFFECTS: returns a file system with a Folder named "School" that has a Folder and two Files in it, a File in
+    // the root Folder, and two Labels
+    private FileSystem createFileSystem() throws NameIsTakenException, NoSuchFileFoundException,
+            NoSuchFolderFoundException, NoSuchLabelFoundException {
+        FileSystem fileSystem = new FileSystem();
+        fileSystem.createLabel("Urgent");
+        fileSystem.createLabel("Later");
+        fileSystem.createFile("Plan", "C:\\Plan.txt");
+        fileSystem.createFolder("School");
+        fileSystem.openFolder("School");
+        fileSystem.createFolder("Math");
+        fileSystem.createFile("Essay", "C:\\Essay.txt");
+        fileSystem.createFile("Notes", "C:\\Notes.txt");
+        fileSystem.labelFile("Essay", "Urgent");
+        fileSystem.openRootFolder();
+        return fileSystem;
+    }
+
+    // EFFECTS: runs workload while recording with the default settings (under which every event in this package is
+    // enabled) and returns the events from this package that were recorded
+    private List<RecordedEvent> record(Workload workload) {
+        Path file = Paths.get(RECORDING_PATH);
+        try (Recording recording = new Recording()) {
+            recording.start();
+            workload.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().startsWith("pine."))
+                    .collect(Collectors.toList());
+        } catch (IOException | InvalidJsonException | NameIsTakenException | NoSuchFileFoundException
+                | NoSuchFolderFoundException | NoSuchLabelFoundException e) {
+            fail();
+            return null;
+        }
+    }
+
+    // EFFECTS: returns the events named name in events, in the order they were recorded
+    private List<RecordedEvent> getEvents(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+                .collect(Collectors.toList());
+    }
+}